@@ -2,12 +2,16 @@ package com.crowdserve;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Main entry point for the CrowdServe application.
  * A localized, real-time crowdsourcing platform.
+ * The {@code crowdserve.*} settings records in the config package are bound by
+ * the properties scan.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class CrowdServeApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,82 @@
+package com.crowdserve.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+
+/**
+ * Moves each entity's id sequence past the ids already in its table.
+ *
+ * Entities take their ids from pooled sequences (allocationSize 50), which lets
+ * Hibernate batch inserts. Databases created while ids were IDENTITY columns
+ * already hold rows when the schema update first creates those sequences at 1,
+ * so new ids would collide with old ones. Before the application serves requests
+ * this checks every sequence against {@code max(id)} of its table and, if it is
+ * behind, restarts it just past that value with portable
+ * {@code ALTER SEQUENCE ... RESTART WITH} (H2 and PostgreSQL).
+ *
+ * Each check draws one value from the sequence, so a restart skips at most one
+ * block of ids per entity.
+ */
+@Component
+public class IdSequenceAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAligner(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Aligns the sequence of every entity whose id uses a {@link SequenceGenerator}.
+     */
+    @PostConstruct
+    public void alignAll() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Class<?> type = entity.getJavaType();
+            Table table = type.getAnnotation(Table.class);
+            for (Field field : type.getDeclaredFields()) {
+                SequenceGenerator generator = field.getAnnotation(SequenceGenerator.class);
+                if (table != null && generator != null && field.isAnnotationPresent(Id.class)) {
+                    align(dialect, table.name(), field.getName(), generator.sequenceName(), generator.allocationSize());
+                }
+            }
+        }
+    }
+
+    /**
+     * Restarts one sequence if the next block Hibernate would take from it could contain an existing id.
+     *
+     * @return true if the sequence was restarted
+     */
+    boolean align(Dialect dialect, String table, String idColumn, String sequence, int allocationSize) {
+        long maxId = jdbcTemplate.queryForObject("select coalesce(max(" + idColumn + "), 0) from " + table, Long.class);
+        long value = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+
+        // Hibernate's pooled optimizer hands out (v - allocationSize, v] for a sequence value v,
+        // so after drawing "value" the next block starts at value + 1
+        if (value >= maxId) {
+            return false;
+        }
+        long restartWith = maxId + allocationSize;
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + restartWith);
+        logger.info("Restarted sequence {} at {} to follow existing {} ids up to {}", sequence, restartWith, table, maxId);
+        return true;
+    }
+}
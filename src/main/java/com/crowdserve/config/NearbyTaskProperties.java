@@ -0,0 +1,27 @@
+package com.crowdserve.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Nearby task notification settings, bound from {@code crowdserve.notifications.nearby.*}.
+ *
+ * @param maxRadiusKm the largest area a user may watch, as a radius
+ * @param maxAreasPerUser how many areas one user may watch
+ * @param cellDegrees the cell size of the subscription index; an area is entered in every cell it overlaps
+ * @param writeLimit the most watchers a new task is written to as notifications; a task with more
+ *                   is recorded once and matched against each watcher's areas when they read
+ * @param writeChunk how many notifications one transaction writes
+ * @param readWindow how long a task recorded for reading stays on watchers' notifications pages
+ */
+@ConfigurationProperties("crowdserve.notifications.nearby")
+public record NearbyTaskProperties(
+    @DefaultValue("25") double maxRadiusKm,
+    @DefaultValue("5") int maxAreasPerUser,
+    @DefaultValue("0.1") double cellDegrees,
+    @DefaultValue("1000") int writeLimit,
+    @DefaultValue("500") int writeChunk,
+    @DefaultValue("7d") Duration readWindow) {
+}
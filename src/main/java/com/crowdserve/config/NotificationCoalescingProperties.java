@@ -0,0 +1,21 @@
+package com.crowdserve.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Notification coalescing settings, bound from {@code crowdserve.notifications.coalescing.*}.
+ *
+ * @param enabled whether notifications of the same kind are merged; when off, each is written as it comes
+ * @param window how long after a notification others of its kind for the same user are held back and
+ *               merged into one entry
+ * @param digestInterval how often users who opted into the digest get one entry for everything held for them
+ */
+@ConfigurationProperties("crowdserve.notifications.coalescing")
+public record NotificationCoalescingProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("1m") Duration window,
+    @DefaultValue("1h") Duration digestInterval) {
+}
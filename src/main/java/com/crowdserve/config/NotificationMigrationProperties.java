@@ -0,0 +1,21 @@
+package com.crowdserve.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the migration of stored notification text to templates, bound from
+ * {@code crowdserve.notifications.migration.*}.
+ *
+ * @param enabled whether existing task notifications are converted in the background after startup
+ * @param chunkSize how many rows one transaction examines
+ * @param pause the wait between two chunks, leaving the database to other work
+ */
+@ConfigurationProperties("crowdserve.notifications.migration")
+public record NotificationMigrationProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("1000") int chunkSize,
+    @DefaultValue("50ms") Duration pause) {
+}
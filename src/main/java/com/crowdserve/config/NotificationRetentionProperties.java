@@ -0,0 +1,26 @@
+package com.crowdserve.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Notification retention settings, bound from {@code crowdserve.notifications.retention.*}.
+ *
+ * @param enabled whether the retention job runs on its schedule
+ * @param interval the time between the end of one run and the start of the next
+ * @param archiveReadAfter how old a read notification gets before it moves to the archive
+ * @param purgeAfter how old a notification, read or not, archived or not, gets before it is deleted
+ * @param chunkSize how many rows one transaction moves or deletes
+ * @param pause the wait between two chunks, leaving the database to other work
+ */
+@ConfigurationProperties("crowdserve.notifications.retention")
+public record NotificationRetentionProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("1h") Duration interval,
+    @DefaultValue("30d") Duration archiveReadAfter,
+    @DefaultValue("365d") Duration purgeAfter,
+    @DefaultValue("1000") int chunkSize,
+    @DefaultValue("100ms") Duration pause) {
+}
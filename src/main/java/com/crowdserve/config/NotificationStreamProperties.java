@@ -0,0 +1,39 @@
+package com.crowdserve.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Live notification stream settings, bound from {@code crowdserve.notifications.stream.*}.
+ *
+ * @param timeout how long one stream stays open before the browser is made to reconnect
+ * @param heartbeat how often an idle stream gets a comment line, which keeps proxies from
+ *                  closing it and detects clients that went away
+ * @param reconnectDelay how long the browser waits before reconnecting a dropped stream
+ * @param bufferSize how many events may wait to be written to one connection; a connection
+ *                   that falls further behind is closed and catches up by replay on reconnect
+ * @param maxConnectionsPerUser how many streams one user may hold open; the oldest is closed beyond that
+ * @param replayLimit how many missed notifications a reconnect replays; with more the page is reloaded instead
+ * @param replayOverlap how far before the last notification the client has a reconnect starts replaying,
+ *                      to catch notifications with lower ids that committed after it; the client skips
+ *                      the ones it already has
+ * @param senderThreads the threads writing events to connections
+ * @param writeTimeout how long one write to a connection may take; a connection whose write takes
+ *                     longer is closed, and a new sender thread stands in while the write stays blocked
+ * @param maxStalledWrites how many blocked writes get a stand-in sender thread at the same time
+ */
+@ConfigurationProperties("crowdserve.notifications.stream")
+public record NotificationStreamProperties(
+    @DefaultValue("30m") Duration timeout,
+    @DefaultValue("15s") Duration heartbeat,
+    @DefaultValue("5s") Duration reconnectDelay,
+    @DefaultValue("64") int bufferSize,
+    @DefaultValue("5") int maxConnectionsPerUser,
+    @DefaultValue("100") int replayLimit,
+    @DefaultValue("30s") Duration replayOverlap,
+    @DefaultValue("2") int senderThreads,
+    @DefaultValue("10s") Duration writeTimeout,
+    @DefaultValue("50") int maxStalledWrites) {
+}
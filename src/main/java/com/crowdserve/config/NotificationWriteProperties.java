@@ -0,0 +1,36 @@
+package com.crowdserve.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Batched notification write settings, bound from {@code crowdserve.notifications.write.*}.
+ *
+ * @param mode {@code flush-on-commit} writes a notification with the transaction that creates it,
+ *             or, outside one, returns once the batch holding it has committed; {@code async}
+ *             returns at once and writes it with a later batch
+ * @param maxBatch the most notifications written in one batch
+ * @param linger how long a batch waits for more notifications before it is written
+ * @param queueCapacity how many writes may wait for a batch; beyond that callers wait up to {@code timeout},
+ *                      and {@code async} writes queued after a commit are dropped
+ * @param timeout how long a caller waits for room in the queue and, in {@code flush-on-commit} mode,
+ *                for its batch to commit
+ */
+@ConfigurationProperties("crowdserve.notifications.write")
+public record NotificationWriteProperties(
+    @DefaultValue("flush-on-commit") Mode mode,
+    @DefaultValue("500") int maxBatch,
+    @DefaultValue("5ms") Duration linger,
+    @DefaultValue("10000") int queueCapacity,
+    @DefaultValue("5s") Duration timeout) {
+
+    /**
+     * When a write counts as done.
+     */
+    public enum Mode {
+        FLUSH_ON_COMMIT,
+        ASYNC
+    }
+}
@@ -0,0 +1,96 @@
+package com.crowdserve.config;
+
+import com.crowdserve.security.BCryptWorkFactor;
+import com.crowdserve.security.OffloadingPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password hashing: BCrypt at a work factor calibrated at startup, run on a
+ * bounded executor of its own.
+ *
+ * New hashes are stored with a {@code {bcrypt}} prefix through a
+ * {@link DelegatingPasswordEncoder}. Hashes stored before the prefix was
+ * introduced are still checked as BCrypt, and the login provider rehashes any
+ * password whose stored hash has no prefix or a lower work factor than the
+ * calibrated one, the next time its owner logs in.
+ *
+ * Every queued request holds a request thread until its hash is done, so the queue
+ * must drain within the timeout and leave most request threads to everything else;
+ * a warning is logged at startup when it does not. The executor reports its queue
+ * depth and activity as {@code executor.*} metrics named {@code password.hashing}.
+ */
+@Configuration
+public class PasswordHashingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingConfig.class);
+
+    private static final String BCRYPT_ID = "bcrypt";
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor(PasswordHashingProperties properties, MeterRegistry meterRegistry,
+                                                      @Value("${server.tomcat.threads.max:200}") int requestThreads) {
+        checkQueueSize(properties, requestThreads);
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.threads(), properties.threads(),
+            0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.queueCapacity()), runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Warns when waiting hashes could hold request threads past the timeout, or hold most of them.
+     */
+    private static void checkQueueSize(PasswordHashingProperties properties, int requestThreads) {
+        long drainMillis = properties.queueCapacity() * properties.targetHashTime().toMillis()
+            / Math.max(1, properties.threads());
+        if (drainMillis > properties.timeout().toMillis()) {
+            logger.warn("Password hashing queue of {} takes about {} ms to drain, longer than the {} ms timeout; "
+                    + "lower crowdserve.password.queue-capacity to about {}", properties.queueCapacity(), drainMillis,
+                properties.timeout().toMillis(),
+                properties.threads() * properties.timeout().toMillis() / Math.max(1, properties.targetHashTime().toMillis()));
+        }
+        if (properties.threads() + properties.queueCapacity() > requestThreads / 2) {
+            logger.warn("Password hashing may hold {} of the {} request threads; lower crowdserve.password.queue-capacity",
+                properties.threads() + properties.queueCapacity(), requestThreads);
+        }
+    }
+
+    /**
+     * Provides the password encoder used for registration and login.
+     *
+     * @return a BCrypt encoder at the calibrated work factor that runs on the hashing executor
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties properties, ThreadPoolExecutor passwordHashingExecutor,
+                                           MeterRegistry meterRegistry) {
+        int strength = BCryptWorkFactor.calibrate(properties.targetHashTime(), properties.minStrength(), properties.maxStrength());
+        logger.info("Hashing passwords with BCrypt work factor {} (target {} ms per hash)",
+            strength, properties.targetHashTime().toMillis());
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID,
+            Map.of(BCRYPT_ID, new BCryptPasswordEncoder(strength)));
+        // Hashes written before the {bcrypt} prefix are plain BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return new OffloadingPasswordEncoder(encoder, passwordHashingExecutor, properties.timeout(), meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.crowdserve.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Password hashing settings, bound from {@code crowdserve.password.*}.
+ *
+ * @param threads the threads that hash and check passwords; at most this many BCrypt runs at once
+ * @param queueCapacity how many hashing requests may wait for a thread before new ones are refused; each
+ *                      one holds a request thread while it waits, so keep it small enough to drain within
+ *                      {@code timeout} (about threads x timeout / target-hash-time) and well below the
+ *                      request thread pool
+ * @param timeout how long a request waits for its hash, queueing included, before giving up
+ * @param targetHashTime the time one hash should take; the BCrypt work factor is calibrated to it at startup
+ * @param minStrength the lowest BCrypt work factor calibration may choose
+ * @param maxStrength the highest BCrypt work factor calibration may choose
+ */
+@ConfigurationProperties("crowdserve.password")
+public record PasswordHashingProperties(
+    @DefaultValue("2") int threads,
+    @DefaultValue("80") int queueCapacity,
+    @DefaultValue("10s") Duration timeout,
+    @DefaultValue("250ms") Duration targetHashTime,
+    @DefaultValue("10") int minStrength,
+    @DefaultValue("14") int maxStrength) {
+}
@@ -0,0 +1,29 @@
+package com.crowdserve.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.TaskUtils;
+
+/**
+ * Background schedules: the one scheduler that runs the periodic work of the
+ * notification, feed and retention components.
+ *
+ * Sized and named by {@code spring.task.scheduling.*}. A run that throws is logged
+ * and the schedule carries on; on shutdown the scheduler waits up to
+ * {@code spring.task.scheduling.shutdown.await-termination-period} for runs in
+ * progress. The components only schedule their work and cancel it when destroyed.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        ThreadPoolTaskScheduler scheduler = builder.build();
+        scheduler.setErrorHandler(TaskUtils.LOG_AND_SUPPRESS_ERROR_HANDLER);
+        return scheduler;
+    }
+}
@@ -0,0 +1,80 @@
+package com.crowdserve.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache backed by Caffeine through JCache.
+ *
+ * The cache manager is built here rather than from a Caffeine config file, with
+ * one cache per region sized and expired as configured in
+ * {@link SecondLevelCacheProperties}, and handed to Hibernate as an instance.
+ * Hibernate is set to fail on a region that has no cache, so an entity marked
+ * cacheable without a configured region stops the application at startup
+ * instead of silently getting an unbounded cache.
+ *
+ * Unlike the other settings records, the properties are enabled here as well as
+ * by the application's properties scan: the JPA test slices import this
+ * configuration on its own, without the scan.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    /**
+     * Region holding the results of cacheable queries.
+     */
+    public static final String QUERY_RESULTS_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+
+    /**
+     * Region holding the last time each table changed, which decides whether a cached query result is stale.
+     */
+    public static final String UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        // A manager of its own per application context, so test contexts never share or close each other's caches
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("crowdserve-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        properties.regions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = unbounded();
+            configuration.setMaximumSize(OptionalLong.of(region.maxSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(region.ttl().toNanos()));
+            cacheManager.createCache(name, configuration);
+        });
+
+        // Expiring or evicting a timestamp would let a stale query result be served
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, unbounded());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Entries are kept by reference: Hibernate already stores disassembled copies, so copying them again buys nothing.
+     */
+    private static CaffeineConfiguration<Object, Object> unbounded() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+}
@@ -0,0 +1,60 @@
+package com.crowdserve.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Actuator endpoint for the Hibernate second-level cache.
+ * GET /actuator/l2cache reports hits, misses, puts and the hit ratio of every
+ * cache region since startup, and of the query cache as a whole.
+ */
+@Component
+@Endpoint(id = "l2cache")
+public class SecondLevelCacheEndpoint {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @ReadOperation
+    public CacheReport report() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, RegionReport> regions = new TreeMap<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.put(name, RegionReport.of(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        }
+        RegionReport queries = RegionReport.of(statistics.getQueryCacheHitCount(),
+            statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount());
+        return new CacheReport(statistics.isStatisticsEnabled(), regions, queries);
+    }
+
+    /**
+     * Cache statistics since startup; all zero when Hibernate statistics are disabled.
+     */
+    public record CacheReport(boolean statisticsEnabled, Map<String, RegionReport> regions, RegionReport queryCache) {
+    }
+
+    /**
+     * Lookups in one region. {@code hitRatio} is hits over lookups, or 0 before the first lookup.
+     */
+    public record RegionReport(long hits, long misses, long puts, double hitRatio) {
+
+        static RegionReport of(long hits, long misses, long puts) {
+            long lookups = hits + misses;
+            return new RegionReport(hits, misses, puts, lookups == 0 ? 0.0 : (double) hits / lookups);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.crowdserve.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Size and time-to-live of each Hibernate second-level cache region, bound from
+ * {@code crowdserve.cache.regions.<region>.ttl} and {@code .max-size}.
+ *
+ * Every region Hibernate uses must be listed here, except the update-timestamps
+ * region, which is always created without limits.
+ */
+@ConfigurationProperties("crowdserve.cache")
+public record SecondLevelCacheProperties(Map<String, Region> regions) {
+
+    /**
+     * Limits of one cache region.
+     *
+     * @param ttl how long an entry is kept after it was written
+     * @param maxSize the most entries the region holds before evicting the least useful ones
+     */
+    public record Region(Duration ttl, long maxSize) {
+    }
+}
@@ -1,29 +1,58 @@
 package com.crowdserve.config;
 
+import com.crowdserve.security.LoginUserCache;
+import com.crowdserve.security.SignedTokenCodec;
+import com.crowdserve.security.SignedTokenRenewalFilter;
+import com.crowdserve.security.SignedTokenSecurityContextRepository;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+
+import java.time.Clock;
 
 /**
  * Security configuration for the CrowdServe application.
- * Configures authentication, authorization, and password encoding.
+ * Configures authentication and authorization; password encoding is set up in
+ * {@link PasswordHashingConfig}.
+ * Logins live in the HTTP session unless stateless token sessions are enabled
+ * with {@code crowdserve.security.token-session.enabled}.
  */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     /**
-     * Provides a BCrypt password encoder for secure password hashing.
+     * Authenticates form logins against the users table, keeping recently loaded
+     * users in the login cache so repeated logins skip the user query. A password
+     * whose stored hash is outdated is rehashed and saved on successful login.
      *
-     * @return BCryptPasswordEncoder instance
+     * @param userDetailsService looks up a user by username or email
+     * @param userDetailsPasswordService saves a rehashed password
+     * @param passwordEncoder checks the submitted password against the stored hash
+     * @param loginUserCache the cache of recently authenticated users
+     * @return the DaoAuthenticationProvider used by the login form
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public DaoAuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                            UserDetailsPasswordService userDetailsPasswordService,
+                                                            PasswordEncoder passwordEncoder,
+                                                            LoginUserCache loginUserCache) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder);
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
+        provider.setUserCache(loginUserCache);
+        return provider;
     }
 
     /**
@@ -31,11 +60,16 @@ public class SecurityConfig {
      * Defines which endpoints are publicly accessible and which require authentication.
      *
      * @param http the HttpSecurity to configure
+     * @param tokenSession whether and how logins are kept in a signed cookie instead of a session
+     * @param userDetailsService looks up the password hash a token's credential version is checked against
+     * @param loginUserCache the cache of recently authenticated users
      * @return the configured SecurityFilterChain
      * @throws Exception if an error occurs during configuration
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenSessionProperties tokenSession,
+                                                   UserDetailsService userDetailsService,
+                                                   LoginUserCache loginUserCache) throws Exception {
         http
             // Disable CSRF for H2 console (only for development)
             .csrf(csrf -> csrf
@@ -67,6 +101,41 @@ public class SecurityConfig {
                 .permitAll()
             );
 
+        if (tokenSession.enabled()) {
+            configureTokenSessions(http, tokenSession, userDetailsService, loginUserCache);
+        }
         return http.build();
     }
+
+    /**
+     * Replaces the HTTP session with a signed token cookie: the login, the CSRF token
+     * and the login error all live in cookies or the URL, so no node keeps state for a
+     * user and any node can serve any request.
+     *
+     * @param http the HttpSecurity to configure
+     * @param tokenSession the cookie name, token lifetimes and signing keys
+     * @param userDetailsService looks up the password hash a token's credential version is checked against
+     * @param loginUserCache the cache of recently authenticated users
+     * @throws Exception if an error occurs during configuration
+     */
+    private void configureTokenSessions(HttpSecurity http, TokenSessionProperties tokenSession,
+                                        UserDetailsService userDetailsService,
+                                        LoginUserCache loginUserCache) throws Exception {
+        SignedTokenCodec codec = new SignedTokenCodec(tokenSession.keys(), tokenSession.activeKey(),
+            tokenSession.ttl(), tokenSession.maxSessionAge(), Clock.systemUTC());
+        SignedTokenSecurityContextRepository repository = new SignedTokenSecurityContextRepository(
+            codec, tokenSession.cookieName(), userDetailsService, loginUserCache);
+
+        SimpleUrlAuthenticationFailureHandler failureHandler = new SimpleUrlAuthenticationFailureHandler("/login?error");
+        failureHandler.setAllowSessionCreation(false);
+
+        http
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .securityContext(context -> context.securityContextRepository(repository))
+            .csrf(csrf -> csrf.csrfTokenRepository(new CookieCsrfTokenRepository()))
+            // Every login lands on /tasks, so there is no saved request to return to
+            .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+            .formLogin(form -> form.failureHandler(failureHandler))
+            .addFilterAfter(new SignedTokenRenewalFilter(repository), SecurityContextHolderFilter.class);
+    }
 }
@@ -0,0 +1,38 @@
+package com.crowdserve.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Task event dispatch: the executor that delivers task lifecycle events to
+ * asynchronous observers.
+ *
+ * The executor's own queue needs no bound: each observer has at most one delivery
+ * task queued or running at a time, and the bounded queues are the observers'
+ * own, inside TaskEventBus. It reports its activity as {@code executor.*} metrics
+ * named {@code task.events}.
+ */
+@Configuration
+public class TaskEventConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor taskEventExecutor(TaskEventProperties properties, MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.threads(), properties.threads(),
+            0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "task-events-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        new ExecutorServiceMetrics(executor, "task.events", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+}
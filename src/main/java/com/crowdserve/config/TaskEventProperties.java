@@ -0,0 +1,36 @@
+package com.crowdserve.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Task event dispatch settings, bound from {@code crowdserve.task-events.*}.
+ *
+ * @param threads the threads delivering events to asynchronous observers
+ * @param queueCapacity how many events may wait for one asynchronous observer
+ * @param overflow what publishing does when an observer's queue is full: {@code block}
+ *                 waits up to {@code offerTimeout} for room, {@code drop} gives up at once;
+ *                 an event that does not fit is dead-lettered
+ * @param offerTimeout how long publishing waits for room under the {@code block} policy
+ * @param maxAttempts how many times a failing observer is called with one event before it is dead-lettered
+ * @param retryBackoff the wait before the first retry, doubled for each one after it
+ */
+@ConfigurationProperties("crowdserve.task-events")
+public record TaskEventProperties(
+    @DefaultValue("4") int threads,
+    @DefaultValue("1000") int queueCapacity,
+    @DefaultValue("block") Overflow overflow,
+    @DefaultValue("2s") Duration offerTimeout,
+    @DefaultValue("3") int maxAttempts,
+    @DefaultValue("200ms") Duration retryBackoff) {
+
+    /**
+     * What to do with an event for an observer whose queue is full.
+     */
+    public enum Overflow {
+        BLOCK,
+        DROP
+    }
+}
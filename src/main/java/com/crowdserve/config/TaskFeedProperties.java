@@ -0,0 +1,28 @@
+package com.crowdserve.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Live dashboard feed settings, bound from {@code crowdserve.task-feed.*}.
+ *
+ * @param tick how often pending task changes are sent; changes to one task within a tick
+ *             are coalesced into the latest
+ * @param sendTimeLimit how long a send to one connection may take before it is closed
+ * @param bufferSizeLimit how much may wait to be sent to one connection before it is closed
+ * @param maxRadiusKm the largest region a connection may subscribe to
+ * @param senderThreads the threads writing messages to connections
+ * @param maxStalledSends how many blocked sends get a stand-in sender thread at the same time
+ */
+@ConfigurationProperties("crowdserve.task-feed")
+public record TaskFeedProperties(
+    @DefaultValue("100ms") Duration tick,
+    @DefaultValue("5s") Duration sendTimeLimit,
+    @DefaultValue("512KB") DataSize bufferSizeLimit,
+    @DefaultValue("200") double maxRadiusKm,
+    @DefaultValue("4") int senderThreads,
+    @DefaultValue("50") int maxStalledSends) {
+}
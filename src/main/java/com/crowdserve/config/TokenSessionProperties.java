@@ -0,0 +1,32 @@
+package com.crowdserve.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Stateless login sessions, bound from {@code crowdserve.security.token-session.*}.
+ *
+ * Off by default. When enabled, a login is kept in a signed cookie instead of an
+ * HTTP session, so every node that shares the keys can serve every request.
+ *
+ * @param enabled whether logins are kept in a signed cookie instead of an HTTP session
+ * @param cookieName the name of the cookie holding the token
+ * @param ttl how long a token is valid; tokens are renewed once half of it has passed
+ * @param maxSessionAge how long after a login its tokens stop being renewed and accepted,
+ *                      however active the user is
+ * @param activeKey the id of the key new tokens are signed with
+ * @param keys every key a token may be signed with, by id, as Base64 secrets of at least 32 bytes;
+ *             keep a retired key here for one ttl after rotating so its tokens are renewed, not rejected
+ */
+@ConfigurationProperties("crowdserve.security.token-session")
+public record TokenSessionProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("CROWDSERVE_SESSION") String cookieName,
+    @DefaultValue("30m") Duration ttl,
+    @DefaultValue("12h") Duration maxSessionAge,
+    String activeKey,
+    Map<String, String> keys) {
+}
@@ -0,0 +1,20 @@
+package com.crowdserve.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * In-memory unread notification counter settings, bound from {@code crowdserve.notifications.unread.*}.
+ *
+ * @param reconcileInterval how often the counters read since the last check are checked against the database
+ * @param idleTimeout how long a user's count is kept after it was last read; it is loaded again when next needed
+ * @param stripes how many independently locked parts the counters are split into; rounded up to a power of two
+ */
+@ConfigurationProperties("crowdserve.notifications.unread")
+public record UnreadCountProperties(
+    @DefaultValue("5m") Duration reconcileInterval,
+    @DefaultValue("30m") Duration idleTimeout,
+    @DefaultValue("16") int stripes) {
+}
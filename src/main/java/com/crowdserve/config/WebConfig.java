@@ -0,0 +1,28 @@
+package com.crowdserve.config;
+
+import com.crowdserve.security.CurrentUserArgumentResolver;
+import com.crowdserve.security.CurrentUserCache;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Spring MVC configuration.
+ * Registers the resolver that hands controllers the logged-in user through {@code @CurrentUser}.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CurrentUserCache currentUserCache;
+
+    public WebConfig(CurrentUserCache currentUserCache) {
+        this.currentUserCache = currentUserCache;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver(currentUserCache));
+    }
+}
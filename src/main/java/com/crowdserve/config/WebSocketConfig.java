@@ -0,0 +1,28 @@
+package com.crowdserve.config;
+
+import com.crowdserve.service.feed.TaskFeedWebSocketHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * WebSocket configuration.
+ * Registers the live dashboard feed at {@code /ws/tasks}; the handshake is an ordinary
+ * request, so it goes through the security filter chain and needs a login.
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final TaskFeedWebSocketHandler taskFeedWebSocketHandler;
+
+    public WebSocketConfig(TaskFeedWebSocketHandler taskFeedWebSocketHandler) {
+        this.taskFeedWebSocketHandler = taskFeedWebSocketHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(taskFeedWebSocketHandler, "/ws/tasks");
+    }
+}
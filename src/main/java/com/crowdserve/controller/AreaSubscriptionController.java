@@ -0,0 +1,63 @@
+package com.crowdserve.controller;
+
+import com.crowdserve.model.User;
+import com.crowdserve.security.CurrentUser;
+import com.crowdserve.service.AreaSubscriptionService;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+/**
+ * Controller for the areas a worker watches for new tasks (/notifications/areas).
+ * Both actions are plain form posts from the notifications page and redirect back to it.
+ */
+@Controller
+@RequestMapping("/notifications/areas")
+public class AreaSubscriptionController {
+
+    private final AreaSubscriptionService areaSubscriptionService;
+
+    public AreaSubscriptionController(AreaSubscriptionService areaSubscriptionService) {
+        this.areaSubscriptionService = areaSubscriptionService;
+    }
+
+    /**
+     * Start watching the area around a point.
+     */
+    @PostMapping
+    public String subscribe(@RequestParam("latitude") double latitude,
+                            @RequestParam("longitude") double longitude,
+                            @RequestParam("radiusKm") double radiusKm,
+                            @CurrentUser User user,
+                            RedirectAttributes redirectAttributes) {
+        if (user == null) {
+            return "redirect:/login";
+        }
+        try {
+            areaSubscriptionService.subscribe(user, latitude, longitude, radiusKm);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            redirectAttributes.addFlashAttribute("areaError", e.getMessage());
+        }
+        return "redirect:/notifications";
+    }
+
+    /**
+     * Stop watching one of the current user's areas.
+     */
+    @PostMapping("/{id}/delete")
+    public String unsubscribe(@PathVariable("id") Long id, @CurrentUser User user,
+                              RedirectAttributes redirectAttributes) {
+        if (user == null) {
+            return "redirect:/login";
+        }
+        try {
+            areaSubscriptionService.unsubscribe(user, id);
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("areaError", e.getMessage());
+        }
+        return "redirect:/notifications";
+    }
+}
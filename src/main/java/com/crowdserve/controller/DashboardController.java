@@ -1,16 +1,20 @@
 package com.crowdserve.controller;
 
+import com.crowdserve.dto.NearbyTaskDto;
+import com.crowdserve.dto.TaskPageDto;
 import com.crowdserve.model.User;
-import com.crowdserve.repository.UserRepository;
+import com.crowdserve.security.CurrentUser;
 import com.crowdserve.service.NotificationService;
 import com.crowdserve.service.TaskService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
-import java.security.Principal;
-import java.util.Optional;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for handling dashboard and task-related pages.
@@ -19,22 +23,55 @@ import java.util.Optional;
 @RequestMapping("/dashboard")
 public class DashboardController {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final double DEFAULT_RADIUS_KM = 10.0;
+
     private final TaskService taskService;
     private final NotificationService notificationService;
-    private final UserRepository userRepository;
 
-    public DashboardController(TaskService taskService, NotificationService notificationService, UserRepository userRepository) {
+    public DashboardController(TaskService taskService, NotificationService notificationService) {
         this.taskService = taskService;
         this.notificationService = notificationService;
-        this.userRepository = userRepository;
     }
 
     /**
-     * Dashboard page - displays all open tasks
+     * Dashboard page - displays one page of open tasks, newest first.
+     * Older tasks are reached through the "before" cursor of the previous page.
+     * When a location is given, shows the open tasks within the radius instead, nearest first.
      */
     @GetMapping
-    public String dashboard(Principal principal, Model model) {
-        model.addAttribute("tasks", taskService.getAllOpenTasks());
+    public String dashboard(@RequestParam(value = "before", required = false) Long before,
+                            @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                            @RequestParam(value = "lat", required = false) Double lat,
+                            @RequestParam(value = "lon", required = false) Double lon,
+                            @RequestParam(value = "radiusKm", defaultValue = "" + DEFAULT_RADIUS_KM) double radiusKm,
+                            @CurrentUser User user, Model model) {
+        List<NearbyTaskDto> nearby = null;
+        if (lat != null && lon != null) {
+            try {
+                nearby = taskService.findOpenTasksNear(lat, lon, radiusKm, size);
+            } catch (IllegalArgumentException e) {
+                model.addAttribute("nearError", e.getMessage());
+            }
+        }
+
+        if (nearby != null) {
+            Map<Long, Double> distances = new LinkedHashMap<>();
+            nearby.forEach(n -> distances.put(n.task().getId(), n.distanceKm()));
+            model.addAttribute("tasks", nearby.stream().map(NearbyTaskDto::task).toList());
+            model.addAttribute("distances", distances);
+            model.addAttribute("nextCursor", null);
+            model.addAttribute("firstPage", true);
+        } else {
+            TaskPageDto page = taskService.getOpenTasksPage(before, size);
+            model.addAttribute("tasks", page.tasks());
+            model.addAttribute("nextCursor", page.nextCursor());
+            model.addAttribute("firstPage", before == null);
+        }
+        model.addAttribute("feedPath", "/dashboard");
+        model.addAttribute("nearLat", lat);
+        model.addAttribute("nearLon", lon);
+        model.addAttribute("nearRadiusKm", radiusKm);
         
         // Add navbar attributes
         model.addAttribute("activePage", "dashboard");
@@ -42,12 +79,9 @@ public class DashboardController {
         model.addAttribute("pageSubtitle", "Open tasks feed — find work or assign workers");
         
         // Add unread notifications count if user is authenticated
-        if (principal != null) {
-            Optional<User> userOpt = userRepository.findByEmail(principal.getName());
-            if (userOpt.isPresent()) {
-                long unreadCount = notificationService.getUnreadCount(userOpt.get());
-                model.addAttribute("unreadCount", unreadCount);
-            }
+        if (user != null) {
+            long unreadCount = notificationService.getUnreadCount(user);
+            model.addAttribute("unreadCount", unreadCount);
         }
         
         return "dashboard";
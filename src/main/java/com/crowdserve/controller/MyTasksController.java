@@ -1,11 +1,18 @@
 package com.crowdserve.controller;
 
+import com.crowdserve.dto.MyTasksPageDto;
 import com.crowdserve.model.Task;
 import com.crowdserve.model.TaskStatus;
 import com.crowdserve.model.User;
 import com.crowdserve.repository.TaskRepository;
-import com.crowdserve.repository.UserRepository;
+import com.crowdserve.security.CurrentUser;
 import com.crowdserve.service.NotificationService;
+import com.crowdserve.service.TaskService;
+import com.crowdserve.service.facade.TaskWorkflowFacade;
+import com.crowdserve.service.strategy.CompositeTaskFilter;
+import com.crowdserve.service.strategy.LocationTaskFilter;
+import com.crowdserve.service.strategy.RewardRangeTaskFilter;
+import com.crowdserve.service.strategy.TaskFilterStrategy;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,10 +21,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.security.Principal;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Controller for managing user's task tracking page (/my-tasks).
@@ -27,43 +33,40 @@ import java.util.stream.Collectors;
 @RequestMapping("/my-tasks")
 public class MyTasksController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private final TaskRepository taskRepository;
-    private final UserRepository userRepository;
+    private final TaskService taskService;
     private final NotificationService notificationService;
+    private final TaskWorkflowFacade taskWorkflowFacade;
 
-    public MyTasksController(TaskRepository taskRepository, UserRepository userRepository, NotificationService notificationService) {
+    public MyTasksController(TaskRepository taskRepository, TaskService taskService,
+                             NotificationService notificationService, TaskWorkflowFacade taskWorkflowFacade) {
         this.taskRepository = taskRepository;
-        this.userRepository = userRepository;
+        this.taskService = taskService;
         this.notificationService = notificationService;
+        this.taskWorkflowFacade = taskWorkflowFacade;
     }
 
     /**
-     * Display the my-tasks page with both posted and assigned tasks for the logged-in user.
+     * Display one page of the logged-in user's tasks, split into posted and assigned, newest first.
+     * The optional status, reward range and location filters are applied in the query that
+     * loads the page; older tasks are reached through the "before" cursor of the previous page.
+     * The status tabs show how many of the user's tasks are in each status.
      */
     @GetMapping
     public String myTasks(@RequestParam(value = "status", required = false) String status,
-                          Principal principal,
+                          @RequestParam(value = "minReward", required = false) Double minReward,
+                          @RequestParam(value = "maxReward", required = false) Double maxReward,
+                          @RequestParam(value = "location", required = false) String location,
+                          @RequestParam(value = "before", required = false) Long before,
+                          @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                          @CurrentUser User user,
                           Model model) {
-        if (principal == null) {
-            return "redirect:/login";
-        }
-
-        // Resolve the current user using either username or email (depending on how they logged in)
-        String principalName = principal.getName();
-        User user = userRepository.findByUsername(principalName);
-        if (user == null) {
-            user = userRepository.findByEmail(principalName).orElse(null);
-        }
         if (user == null) {
             return "redirect:/login";
         }
 
-        // Fetch tasks where this user is the poster
-        List<Task> postedTasks = taskRepository.findByPoster(user);
-        
-        // Fetch tasks where this user is the assigned worker
-        List<Task> assignedTasks = taskRepository.findByWorker(user);
-
         // Optional status filter applied to both lists
         TaskStatus parsedStatus = null;
         if (status != null && !status.isBlank()) {
@@ -75,18 +78,30 @@ public class MyTasksController {
         }
 
         final TaskStatus filterStatus = parsedStatus;
-        if (filterStatus != null) {
-            postedTasks = postedTasks.stream()
-                .filter(t -> filterStatus.equals(t.getStatus()))
-                .collect(Collectors.toList());
-            assignedTasks = assignedTasks.stream()
-                .filter(t -> filterStatus.equals(t.getStatus()))
-                .collect(Collectors.toList());
-        }
 
-        model.addAttribute("postedTasks", postedTasks);
-        model.addAttribute("assignedTasks", assignedTasks);
+        // Remaining optional filters, shared by both lists and by the status counts
+        CompositeTaskFilter criteria = CompositeTaskFilter.of(
+            minReward != null || maxReward != null ? rewardRange(minReward, maxReward, model) : null,
+            location != null && !location.isBlank() ? new LocationTaskFilter(location) : null
+        );
+
+        // One query for the page of posted and assigned tasks, one for the per-status counts
+        MyTasksPageDto page = taskService.getMyTasksPage(user, filterStatus, criteria, before, size);
+
+        model.addAttribute("postedTasks", page.posted());
+        model.addAttribute("assignedTasks", page.assigned());
+        Map<String, Long> statusCounts = new HashMap<>();
+        page.statusCounts().forEach((taskStatus, count) -> statusCounts.put(taskStatus.name(), count));
+        model.addAttribute("statusCounts", statusCounts);
+        model.addAttribute("totalCount", page.totalCount());
+        model.addAttribute("postedCount", page.postedCount());
+        model.addAttribute("assignedCount", page.assignedCount());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("firstPage", before == null);
         model.addAttribute("filterStatus", filterStatus != null ? filterStatus.name() : "ALL");
+        model.addAttribute("minReward", minReward);
+        model.addAttribute("maxReward", maxReward);
+        model.addAttribute("location", location);
         
         // Add navbar attributes
         model.addAttribute("activePage", "my-tasks");
@@ -100,13 +115,25 @@ public class MyTasksController {
         return "my-tasks";
     }
 
+    /**
+     * Builds the reward range filter, or reports an inverted range on the page and ignores it.
+     */
+    private TaskFilterStrategy rewardRange(Double minReward, Double maxReward, Model model) {
+        try {
+            return new RewardRangeTaskFilter(minReward, maxReward);
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("filterError", e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Cancel a task posted by the current user.
      * Only allows cancellation if the task status is OPEN or ASSIGNED.
      */
     @PostMapping("/{id}/cancel")
-    public String cancelTask(@PathVariable Long id, Principal principal) {
-        if (principal == null) {
+    public String cancelTask(@PathVariable Long id, @CurrentUser User user) {
+        if (user == null) {
             return "redirect:/login";
         }
 
@@ -116,15 +143,6 @@ public class MyTasksController {
         }
 
         Task task = taskOpt.get();
-        // Resolve user by username or email
-        String principalName = principal.getName();
-        User user = userRepository.findByUsername(principalName);
-        if (user == null) {
-            user = userRepository.findByEmail(principalName).orElse(null);
-        }
-        if (user == null) {
-            return "redirect:/login";
-        }
 
         // Verify the logged-in user is the poster of this task
         if (!task.getPoster().getId().equals(user.getId())) {
@@ -133,8 +151,7 @@ public class MyTasksController {
 
         // Only allow cancellation for OPEN or ASSIGNED tasks
         if (task.getStatus().name().equals("OPEN") || task.getStatus().name().equals("ASSIGNED")) {
-            task.setStatus(com.crowdserve.model.TaskStatus.CANCELLED);
-            taskRepository.save(task);
+            taskWorkflowFacade.cancelTask(id, user);
         }
 
         return "redirect:/my-tasks";
@@ -145,8 +162,8 @@ public class MyTasksController {
      * Only allows if the task status is COMPLETED.
      */
     @PostMapping("/{id}/close")
-    public String closeTask(@PathVariable Long id, Principal principal) {
-        if (principal == null) {
+    public String closeTask(@PathVariable Long id, @CurrentUser User user) {
+        if (user == null) {
             return "redirect:/login";
         }
 
@@ -156,15 +173,6 @@ public class MyTasksController {
         }
 
         Task task = taskOpt.get();
-        // Resolve user by username or email
-        String principalName = principal.getName();
-        User user = userRepository.findByUsername(principalName);
-        if (user == null) {
-            user = userRepository.findByEmail(principalName).orElse(null);
-        }
-        if (user == null) {
-            return "redirect:/login";
-        }
 
         // Verify the logged-in user is the poster of this task
         if (!task.getPoster().getId().equals(user.getId())) {
@@ -185,8 +193,8 @@ public class MyTasksController {
      * Mark a task as complete (only for workers assigned to the task).
      */
     @PostMapping("/{id}/complete")
-    public String completeTask(@PathVariable Long id, Principal principal) {
-        if (principal == null) {
+    public String completeTask(@PathVariable Long id, @CurrentUser User user) {
+        if (user == null) {
             return "redirect:/login";
         }
 
@@ -196,15 +204,6 @@ public class MyTasksController {
         }
 
         Task task = taskOpt.get();
-        // Resolve user by username or email
-        String principalName = principal.getName();
-        User user = userRepository.findByUsername(principalName);
-        if (user == null) {
-            user = userRepository.findByEmail(principalName).orElse(null);
-        }
-        if (user == null) {
-            return "redirect:/login";
-        }
 
         // Verify the logged-in user is the assigned worker for this task
         if (task.getWorker() == null || !task.getWorker().getId().equals(user.getId())) {
@@ -213,8 +212,8 @@ public class MyTasksController {
 
         // Only allow completion if task is in ASSIGNED status
         if (task.getStatus().name().equals("ASSIGNED")) {
-            task.setStatus(com.crowdserve.model.TaskStatus.COMPLETED);
-            taskRepository.save(task);
+            // Go through the facade so completion observers (notifications, open-task index) fire
+            taskWorkflowFacade.completeTask(id);
         }
 
         return "redirect:/my-tasks";
@@ -1,23 +1,36 @@
 package com.crowdserve.controller;
 
+import com.crowdserve.dto.NotificationIdsDto;
+import com.crowdserve.dto.NotificationPageDto;
 import com.crowdserve.model.Notification;
 import com.crowdserve.model.User;
 import com.crowdserve.repository.NotificationRepository;
-import com.crowdserve.repository.UserRepository;
+import com.crowdserve.security.CurrentUser;
+import com.crowdserve.service.AreaSubscriptionService;
+import com.crowdserve.service.NotificationService;
+import com.crowdserve.service.UserService;
+import com.crowdserve.service.stream.NotificationStreamRegistry;
+import com.crowdserve.service.stream.UnreadCountChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.security.Principal;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -27,39 +40,53 @@ import java.util.Optional;
 @RequestMapping("/notifications")
 public class NotificationController {
 
+    /**
+     * Notifications rendered per section on the page, and loaded per scroll by default.
+     */
+    public static final int INBOX_PAGE_SIZE = 20;
+
     private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final NotificationStreamRegistry notificationStreamRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserService userService;
+    private final AreaSubscriptionService areaSubscriptionService;
 
-    public NotificationController(NotificationRepository notificationRepository, UserRepository userRepository) {
+    public NotificationController(NotificationRepository notificationRepository,
+                                  NotificationService notificationService,
+                                  NotificationStreamRegistry notificationStreamRegistry,
+                                  ApplicationEventPublisher eventPublisher,
+                                  UserService userService,
+                                  AreaSubscriptionService areaSubscriptionService) {
         this.notificationRepository = notificationRepository;
-        this.userRepository = userRepository;
+        this.notificationService = notificationService;
+        this.notificationStreamRegistry = notificationStreamRegistry;
+        this.eventPublisher = eventPublisher;
+        this.userService = userService;
+        this.areaSubscriptionService = areaSubscriptionService;
     }
 
     /**
      * Display the notifications page for the currently authenticated user.
-     * Fetches notifications, marks unread notifications as read, and adds them to the model.
+     * Renders the newest page of unread and of read notifications; the browser loads
+     * older ones through {@link #inboxPage} as the user scrolls, so the page costs
+     * the same however large the inbox grows. Also lists the areas the user watches,
+     * and the new tasks in them that were too widely watched to be sent as notifications.
      */
     @GetMapping
-    public String viewNotifications(Principal principal, Model model) {
-        if (principal == null) {
+    public String viewNotifications(@CurrentUser User user, Model model) {
+        if (user == null) {
             // Not authenticated — redirect to login (or show empty)
             return "redirect:/login";
         }
 
-        // Resolve current user by username or email (supports both login modes)
-        String principalName = principal.getName();
-        User user = userRepository.findByUsername(principalName);
-        if (user == null) {
-            user = userRepository.findByEmail(principalName).orElse(null);
-        }
-        if (user == null) {
-            return "redirect:/login";
-        }
-        List<Notification> unreadNotifications = notificationRepository.findByUserAndIsReadFalseOrderByCreatedAtDesc(user);
-        List<Notification> readNotifications = notificationRepository.findByUserAndIsReadTrueOrderByCreatedAtDesc(user);
+        NotificationPageDto unreadPage = notificationService.getInboxPage(user, false, null, INBOX_PAGE_SIZE);
+        NotificationPageDto readPage = notificationService.getInboxPage(user, true, null, INBOX_PAGE_SIZE);
 
-        model.addAttribute("unreadNotifications", unreadNotifications);
-        model.addAttribute("readNotifications", readNotifications);
+        model.addAttribute("unreadNotifications", unreadPage.notifications());
+        model.addAttribute("unreadCursor", unreadPage.nextCursor());
+        model.addAttribute("readNotifications", readPage.notifications());
+        model.addAttribute("readCursor", readPage.nextCursor());
 
         // Optional: provide a human friendly timestamp formatter pattern
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MMM d, yyyy HH:mm").withZone(ZoneId.systemDefault());
@@ -70,19 +97,57 @@ public class NotificationController {
         model.addAttribute("pageTitle", "Notifications");
         model.addAttribute("pageSubtitle", "Recent alerts about your tasks and activity");
         
-        long unreadCount = unreadNotifications.size();
-        model.addAttribute("unreadCount", unreadCount);
+        model.addAttribute("unreadCount", notificationService.getUnreadCount(user));
+        model.addAttribute("digestEnabled", user.isNotificationDigest());
+        model.addAttribute("watchedAreas", areaSubscriptionService.getSubscriptions(user));
+        model.addAttribute("nearbyTasks", areaSubscriptionService.getNearbyTasks(user, INBOX_PAGE_SIZE));
 
         return "notifications";
     }
 
+    /**
+     * AJAX endpoint: one page of the current user's read or unread notifications, newest first.
+     * Pass the {@code nextCursor} of the previous page as {@code cursor} to continue.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> inboxPage(@RequestParam(value = "read", defaultValue = "false") boolean read,
+                                       @RequestParam(value = "cursor", required = false) String cursor,
+                                       @RequestParam(value = "size", defaultValue = "" + INBOX_PAGE_SIZE) int size,
+                                       @CurrentUser User currentUser) {
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("unauthenticated");
+        }
+        try {
+            return ResponseEntity.ok(notificationService.getInboxPage(currentUser, read, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Server-Sent Events stream of new notifications and unread-count changes for the current user.
+     * A reconnecting browser sends Last-Event-ID and gets the notifications it missed; on the first
+     * connection the page passes the newest notification it rendered as {@code after} instead.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@CurrentUser User user,
+                                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                             @RequestParam(value = "after", required = false) Long after) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        SseEmitter emitter = notificationStreamRegistry.open(user.getId(), lastEventId != null ? lastEventId : after);
+        // Keep proxies such as nginx from buffering the stream
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+    }
+
     /**
      * Mark a single notification as read and redirect back to notifications page.
      * (Server-side fallback for non-JS clients)
      */
     @PostMapping("/read/{id}")
-    public String markAsRead(@PathVariable("id") Long id, Principal principal) {
-        if (principal == null) {
+    public String markAsRead(@PathVariable("id") Long id, @CurrentUser User currentUser) {
+        if (currentUser == null) {
             return "redirect:/login";
         }
 
@@ -90,14 +155,11 @@ public class NotificationController {
         if (nOpt.isPresent()) {
             Notification n = nOpt.get();
             // Make sure the logged-in user owns this notification
-            User currentUser = userRepository.findByUsername(principal.getName());
-            if (currentUser == null) {
-                currentUser = userRepository.findByEmail(principal.getName()).orElse(null);
-            }
-            if (currentUser != null && n.getUser().getId().equals(currentUser.getId())) {
+            if (n.getUser().getId().equals(currentUser.getId())) {
                 if (!n.isRead()) {
                     n.setRead(true);
                     notificationRepository.save(n);
+                    eventPublisher.publishEvent(new UnreadCountChangedEvent(currentUser.getId(), -1));
                 }
             }
         }
@@ -109,8 +171,8 @@ public class NotificationController {
      * AJAX endpoint: mark a single notification as read. Returns JSON result.
      */
     @PostMapping("/mark-read/{id}")
-    public ResponseEntity<?> markReadAjax(@PathVariable("id") Long id, Principal principal) {
-        if (principal == null) {
+    public ResponseEntity<?> markReadAjax(@PathVariable("id") Long id, @CurrentUser User currentUser) {
+        if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("unauthenticated");
         }
 
@@ -120,56 +182,101 @@ public class NotificationController {
         }
 
         Notification n = nOpt.get();
-        User currentUser = userRepository.findByUsername(principal.getName());
-        if (currentUser == null) {
-            currentUser = userRepository.findByEmail(principal.getName()).orElse(null);
-        }
-        if (currentUser == null || !n.getUser().getId().equals(currentUser.getId())) {
+        if (!n.getUser().getId().equals(currentUser.getId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("forbidden");
         }
 
         if (!n.isRead()) {
             n.setRead(true);
             notificationRepository.save(n);
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(currentUser.getId(), -1));
         }
 
         return ResponseEntity.ok().body(java.util.Map.of("success", true, "id", id));
     }
 
     /**
-     * AJAX endpoint: mark all unread notifications as read for the current user.
+     * AJAX endpoint: mark all unread notifications as read for the current user, in one statement.
      */
     @PostMapping("/mark-all-read")
-    @Transactional
-    public ResponseEntity<?> markAllRead(Principal principal) {
-        if (principal == null) {
+    public ResponseEntity<?> markAllRead(@CurrentUser User user) {
+        if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("unauthenticated");
         }
+        int marked = notificationService.markAllAsRead(user);
+        return ResponseEntity.ok(Map.of("success", true, "marked", marked));
+    }
 
-        User user = userRepository.findByUsername(principal.getName());
-        if (user == null) {
-            user = userRepository.findByEmail(principal.getName()).orElse(null);
+    /**
+     * AJAX endpoint: mark a selection of the current user's notifications as read in one call.
+     * Expects {@code {"ids": [...]}}; ids of other users' notifications are ignored.
+     */
+    @PostMapping("/mark-read")
+    public ResponseEntity<?> markReadBatch(@RequestBody NotificationIdsDto request, @CurrentUser User currentUser) {
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("unauthenticated");
         }
-        if (user == null) {
+        try {
+            int marked = notificationService.markAsRead(currentUser, ids(request));
+            return ResponseEntity.ok(Map.of("success", true, "marked", marked));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * AJAX endpoint: delete a selection of the current user's notifications in one call.
+     * Expects {@code {"ids": [...]}}; ids of other users' notifications are ignored.
+     */
+    @PostMapping("/delete")
+    public ResponseEntity<?> deleteBatch(@RequestBody NotificationIdsDto request, @CurrentUser User currentUser) {
+        if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("unauthenticated");
         }
-        java.util.List<Notification> unread = notificationRepository.findByUserAndIsReadFalseOrderByCreatedAtDesc(user);
-        if (unread.isEmpty()) {
-            return ResponseEntity.ok(java.util.Map.of("success", true, "marked", 0));
+        try {
+            int deleted = notificationService.deleteNotifications(currentUser, ids(request));
+            return ResponseEntity.ok(Map.of("success", true, "deleted", deleted));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
+    }
 
-        unread.forEach(n -> n.setRead(true));
-        notificationRepository.saveAll(unread);
+    /**
+     * AJAX endpoint: delete the current user's read notifications older than a number of days
+     * (all of them by default), in one statement.
+     */
+    @PostMapping("/delete-read")
+    public ResponseEntity<?> deleteRead(@RequestParam(value = "olderThanDays", defaultValue = "0") int olderThanDays,
+                                        @CurrentUser User currentUser) {
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("unauthenticated");
+        }
+        if (olderThanDays < 0) {
+            return ResponseEntity.badRequest().body("olderThanDays must not be negative");
+        }
+        int deleted = notificationService.deleteReadBefore(currentUser, LocalDateTime.now().minusDays(olderThanDays));
+        return ResponseEntity.ok(Map.of("success", true, "deleted", deleted));
+    }
 
-        return ResponseEntity.ok(java.util.Map.of("success", true, "marked", unread.size()));
+    /**
+     * AJAX endpoint: turn the periodic notification digest on or off for the current user.
+     * Task notifications held for a digest are still delivered with the next one.
+     */
+    @PostMapping("/digest")
+    public ResponseEntity<?> setDigest(@RequestParam("enabled") boolean enabled, @CurrentUser User currentUser) {
+        if (currentUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("unauthenticated");
+        }
+        User updated = userService.setNotificationDigest(currentUser, enabled);
+        return ResponseEntity.ok(Map.of("success", true, "digest", updated.isNotificationDigest()));
     }
 
     /**
      * AJAX endpoint: delete a notification owned by the current user.
      */
     @PostMapping("/delete/{id}")
-    public ResponseEntity<?> deleteNotification(@PathVariable("id") Long id, Principal principal) {
-        if (principal == null) {
+    public ResponseEntity<?> deleteNotification(@PathVariable("id") Long id, @CurrentUser User currentUser) {
+        if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("unauthenticated");
         }
 
@@ -179,15 +286,18 @@ public class NotificationController {
         }
 
         Notification n = nOpt.get();
-        User currentUser = userRepository.findByUsername(principal.getName());
-        if (currentUser == null) {
-            currentUser = userRepository.findByEmail(principal.getName()).orElse(null);
-        }
-        if (currentUser == null || !n.getUser().getId().equals(currentUser.getId())) {
+        if (!n.getUser().getId().equals(currentUser.getId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("forbidden");
         }
 
         notificationRepository.delete(n);
+        if (!n.isRead()) {
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(currentUser.getId(), -1));
+        }
         return ResponseEntity.ok(java.util.Map.of("success", true, "id", id));
     }
+
+    private static List<Long> ids(NotificationIdsDto request) {
+        return request == null || request.ids() == null ? List.of() : request.ids();
+    }
 }
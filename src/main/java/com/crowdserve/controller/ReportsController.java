@@ -3,6 +3,7 @@ package com.crowdserve.controller;
 import com.crowdserve.model.User;
 import com.crowdserve.repository.TaskRepository;
 import com.crowdserve.repository.UserRepository;
+import com.crowdserve.security.CurrentUser;
 import com.crowdserve.service.NotificationService;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
@@ -17,9 +18,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.security.Principal;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Controller for handling reports and analytics pages.
@@ -43,19 +42,16 @@ public class ReportsController {
      * Reports center page - displays available reports
      */
     @GetMapping
-    public String reports(Principal principal, Model model) {
+    public String reports(@CurrentUser User user, Model model) {
         // Add navbar attributes
         model.addAttribute("activePage", "reports");
         model.addAttribute("pageTitle", "Reports Center");
         model.addAttribute("pageSubtitle", "Download your platform analytics & task summaries");
         
         // Add unread notifications count if user is authenticated
-        if (principal != null) {
-            Optional<User> userOpt = userRepository.findByEmail(principal.getName());
-            if (userOpt.isPresent()) {
-                long unreadCount = notificationService.getUnreadCount(userOpt.get());
-                model.addAttribute("unreadCount", unreadCount);
-            }
+        if (user != null) {
+            long unreadCount = notificationService.getUnreadCount(user);
+            model.addAttribute("unreadCount", unreadCount);
         }
         
         return "reports";
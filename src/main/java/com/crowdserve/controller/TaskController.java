@@ -1,14 +1,14 @@
 package com.crowdserve.controller;
 
 import com.crowdserve.dto.TaskCreationDto;
+import com.crowdserve.dto.TaskPageDto;
+import com.crowdserve.model.NotificationKind;
 import com.crowdserve.model.Task;
 import com.crowdserve.model.User;
 import com.crowdserve.service.TaskService;
 import com.crowdserve.service.NotificationService;
 import com.crowdserve.service.facade.TaskWorkflowFacade;
-import com.crowdserve.repository.UserRepository;
-
-import java.security.Principal;
+import com.crowdserve.security.CurrentUser;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
@@ -27,8 +28,6 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
     @Autowired
-    private UserRepository userRepository;
-    @Autowired
     private TaskWorkflowFacade taskWorkflowFacade; 
     @Autowired
     private NotificationService notificationService;
@@ -36,7 +35,7 @@ public class TaskController {
     @GetMapping("/create")
     public String showCreateTaskForm(Model model) {
         // Always create a fresh DTO to ensure form is empty
-        TaskCreationDto freshDto = new TaskCreationDto(null, null, null, null);
+        TaskCreationDto freshDto = new TaskCreationDto(null, null, null, null, null, null);
         model.addAttribute("taskDto", freshDto);
         // Clear any previous error/success messages
         model.addAttribute("successMessage", null);
@@ -45,14 +44,18 @@ public class TaskController {
     }
 
     @GetMapping
-    public String showDashboard(Model model) {
-        // 1. Call the Service Layer to retrieve data based on business rules (e.g., only OPEN tasks)
-        // This method assumes TaskService has the signature: List<Task> getAllOpenTasks()
-        var taskList = taskService.getAllOpenTasks();
+    public String showDashboard(@RequestParam(value = "before", required = false) Long before,
+                                @RequestParam(value = "size", defaultValue = "" + DashboardController.DEFAULT_PAGE_SIZE) int size,
+                                Model model) {
+        // 1. Call the Service Layer to retrieve one page of OPEN tasks (keyset pagination, newest first)
+        TaskPageDto page = taskService.getOpenTasksPage(before, size);
 
-        // 2. Add the list of tasks to the Model object, making it available to the view template
+        // 2. Add the page to the Model object, making it available to the view template
         // The key "tasks" is used by your Thymeleaf/JSP template to iterate over the data.
-        model.addAttribute("tasks", taskList); 
+        model.addAttribute("tasks", page.tasks());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("firstPage", before == null);
+        model.addAttribute("feedPath", "/tasks");
         
         // 3. Return the name of the template (View Layer)
         // Spring will look for 'src/main/resources/templates/dashboard.html'
@@ -60,25 +63,17 @@ public class TaskController {
     }
 
 @PostMapping("/create")
-    public String createTask(@ModelAttribute("taskDto") TaskCreationDto taskDto, Principal principal, RedirectAttributes redirectAttributes) {
+    public String createTask(@ModelAttribute("taskDto") TaskCreationDto taskDto, @CurrentUser User user, RedirectAttributes redirectAttributes) {
         try {
-            // Get current user - try username first, then email
-            User user = userRepository.findByUsername(principal.getName());
             if (user == null) {
-                user = userRepository.findByEmail(principal.getName())
-                    .orElseThrow(() -> new IllegalStateException("User not found"));
+                throw new IllegalStateException("User not found");
             }
             
-            // Create task
-            Task created = taskService.createTask(taskDto, user);
+            // Create task through the facade so observers (e.g. the open-task index) see it
+            Task created = taskWorkflowFacade.createTask(taskDto, user);
 
             // Notify poster that task was created (keeps consistent UX)
-            notificationService.createNotification(
-                user,
-                "Task Created",
-                "Your task '" + created.getTitle() + "' has been posted and is now visible to workers.",
-                created
-            );
+            notificationService.createNotification(user, NotificationKind.TASK_CREATED, created, null);
             redirectAttributes.addFlashAttribute("successMessage", "Task created successfully!");
             return "redirect:/tasks";
             
@@ -90,18 +85,14 @@ public class TaskController {
 
 
     @GetMapping("/{id}")
-    public String viewTask(@PathVariable Long id, Model model, Principal principal) {
+    public String viewTask(@PathVariable Long id, Model model, @CurrentUser User currentUser) {
         // Get task by ID
         Task task = taskWorkflowFacade.getTask(id);
         model.addAttribute("task", task);
         model.addAttribute("activePage", "dashboard");
         
-        // Get current user for authorization checks in template
-        if (principal != null) {
-            User currentUser = userRepository.findByUsername(principal.getName());
-            if (currentUser == null) {
-                currentUser = userRepository.findByEmail(principal.getName()).orElse(null);
-            }
+        // Current user for authorization checks in template
+        if (currentUser != null) {
             model.addAttribute("currentUser", currentUser);
         }
         
@@ -113,13 +104,10 @@ public class TaskController {
      * Only available for tasks with OPEN status.
      */
     @PostMapping("/{id}/accept")
-    public String acceptTask(@PathVariable Long id, Principal principal, RedirectAttributes redirectAttributes) {
+    public String acceptTask(@PathVariable Long id, @CurrentUser User worker, RedirectAttributes redirectAttributes) {
         try {
-            // Get current user
-            User worker = userRepository.findByUsername(principal.getName());
             if (worker == null) {
-                worker = userRepository.findByEmail(principal.getName())
-                    .orElseThrow(() -> new IllegalStateException("User not found"));
+                throw new IllegalStateException("User not found");
             }
             
             // Use facade to accept the task
@@ -139,13 +127,10 @@ public class TaskController {
      * Only the assigned worker or poster can complete the task.
      */
     @PostMapping("/{id}/complete")
-    public String completeTask(@PathVariable Long id, Principal principal, RedirectAttributes redirectAttributes) {
+    public String completeTask(@PathVariable Long id, @CurrentUser User currentUser, RedirectAttributes redirectAttributes) {
         try {
-            // Get current user for validation
-            User currentUser = userRepository.findByUsername(principal.getName());
             if (currentUser == null) {
-                currentUser = userRepository.findByEmail(principal.getName())
-                    .orElseThrow(() -> new IllegalStateException("User not found"));
+                throw new IllegalStateException("User not found");
             }
             
             // Verify the current user is either the worker or poster
@@ -0,0 +1,90 @@
+package com.crowdserve.controller;
+
+import com.crowdserve.dto.TaskImportResultDto;
+import com.crowdserve.model.User;
+import com.crowdserve.security.CurrentUser;
+import com.crowdserve.service.facade.TaskWorkflowFacade;
+import com.crowdserve.service.importer.TaskImportFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Controller for bulk task import (/tasks/import).
+ * Accepts a CSV or JSON file either as a form upload, which renders a report page,
+ * or as the raw request body, which returns the report as JSON for scripted imports.
+ */
+@Controller
+@RequestMapping("/tasks/import")
+public class TaskImportController {
+
+    private final TaskWorkflowFacade taskWorkflowFacade;
+
+    public TaskImportController(TaskWorkflowFacade taskWorkflowFacade) {
+        this.taskWorkflowFacade = taskWorkflowFacade;
+    }
+
+    /**
+     * Display the upload form.
+     */
+    @GetMapping
+    public String showImportForm(Model model) {
+        model.addAttribute("activePage", "dashboard");
+        return "import-tasks";
+    }
+
+    /**
+     * Import an uploaded file and show which rows were imported or rejected.
+     */
+    @PostMapping(consumes = "multipart/form-data")
+    public String importFile(@RequestParam("file") MultipartFile file, @CurrentUser User poster, Model model) {
+        model.addAttribute("activePage", "dashboard");
+        if (file.isEmpty()) {
+            model.addAttribute("errorMessage", "Choose a file to import");
+            return "import-tasks";
+        }
+        try (InputStream input = file.getInputStream()) {
+            TaskImportFormat format = TaskImportFormat.detect(file.getOriginalFilename(), file.getContentType());
+            model.addAttribute("result", taskWorkflowFacade.importTasks(input, format, requireUser(poster)));
+        } catch (IllegalArgumentException | IOException e) {
+            model.addAttribute("errorMessage", "Error importing tasks: " + e.getMessage());
+        }
+        return "import-tasks";
+    }
+
+    /**
+     * Import a file sent as the request body (Content-Type text/csv or application/json).
+     * Responds 400 with a message if the file cannot be read at all.
+     */
+    @PostMapping(consumes = {"text/csv", "application/json"}, produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<?> importBody(InputStream body,
+                                        @RequestHeader("Content-Type") String contentType,
+                                        @CurrentUser User poster) {
+        try {
+            TaskImportFormat format = TaskImportFormat.detect(null, contentType);
+            TaskImportResultDto result = taskWorkflowFacade.importTasks(body, format, requireUser(poster));
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static User requireUser(User user) {
+        if (user == null) {
+            throw new IllegalStateException("User not found");
+        }
+        return user;
+    }
+}
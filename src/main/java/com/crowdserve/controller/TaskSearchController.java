@@ -0,0 +1,58 @@
+package com.crowdserve.controller;
+
+import com.crowdserve.dto.TaskSearchHitDto;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.service.TaskService;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+/**
+ * Controller for full-text task search (/tasks/search).
+ * Ranks tasks by how well their title, description and location match the query.
+ */
+@Controller
+@RequestMapping("/tasks/search")
+public class TaskSearchController {
+
+    static final int DEFAULT_RESULT_COUNT = 20;
+
+    private final TaskService taskService;
+
+    public TaskSearchController(TaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    /**
+     * Display search results. Only OPEN tasks are searched unless another status,
+     * or ALL, is requested.
+     */
+    @GetMapping
+    public String search(@RequestParam(value = "q", required = false) String query,
+                         @RequestParam(value = "status", defaultValue = "OPEN") String status,
+                         @RequestParam(value = "size", defaultValue = "" + DEFAULT_RESULT_COUNT) int size,
+                         Model model) {
+        TaskStatus filterStatus = null;
+        if (!"ALL".equalsIgnoreCase(status)) {
+            try {
+                filterStatus = TaskStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException ignored) {
+                filterStatus = TaskStatus.OPEN; // unknown status values fall back to open tasks
+            }
+        }
+
+        List<TaskSearchHitDto> results = query == null || query.isBlank()
+            ? List.of()
+            : taskService.searchTasks(query, filterStatus, size);
+
+        model.addAttribute("query", query);
+        model.addAttribute("results", results);
+        model.addAttribute("filterStatus", filterStatus != null ? filterStatus.name() : "ALL");
+        model.addAttribute("activePage", "dashboard");
+        return "search";
+    }
+}
@@ -1,11 +1,9 @@
 package com.crowdserve.controller;
 
 import com.crowdserve.model.User;
-import com.crowdserve.repository.UserRepository;
+import com.crowdserve.security.CurrentUser;
 import com.crowdserve.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,40 +15,15 @@ public class UserController {
 
     @Autowired
     private UserService userService;
-    @Autowired
-    private UserRepository userRepository;
 
     @GetMapping("/profile")
-    public String viewProfile(Model model, @AuthenticationPrincipal UserDetails userDetails) {
+    public String viewProfile(Model model, @CurrentUser User user) {
         // Always set activePage so navbar highlights Profile
         model.addAttribute("activePage", "profile");
 
-        if (userDetails == null) {
-            // No authenticated principal available; return profile view without model
-            return "profile";
+        if (user != null) {
+            model.addAttribute("user", user);
         }
-
-        try {
-            String principalName = userDetails.getUsername();
-
-            // Try email first, then username as fallback
-            var optionalUser = userService.findByEmail(principalName);
-            if (optionalUser.isPresent()) {
-                model.addAttribute("user", optionalUser.get());
-                return "profile";
-            }
-
-            // Fallback: try lookup by username
-            var byUsername = userRepository.findByUsername(principalName);
-            if (byUsername != null) {
-                model.addAttribute("user", byUsername);
-                return "profile";
-            }
-
-        } catch (Exception ex) {
-            // Swallow exception to avoid Whitelabel 500; in production log this
-        }
-
         return "profile";
     }
 
@@ -0,0 +1,14 @@
+package com.crowdserve.dto;
+
+/**
+ * Lightweight projection of a watched area, used to load the subscription index
+ * without materializing whole AreaSubscription entities and their users.
+ */
+public record AreaSubscriptionDto(
+    Long id,
+    Long userId,
+    double latitude,
+    double longitude,
+    double radiusKm
+) {
+}
@@ -0,0 +1,31 @@
+package com.crowdserve.dto;
+
+import com.crowdserve.model.TaskStatus;
+
+/**
+ * Lightweight projection of a task on a user's "my tasks" page.
+ * Carries the names of the poster and worker instead of whole User entities,
+ * so a page of tasks is read in one query without loading either user.
+ */
+public record MyTaskDto(
+    Long id,
+    String title,
+    String description,
+    String location,
+    Double reward,
+    TaskStatus status,
+    Long posterId,
+    String posterName,
+    String workerName
+) {
+
+    /**
+     * Tells whether the task was posted by a user, rather than assigned to them.
+     *
+     * @param userId the id of the user the page belongs to
+     * @return true if the user is the task's poster
+     */
+    public boolean isPostedBy(Long userId) {
+        return posterId.equals(userId);
+    }
+}
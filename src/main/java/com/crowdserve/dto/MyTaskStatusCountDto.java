@@ -0,0 +1,15 @@
+package com.crowdserve.dto;
+
+import com.crowdserve.model.TaskStatus;
+
+/**
+ * Number of a user's tasks in one status, split by whether the user posted them
+ * or is the assigned worker. One row of the GROUP BY status count behind the
+ * status tabs of the "my tasks" page.
+ */
+public record MyTaskStatusCountDto(
+    TaskStatus status,
+    long posted,
+    long assigned
+) {
+}
@@ -0,0 +1,35 @@
+package com.crowdserve.dto;
+
+import com.crowdserve.model.TaskStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One keyset-paginated page of a user's tasks, newest first, split into the tasks
+ * they posted and the tasks they are working on.
+ * {@code statusCounts} holds the number of the user's tasks in every status for the
+ * status tabs, with the other filters applied but not the status filter;
+ * {@code postedCount} and {@code assignedCount} are the totals for the current filters.
+ * {@code nextCursor} is the id to pass as the "before" cursor to load the following
+ * page, or null when this is the last page.
+ */
+public record MyTasksPageDto(
+    List<MyTaskDto> posted,
+    List<MyTaskDto> assigned,
+    Map<TaskStatus, Long> statusCounts,
+    long postedCount,
+    long assignedCount,
+    Long nextCursor,
+    boolean hasMore
+) {
+
+    /**
+     * Returns the number of tasks across all statuses, for the "All" tab.
+     *
+     * @return the sum of the status counts
+     */
+    public long totalCount() {
+        return statusCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,12 @@
+package com.crowdserve.dto;
+
+import com.crowdserve.model.Task;
+
+/**
+ * A task found by a location query, with its distance from the query point.
+ */
+public record NearbyTaskDto(
+    Task task,
+    double distanceKm
+) {
+}
@@ -0,0 +1,22 @@
+package com.crowdserve.dto;
+
+import com.crowdserve.model.Notification;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification as pushed to the browser over the notification stream.
+ *
+ * @param id the notification id, also used as the event id for Last-Event-ID replay
+ * @param title the notification title
+ * @param message the notification message
+ * @param createdAt when the notification was created
+ * @param relatedTaskId the id of the task it is about, or null
+ */
+public record NotificationEventDto(Long id, String title, String message, LocalDateTime createdAt, Long relatedTaskId) {
+
+    public static NotificationEventDto from(Notification notification) {
+        return new NotificationEventDto(notification.getId(), notification.displayTitle(), notification.displayMessage(),
+            notification.getCreatedAt(), notification.getRelatedTask() == null ? null : notification.getRelatedTask().getId());
+    }
+}
@@ -0,0 +1,11 @@
+package com.crowdserve.dto;
+
+import java.util.List;
+
+/**
+ * Request body naming the notifications a bulk action applies to.
+ */
+public record NotificationIdsDto(
+    List<Long> ids
+) {
+}
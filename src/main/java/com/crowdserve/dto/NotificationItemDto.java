@@ -0,0 +1,32 @@
+package com.crowdserve.dto;
+
+import com.crowdserve.model.NotificationKind;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight projection of a notification in the inbox.
+ * Carries the related task's id instead of the Task and User entities, so a page
+ * of the inbox is read from the notifications table alone.
+ */
+public record NotificationItemDto(
+    Long id,
+    String title,
+    String message,
+    LocalDateTime createdAt,
+    boolean read,
+    Long relatedTaskId
+) {
+
+    /**
+     * Projects a stored notification, rendering the title and message of a templated one.
+     */
+    public NotificationItemDto(Long id, String title, String message, NotificationKind kind, int eventCount,
+                               String taskTitle, String actorName, Double amount, LocalDateTime createdAt,
+                               boolean read, Long relatedTaskId) {
+        this(id,
+            title != null || kind == null ? title : kind.title(eventCount),
+            title != null || kind == null ? message : kind.message(eventCount, taskTitle, actorName, amount),
+            createdAt, read, relatedTaskId);
+    }
+}
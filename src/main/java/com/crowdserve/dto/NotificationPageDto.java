@@ -0,0 +1,16 @@
+package com.crowdserve.dto;
+
+import java.util.List;
+
+/**
+ * One keyset-paginated page of a user's notification inbox, newest first.
+ * {@code nextCursor} marks the position after the last notification on the page
+ * (its creation time and id) and is passed back to load the following page; it
+ * is null when this is the last page.
+ */
+public record NotificationPageDto(
+    List<NotificationItemDto> notifications,
+    String nextCursor,
+    boolean hasMore
+) {
+}
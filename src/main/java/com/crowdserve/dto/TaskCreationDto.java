@@ -3,11 +3,15 @@ package com.crowdserve.dto;
 /**
  * Data Transfer Object for task creation.
  * Contains the minimal required information to create a new task.
+ * Latitude and longitude are optional; when both are present the task
+ * can be found by location searches.
  */
 public record TaskCreationDto(
     String title,
     String description,
     String location,
-    Double reward
+    Double reward,
+    Double latitude,
+    Double longitude
 ) {
 }
@@ -0,0 +1,33 @@
+package com.crowdserve.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk task import.
+ * {@code errors} lists the rejected rows, up to a reporting limit; {@code failed}
+ * is the full count, so the two differ when the list was cut short.
+ */
+public record TaskImportResultDto(
+    int rowsRead,
+    int imported,
+    int failed,
+    List<RowError> errors,
+    long elapsedMs
+) {
+
+    /**
+     * Whether more rows failed than are listed in {@code errors}.
+     */
+    public boolean errorsTruncated() {
+        return failed > errors.size();
+    }
+
+    /**
+     * A row that was not imported and why.
+     *
+     * @param row the 1-based number of the data row (the CSV header is not counted)
+     * @param message what was wrong with the row
+     */
+    public record RowError(int row, String message) {
+    }
+}
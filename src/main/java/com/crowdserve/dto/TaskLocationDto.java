@@ -0,0 +1,12 @@
+package com.crowdserve.dto;
+
+/**
+ * Lightweight projection of a task's coordinates, used to load the spatial index
+ * without materializing whole Task entities.
+ */
+public record TaskLocationDto(
+    Long id,
+    Double latitude,
+    Double longitude
+) {
+}
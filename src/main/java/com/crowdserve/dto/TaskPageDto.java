@@ -0,0 +1,17 @@
+package com.crowdserve.dto;
+
+import com.crowdserve.model.Task;
+
+import java.util.List;
+
+/**
+ * A single page of a keyset-paginated task feed.
+ * {@code nextCursor} is the id to pass as the "before" cursor to load the following page,
+ * or null when this is the last page.
+ */
+public record TaskPageDto(
+    List<Task> tasks,
+    Long nextCursor,
+    boolean hasMore
+) {
+}
@@ -0,0 +1,12 @@
+package com.crowdserve.dto;
+
+import com.crowdserve.model.Task;
+
+/**
+ * A task found by a full-text search, with its relevance score.
+ */
+public record TaskSearchHitDto(
+    Task task,
+    double score
+) {
+}
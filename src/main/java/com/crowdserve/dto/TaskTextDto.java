@@ -0,0 +1,16 @@
+package com.crowdserve.dto;
+
+import com.crowdserve.model.TaskStatus;
+
+/**
+ * Lightweight projection of a task's searchable text and status, used to load the
+ * full-text index without materializing whole Task entities.
+ */
+public record TaskTextDto(
+    Long id,
+    String title,
+    String description,
+    String location,
+    TaskStatus status
+) {
+}
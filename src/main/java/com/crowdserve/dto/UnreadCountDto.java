@@ -0,0 +1,11 @@
+package com.crowdserve.dto;
+
+/**
+ * Projection of how many unread notifications a user has, used to check the
+ * in-memory unread counters against the database.
+ */
+public record UnreadCountDto(
+    Long userId,
+    long count
+) {
+}
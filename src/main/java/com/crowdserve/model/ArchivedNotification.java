@@ -0,0 +1,62 @@
+package com.crowdserve.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification moved out of the "notifications" table by the retention job.
+ * Keeps the original id and refers to the user and task by id only, without
+ * foreign keys, so archived rows never stand in the way of deleting either.
+ */
+@Entity
+@Table(name = "notifications_archive", indexes = {
+    @Index(name = "idx_notifications_archive_created", columnList = "created_at"),
+    @Index(name = "idx_notifications_archive_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedNotification {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** Null for templated notifications, which keep their kind and parameters instead. */
+    private String title;
+
+    @Column(length = 1000)
+    private String message;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private boolean isRead;
+
+    @Column(name = "task_id")
+    private Long relatedTaskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private NotificationKind kind;
+
+    @Column(nullable = false)
+    @ColumnDefault("1")
+    private int eventCount = 1;
+
+    @Column(name = "actor_id")
+    private Long actorId;
+
+    private Double amount;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,45 @@
+package com.crowdserve.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An area a worker watches for new tasks: a circle around a point.
+ * Every OPEN task posted inside it after {@code createdAt} reaches the user,
+ * either as a notification or, for areas watched by very many users, on the
+ * notifications page (see NearbyTaskFanout).
+ */
+@Entity
+@Table(name = "area_subscriptions", indexes = {
+    @Index(name = "idx_area_subscriptions_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AreaSubscription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "area_subscriptions_seq")
+    @SequenceGenerator(name = "area_subscriptions_seq", sequenceName = "area_subscriptions_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private double latitude;
+
+    @Column(nullable = false)
+    private double longitude;
+
+    @Column(nullable = false)
+    private double radiusKm;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
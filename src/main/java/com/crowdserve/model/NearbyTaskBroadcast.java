@@ -0,0 +1,41 @@
+package com.crowdserve.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A new task whose watchers were too many to notify one by one.
+ * Instead of a notification per watcher, the task is recorded here once, and
+ * each watcher finds it on their notifications page by matching it against
+ * their own areas when they read.
+ */
+@Entity
+@Table(name = "nearby_task_broadcasts", indexes = {
+    @Index(name = "idx_nearby_task_broadcasts_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyTaskBroadcast {
+
+    /** The id of the task; one broadcast per task. */
+    @Id
+    private Long taskId;
+
+    @Column(nullable = false)
+    private double latitude;
+
+    @Column(nullable = false)
+    private double longitude;
+
+    /** How many watchers the task had when it was posted. */
+    @Column(nullable = false)
+    private int audience;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -4,29 +4,41 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 /**
  * Entity representing a notification in the CrowdServe platform.
  * Notifications are created when important events occur (e.g., task completion).
+ * One row may stand for several events of the same kind, merged by the
+ * NotificationCoalescer; {@code eventCount} says how many.
+ *
+ * Task notifications are stored as their {@link NotificationKind} and parameters
+ * (task, actor, amount) with no title or message; {@link #displayTitle()} and
+ * {@link #displayMessage()} render them. Other notifications store their text.
  */
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_user_read_created", columnList = "user_id, is_read, created_at, id"),
+    @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_notifications_created", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(nullable = false)
+    /** Null for templated notifications. */
     private String title;
 
     @Column(length = 1000)
@@ -41,4 +53,38 @@ public class Notification {
     @ManyToOne
     @JoinColumn(name = "task_id")
     private Task relatedTask;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private NotificationKind kind;
+
+    @Column(nullable = false)
+    @ColumnDefault("1")
+    private int eventCount = 1;
+
+    /** The other user a templated notification is about, e.g. the worker who completed the task. */
+    @ManyToOne
+    @JoinColumn(name = "actor_id")
+    private User actor;
+
+    /** The amount a templated notification shows, e.g. the reward, as it was when it was created. */
+    private Double amount;
+
+    /**
+     * @return the stored title, or for a templated notification the rendered one
+     */
+    public String displayTitle() {
+        return title != null || kind == null ? title : kind.title(eventCount);
+    }
+
+    /**
+     * @return the stored message, or for a templated notification one rendered from the current task and actor
+     */
+    public String displayMessage() {
+        if (title != null || kind == null) {
+            return message;
+        }
+        return kind.message(eventCount, relatedTask != null ? relatedTask.getTitle() : null,
+            actor != null ? actor.getFullName() : null, amount);
+    }
 }
@@ -0,0 +1,107 @@
+package com.crowdserve.model;
+
+/**
+ * What a notification is about, and for task notifications the template of its text.
+ *
+ * A notification of a templated kind is stored without text: only its kind, task,
+ * actor and amount. Its title and message are rendered when it is read, so they
+ * always show the task's current title and take no room in the row. Notifications
+ * of a coalesced kind sent to the same user in quick succession are merged into
+ * one entry that says how many there were.
+ */
+public enum NotificationKind {
+
+    /** Anything not covered below; stored as text, never merged. */
+    GENERAL(null, null, null, null, null),
+
+    /** One of the user's tasks was posted. */
+    TASK_CREATED("Task Created", "Your task '{task}' has been posted and is now visible to workers.",
+        "Tasks Posted", "{count} of your tasks were posted", "{count} more of your tasks were posted"),
+
+    /** One of the user's tasks was completed by a worker, the actor. */
+    TASK_COMPLETED("Task Completed!", "Your task '{task}' has been completed by {actor}.",
+        "Tasks Completed!", "{count} of your tasks were completed", "{count} more of your tasks were completed"),
+
+    /** A task the user worked on was completed; the amount is the reward. */
+    TASK_WORK_COMPLETED("Task Completed!", "You have successfully completed the task '{task}'. Reward: ${amount}",
+        "Tasks Completed!", "{count} tasks you worked on were completed",
+        "{count} more tasks you worked on were completed"),
+
+    /** An open task was posted inside one of the user's watched areas; the amount is the reward. */
+    NEARBY_TASK("New Task Nearby", "A new task '{task}' was posted near you. Reward: ${amount}",
+        "New Tasks Nearby", "{count} new tasks were posted near you", "{count} more new tasks were posted near you"),
+
+    /** A periodic digest of several kinds; stored as text, never merged again. */
+    DIGEST(null, null, null, null, null);
+
+    private final String title;
+    private final NotificationTemplate message;
+    private final String mergedTitle;
+    private final NotificationTemplate summary;
+    private final NotificationTemplate more;
+
+    NotificationKind(String title, String message, String mergedTitle, String summary, String more) {
+        this.title = title;
+        this.message = message != null ? NotificationTemplate.compile(message) : null;
+        this.mergedTitle = mergedTitle;
+        this.summary = summary != null ? NotificationTemplate.compile(summary) : null;
+        this.more = more != null ? NotificationTemplate.compile(more) : null;
+    }
+
+    /**
+     * @return whether notifications of this kind are stored without text and rendered when read
+     */
+    public boolean isTemplated() {
+        return message != null;
+    }
+
+    /**
+     * @return whether notifications of this kind may be merged
+     */
+    public boolean isCoalesced() {
+        return summary != null;
+    }
+
+    /**
+     * @return whether the message shows the amount, which is then stored with the notification
+     */
+    public boolean showsAmount() {
+        return message != null && message.uses("amount");
+    }
+
+    /**
+     * @param eventCount how many notifications the entry stands for
+     * @return the title of a templated notification
+     */
+    public String title(int eventCount) {
+        return eventCount > 1 ? mergedTitle : title;
+    }
+
+    /**
+     * @param eventCount how many notifications the entry stands for; above one, the rest
+     *                   of the parameters are not shown
+     * @param task the task title
+     * @param actor the actor's full name
+     * @param amount the amount
+     * @return the message of a templated notification
+     */
+    public String message(int eventCount, String task, String actor, Double amount) {
+        return eventCount > 1 ? more(eventCount) + "." : message.render(task, actor, amount, eventCount);
+    }
+
+    /**
+     * @param count how many notifications of this kind there were
+     * @return e.g. "12 of your tasks were completed"
+     */
+    public String summary(int count) {
+        return summary.render(null, null, null, count);
+    }
+
+    /**
+     * @param count how many notifications of this kind followed one already delivered
+     * @return e.g. "11 more of your tasks were completed"
+     */
+    public String more(int count) {
+        return more.render(null, null, null, count);
+    }
+}
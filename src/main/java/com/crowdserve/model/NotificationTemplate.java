@@ -0,0 +1,77 @@
+package com.crowdserve.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A notification text with placeholders, split into its parts once so that rendering
+ * is plain concatenation. Understands {@code {task}} (the task title), {@code {actor}}
+ * (the other user's full name), {@code {amount}} and {@code {count}}.
+ */
+public final class NotificationTemplate {
+
+    private static final List<String> PLACEHOLDERS = List.of("task", "actor", "amount", "count");
+
+    // Literal text at even indexes, placeholder names at odd ones
+    private final String[] parts;
+
+    private NotificationTemplate(String[] parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * @param pattern the text, e.g. "Your task '{task}' has been completed by {actor}."
+     * @return the compiled template
+     * @throws IllegalArgumentException if the pattern has an unknown or unclosed placeholder
+     */
+    public static NotificationTemplate compile(String pattern) {
+        List<String> parts = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = pattern.indexOf('{', from)) >= 0) {
+            int close = pattern.indexOf('}', open);
+            String name = close < 0 ? null : pattern.substring(open + 1, close);
+            if (!PLACEHOLDERS.contains(name)) {
+                throw new IllegalArgumentException("Bad placeholder at " + open + " in: " + pattern);
+            }
+            parts.add(pattern.substring(from, open));
+            parts.add(name);
+            from = close + 1;
+        }
+        parts.add(pattern.substring(from));
+        return new NotificationTemplate(parts.toArray(String[]::new));
+    }
+
+    /**
+     * @param placeholder a placeholder name, without braces
+     * @return whether the template shows it
+     */
+    public boolean uses(String placeholder) {
+        for (int i = 1; i < parts.length; i += 2) {
+            if (parts[i].equals(placeholder)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Renders the template. A missing task or actor is shown as "a deleted task" or "a worker".
+     */
+    public String render(String task, String actor, Double amount, int count) {
+        StringBuilder text = new StringBuilder(64);
+        for (int i = 0; i < parts.length; i++) {
+            if (i % 2 == 0) {
+                text.append(parts[i]);
+                continue;
+            }
+            switch (parts[i]) {
+                case "task" -> text.append(task != null ? task : "a deleted task");
+                case "actor" -> text.append(actor != null ? actor : "a worker");
+                case "amount" -> text.append(amount);
+                default -> text.append(count);
+            }
+        }
+        return text.toString();
+    }
+}
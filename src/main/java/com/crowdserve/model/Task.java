@@ -4,20 +4,33 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * Entity representing a task in the CrowdServe platform.
  * Tasks are created by posters and can be assigned to workers for completion.
+ * Kept in the "tasks" region of the second-level cache; every change made through
+ * Hibernate, including bulk JPQL updates, invalidates the cached copy.
  */
 @Entity
-@Table(name = "tasks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tasks")
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_status_id", columnList = "status, id"),
+    @Index(name = "idx_tasks_status_lat_lon", columnList = "status, latitude, longitude"),
+    @Index(name = "idx_tasks_poster_status", columnList = "poster_id, status"),
+    @Index(name = "idx_tasks_worker_status", columnList = "worker_id, status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -29,6 +42,14 @@ public class Task {
     @Column(nullable = false)
     private String location;
 
+    /**
+     * Optional coordinates of the task in decimal degrees (WGS84).
+     * Tasks without coordinates are simply left out of "near me" searches.
+     */
+    private Double latitude;
+
+    private Double longitude;
+
     @Column(nullable = false)
     private Double reward;
 
@@ -43,4 +64,14 @@ public class Task {
     @ManyToOne
     @JoinColumn(name = "worker_id")
     private User worker;
+
+    /**
+     * Incremented on every change, including the claim update in TaskRepository.
+     * Observers that mirror task state use it to ignore events older than what
+     * they already hold.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
 }
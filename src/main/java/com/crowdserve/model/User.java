@@ -4,12 +4,19 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * Entity representing a user in the CrowdServe platform.
  * Users can create tasks (as posters) or complete tasks (as workers).
+ * Kept in the "users" region of the second-level cache; every change made through
+ * Hibernate, including bulk JPQL updates, invalidates the cached copy.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
 @Data
 @NoArgsConstructor
@@ -17,7 +24,8 @@ import lombok.NoArgsConstructor;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -36,4 +44,11 @@ public class User {
 
     @Column(nullable = false)
     private String password;
+
+    /**
+     * Whether the user takes task notifications as a periodic digest instead of one by one.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean notificationDigest;
 }
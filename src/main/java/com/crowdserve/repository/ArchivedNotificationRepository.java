@@ -0,0 +1,54 @@
+package com.crowdserve.repository;
+
+import com.crowdserve.model.ArchivedNotification;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for archived notifications.
+ */
+@Repository
+public interface ArchivedNotificationRepository extends JpaRepository<ArchivedNotification, Long> {
+
+    /**
+     * Copies notifications into the archive in one statement, without loading them.
+     *
+     * @param ids the ids of the notifications to copy
+     * @return the number of notifications copied
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("insert into ArchivedNotification (id, userId, title, message, createdAt, isRead, relatedTaskId, kind, "
+        + "eventCount, actorId, amount, archivedAt) "
+        + "select n.id, n.user.id, n.title, n.message, n.createdAt, n.isRead, n.relatedTask.id, n.kind, "
+        + "n.eventCount, n.actor.id, n.amount, local datetime "
+        + "from Notification n where n.id in :ids")
+    int copyFromNotifications(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Returns the ids of the oldest archived notifications created before a given time, in id order.
+     *
+     * @param before only notifications created before this are returned
+     * @param limit the maximum number of ids to return
+     * @return the ids of the archived notifications
+     */
+    @Query("select a.id from ArchivedNotification a where a.createdAt < :before order by a.id")
+    List<Long> findIdsCreatedBefore(@Param("before") LocalDateTime before, Limit limit);
+
+    /**
+     * Deletes archived notifications in one statement.
+     *
+     * @param ids the ids of the archived notifications
+     * @return the number deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from ArchivedNotification a where a.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,41 @@
+package com.crowdserve.repository;
+
+import com.crowdserve.dto.AreaSubscriptionDto;
+import com.crowdserve.model.AreaSubscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for AreaSubscription entity database operations.
+ */
+@Repository
+public interface AreaSubscriptionRepository extends JpaRepository<AreaSubscription, Long> {
+
+    /**
+     * Finds the areas a user watches, oldest first.
+     *
+     * @param userId the user's id
+     * @return the user's subscriptions
+     */
+    List<AreaSubscription> findByUser_IdOrderByCreatedAtAsc(Long userId);
+
+    /**
+     * Counts the areas a user watches.
+     *
+     * @param userId the user's id
+     * @return the number of subscriptions
+     */
+    long countByUser_Id(Long userId);
+
+    /**
+     * Returns every subscription as id, owner and circle, for loading the subscription index.
+     *
+     * @return all subscriptions
+     */
+    @Query("select new com.crowdserve.dto.AreaSubscriptionDto(s.id, s.user.id, s.latitude, s.longitude, s.radiusKm) "
+        + "from AreaSubscription s")
+    List<AreaSubscriptionDto> findAllCircles();
+}
@@ -0,0 +1,36 @@
+package com.crowdserve.repository;
+
+import com.crowdserve.model.NearbyTaskBroadcast;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for NearbyTaskBroadcast entity database operations.
+ */
+@Repository
+public interface NearbyTaskBroadcastRepository extends JpaRepository<NearbyTaskBroadcast, Long> {
+
+    /**
+     * Finds the broadcasts made after a point in time.
+     *
+     * @param after the earliest creation time, exclusive
+     * @return the broadcasts, in no particular order
+     */
+    List<NearbyTaskBroadcast> findByCreatedAtAfter(LocalDateTime after);
+
+    /**
+     * Deletes the broadcasts made before a point in time, in one statement.
+     *
+     * @param before the cutoff, exclusive
+     * @return the number of broadcasts deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from NearbyTaskBroadcast b where b.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,10 +1,18 @@
 package com.crowdserve.repository;
 
+import com.crowdserve.dto.NotificationItemDto;
+import com.crowdserve.dto.UnreadCountDto;
 import com.crowdserve.model.Notification;
 import com.crowdserve.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -44,4 +52,183 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      * @return count of unread notifications
      */
     long countByUserAndIsReadFalse(User user);
+
+    /**
+     * Counts unread notifications for a user given by id, without loading the user.
+     *
+     * @param userId the id of the user
+     * @return count of unread notifications
+     */
+    long countByUser_IdAndIsReadFalse(Long userId);
+
+    /**
+     * Counts unread notifications for each of several users in one query.
+     * Users without unread notifications are left out.
+     *
+     * @param userIds the ids of the users
+     * @return the unread count of each user that has any
+     */
+    @Query("select new com.crowdserve.dto.UnreadCountDto(n.user.id, count(n)) from Notification n "
+        + "where n.isRead = false and n.user.id in :userIds group by n.user.id")
+    List<UnreadCountDto> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Finds when the newest of a user's notifications up to a given id was created:
+     * the point a client holding that id has caught up to.
+     *
+     * @param userId the id of the user
+     * @param id the id of the last notification the client has
+     * @return the creation time, or null if the user has no notification up to that id
+     */
+    @Query("select max(n.createdAt) from Notification n where n.user.id = :userId and n.id <= :id")
+    LocalDateTime findLatestCreatedAtUpTo(@Param("userId") Long userId, @Param("id") Long id);
+
+    /**
+     * Finds a user's notifications created since a given time, oldest first, leaving out one
+     * the client is known to have. Ids are allocated in blocks and a notification commits
+     * some time after it is created, so replaying by id alone would skip a lower id that
+     * committed after a higher one; callers start a little before the client's last
+     * notification and leave the client to skip what it already has.
+     *
+     * @param userId the id of the user
+     * @param since the earliest creation time to return
+     * @param exceptId the id of the last notification the client has
+     * @param limit the most notifications to return
+     * @return the notifications in creation order
+     */
+    @Query("select n from Notification n where n.user.id = :userId and n.createdAt >= :since and n.id <> :exceptId "
+        + "order by n.createdAt, n.id")
+    List<Notification> findReplay(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                                  @Param("exceptId") Long exceptId, Limit limit);
+
+    /**
+     * Returns the first page of a user's read or unread notifications, newest first,
+     * as projections that load neither the user nor the related task. Templated
+     * notifications are rendered from the task title and actor name read with them.
+     *
+     * @param userId the id of the owner
+     * @param read whether to return read or unread notifications
+     * @param limit the maximum number of notifications to return
+     * @return the newest notifications
+     */
+    @Query("select new com.crowdserve.dto.NotificationItemDto(n.id, n.title, n.message, n.kind, n.eventCount, "
+        + "t.title, a.fullName, n.amount, n.createdAt, n.isRead, t.id) "
+        + "from Notification n left join n.relatedTask t left join n.actor a where n.user.id = :userId and n.isRead = :read "
+        + "order by n.createdAt desc, n.id desc")
+    List<NotificationItemDto> findInbox(@Param("userId") Long userId, @Param("read") boolean read, Limit limit);
+
+    /**
+     * Returns the page of a user's read or unread notifications that follows a keyset
+     * cursor, newest first. The cursor is the creation time and id of the last
+     * notification already shown; ties on the time are broken by id, so no
+     * notification is skipped or repeated however many share a timestamp.
+     *
+     * @param userId the id of the owner
+     * @param read whether to return read or unread notifications
+     * @param createdAt the creation time of the last notification shown
+     * @param id the id of the last notification shown
+     * @param limit the maximum number of notifications to return
+     * @return the notifications after the cursor
+     */
+    @Query("select new com.crowdserve.dto.NotificationItemDto(n.id, n.title, n.message, n.kind, n.eventCount, "
+        + "t.title, a.fullName, n.amount, n.createdAt, n.isRead, t.id) "
+        + "from Notification n left join n.relatedTask t left join n.actor a where n.user.id = :userId and n.isRead = :read "
+        + "and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id < :id)) "
+        + "order by n.createdAt desc, n.id desc")
+    List<NotificationItemDto> findInboxBefore(@Param("userId") Long userId, @Param("read") boolean read,
+                                              @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                              Limit limit);
+
+    /**
+     * Counts which of the given notifications of a user are unread.
+     *
+     * @param userId the id of the owner
+     * @param ids the notification ids; ids of other users' notifications are not counted
+     * @return count of unread notifications among them
+     */
+    long countByUser_IdAndIsReadFalseAndIdIn(Long userId, Collection<Long> ids);
+
+    /**
+     * Marks all of a user's unread notifications read in one statement.
+     *
+     * @param userId the id of the owner
+     * @return the number of notifications marked read
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Notification n set n.isRead = true where n.user.id = :userId and n.isRead = false")
+    int markAllRead(@Param("userId") Long userId);
+
+    /**
+     * Marks the given unread notifications of a user read in one statement.
+     *
+     * @param userId the id of the owner; other users' notifications are left alone
+     * @param ids the notification ids
+     * @return the number of notifications marked read
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Notification n set n.isRead = true "
+        + "where n.user.id = :userId and n.id in :ids and n.isRead = false")
+    int markRead(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes the given notifications of a user in one statement.
+     *
+     * @param userId the id of the owner; other users' notifications are left alone
+     * @param ids the notification ids
+     * @return the number of notifications deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Notification n where n.user.id = :userId and n.id in :ids")
+    int deleteByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes a user's read notifications created before a given time in one statement.
+     *
+     * @param userId the id of the owner
+     * @param before notifications created before this are deleted
+     * @return the number of notifications deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Notification n where n.user.id = :userId and n.isRead = true and n.createdAt < :before")
+    int deleteReadBefore(@Param("userId") Long userId, @Param("before") LocalDateTime before);
+
+    /**
+     * Returns the ids of the oldest read notifications created before a given time, in id order.
+     *
+     * @param before only notifications created before this are returned
+     * @param limit the maximum number of ids to return
+     * @return the ids of the notifications
+     */
+    @Query("select n.id from Notification n where n.isRead = true and n.createdAt < :before order by n.id")
+    List<Long> findReadIdsCreatedBefore(@Param("before") LocalDateTime before, Limit limit);
+
+    /**
+     * Returns the ids of the oldest notifications created before a given time, read or not, in id order.
+     *
+     * @param before only notifications created before this are returned
+     * @param limit the maximum number of ids to return
+     * @return the ids of the notifications
+     */
+    @Query("select n.id from Notification n where n.createdAt < :before order by n.id")
+    List<Long> findIdsCreatedBefore(@Param("before") LocalDateTime before, Limit limit);
+
+    /**
+     * Counts the unread notifications among the given ones, per user.
+     *
+     * @param ids the notification ids
+     * @return the unread count of each user that has any among them
+     */
+    @Query("select new com.crowdserve.dto.UnreadCountDto(n.user.id, count(n)) from Notification n "
+        + "where n.id in :ids and n.isRead = false group by n.user.id")
+    List<UnreadCountDto> countUnreadByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes notifications in one statement, whoever they belong to.
+     *
+     * @param ids the notification ids
+     * @return the number of notifications deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Notification n where n.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,19 +1,43 @@
 package com.crowdserve.repository;
 
+import com.crowdserve.dto.TaskLocationDto;
+import com.crowdserve.dto.TaskTextDto;
 import com.crowdserve.model.Task;
 import com.crowdserve.model.TaskStatus;
 import com.crowdserve.model.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Repository interface for Task entity database operations.
  * Provides CRUD operations and custom query methods for Task entities.
+ * Also runs the JPA Specifications built by the task filter strategies, and the
+ * per-user task queries of {@link UserTaskQueries}.
  */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, UserTaskQueries {
+
+    /**
+     * Finds the tasks matching a specification, with poster and worker fetched in the same query.
+     *
+     * @param spec the filter predicate, or null for all tasks
+     * @param sort the order of the results
+     * @return the matching tasks
+     */
+    @Override
+    @EntityGraph(attributePaths = {"poster", "worker"})
+    List<Task> findAll(Specification<Task> spec, Sort sort);
     
     /**
      * Finds all tasks with a specific status.
@@ -22,7 +46,128 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @return a list of tasks with the specified status
      */
     List<Task> findByStatus(TaskStatus status);
+
+    /**
+     * Finds the ids of all tasks with a specific status.
+     * Used to check in-memory views against the database without loading whole entities.
+     *
+     * @param status the task status to filter by
+     * @return the ids of the tasks with the specified status
+     */
+    @Query("select t.id from Task t where t.status = :status")
+    List<Long> findIdsByStatus(@Param("status") TaskStatus status);
+
+    /**
+     * Finds the coordinates of all tasks with a specific status that have a location.
+     *
+     * @param status the task status to filter by
+     * @return id and coordinates of each located task
+     */
+    @Query("select new com.crowdserve.dto.TaskLocationDto(t.id, t.latitude, t.longitude) from Task t "
+        + "where t.status = :status and t.latitude is not null and t.longitude is not null")
+    List<TaskLocationDto> findLocationsByStatus(@Param("status") TaskStatus status);
+
+    /**
+     * Returns the highest task id, or 0 when there are no tasks.
+     * Used to split a full scan into id ranges that can be loaded in parallel.
+     *
+     * @return the highest task id
+     */
+    @Query("select coalesce(max(t.id), 0) from Task t")
+    Long findMaxId();
+
+    /**
+     * Returns the searchable text of the tasks in an id range, in id order.
+     * Call repeatedly with the last id returned to page through the range.
+     *
+     * @param afterId exclusive lower bound of the range
+     * @param toId inclusive upper bound of the range
+     * @param limit the maximum number of rows to return
+     * @return up to {@code limit} rows ordered by id ascending
+     */
+    @Query("select new com.crowdserve.dto.TaskTextDto(t.id, t.title, t.description, t.location, t.status) "
+        + "from Task t where t.id > :afterId and t.id <= :toId order by t.id")
+    List<TaskTextDto> findTextByIdRange(@Param("afterId") Long afterId, @Param("toId") Long toId, Limit limit);
+
+    /**
+     * Finds tasks by id with their poster fetched in the same query.
+     *
+     * @param ids the task ids
+     * @return the tasks found, in no particular order
+     */
+    @EntityGraph(attributePaths = "poster")
+    List<Task> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Finds tasks whose title contains the given text, ignoring case, newest first.
+     * A table scan; only used while the full-text index is still loading.
+     *
+     * @param text the text to look for
+     * @param status the task status to filter by, or null for any status
+     * @param limit the maximum number of tasks to return
+     * @return the matching tasks
+     */
+    @EntityGraph(attributePaths = "poster")
+    @Query("select t from Task t where (:status is null or t.status = :status) "
+        + "and lower(t.title) like lower(concat('%', :text, '%')) order by t.id desc")
+    List<Task> findByTitleContaining(@Param("text") String text, @Param("status") TaskStatus status, Limit limit);
+
+    /**
+     * Finds tasks with a specific status inside a latitude/longitude bounding box.
+     *
+     * @param status the task status to filter by
+     * @param minLatitude southern edge of the box
+     * @param maxLatitude northern edge of the box
+     * @param minLongitude western edge of the box
+     * @param maxLongitude eastern edge of the box
+     * @return the tasks inside the box
+     */
+    List<Task> findByStatusAndLatitudeBetweenAndLongitudeBetween(TaskStatus status,
+                                                                 Double minLatitude, Double maxLatitude,
+                                                                 Double minLongitude, Double maxLongitude);
+
+    /**
+     * Returns the first page of the keyset-paginated feed for a status, newest task first.
+     * The poster is fetched in the same query so the feed renders without extra selects.
+     *
+     * @param status the task status to filter by
+     * @param limit the maximum number of tasks to return
+     * @return up to {@code limit} tasks ordered by id descending
+     */
+    @EntityGraph(attributePaths = "poster")
+    List<Task> findByStatusOrderByIdDesc(TaskStatus status, Limit limit);
+
+    /**
+     * Returns the next page of the keyset-paginated feed for a status.
+     * Seeks past the last id of the previous page instead of using an OFFSET,
+     * so the cost of a page does not depend on how deep into the feed it is.
+     *
+     * @param status the task status to filter by
+     * @param id the last (smallest) id of the previous page
+     * @param limit the maximum number of tasks to return
+     * @return up to {@code limit} tasks with an id lower than {@code id}, ordered by id descending
+     */
+    @EntityGraph(attributePaths = "poster")
+    List<Task> findByStatusAndIdLessThanOrderByIdDesc(TaskStatus status, Long id, Limit limit);
     
+    /**
+     * Claims an open task for a worker in a single conditional update.
+     * The status check and the assignment happen in the same statement, so when
+     * several workers race for one task the database lets exactly one update the
+     * row; the others match nothing because the status is no longer OPEN.
+     * A poster cannot claim their own task. The update bypasses the entity, so it
+     * increments the task's version itself.
+     *
+     * @param id the task to claim
+     * @param worker the user claiming the task
+     * @return 1 if the task was claimed, 0 if it is missing, not OPEN or posted by the worker
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.worker = :worker, t.status = com.crowdserve.model.TaskStatus.ASSIGNED, "
+        + "t.version = t.version + 1 "
+        + "where t.id = :id and t.status = com.crowdserve.model.TaskStatus.OPEN and t.poster <> :worker")
+    int claimOpenTask(@Param("id") Long id, @Param("worker") User worker);
+
     /**
      * Finds all tasks created by a specific user (poster).
      *
@@ -38,4 +183,15 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @return a list of tasks assigned to the specified user
      */
     List<Task> findByWorker(User worker);
+
+    /**
+     * Finds all tasks a user posted or is assigned to, newest first, in one query.
+     * Poster and worker are fetched in the same query.
+     *
+     * @param poster the user as poster
+     * @param worker the same user as worker
+     * @return the user's tasks ordered by id descending
+     */
+    @EntityGraph(attributePaths = {"poster", "worker"})
+    List<Task> findByPosterOrWorkerOrderByIdDesc(User poster, User worker);
 }
@@ -0,0 +1,39 @@
+package com.crowdserve.repository;
+
+import com.crowdserve.dto.MyTaskDto;
+import com.crowdserve.dto.MyTaskStatusCountDto;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Queries over all the tasks a user is involved in, as poster or as worker.
+ * Both take the filters as a JPA Specification, as built by the task filter strategies,
+ * and return projections rather than entities.
+ */
+public interface UserTaskQueries {
+
+    /**
+     * Returns a page of the tasks a user posted or is assigned to, newest first, in one query.
+     * Seeks past the last id of the previous page instead of using an OFFSET.
+     *
+     * @param user the user whose tasks to find
+     * @param filter further predicates the tasks must match, or null for none
+     * @param beforeId the last (smallest) id of the previous page, or null for the first page
+     * @param limit the maximum number of tasks to return
+     * @return up to {@code limit} tasks ordered by id descending
+     */
+    List<MyTaskDto> findUserTasks(User user, Specification<Task> filter, Long beforeId, int limit);
+
+    /**
+     * Counts the tasks a user posted or is assigned to, grouped by status, in one query.
+     * Statuses the user has no tasks in are left out.
+     *
+     * @param user the user whose tasks to count
+     * @param filter further predicates the tasks must match, or null for none
+     * @return one row per status with the posted and assigned counts
+     */
+    List<MyTaskStatusCountDto> countUserTasksByStatus(User user, Specification<Task> filter);
+}
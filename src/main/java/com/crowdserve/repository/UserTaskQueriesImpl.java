@@ -0,0 +1,99 @@
+package com.crowdserve.repository;
+
+import com.crowdserve.dto.MyTaskDto;
+import com.crowdserve.dto.MyTaskStatusCountDto;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria API implementation of {@link UserTaskQueries}, mixed into {@link TaskRepository}.
+ *
+ * Both queries select where {@code poster_id = :user or worker_id = :user}, which the
+ * poster and worker indexes on the tasks table serve, and join the users only to read
+ * their names.
+ */
+public class UserTaskQueriesImpl implements UserTaskQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<MyTaskDto> findUserTasks(User user, Specification<Task> filter, Long beforeId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MyTaskDto> query = cb.createQuery(MyTaskDto.class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, User> poster = task.join("poster");
+        Join<Task, User> worker = task.join("worker", JoinType.LEFT);
+
+        List<Predicate> where = involving(cb, task, user);
+        if (filter != null) {
+            where.add(filter.toPredicate(task, query, cb));
+        }
+        if (beforeId != null) {
+            where.add(cb.lessThan(task.get("id"), beforeId));
+        }
+
+        query.select(cb.construct(MyTaskDto.class,
+                task.get("id"), task.get("title"), task.get("description"), task.get("location"),
+                task.get("reward"), task.get("status"), poster.get("id"), poster.get("fullName"),
+                worker.get("fullName")))
+            .where(where.toArray(new Predicate[0]))
+            .orderBy(cb.desc(task.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<MyTaskStatusCountDto> countUserTasksByStatus(User user, Specification<Task> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> task = query.from(Task.class);
+
+        List<Predicate> where = involving(cb, task, user);
+        if (filter != null) {
+            where.add(filter.toPredicate(task, query, cb));
+        }
+
+        Expression<TaskStatus> status = task.get("status");
+        Expression<Long> total = cb.count(task);
+        Expression<Long> posted = cb.sum(cb.<Long>selectCase()
+            .when(cb.equal(task.get("poster").get("id"), user.getId()), 1L)
+            .otherwise(0L));
+        query.multiselect(status, total, posted)
+            .where(where.toArray(new Predicate[0]))
+            .groupBy(status);
+
+        List<MyTaskStatusCountDto> counts = new ArrayList<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            long postedCount = row.get(posted);
+            counts.add(new MyTaskStatusCountDto(row.get(status), postedCount, row.get(total) - postedCount));
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the predicate {@code poster_id = :user or worker_id = :user} as a mutable list to add filters to.
+     */
+    private static List<Predicate> involving(CriteriaBuilder cb, Root<Task> task, User user) {
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.or(
+            cb.equal(task.get("poster").get("id"), user.getId()),
+            cb.equal(task.get("worker").get("id"), user.getId())));
+        return where;
+    }
+}
@@ -0,0 +1,58 @@
+package com.crowdserve.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Chooses a BCrypt work factor for the machine the application runs on.
+ *
+ * Each step of the work factor doubles the time one hash takes, so the highest
+ * factor whose hash still fits the target is found by timing one hash at the
+ * lowest allowed factor and stepping up while twice the last time still fits.
+ */
+public final class BCryptWorkFactor {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample";
+
+    private BCryptWorkFactor() {
+    }
+
+    /**
+     * Returns the highest work factor within the bounds whose hash takes at most the target time,
+     * or the lowest bound if even that is slower.
+     *
+     * @param targetHashTime how long one hash should take
+     * @param minStrength the lowest factor to return, at least 4
+     * @param maxStrength the highest factor to return, at most 31
+     * @return the calibrated work factor
+     */
+    public static int calibrate(Duration targetHashTime, int minStrength, int maxStrength) {
+        if (minStrength < 4 || maxStrength > 31 || minStrength > maxStrength) {
+            throw new IllegalArgumentException(
+                "BCrypt work factor bounds must satisfy 4 <= min <= max <= 31, got " + minStrength + ".." + maxStrength);
+        }
+        // Warm up so the first timing is not dominated by class loading and the interpreter
+        time(4);
+
+        int strength = minStrength;
+        long nanos = time(strength);
+        while (strength < maxStrength && nanos * 2 <= targetHashTime.toNanos()) {
+            strength++;
+            nanos = time(strength);
+        }
+        return strength;
+    }
+
+    /**
+     * Measures one hash at the given work factor.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    static long time(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,22 @@
+package com.crowdserve.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller method parameter of type {@link com.crowdserve.model.User}
+ * to receive the logged-in user, resolved by {@link CurrentUserArgumentResolver}.
+ * The parameter is null when the request is not authenticated or the account no
+ * longer exists.
+ *
+ * The user is a detached entity shared between requests for a short while;
+ * treat it as read-only and load a fresh copy before changing it.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
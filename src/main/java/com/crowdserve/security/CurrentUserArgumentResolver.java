@@ -0,0 +1,53 @@
+package com.crowdserve.security;
+
+import com.crowdserve.model.User;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.security.Principal;
+
+/**
+ * Resolves {@link CurrentUser} parameters to the logged-in User.
+ *
+ * The user is taken from {@link CurrentUserCache} once per request and kept as a
+ * request attribute, so every further lookup in the same request, including
+ * after a forward, costs nothing.
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final String REQUEST_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".USER";
+
+    private final CurrentUserCache currentUserCache;
+
+    public CurrentUserArgumentResolver(CurrentUserCache currentUserCache) {
+        this.currentUserCache = currentUserCache;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+            && parameter.getParameterType().isAssignableFrom(User.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Principal principal = webRequest.getUserPrincipal();
+        if (principal == null) {
+            return null;
+        }
+        Object memo = webRequest.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo instanceof User user) {
+            return user;
+        }
+        User user = currentUserCache.get(principal.getName());
+        if (user != null) {
+            webRequest.setAttribute(REQUEST_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+}
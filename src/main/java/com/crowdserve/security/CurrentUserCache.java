@@ -0,0 +1,79 @@
+package com.crowdserve.security;
+
+import com.crowdserve.model.User;
+import com.crowdserve.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Bounded, expiring cache from a principal name to the User it logs in as.
+ *
+ * Users log in with either their username or their email, so the principal name
+ * is looked up as either in one query, and the result is kept
+ * under that name for {@code crowdserve.current-user.ttl}. Unknown names are not
+ * cached, so a user who registers is found on their first request.
+ */
+@Component
+public class CurrentUserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> users;
+
+    public CurrentUserCache(UserRepository userRepository,
+                            @Value("${crowdserve.current-user.ttl:5m}") Duration ttl,
+                            @Value("${crowdserve.current-user.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxSize)
+            .build();
+    }
+
+    /**
+     * Returns the user a principal name logs in as, from the cache or else the database.
+     *
+     * @param principalName the username or email the user logged in with
+     * @return the user, or null if no user has that username or email
+     */
+    public User get(String principalName) {
+        return users.get(principalName, this::load);
+    }
+
+    private User load(String principalName) {
+        return userRepository.findByUsernameOrEmail(principalName).orElse(null);
+    }
+
+    /**
+     * Drops a user from the cache, under both names they may log in with.
+     * Inside a transaction the user is dropped again after commit, so a request
+     * that reloaded the old row before the commit cannot keep it cached.
+     *
+     * @param user the user whose cached copy is stale
+     */
+    public void evict(User user) {
+        evictNow(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(user);
+                }
+            });
+        }
+    }
+
+    private void evictNow(User user) {
+        if (user.getUsername() != null) {
+            users.invalidate(user.getUsername());
+        }
+        if (user.getEmail() != null) {
+            users.invalidate(user.getEmail());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.crowdserve.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Bounded, expiring {@link UserCache} for the login form's authentication provider.
+ *
+ * A login whose name is cached skips the user query and only checks the password
+ * against the cached hash. If that check fails the provider reloads the user
+ * before rejecting the login, so a changed password is never refused because of
+ * a stale entry; an old password stops working once the user is evicted, which
+ * happens whenever the user is saved through UserService.
+ *
+ * Entries are stored and handed out as copies: the authentication manager erases
+ * the password of the principal it returns, which must not erase the cached hash.
+ */
+@Component
+public class LoginUserCache implements UserCache {
+
+    private final Cache<String, UserDetails> users;
+
+    public LoginUserCache(@Value("${crowdserve.login-cache.ttl:10m}") Duration ttl,
+                          @Value("${crowdserve.login-cache.max-size:10000}") long maxSize) {
+        this.users = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxSize)
+            .build();
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails cached = users.getIfPresent(username);
+        return cached == null ? null : copy(cached);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        users.put(user.getUsername(), copy(user));
+    }
+
+    /**
+     * Drops a user's login details. Inside a transaction they are dropped again after
+     * commit, so a login that read the old row before the commit cannot keep it cached.
+     *
+     * @param username the username the details are cached under
+     */
+    @Override
+    public void removeUserFromCache(String username) {
+        users.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    users.invalidate(username);
+                }
+            });
+        }
+    }
+
+    private static UserDetails copy(UserDetails user) {
+        return User.withUserDetails(user).build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.crowdserve.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * PasswordEncoder that runs the hashing and checking of another encoder on a
+ * dedicated, bounded executor.
+ *
+ * BCrypt is deliberately slow. Run on request threads, a burst of registrations
+ * or logins keeps every CPU busy hashing and ordinary page views queue behind
+ * them. Here at most as many hashes run at once as the executor has threads, a
+ * bounded number wait, and any further request is refused at once with
+ * {@link PasswordHashingRejectedException} instead of piling up. The calling
+ * thread waits for its own result up to a timeout.
+ *
+ * Each encode and match is timed in {@code crowdserve.password.hashing}, tagged
+ * by operation, and refusals are counted in {@code crowdserve.password.rejected}.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ExecutorService executor;
+    private final Duration timeout;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, ExecutorService executor, Duration timeout,
+                                     MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeout = timeout;
+        this.encodeTimer = Timer.builder("crowdserve.password.hashing")
+            .description("Time spent hashing or checking one password")
+            .tag("operation", "encode")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.matchesTimer = Timer.builder("crowdserve.password.hashing")
+            .description("Time spent hashing or checking one password")
+            .tag("operation", "matches")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rejected = Counter.builder("crowdserve.password.rejected")
+            .description("Password hashing requests refused because the executor was saturated or too slow")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Only inspects the stored hash, so it is answered on the calling thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Too many passwords are being hashed, try again shortly", e);
+        }
+
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing took longer than " + timeout.toMillis() + " ms", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
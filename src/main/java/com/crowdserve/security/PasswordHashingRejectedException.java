@@ -0,0 +1,16 @@
+package com.crowdserve.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Thrown when a password could not be hashed or checked because the hashing
+ * executor was saturated or the request waited too long for it.
+ * A login that hits this fails like any other login the server could not
+ * complete, rather than with an error page.
+ */
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
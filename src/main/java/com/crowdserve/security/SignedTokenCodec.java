@@ -0,0 +1,207 @@
+package com.crowdserve.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Issues and verifies short-lived login tokens signed with HMAC-SHA256.
+ *
+ * A token reads {@code v2.<key id>.<username>.<credential>.<authenticated>.<issued>.<expires>.<signature>},
+ * with the username, credential version and signature Base64url-encoded and the
+ * times in epoch seconds. Tokens are always signed with the active key and
+ * verified with whichever configured key their id names, so keys can be rotated
+ * by adding a new key, making it active, and removing the old one once its tokens
+ * expired. Verification needs nothing but the keys: no session store and no database.
+ *
+ * A renewed token keeps the time of the login it descends from, and no token
+ * outlives that login by more than the maximum session age, however often it is
+ * renewed. The credential version ties a token to the password hash the user had
+ * when it was issued; see {@link #credentialVersion}.
+ */
+public class SignedTokenCodec {
+
+    private static final String VERSION = "v2";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+    private static final int CREDENTIAL_VERSION_BYTES = 12;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, SecretKeySpec> keys = new HashMap<>();
+    private final String activeKey;
+    private final Duration ttl;
+    private final Duration maxSessionAge;
+    private final Clock clock;
+
+    /**
+     * @param keys the Base64 secrets tokens may be signed with, by key id
+     * @param activeKey the id of the key new tokens are signed with
+     * @param ttl how long a new token is valid
+     * @param maxSessionAge how long after the login no token descending from it is valid
+     * @param clock the source of the current time
+     * @throws IllegalStateException if the active key is missing or a key is unusable
+     */
+    public SignedTokenCodec(Map<String, String> keys, String activeKey, Duration ttl, Duration maxSessionAge, Clock clock) {
+        if (keys == null || activeKey == null || !keys.containsKey(activeKey)) {
+            throw new IllegalStateException("Token sessions need an active key that is one of the configured keys");
+        }
+        keys.forEach((id, secret) -> {
+            if (id.isEmpty() || id.contains(".")) {
+                throw new IllegalStateException("Token key id must be non-empty and contain no '.': '" + id + "'");
+            }
+            byte[] bytes = Base64.getDecoder().decode(secret);
+            if (bytes.length < MIN_KEY_BYTES) {
+                throw new IllegalStateException("Token key '" + id + "' must be at least " + MIN_KEY_BYTES + " bytes");
+            }
+            this.keys.put(id, new SecretKeySpec(bytes, ALGORITHM));
+        });
+        this.activeKey = activeKey;
+        this.ttl = ttl;
+        this.maxSessionAge = maxSessionAge;
+        this.clock = clock;
+    }
+
+    /**
+     * Issues the token for a login that has just happened, signed with the active key.
+     *
+     * @param username the name of the authenticated user
+     * @param credentialVersion the {@link #credentialVersion} of the user's current password hash
+     * @return the signed token
+     */
+    public String issue(String username, String credentialVersion) {
+        return issue(username, credentialVersion, clock.instant());
+    }
+
+    /**
+     * Issues a fresh token for the same login as a verified one, signed with the active key.
+     * It expires one ttl from now, but never later than the maximum session age after the login.
+     *
+     * @param token the verified token being replaced
+     * @return the signed token
+     */
+    public String renew(SessionToken token) {
+        return issue(token.username(), token.credentialVersion(), token.authenticatedAt());
+    }
+
+    private String issue(String username, String credentialVersion, Instant authenticatedAt) {
+        Instant now = clock.instant();
+        Instant expires = min(now.plus(ttl), authenticatedAt.plus(maxSessionAge));
+        String payload = String.join(".", VERSION, activeKey,
+            ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8)), credentialVersion,
+            Long.toString(authenticatedAt.getEpochSecond()), Long.toString(now.getEpochSecond()),
+            Long.toString(expires.getEpochSecond()));
+        return payload + "." + ENCODER.encodeToString(sign(keys.get(activeKey), payload));
+    }
+
+    /**
+     * Verifies a token's signature and expiry. Whether its credential version is still
+     * the user's is left to the caller, which knows the user.
+     *
+     * @param token the token as read from the cookie
+     * @return the verified token, or null if it is malformed, forged, signed with an unknown key,
+     *         expired, or older than the maximum session age
+     */
+    public SessionToken verify(String token) {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 8 || !VERSION.equals(parts[0])) {
+            return null;
+        }
+        SecretKeySpec key = keys.get(parts[1]);
+        if (key == null) {
+            return null;
+        }
+        try {
+            String payload = token.substring(0, token.lastIndexOf('.'));
+            if (!MessageDigest.isEqual(sign(key, payload), DECODER.decode(parts[7]))) {
+                return null;
+            }
+            SessionToken verified = new SessionToken(new String(DECODER.decode(parts[2]), StandardCharsets.UTF_8),
+                parts[1], parts[3], Instant.ofEpochSecond(Long.parseLong(parts[4])),
+                Instant.ofEpochSecond(Long.parseLong(parts[5])), Instant.ofEpochSecond(Long.parseLong(parts[6])));
+            Instant now = clock.instant();
+            return now.isBefore(verified.expiresAt()) && now.isBefore(verified.authenticatedAt().plus(maxSessionAge))
+                ? verified : null;
+        } catch (IllegalArgumentException e) {
+            // Bad Base64 or a number that does not parse
+            return null;
+        }
+    }
+
+    /**
+     * Tells whether a verified token should be replaced by a fresh one: when half its
+     * lifetime has passed, or when it was signed with a key that is no longer active.
+     * A token that already runs to the end of the maximum session age is not renewed,
+     * since a fresh one could not last longer.
+     */
+    public boolean needsRenewal(SessionToken token) {
+        if (!activeKey.equals(token.keyId())) {
+            return true;
+        }
+        if (!token.expiresAt().isBefore(token.authenticatedAt().plus(maxSessionAge))) {
+            return false;
+        }
+        Instant halfway = token.issuedAt().plus(Duration.between(token.issuedAt(), token.expiresAt()).dividedBy(2));
+        return !clock.instant().isBefore(halfway);
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Derives the credential version carried in a token from a user's stored password hash.
+     * Any change of the hash, including a rehash at a higher work factor, changes the version
+     * and so ends every token issued before it. The version is a truncated SHA-256 of the
+     * hash, so the cookie does not expose the hash itself.
+     *
+     * @param passwordHash the user's stored password hash
+     * @return the Base64url credential version
+     */
+    public static String credentialVersion(String passwordHash) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(passwordHash.getBytes(StandardCharsets.UTF_8));
+            return ENCODER.encodeToString(Arrays.copyOf(digest, CREDENTIAL_VERSION_BYTES));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot hash credentials with SHA-256", e);
+        }
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static byte[] sign(SecretKeySpec key, String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign token with " + ALGORITHM, e);
+        }
+    }
+
+    /**
+     * The contents of a verified token.
+     *
+     * @param username the user the token was issued to
+     * @param keyId the id of the key it was signed with
+     * @param credentialVersion the credential version of the user when the login happened
+     * @param authenticatedAt when the user logged in; kept across renewals
+     * @param issuedAt when this token was issued
+     * @param expiresAt when it stops being accepted
+     */
+    public record SessionToken(String username, String keyId, String credentialVersion,
+                               Instant authenticatedAt, Instant issuedAt, Instant expiresAt) {
+    }
+}
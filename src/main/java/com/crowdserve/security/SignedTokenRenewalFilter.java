@@ -0,0 +1,30 @@
+package com.crowdserve.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Renews the signed login token before the response is written, see
+ * {@link SignedTokenSecurityContextRepository#renewIfNeeded}.
+ * Part of the security filter chain only; not registered with the servlet container.
+ */
+public class SignedTokenRenewalFilter extends OncePerRequestFilter {
+
+    private final SignedTokenSecurityContextRepository repository;
+
+    public SignedTokenRenewalFilter(SignedTokenSecurityContextRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        repository.renewIfNeeded(request, response);
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,166 @@
+package com.crowdserve.security;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+
+import java.time.Duration;
+
+/**
+ * Keeps the security context in a signed token cookie instead of an HTTP session.
+ *
+ * Loading a request's context verifies the cookie's signature and expiry, then
+ * checks that its credential version still matches the user's password hash,
+ * read through the login cache; the database is only asked when the user is not
+ * cached. Changing the password or deleting the user therefore ends every token
+ * issued before. A successful login writes the cookie and logout clears it; tokens
+ * held by other browsers end with the next password change or at the maximum session
+ * age. The cookie is HttpOnly, SameSite=Lax, and Secure whenever the request came in over HTTPS.
+ */
+public class SignedTokenSecurityContextRepository implements SecurityContextRepository {
+
+    private static final String VERIFIED_TOKEN = SignedTokenSecurityContextRepository.class.getName() + ".TOKEN";
+
+    private final SignedTokenCodec codec;
+    private final String cookieName;
+    private final UserDetailsService userDetailsService;
+    private final UserCache userCache;
+
+    /**
+     * @param codec issues and verifies the tokens
+     * @param cookieName the name of the cookie holding the token
+     * @param userDetailsService looks up a user's current password hash
+     * @param userCache the login cache, consulted before the user details service
+     */
+    public SignedTokenSecurityContextRepository(SignedTokenCodec codec, String cookieName,
+                                                UserDetailsService userDetailsService, UserCache userCache) {
+        this.codec = codec;
+        this.cookieName = cookieName;
+        this.userDetailsService = userDetailsService;
+        this.userCache = userCache;
+    }
+
+    @Override
+    @Deprecated
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        SignedTokenCodec.SessionToken token = verifiedToken(requestResponseHolder.getRequest());
+        if (token != null) {
+            // Same authorities as UserServiceImpl.loadUserByUsername gives at login
+            UserDetails principal = User.withUsername(token.username()).password("").roles("USER").build();
+            UsernamePasswordAuthenticationToken authentication =
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+            // Lets saveContext tell a restored login from a new one
+            authentication.setDetails(token);
+            context.setAuthentication(authentication);
+        }
+        return context;
+    }
+
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        Authentication authentication = context.getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken || !authentication.isAuthenticated()) {
+            if (readCookie(request) != null) {
+                writeCookie(request, response, "", Duration.ZERO);
+            }
+            return;
+        }
+        String username = authentication.getName();
+        String credentialVersion = currentCredentialVersion(username);
+        if (credentialVersion == null) {
+            return;
+        }
+        String token = authentication.getDetails() instanceof SignedTokenCodec.SessionToken restored
+                && restored.username().equals(username)
+            ? codec.renew(restored)
+            : codec.issue(username, credentialVersion);
+        writeCookie(request, response, token, codec.getTtl());
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return verifiedToken(request) != null;
+    }
+
+    /**
+     * Replaces the request's token with a fresh one when it is half expired or was signed
+     * with a retired key, so active users stay logged in and move to the active key.
+     * Renewal never extends a login past the maximum session age; after that the user
+     * has to log in again.
+     */
+    public void renewIfNeeded(HttpServletRequest request, HttpServletResponse response) {
+        SignedTokenCodec.SessionToken token = verifiedToken(request);
+        if (token != null && codec.needsRenewal(token)) {
+            writeCookie(request, response, codec.renew(token), codec.getTtl());
+        }
+    }
+
+    private SignedTokenCodec.SessionToken verifiedToken(HttpServletRequest request) {
+        Object memo = request.getAttribute(VERIFIED_TOKEN);
+        if (memo instanceof SignedTokenCodec.SessionToken token) {
+            return token;
+        }
+        String value = readCookie(request);
+        SignedTokenCodec.SessionToken token = value == null ? null : codec.verify(value);
+        if (token == null || !token.credentialVersion().equals(currentCredentialVersion(token.username()))) {
+            return null;
+        }
+        request.setAttribute(VERIFIED_TOKEN, token);
+        return token;
+    }
+
+    /**
+     * @return the credential version of the user's current password hash, or null if the user no longer exists
+     */
+    private String currentCredentialVersion(String username) {
+        UserDetails user = userCache.getUserFromCache(username);
+        if (user == null) {
+            try {
+                user = userDetailsService.loadUserByUsername(username);
+            } catch (UsernameNotFoundException e) {
+                return null;
+            }
+            userCache.putUserInCache(user);
+        }
+        return SignedTokenCodec.credentialVersion(user.getPassword());
+    }
+
+    private String readCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private void writeCookie(HttpServletRequest request, HttpServletResponse response, String value, Duration maxAge) {
+        ResponseCookie cookie = ResponseCookie.from(cookieName, value)
+            .path("/")
+            .httpOnly(true)
+            .secure(request.isSecure())
+            .sameSite("Lax")
+            .maxAge(maxAge)
+            .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
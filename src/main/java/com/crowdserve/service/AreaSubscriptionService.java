@@ -0,0 +1,55 @@
+package com.crowdserve.service;
+
+import com.crowdserve.dto.NearbyTaskDto;
+import com.crowdserve.model.AreaSubscription;
+import com.crowdserve.model.User;
+
+import java.util.List;
+
+/**
+ * Service interface for the areas workers watch for new tasks.
+ * A new OPEN task posted inside a watched area reaches the watcher as a notification,
+ * or, when the area has very many watchers, through {@link #getNearbyTasks}.
+ */
+public interface AreaSubscriptionService {
+
+    /**
+     * Starts watching an area for new tasks.
+     *
+     * @param user the watcher
+     * @param latitude the latitude of the centre
+     * @param longitude the longitude of the centre
+     * @param radiusKm the radius, at most the configured maximum
+     * @return the new subscription
+     * @throws IllegalArgumentException if the centre is off the globe or the radius out of range
+     * @throws IllegalStateException if the user already watches as many areas as allowed
+     */
+    AreaSubscription subscribe(User user, double latitude, double longitude, double radiusKm);
+
+    /**
+     * Stops watching an area.
+     *
+     * @param user the watcher
+     * @param subscriptionId the id of one of the user's subscriptions
+     * @throws IllegalArgumentException if the user has no subscription with that id
+     */
+    void unsubscribe(User user, Long subscriptionId);
+
+    /**
+     * Lists the areas a user watches, oldest first.
+     *
+     * @param user the watcher
+     * @return the user's subscriptions
+     */
+    List<AreaSubscription> getSubscriptions(User user);
+
+    /**
+     * Finds the still OPEN tasks others posted in the user's areas that were not sent
+     * as notifications because too many users watch the area.
+     *
+     * @param user the watcher
+     * @param limit the most tasks to return
+     * @return the tasks, newest first, each with its distance from the nearest centre of the user's areas
+     */
+    List<NearbyTaskDto> getNearbyTasks(User user, int limit);
+}
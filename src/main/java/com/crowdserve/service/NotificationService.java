@@ -1,9 +1,13 @@
 package com.crowdserve.service;
 
+import com.crowdserve.dto.NotificationPageDto;
 import com.crowdserve.model.Notification;
+import com.crowdserve.model.NotificationKind;
 import com.crowdserve.model.Task;
 import com.crowdserve.model.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,10 +22,24 @@ public interface NotificationService {
      * @param title notification title
      * @param message notification message
      * @param relatedTask optional related task
-     * @return the created notification
+     * @return the created notification; when notifications are written asynchronously
+     *         ({@code crowdserve.notifications.write.mode=async}) it has no id yet
      */
     Notification createNotification(User user, String title, String message, Task relatedTask);
 
+    /**
+     * Creates a task notification, stored as its kind and parameters and rendered when read.
+     * It may be held back and later merged with others of its kind into one entry.
+     *
+     * @param user the user to notify
+     * @param kind what the notification is about; must be templated
+     * @param relatedTask the task it is about
+     * @param actor the other user it is about, or null
+     * @return the created notification; it has no id if it was held back or written asynchronously
+     * @throws IllegalArgumentException if the kind has no template
+     */
+    Notification createNotification(User user, NotificationKind kind, Task relatedTask, User actor);
+
     /**
      * Gets all notifications for a user.
      *
@@ -38,6 +56,18 @@ public interface NotificationService {
      */
     List<Notification> getUnreadNotifications(User user);
 
+    /**
+     * Gets one page of a user's read or unread notifications, newest first.
+     *
+     * @param user the user
+     * @param read whether to page through read or unread notifications
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of notifications on the page
+     * @return the page and the cursor of the next one
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    NotificationPageDto getInboxPage(User user, boolean read, String cursor, int pageSize);
+
     /**
      * Marks a notification as read.
      *
@@ -46,7 +76,44 @@ public interface NotificationService {
     void markAsRead(Long notificationId);
 
     /**
-     * Gets count of unread notifications.
+     * Marks all of a user's unread notifications read, in one statement.
+     *
+     * @param user the user
+     * @return the number of notifications marked read
+     */
+    int markAllAsRead(User user);
+
+    /**
+     * Marks several of a user's notifications read, in one statement.
+     *
+     * @param user the owner; ids of other users' notifications are ignored
+     * @param notificationIds the notification IDs
+     * @return the number of notifications that were unread and are now read
+     * @throws IllegalArgumentException if more ids are given than one call may carry
+     */
+    int markAsRead(User user, Collection<Long> notificationIds);
+
+    /**
+     * Deletes several of a user's notifications, in one statement.
+     *
+     * @param user the owner; ids of other users' notifications are ignored
+     * @param notificationIds the notification IDs
+     * @return the number of notifications deleted
+     * @throws IllegalArgumentException if more ids are given than one call may carry
+     */
+    int deleteNotifications(User user, Collection<Long> notificationIds);
+
+    /**
+     * Deletes a user's read notifications created before a given time, in one statement.
+     *
+     * @param user the user
+     * @param before read notifications created before this are deleted
+     * @return the number of notifications deleted
+     */
+    int deleteReadBefore(User user, LocalDateTime before);
+
+    /**
+     * Gets count of unread notifications, from memory once the user's count has been loaded.
      *
      * @param user the user
      * @return count of unread notifications
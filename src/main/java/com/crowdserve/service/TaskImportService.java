@@ -0,0 +1,36 @@
+package com.crowdserve.service;
+
+import com.crowdserve.dto.TaskImportResultDto;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.User;
+import com.crowdserve.service.importer.TaskImportFormat;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Service interface for creating many tasks from one uploaded file.
+ */
+public interface TaskImportService {
+
+    /**
+     * Reads tasks from a CSV or JSON upload and creates them, each with a
+     * "Task Created" notification for the poster.
+     *
+     * Rows are validated one at a time; invalid rows are reported in the result and
+     * the rest of the file is still imported. Valid rows are written in batches, each
+     * batch in its own transaction.
+     *
+     * @param input the uploaded file
+     * @param format the file's format
+     * @param poster the user the tasks are posted by
+     * @param onBatchInserted called with each batch of new tasks inside the batch's
+     *                        transaction, before it commits
+     * @return how many rows were read, imported and rejected, and why
+     * @throws IllegalArgumentException if the file does not start as its format requires
+     *                                  (e.g. a CSV header with a missing or unknown column)
+     */
+    TaskImportResultDto importTasks(InputStream input, TaskImportFormat format, User poster,
+                                    Consumer<List<Task>> onBatchInserted);
+}
@@ -1,8 +1,14 @@
 package com.crowdserve.service;
 
+import com.crowdserve.dto.MyTasksPageDto;
+import com.crowdserve.dto.NearbyTaskDto;
 import com.crowdserve.dto.TaskCreationDto;
+import com.crowdserve.dto.TaskPageDto;
+import com.crowdserve.dto.TaskSearchHitDto;
 import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
 import com.crowdserve.model.User;
+import com.crowdserve.service.strategy.TaskFilterStrategy;
 
 import java.util.List;
 import java.util.Optional;
@@ -36,7 +42,50 @@ public interface TaskService {
      * @return a list of all open tasks
      */
     List<Task> getAllOpenTasks();
+
+    /**
+     * Retrieves one page of OPEN tasks, newest first, using keyset pagination.
+     *
+     * @param beforeId the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of tasks on the page
+     * @return the page of open tasks and the cursor for the next page
+     */
+    TaskPageDto getOpenTasksPage(Long beforeId, int pageSize);
+
+    /**
+     * Finds OPEN tasks within a radius of a location, nearest first.
+     *
+     * @param latitude latitude of the search centre in degrees
+     * @param longitude longitude of the search centre in degrees
+     * @param radiusKm search radius in kilometres
+     * @param limit maximum number of tasks to return
+     * @return nearby open tasks with their distance
+     * @throws IllegalArgumentException if the coordinates are out of range
+     */
+    List<NearbyTaskDto> findOpenTasksNear(double latitude, double longitude, double radiusKm, int limit);
+
+    /**
+     * Finds the k OPEN tasks nearest to a location.
+     *
+     * @param latitude latitude of the search centre in degrees
+     * @param longitude longitude of the search centre in degrees
+     * @param k number of tasks wanted
+     * @return up to k open tasks with their distance, nearest first
+     * @throws IllegalArgumentException if the coordinates are out of range
+     */
+    List<NearbyTaskDto> findNearestOpenTasks(double latitude, double longitude, int k);
     
+    /**
+     * Searches task titles, descriptions and locations, best match first.
+     * The last word of the query also matches words it is a prefix of.
+     *
+     * @param query free text
+     * @param status only return tasks in this status, or null for any status
+     * @param limit maximum number of tasks to return
+     * @return matching tasks with their relevance score
+     */
+    List<TaskSearchHitDto> searchTasks(String query, TaskStatus status, int limit);
+
     /**
      * Retrieves all tasks associated with a specific user.
      * This includes tasks posted by the user and tasks assigned to the user.
@@ -45,6 +94,20 @@ public interface TaskService {
      * @return a list of tasks associated with the user
      */
     List<Task> getTasksForUser(User user);
+
+    /**
+     * Retrieves one page of the tasks a user posted or is assigned to, newest first,
+     * using keyset pagination, together with the number of their tasks in each status.
+     *
+     * @param user the user whose tasks to retrieve
+     * @param status only return tasks in this status, or null for any status
+     * @param criteria further filters, applied to the page and the counts, or null for none
+     * @param beforeId the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of tasks on the page
+     * @return the page split into posted and assigned tasks, the status counts and the next cursor
+     * @throws IllegalArgumentException if the criteria cannot be run as a query
+     */
+    MyTasksPageDto getMyTasksPage(User user, TaskStatus status, TaskFilterStrategy criteria, Long beforeId, int pageSize);
     
     /**
      * Deletes a task if the current user is authorized to do so.
@@ -62,7 +125,7 @@ public interface TaskService {
      * @param worker the user to assign as worker
      * @return the updated Task entity
      * @throws RuntimeException if task not found
-     * @throws IllegalStateException if task is not in OPEN status
+     * @throws IllegalStateException if task is not in OPEN status or was taken by another worker
      */
     Task assignWorker(Long taskId, User worker);
 
@@ -75,4 +138,15 @@ public interface TaskService {
      * @throws IllegalStateException if task is not in ASSIGNED status
      */
     Task markCompleted(Long taskId);
+
+    /**
+     * Cancels a task on behalf of its poster.
+     *
+     * @param taskId the ID of the task to cancel
+     * @param poster the user requesting the cancellation
+     * @return the updated Task entity
+     * @throws RuntimeException if task not found
+     * @throws IllegalStateException if the user is not the poster or the task is not OPEN or ASSIGNED
+     */
+    Task cancelTask(Long taskId, User poster);
 }
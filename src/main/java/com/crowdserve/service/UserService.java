@@ -43,4 +43,13 @@ public interface UserService {
      * @return the updated User entity
      */
     User updateProfile(User user);
+
+    /**
+     * Turns the periodic notification digest on or off for a user.
+     *
+     * @param user the user
+     * @param enabled true to get task notifications as a digest, false to get them one by one
+     * @return the updated User entity
+     */
+    User setNotificationDigest(User user, boolean enabled);
 }
@@ -0,0 +1,234 @@
+package com.crowdserve.service.batch;
+
+import com.crowdserve.config.NotificationWriteProperties;
+import com.crowdserve.dto.NotificationEventDto;
+import com.crowdserve.model.Notification;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.service.stream.NotificationCreatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Writes notifications in batches: group commit for notification inserts.
+ *
+ * Notifications handed over outside a transaction are queued; a single writer
+ * thread takes what has arrived within {@code linger}, up to {@code max-batch},
+ * and inserts it in one transaction, which Hibernate sends as JDBC batches. Many
+ * concurrent callers therefore share one commit instead of paying for one each.
+ * If a batch fails, each caller's notifications are retried in a transaction of
+ * their own, so one bad write does not fail the others it was grouped with.
+ *
+ * In {@code flush-on-commit} mode a caller returns once its notifications are
+ * committed, and notifications created inside a transaction are simply persisted
+ * with it, so they commit or roll back together. In {@code async} mode a caller
+ * returns at once, before the notifications have ids; notifications created inside
+ * a transaction are queued once it commits, or dropped and counted in
+ * {@code crowdserve.notifications.write.dropped} if the queue is full then, since
+ * the committed change can no longer be failed. Either way each notification is pushed
+ * to its user's open streams after it is committed.
+ *
+ * Batch sizes and write times are exported as {@code crowdserve.notifications.batch.size}
+ * and {@code crowdserve.notifications.batch.write}.
+ */
+@Component
+public class NotificationBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationBatchWriter.class);
+
+    private record Pending(List<Notification> notifications, CompletableFuture<Void> written) {
+    }
+
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationWriteProperties properties;
+    private final BlockingQueue<Pending> queue;
+    private final DistributionSummary batchSize;
+    private final Timer batchWrite;
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public NotificationBatchWriter(NotificationRepository notificationRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher,
+                                   NotificationWriteProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.batchSize = DistributionSummary.builder("crowdserve.notifications.batch.size")
+            .description("Notifications inserted per batch")
+            .register(meterRegistry);
+        this.batchWrite = Timer.builder("crowdserve.notifications.batch.write")
+            .description("Time to insert and commit one batch of notifications")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("crowdserve.notifications.write.dropped")
+            .description("Notifications dropped because the write queue was full when their transaction committed")
+            .register(meterRegistry);
+        this.writer = new Thread(this::run, "notification-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Writes notifications according to the configured mode.
+     *
+     * @param notifications new notifications, without ids
+     * @return the same notifications; they have ids unless the mode is {@code async}
+     * @throws IllegalStateException if the queue stays full outside a transaction, or a
+     *                               {@code flush-on-commit} batch fails or does not commit in time
+     */
+    public List<Notification> write(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return notifications;
+        }
+        boolean async = properties.mode() == NotificationWriteProperties.Mode.ASYNC;
+        if (!async && TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Hibernate holds the inserts until the caller's flush and sends them as JDBC batches
+            List<Notification> saved = notificationRepository.saveAll(notifications);
+            saved.forEach(this::published);
+            return saved;
+        }
+        if (async && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // Never wait or throw here: the caller's change has already committed
+                    if (!queue.offer(new Pending(notifications, new CompletableFuture<>()))) {
+                        dropped.increment(notifications.size());
+                        logger.error("Notification write queue is full, dropped {} notifications", notifications.size());
+                    }
+                }
+            });
+            return notifications;
+        }
+        Pending pending = enqueue(notifications);
+        if (!async) {
+            await(pending);
+        }
+        return notifications;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Lets the writer finish what is queued
+        running = false;
+        writer.join(properties.timeout().toMillis());
+    }
+
+    private Pending enqueue(List<Notification> notifications) {
+        Pending pending = new Pending(notifications, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, properties.timeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Notification write queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing notifications", e);
+        }
+        return pending;
+    }
+
+    private void await(Pending pending) {
+        try {
+            pending.written().get(properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not write notifications", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Notifications were not written in time", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing notifications", e);
+        }
+    }
+
+    private void run() {
+        long linger = properties.linger().toNanos();
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<Pending> batch = new ArrayList<>();
+                batch.add(first);
+                int count = first.notifications().size();
+                long deadline = System.nanoTime() + linger;
+                while (count < properties.maxBatch()) {
+                    Pending next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    count += next.notifications().size();
+                }
+                flush(batch, count);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes a batch in one transaction. If the database rejects it, retries each
+     * caller's notifications in their own transaction so only the write that caused
+     * the failure fails.
+     */
+    private void flush(List<Pending> batch, int count) {
+        List<Notification> notifications = new ArrayList<>(count);
+        batch.forEach(pending -> notifications.addAll(pending.notifications()));
+        try {
+            batchWrite.record(() -> transactionTemplate.executeWithoutResult(status ->
+                notificationRepository.saveAll(notifications)));
+            batchSize.record(count);
+            logger.debug("Wrote {} notifications in one batch", count);
+        } catch (RuntimeException e) {
+            // The rolled-back inserts left their ids behind; a retry must insert afresh
+            notifications.forEach(notification -> notification.setId(null));
+            if (batch.size() == 1) {
+                logger.error("Could not write {} notifications", count, e);
+                batch.get(0).written().completeExceptionally(e);
+                return;
+            }
+            logger.warn("Batch of {} notifications failed, retrying each write on its own: {}", count, e.getMessage());
+            for (Pending pending : batch) {
+                flush(List.of(pending), pending.notifications().size());
+            }
+            return;
+        }
+        notifications.forEach(this::published);
+        batch.forEach(pending -> pending.written().complete(null));
+    }
+
+    /**
+     * Pushes a notification to its user's streams; inside a transaction, once it commits.
+     */
+    private void published(Notification notification) {
+        eventPublisher.publishEvent(new NotificationCreatedEvent(notification.getUser().getId(),
+            NotificationEventDto.from(notification)));
+    }
+}
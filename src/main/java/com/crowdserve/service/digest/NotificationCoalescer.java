@@ -0,0 +1,286 @@
+package com.crowdserve.service.digest;
+
+import com.crowdserve.config.NotificationCoalescingProperties;
+import com.crowdserve.model.Notification;
+import com.crowdserve.model.NotificationKind;
+import com.crowdserve.model.User;
+import com.crowdserve.service.batch.NotificationBatchWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Merges bursts of notifications of the same kind for the same user into one entry.
+ *
+ * The first notification of a kind is written at once and opens a window of
+ * {@code window}; the ones that follow within it are held back, and when the
+ * window closes they are written as a single entry such as "11 more of your tasks
+ * were completed" (or unchanged, if there was only one). A user with hundreds of
+ * tasks completing at once thus gets two rows instead of hundreds.
+ *
+ * Users who opted into the digest ({@link User#isNotificationDigest()}) get nothing
+ * one by one: everything of a coalesced kind is held for them, and every
+ * {@code digest-interval} each gets one entry summing it up by kind.
+ *
+ * A notification created inside a transaction is only held once that transaction
+ * commits, so one that is rolled back is never written or counted. Windows open on
+ * commit as well: the first notification of a kind to commit opens the window and is
+ * written at once, on a scheduler thread since its own transaction has already ended.
+ * Held notifications live in memory only and are
+ * written when the application shuts down cleanly. Notifications held back are counted in
+ * {@code crowdserve.notifications.coalesced}, merged entries written in
+ * {@code crowdserve.notifications.merged}.
+ */
+@Component
+public class NotificationCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationCoalescer.class);
+
+    static final String DIGEST_TITLE = "Your Notification Digest";
+
+    private record Key(Long userId, NotificationKind kind) {
+    }
+
+    /**
+     * Notifications held back for one user: of one kind while its window is open, or of
+     * every kind until the next digest. Changed only inside {@code compute} on its map entry.
+     */
+    private static final class Held {
+        private final User user;
+        private final Map<NotificationKind, Integer> counts = new EnumMap<>(NotificationKind.class);
+        private Notification first;
+        private int total;
+
+        private Held(User user) {
+            this.user = user;
+        }
+
+        private void add(Notification notification) {
+            if (first == null) {
+                first = notification;
+            }
+            counts.merge(notification.getKind(), 1, Integer::sum);
+            total++;
+        }
+    }
+
+    private final NotificationBatchWriter notificationBatchWriter;
+    private final NotificationCoalescingProperties properties;
+    private final ConcurrentMap<Key, Held> windows = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Held> digests = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+    private final Counter merged;
+    private final TaskScheduler taskScheduler;
+    private final ScheduledFuture<?> digestSchedule;
+
+    public NotificationCoalescer(NotificationBatchWriter notificationBatchWriter,
+                                 NotificationCoalescingProperties properties,
+                                 MeterRegistry meterRegistry,
+                                 @Qualifier("taskScheduler") TaskScheduler taskScheduler) {
+        this.notificationBatchWriter = notificationBatchWriter;
+        this.properties = properties;
+        this.coalesced = Counter.builder("crowdserve.notifications.coalesced")
+            .description("Notifications held back to be merged with others of their kind")
+            .register(meterRegistry);
+        this.merged = Counter.builder("crowdserve.notifications.merged")
+            .description("Entries written in place of several held notifications")
+            .register(meterRegistry);
+        this.taskScheduler = taskScheduler;
+        this.digestSchedule = taskScheduler.scheduleAtFixedRate(this::writeDigests,
+            Instant.now().plus(properties.digestInterval()), properties.digestInterval());
+    }
+
+    /**
+     * Holds back what can be merged with notifications to come.
+     *
+     * @param notifications new notifications, without ids
+     * @return those to write now, in order
+     */
+    public List<Notification> coalesce(List<Notification> notifications) {
+        if (!properties.enabled()) {
+            return notifications;
+        }
+        List<Notification> now = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            if (!hold(notification)) {
+                now.add(notification);
+            }
+        }
+        return now;
+    }
+
+    /**
+     * Writes every held notification at once: the open windows and the pending digests.
+     */
+    public void flush() {
+        windows.keySet().forEach(this::closeWindow);
+        writeDigests();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        digestSchedule.cancel(false);
+        flush();
+    }
+
+    /**
+     * @return the number of notifications held back right now
+     */
+    int held() {
+        int held = 0;
+        for (Held window : windows.values()) {
+            held += window.total;
+        }
+        for (Held digest : digests.values()) {
+            held += digest.total;
+        }
+        return held;
+    }
+
+    private boolean hold(Notification notification) {
+        NotificationKind kind = notification.getKind();
+        if (kind == null || !kind.isCoalesced()) {
+            return false;
+        }
+        User user = notification.getUser();
+        if (user.isNotificationDigest()) {
+            afterCommit(() -> {
+                digests.compute(user.getId(), (id, digest) -> {
+                    Held held = digest != null ? digest : new Held(user);
+                    held.add(notification);
+                    return held;
+                });
+                coalesced.increment();
+            });
+            return true;
+        }
+        Key key = new Key(user.getId(), kind);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return holdInWindow(key, notification);
+        }
+        afterCommit(() -> {
+            if (!holdInWindow(key, notification)) {
+                // Writing here would join the transaction that has just committed
+                taskScheduler.schedule(() -> write(List.of(notification)), Instant.now());
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Adds a committed notification to its window, or opens the window with it.
+     *
+     * @return false if the notification opened the window and is to be written now
+     */
+    private boolean holdInWindow(Key key, Notification notification) {
+        boolean[] opened = new boolean[1];
+        windows.compute(key, (k, window) -> {
+            if (window == null) {
+                // The first of a burst goes out at once and starts the window
+                opened[0] = true;
+                return new Held(notification.getUser());
+            }
+            window.add(notification);
+            return window;
+        });
+        if (opened[0]) {
+            scheduleClose(key);
+            return false;
+        }
+        coalesced.increment();
+        return true;
+    }
+
+    /**
+     * Runs a hold once the current transaction commits, or at once without one.
+     */
+    private void afterCommit(Runnable hold) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            hold.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hold.run();
+            }
+        });
+    }
+
+    private void scheduleClose(Key key) {
+        taskScheduler.schedule(() -> closeWindow(key), Instant.now().plus(properties.window()));
+    }
+
+    private void closeWindow(Key key) {
+        Held window = windows.remove(key);
+        if (window == null || window.total == 0) {
+            return;
+        }
+        // Merged entries of a templated kind are rendered from the kind and count when read
+        Notification notification = window.total == 1 ? window.first : mergedNotification(window, null, null);
+        write(List.of(notification));
+    }
+
+    private void writeDigests() {
+        List<Notification> notifications = new ArrayList<>();
+        for (Long userId : digests.keySet()) {
+            Held digest = digests.remove(userId);
+            if (digest == null || digest.total == 0) {
+                continue;
+            }
+            if (digest.total == 1) {
+                notifications.add(digest.first);
+                continue;
+            }
+            StringJoiner message = new StringJoiner("; ", "", ".");
+            digest.counts.forEach((kind, count) -> message.add(kind.summary(count)));
+            Notification notification = mergedNotification(digest, DIGEST_TITLE, message.toString());
+            notification.setKind(NotificationKind.DIGEST);
+            notifications.add(notification);
+        }
+        write(notifications);
+    }
+
+    private Notification mergedNotification(Held held, String title, String message) {
+        Notification notification = new Notification();
+        notification.setUser(held.user);
+        notification.setTitle(title);
+        notification.setMessage(message);
+        notification.setKind(held.first.getKind());
+        notification.setEventCount(held.total);
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setRead(false);
+        return notification;
+    }
+
+    private void write(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        try {
+            notificationBatchWriter.write(notifications);
+            merged.increment(notifications.stream().filter(notification -> notification.getEventCount() > 1).count());
+        } catch (RuntimeException e) {
+            // The rest of a flush still goes out; these notifications are lost
+            logger.error("Could not write {} merged notifications", notifications.size(), e);
+        }
+    }
+}
@@ -1,23 +1,29 @@
 package com.crowdserve.service.facade;
 
+import com.crowdserve.dto.TaskCreationDto;
+import com.crowdserve.dto.TaskImportResultDto;
 import com.crowdserve.model.Task;
 import com.crowdserve.model.User;
+import com.crowdserve.service.TaskImportService;
 import com.crowdserve.service.TaskService;
 import com.crowdserve.service.UserService;
+import com.crowdserve.service.importer.TaskImportFormat;
+import com.crowdserve.service.observer.TaskEventBus;
+import com.crowdserve.service.observer.TaskEventType;
 import com.crowdserve.service.observer.TaskObserver;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.InputStream;
 
 /**
  * Facade Pattern Implementation for Task Workflow Operations.
  * 
  * This class provides a simplified, unified interface for complex task operations
  * that involve multiple services. It acts as the "Subject" in the Observer pattern,
- * notifying registered observers when tasks are completed.
+ * notifying registered observers when tasks are created, assigned, completed, cancelled or deleted.
  * 
  * Design Pattern: Facade
  * - Simplifies complex subsystem interactions
@@ -25,8 +31,10 @@ import java.util.List;
  * - Coordinates between TaskService and UserService
  * 
  * Design Pattern: Observer (Subject role)
- * - Maintains list of observers
- * - Notifies observers on task completion events
+ * - Registers observers with the TaskEventBus
+ * - Publishes every task lifecycle event, which the bus delivers once the
+ *   facade's transaction commits, so an observer can neither slow down nor
+ *   roll back the operation it observes
  */
 @Service
 @Transactional
@@ -34,24 +42,39 @@ public class TaskWorkflowFacade {
 
     private final TaskService taskService;
     private final UserService userService;
-    
-    // Observer pattern: list of observers to notify on task events
-    private final List<TaskObserver> observers = new ArrayList<>();
+    private final TaskImportService taskImportService;
+
+    // Observer pattern: delivers task events to the registered observers
+    private final TaskEventBus taskEventBus;
 
     @Autowired
-    public TaskWorkflowFacade(TaskService taskService, UserService userService) {
+    public TaskWorkflowFacade(TaskService taskService, UserService userService, TaskImportService taskImportService,
+                              TaskEventBus taskEventBus) {
         this.taskService = taskService;
         this.userService = userService;
+        this.taskImportService = taskImportService;
+        this.taskEventBus = taskEventBus;
     }
 
     /**
-     * Registers an observer to be notified of task events.
+     * Registers an observer to be notified of task events asynchronously, after commit.
      * Observer Pattern: attach operation
      *
      * @param observer the observer to register
      */
     public void addObserver(TaskObserver observer) {
-        observers.add(observer);
+        taskEventBus.subscribe(observer);
+    }
+
+    /**
+     * Registers an observer to be notified of task events after commit, in the given way.
+     * Observer Pattern: attach operation
+     *
+     * @param observer the observer to register
+     * @param delivery whether the observer is called on the committing thread or asynchronously
+     */
+    public void addObserver(TaskObserver observer, TaskEventBus.Delivery delivery) {
+        taskEventBus.subscribe(observer, delivery);
     }
 
     /**
@@ -61,7 +84,7 @@ public class TaskWorkflowFacade {
      * @param observer the observer to remove
      */
     public void removeObserver(TaskObserver observer) {
-        observers.remove(observer);
+        taskEventBus.unsubscribe(observer);
     }
 
     /**
@@ -71,9 +94,81 @@ public class TaskWorkflowFacade {
      * @param task the completed task
      */
     private void notifyTaskCompleted(Task task) {
-        for (TaskObserver observer : observers) {
-            observer.onTaskCompleted(task);
-        }
+        taskEventBus.publish(TaskEventType.COMPLETED, task);
+    }
+
+    /**
+     * Notifies all registered observers of a task creation event.
+     *
+     * @param task the newly created task
+     */
+    private void notifyTaskCreated(Task task) {
+        taskEventBus.publish(TaskEventType.CREATED, task);
+    }
+
+    /**
+     * Notifies all registered observers of a task assignment event.
+     *
+     * @param task the assigned task
+     */
+    private void notifyTaskAssigned(Task task) {
+        taskEventBus.publish(TaskEventType.ASSIGNED, task);
+    }
+
+    /**
+     * Notifies all registered observers of a task cancellation event.
+     *
+     * @param task the cancelled task
+     */
+    private void notifyTaskCancelled(Task task) {
+        taskEventBus.publish(TaskEventType.CANCELLED, task);
+    }
+
+    /**
+     * Notifies all registered observers of a task deletion event.
+     *
+     * @param task the deleted task
+     */
+    private void notifyTaskDeleted(Task task) {
+        taskEventBus.publish(TaskEventType.DELETED, task);
+    }
+
+    /**
+     * Posts a new task and notifies all observers.
+     *
+     * @param taskDto the task creation data
+     * @param poster the user creating the task
+     * @return the newly created Task entity
+     */
+    public Task createTask(TaskCreationDto taskDto, User poster) {
+        Task createdTask = taskService.createTask(taskDto, poster);
+
+        // Observer Pattern: notify all observers of creation
+        notifyTaskCreated(createdTask);
+
+        return createdTask;
+    }
+
+    /**
+     * Creates tasks in bulk from an uploaded file and notifies all observers of each one.
+     * Runs outside any surrounding transaction: every batch commits on its own, so
+     * a large import neither holds one long transaction nor loses earlier batches
+     * when a later row fails.
+     *
+     * @param input the uploaded CSV or JSON file
+     * @param format the file's format
+     * @param poster the user the tasks are posted by
+     * @return the counts of imported and rejected rows, with the reasons for rejection
+     * @throws IllegalArgumentException if the file does not start as its format requires
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TaskImportResultDto importTasks(InputStream input, TaskImportFormat format, User poster) {
+        return taskImportService.importTasks(input, format, poster, batch -> {
+            // Observer Pattern: published inside each batch's transaction, delivered once it commits
+            for (Task task : batch) {
+                notifyTaskCreated(task);
+            }
+        });
     }
 
     /**
@@ -83,6 +178,7 @@ public class TaskWorkflowFacade {
      * 1. Validates the worker exists
      * 2. Assigns the worker to the task
      * 3. Changes task status to ASSIGNED
+     * 4. Notifies all registered observers
      *
      * @param taskId the ID of the task to accept
      * @param workerId the ID of the user accepting the task
@@ -95,7 +191,12 @@ public class TaskWorkflowFacade {
         User worker = userService.getUserById(workerId);
         
         // Delegate to TaskService for the actual assignment
-        return taskService.assignWorker(taskId, worker);
+        Task assignedTask = taskService.assignWorker(taskId, worker);
+
+        // Observer Pattern: notify all observers of the assignment
+        notifyTaskAssigned(assignedTask);
+
+        return assignedTask;
     }
 
     /**
@@ -120,6 +221,40 @@ public class TaskWorkflowFacade {
         return completedTask;
     }
 
+    /**
+     * Cancels a task on behalf of its poster and notifies all observers.
+     *
+     * @param taskId the ID of the task to cancel
+     * @param poster the user requesting the cancellation
+     * @return the updated Task entity
+     * @throws RuntimeException if task not found
+     * @throws IllegalStateException if the user is not the poster or the task cannot be cancelled
+     */
+    public Task cancelTask(Long taskId, User poster) {
+        Task cancelledTask = taskService.cancelTask(taskId, poster);
+
+        // Observer Pattern: notify all observers of the cancellation
+        notifyTaskCancelled(cancelledTask);
+
+        return cancelledTask;
+    }
+
+    /**
+     * Deletes a task on behalf of its poster and notifies all observers.
+     *
+     * @param taskId the ID of the task to delete
+     * @param poster the user requesting the deletion
+     * @throws RuntimeException if task not found
+     * @throws IllegalStateException if the user is not the poster
+     */
+    public void deleteTask(Long taskId, User poster) {
+        Task task = getTask(taskId);
+        taskService.deleteTask(taskId, poster);
+
+        // Observer Pattern: notify all observers of the deletion
+        notifyTaskDeleted(task);
+    }
+
     /**
      * Gets a task by ID through the facade.
      * Convenience method for controllers.
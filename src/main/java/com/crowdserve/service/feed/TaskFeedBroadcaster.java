@@ -0,0 +1,271 @@
+package com.crowdserve.service.feed;
+
+import com.crowdserve.config.TaskFeedProperties;
+import com.crowdserve.model.Task;
+import com.crowdserve.service.facade.TaskWorkflowFacade;
+import com.crowdserve.service.index.GeoGrid;
+import com.crowdserve.service.observer.TaskEventBus;
+import com.crowdserve.service.observer.TaskObserver;
+import com.crowdserve.service.observer.TaskVersions;
+import com.crowdserve.service.outbox.Outbox;
+import com.crowdserve.service.outbox.OutboxSender;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Broadcasts changes to open tasks to the dashboards connected over WebSocket.
+ *
+ * Observes the workflow events published by {@link TaskWorkflowFacade}, which
+ * arrive once the causing transaction commits, and queues a {@link TaskFeedDelta}
+ * per task. Every {@code tick} the queued deltas are sent as one JSON array to each connection;
+ * several changes to one task within a tick are coalesced into the latest, so a
+ * burst of activity costs each dashboard one message per tick. Events are not
+ * ordered across transactions, so an event older than the last one queued for the
+ * same task, by the task's version, is ignored. A connection may
+ * subscribe to a region, in which case it only gets the tasks located inside it.
+ *
+ * The ticker never writes to a connection itself. Each connection has an
+ * {@link Outbox}, written in order by one task at a time on the {@code sender-threads},
+ * so a slow dashboard delays only its own messages. A connection whose outbox grows past
+ * {@code buffer-size-limit}, or whose send has not returned within {@code send-time-limit},
+ * is closed, and the dashboard reconnects and reloads. A blocked send cannot be
+ * interrupted; while it stays blocked the pool gets one more thread, up to
+ * {@code max-stalled-sends}, so slow dashboards cannot starve the others.
+ */
+@Component
+public class TaskFeedBroadcaster implements TaskObserver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskFeedBroadcaster.class);
+
+    /**
+     * The area a connection subscribes to.
+     */
+    public record Region(double latitude, double longitude, double radiusKm) {
+
+        boolean contains(TaskFeedDelta delta) {
+            return delta.latitude() != null && delta.longitude() != null
+                && GeoGrid.distanceKm(latitude, longitude, delta.latitude(), delta.longitude()) <= radiusKm;
+        }
+    }
+
+    private final TaskWorkflowFacade taskWorkflowFacade;
+    private final ObjectMapper objectMapper;
+    private final TaskFeedProperties properties;
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> ticker;
+    private final OutboxSender sender;
+    private final TaskVersions versions = new TaskVersions();
+
+    // Latest delta per task since the last tick, in order of first change
+    private final Object pendingLock = new Object();
+    private Map<Long, TaskFeedDelta> pending = new LinkedHashMap<>();
+
+    public TaskFeedBroadcaster(@Lazy TaskWorkflowFacade taskWorkflowFacade, ObjectMapper objectMapper,
+                               TaskFeedProperties properties, @Qualifier("taskScheduler") TaskScheduler taskScheduler) {
+        this.taskWorkflowFacade = taskWorkflowFacade;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.sender = new OutboxSender("task-feed-sender-", properties.senderThreads(), properties.maxStalledSends());
+        this.ticker = taskScheduler.scheduleWithFixedDelay(this::tick,
+            Instant.now().plus(properties.tick()), properties.tick());
+    }
+
+    /**
+     * Registers this broadcaster as an observer once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerObserver() {
+        taskWorkflowFacade.addObserver(this, TaskEventBus.Delivery.AFTER_COMMIT);
+    }
+
+    /**
+     * Adds a connection to the feed.
+     *
+     * @param session the connection
+     * @param region the area to send tasks from, or null for all tasks
+     */
+    public void subscribe(WebSocketSession session, Region region) {
+        if (region != null) {
+            GeoGrid.checkCoordinates(region.latitude(), region.longitude());
+            if (!(region.radiusKm() > 0 && region.radiusKm() <= properties.maxRadiusKm())) {
+                throw new IllegalArgumentException("Radius must be between 0 and " + properties.maxRadiusKm() + " km");
+            }
+        }
+        subscribers.put(session.getId(), new Subscriber(session, region));
+    }
+
+    /**
+     * Removes a connection from the feed.
+     */
+    public void unsubscribe(WebSocketSession session) {
+        subscribers.remove(session.getId());
+    }
+
+    /**
+     * @return the number of connected dashboards
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void onTaskCreated(Task task) {
+        queue(TaskFeedDelta.CREATED, task);
+    }
+
+    @Override
+    public void onTaskAssigned(Task task) {
+        queue(TaskFeedDelta.ASSIGNED, task);
+    }
+
+    @Override
+    public void onTaskCompleted(Task task) {
+        queue(TaskFeedDelta.COMPLETED, task);
+    }
+
+    @Override
+    public void onTaskCancelled(Task task) {
+        queue(TaskFeedDelta.CANCELLED, task);
+    }
+
+    @Override
+    public void onTaskDeleted(Task task) {
+        queue(TaskFeedDelta.DELETED, task);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.cancel(false);
+        sender.shutdownNow();
+    }
+
+    /**
+     * Sends the deltas queued since the last tick. Called by the ticker; package-private for tests.
+     */
+    void tick() {
+        closeStalledSubscribers();
+        Map<Long, TaskFeedDelta> batch;
+        synchronized (pendingLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        try {
+            List<TaskFeedDelta> deltas = new ArrayList<>(batch.values());
+            // Connections without a region share one serialized message
+            String everything = objectMapper.writeValueAsString(deltas);
+            for (Subscriber subscriber : subscribers.values()) {
+                if (subscriber.region == null) {
+                    subscriber.offer(new TextMessage(everything));
+                } else {
+                    List<TaskFeedDelta> inRegion = deltas.stream().filter(subscriber.region::contains).toList();
+                    if (!inRegion.isEmpty()) {
+                        subscriber.offer(new TextMessage(objectMapper.writeValueAsString(inRegion)));
+                    }
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize task feed deltas", e);
+        }
+    }
+
+    private void closeStalledSubscribers() {
+        for (Subscriber subscriber : subscribers.values()) {
+            if (sender.closeIfStalled(subscriber, properties.sendTimeLimit())) {
+                logger.warn("Closed task feed connection {}: a send did not return within {}",
+                    subscriber.session.getId(), properties.sendTimeLimit());
+            }
+        }
+    }
+
+    /**
+     * Queues a delta for the next tick, unless no dashboard is connected or a newer
+     * event of the task has been queued.
+     */
+    private void queue(String type, Task task) {
+        versions.applyIfNewer(task, TaskFeedDelta.DELETED.equals(type), () -> {
+            if (subscribers.isEmpty()) {
+                return;
+            }
+            TaskFeedDelta delta = TaskFeedDelta.from(type, task);
+            synchronized (pendingLock) {
+                // A task created and removed within one tick never reaches the dashboards
+                TaskFeedDelta previous = pending.get(delta.id());
+                if (previous != null && TaskFeedDelta.CREATED.equals(previous.type())
+                        && !TaskFeedDelta.CREATED.equals(delta.type())) {
+                    pending.remove(delta.id());
+                } else {
+                    pending.put(delta.id(), delta);
+                }
+            }
+        });
+    }
+
+    /**
+     * One connected dashboard and the messages waiting to be sent to it, up to
+     * {@code buffer-size-limit} bytes.
+     */
+    private final class Subscriber extends Outbox<TextMessage> {
+
+        private final WebSocketSession session;
+        private final Region region;
+
+        Subscriber(WebSocketSession session, Region region) {
+            super(sender, properties.bufferSizeLimit().toBytes(), false);
+            this.session = session;
+            this.region = region;
+        }
+
+        @Override
+        protected long weight(TextMessage message) {
+            return message.getPayloadLength();
+        }
+
+        @Override
+        protected void write(TextMessage message) throws IOException {
+            session.sendMessage(message);
+        }
+
+        /**
+         * Closes the session on a sender thread, as closing writes a close frame.
+         */
+        @Override
+        protected void complete() {
+            sender.execute(() -> {
+                try {
+                    session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException | RuntimeException ignored) {
+                    // Already closed
+                }
+            });
+        }
+
+        @Override
+        protected void onClosed() {
+            subscribers.remove(session.getId(), this);
+        }
+    }
+}
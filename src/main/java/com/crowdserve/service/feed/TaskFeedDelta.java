@@ -0,0 +1,37 @@
+package com.crowdserve.service.feed;
+
+import com.crowdserve.model.Task;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One change to an open task as sent to the dashboard feed.
+ *
+ * A {@code created} delta carries what the dashboard needs to render the task;
+ * the others only tell it to drop the task, since it is no longer open, and leave
+ * the unused fields out of the message.
+ *
+ * @param type created, assigned, completed, cancelled or deleted
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskFeedDelta(String type, Long id, String title, String description, String posterName,
+                            Double reward, String location, Double latitude, Double longitude) {
+
+    public static final String CREATED = "created";
+    public static final String ASSIGNED = "assigned";
+    public static final String COMPLETED = "completed";
+    public static final String CANCELLED = "cancelled";
+    public static final String DELETED = "deleted";
+
+    /**
+     * Creates the delta for a task, reading its fields now, while it is still attached.
+     */
+    public static TaskFeedDelta from(String type, Task task) {
+        if (!CREATED.equals(type)) {
+            return new TaskFeedDelta(type, task.getId(), null, null, null, null, null,
+                task.getLatitude(), task.getLongitude());
+        }
+        return new TaskFeedDelta(type, task.getId(), task.getTitle(), task.getDescription(),
+            task.getPoster() != null ? task.getPoster().getFullName() : null,
+            task.getReward(), task.getLocation(), task.getLatitude(), task.getLongitude());
+    }
+}
@@ -0,0 +1,73 @@
+package com.crowdserve.service.feed;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * WebSocket endpoint of the live dashboard feed.
+ *
+ * The feed is one-way: the server sends JSON arrays of {@link TaskFeedDelta}s and
+ * ignores anything the client sends. A dashboard showing tasks near a location
+ * connects with {@code lat}, {@code lon} and {@code radiusKm} query parameters and
+ * only gets the tasks inside that circle; invalid parameters close the connection.
+ */
+@Component
+public class TaskFeedWebSocketHandler extends TextWebSocketHandler {
+
+    private final TaskFeedBroadcaster broadcaster;
+
+    public TaskFeedWebSocketHandler(TaskFeedBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        try {
+            broadcaster.subscribe(session, region(session));
+        } catch (IllegalArgumentException e) {
+            session.close(CloseStatus.BAD_DATA.withReason(e.getMessage()));
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        // One-way feed
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        broadcaster.unsubscribe(session);
+    }
+
+    /**
+     * Reads the region from the handshake's query parameters.
+     *
+     * @return the region, or null when no location was given
+     * @throws IllegalArgumentException if the parameters are incomplete or not numbers
+     */
+    static TaskFeedBroadcaster.Region region(WebSocketSession session) {
+        if (session.getUri() == null) {
+            return null;
+        }
+        MultiValueMap<String, String> params = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams();
+        String lat = params.getFirst("lat");
+        String lon = params.getFirst("lon");
+        String radius = params.getFirst("radiusKm");
+        if (lat == null && lon == null) {
+            return null;
+        }
+        if (lat == null || lon == null || radius == null) {
+            throw new IllegalArgumentException("lat, lon and radiusKm must be given together");
+        }
+        try {
+            return new TaskFeedBroadcaster.Region(Double.parseDouble(lat), Double.parseDouble(lon), Double.parseDouble(radius));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("lat, lon and radiusKm must be numbers");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.crowdserve.service.impl;
+
+import com.crowdserve.config.NearbyTaskProperties;
+import com.crowdserve.dto.NearbyTaskDto;
+import com.crowdserve.model.AreaSubscription;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.AreaSubscriptionRepository;
+import com.crowdserve.repository.TaskRepository;
+import com.crowdserve.service.AreaSubscriptionService;
+import com.crowdserve.service.index.GeoGrid;
+import com.crowdserve.service.nearby.NearbyTaskFanout;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of AreaSubscriptionService.
+ * Keeps the subscription index of {@link NearbyTaskFanout} in step with the table,
+ * changing it only once a subscription change has committed.
+ */
+@Service
+@Transactional
+public class AreaSubscriptionServiceImpl implements AreaSubscriptionService {
+
+    private final AreaSubscriptionRepository areaSubscriptionRepository;
+    private final TaskRepository taskRepository;
+    private final NearbyTaskFanout nearbyTaskFanout;
+    private final NearbyTaskProperties properties;
+
+    public AreaSubscriptionServiceImpl(AreaSubscriptionRepository areaSubscriptionRepository,
+                                       TaskRepository taskRepository,
+                                       NearbyTaskFanout nearbyTaskFanout,
+                                       NearbyTaskProperties properties) {
+        this.areaSubscriptionRepository = areaSubscriptionRepository;
+        this.taskRepository = taskRepository;
+        this.nearbyTaskFanout = nearbyTaskFanout;
+        this.properties = properties;
+    }
+
+    @Override
+    public AreaSubscription subscribe(User user, double latitude, double longitude, double radiusKm) {
+        GeoGrid.checkCoordinates(latitude, longitude);
+        if (!(radiusKm > 0 && radiusKm <= properties.maxRadiusKm())) {
+            throw new IllegalArgumentException("Radius must be more than 0 and at most " + properties.maxRadiusKm() + " km");
+        }
+        if (areaSubscriptionRepository.countByUser_Id(user.getId()) >= properties.maxAreasPerUser()) {
+            throw new IllegalStateException("You can watch at most " + properties.maxAreasPerUser() + " areas");
+        }
+        AreaSubscription saved = areaSubscriptionRepository.save(
+            new AreaSubscription(null, user, latitude, longitude, radiusKm, LocalDateTime.now()));
+        afterCommit(() -> nearbyTaskFanout.areaAdded(saved));
+        return saved;
+    }
+
+    @Override
+    public void unsubscribe(User user, Long subscriptionId) {
+        AreaSubscription subscription = areaSubscriptionRepository.findById(subscriptionId)
+            .filter(area -> area.getUser().getId().equals(user.getId()))
+            .orElseThrow(() -> new IllegalArgumentException("No such watched area: " + subscriptionId));
+        areaSubscriptionRepository.delete(subscription);
+        afterCommit(() -> nearbyTaskFanout.areaRemoved(subscriptionId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AreaSubscription> getSubscriptions(User user) {
+        return areaSubscriptionRepository.findByUser_IdOrderByCreatedAtAsc(user.getId());
+    }
+
+    /**
+     * Matches the broadcast tasks against the user's areas in memory, then loads the
+     * matching tasks in one query.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<NearbyTaskDto> getNearbyTasks(User user, int limit) {
+        List<AreaSubscription> areas = getSubscriptions(user);
+        List<Long> ids = nearbyTaskFanout.broadcastTaskIds(areas, Math.max(1, limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Task> tasks = taskRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<NearbyTaskDto> nearby = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Task task = tasks.get(id);
+            boolean own = task != null && task.getPoster() != null && task.getPoster().getId().equals(user.getId());
+            if (task == null || task.getStatus() != TaskStatus.OPEN || own) {
+                continue;
+            }
+            double distance = Double.MAX_VALUE;
+            for (AreaSubscription area : areas) {
+                distance = Math.min(distance, GeoGrid.distanceKm(area.getLatitude(), area.getLongitude(),
+                    task.getLatitude(), task.getLongitude()));
+            }
+            nearby.add(new NearbyTaskDto(task, distance));
+        }
+        return nearby;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
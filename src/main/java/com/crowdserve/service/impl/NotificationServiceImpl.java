@@ -1,21 +1,34 @@
 package com.crowdserve.service.impl;
 
+import com.crowdserve.dto.NotificationItemDto;
+import com.crowdserve.dto.NotificationPageDto;
 import com.crowdserve.model.Notification;
+import com.crowdserve.model.NotificationKind;
 import com.crowdserve.model.Task;
 import com.crowdserve.model.User;
 import com.crowdserve.repository.NotificationRepository;
 import com.crowdserve.service.NotificationService;
+import com.crowdserve.service.batch.NotificationBatchWriter;
+import com.crowdserve.service.digest.NotificationCoalescer;
 import com.crowdserve.service.facade.TaskWorkflowFacade;
 import com.crowdserve.service.observer.TaskObserver;
+import com.crowdserve.service.stream.UnreadCountChangedEvent;
+import com.crowdserve.service.stream.UnreadCounters;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -33,19 +46,43 @@ public class NotificationServiceImpl implements NotificationService, TaskObserve
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationServiceImpl.class);
 
+    /**
+     * Most notification ids one bulk call may carry, keeping the IN list of its statement bounded.
+     */
+    public static final int MAX_IDS_PER_CALL = 1000;
+
+    /**
+     * Most notifications on one inbox page.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
     private final TaskWorkflowFacade taskWorkflowFacade;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationBatchWriter notificationBatchWriter;
+    private final UnreadCounters unreadCounters;
+    private final NotificationCoalescer notificationCoalescer;
 
     @Autowired
     public NotificationServiceImpl(
             NotificationRepository notificationRepository,
-            @Lazy TaskWorkflowFacade taskWorkflowFacade) {
+            @Lazy TaskWorkflowFacade taskWorkflowFacade,
+            ApplicationEventPublisher eventPublisher,
+            NotificationBatchWriter notificationBatchWriter,
+            UnreadCounters unreadCounters,
+            NotificationCoalescer notificationCoalescer) {
         this.notificationRepository = notificationRepository;
         this.taskWorkflowFacade = taskWorkflowFacade;
+        this.eventPublisher = eventPublisher;
+        this.notificationBatchWriter = notificationBatchWriter;
+        this.unreadCounters = unreadCounters;
+        this.notificationCoalescer = notificationCoalescer;
     }
 
     /**
      * Register this service as an observer when the bean is initialized.
+     * Delivery is asynchronous: completion notifications are written after the
+     * completion commits, without adding to the request that completed the task.
      */
     @PostConstruct
     public void registerAsObserver() {
@@ -55,50 +92,53 @@ public class NotificationServiceImpl implements NotificationService, TaskObserve
 
     /**
      * Observer Pattern: Called when a task is completed.
-     * Creates notifications for both the poster and the worker.
+     * Creates notifications for both the poster and the worker, written together in one batch;
+     * either may instead be merged with other completions for the same user.
      *
      * @param task the completed task
      */
     @Override
     public void onTaskCompleted(Task task) {
-        logger.info("Task completed event received for task: {} (ID: {})", task.getTitle(), task.getId());
+        logger.debug("Task completed event received for task: {} (ID: {})", task.getTitle(), task.getId());
+        List<Notification> notifications = new ArrayList<>(2);
 
         // Notify the poster that their task was completed
         if (task.getPoster() != null) {
-            createNotification(
-                task.getPoster(),
-                "Task Completed!",
-                "Your task '" + task.getTitle() + "' has been completed by " + 
-                    (task.getWorker() != null ? task.getWorker().getFullName() : "a worker") + ".",
-                task
-            );
+            notifications.add(newNotification(task.getPoster(), NotificationKind.TASK_COMPLETED, task, task.getWorker()));
         }
 
         // Notify the worker about successful completion
         if (task.getWorker() != null) {
-            createNotification(
-                task.getWorker(),
-                "Task Completed!",
-                "You have successfully completed the task '" + task.getTitle() + 
-                    "'. Reward: $" + task.getReward(),
-                task
-            );
+            notifications.add(newNotification(task.getWorker(), NotificationKind.TASK_WORK_COMPLETED, task, null));
         }
+        notificationBatchWriter.write(notificationCoalescer.coalesce(notifications));
     }
 
+    /**
+     * Joins the caller's transaction if there is one; otherwise the notification
+     * is written with the next batch.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Notification createNotification(User user, String title, String message, Task relatedTask) {
-        Notification notification = new Notification();
-        notification.setUser(user);
+        Notification notification = newNotification(user, NotificationKind.GENERAL, relatedTask, null);
         notification.setTitle(title);
         notification.setMessage(message);
-        notification.setRelatedTask(relatedTask);
-        notification.setCreatedAt(LocalDateTime.now());
-        notification.setRead(false);
+        notificationBatchWriter.write(List.of(notification));
+        logger.debug("Created notification for user {}: {}", user.getUsername(), title);
+        return notification;
+    }
 
-        Notification saved = notificationRepository.save(notification);
-        logger.info("Created notification for user {}: {}", user.getUsername(), title);
-        return saved;
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Notification createNotification(User user, NotificationKind kind, Task relatedTask, User actor) {
+        if (kind == null || !kind.isTemplated()) {
+            throw new IllegalArgumentException("Not a templated notification kind: " + kind);
+        }
+        Notification notification = newNotification(user, kind, relatedTask, actor);
+        notificationBatchWriter.write(notificationCoalescer.coalesce(List.of(notification)));
+        logger.debug("Created {} notification for user {}", kind, user.getUsername());
+        return notification;
     }
 
     @Override
@@ -113,17 +153,110 @@ public class NotificationServiceImpl implements NotificationService, TaskObserve
         return notificationRepository.findByUserAndIsReadFalseOrderByCreatedAtDesc(user);
     }
 
+    /**
+     * Reads one more row than the page holds to learn whether another page follows.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationPageDto getInboxPage(User user, boolean read, String cursor, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        List<NotificationItemDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = notificationRepository.findInbox(user.getId(), read, Limit.of(size + 1));
+        } else {
+            int separator = cursor.lastIndexOf('_');
+            try {
+                LocalDateTime createdAt = LocalDateTime.parse(cursor.substring(0, Math.max(0, separator)));
+                Long id = Long.valueOf(cursor.substring(separator + 1));
+                rows = notificationRepository.findInboxBefore(user.getId(), read, createdAt, id, Limit.of(size + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+        boolean hasMore = rows.size() > size;
+        List<NotificationItemDto> page = hasMore ? rows.subList(0, size) : rows;
+        NotificationItemDto last = hasMore ? page.get(page.size() - 1) : null;
+        String nextCursor = last != null ? last.createdAt() + "_" + last.id() : null;
+        return new NotificationPageDto(page, nextCursor, hasMore);
+    }
+
     @Override
     public void markAsRead(Long notificationId) {
-        notificationRepository.findById(notificationId).ifPresent(notification -> {
+        notificationRepository.findById(notificationId).filter(notification -> !notification.isRead()).ifPresent(notification -> {
             notification.setRead(true);
             notificationRepository.save(notification);
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(notification.getUser().getId(), -1));
         });
     }
 
     @Override
-    @Transactional(readOnly = true)
+    public int markAllAsRead(User user) {
+        int marked = notificationRepository.markAllRead(user.getId());
+        unreadCountChanged(user, -marked);
+        return marked;
+    }
+
+    @Override
+    public int markAsRead(User user, Collection<Long> notificationIds) {
+        checkIds(notificationIds);
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        int marked = notificationRepository.markRead(user.getId(), notificationIds);
+        unreadCountChanged(user, -marked);
+        return marked;
+    }
+
+    @Override
+    public int deleteNotifications(User user, Collection<Long> notificationIds) {
+        checkIds(notificationIds);
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        long unread = notificationRepository.countByUser_IdAndIsReadFalseAndIdIn(user.getId(), notificationIds);
+        int deleted = notificationRepository.deleteByIds(user.getId(), notificationIds);
+        unreadCountChanged(user, -unread);
+        return deleted;
+    }
+
+    @Override
+    public int deleteReadBefore(User user, LocalDateTime before) {
+        // Only read notifications go, so the unread count stays as it is
+        return notificationRepository.deleteReadBefore(user.getId(), before);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public long getUnreadCount(User user) {
-        return notificationRepository.countByUserAndIsReadFalse(user);
+        return unreadCounters.get(user.getId());
+    }
+
+    private void unreadCountChanged(User user, long delta) {
+        if (delta != 0) {
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(user.getId(), delta));
+        }
+    }
+
+    private static void checkIds(Collection<Long> notificationIds) {
+        if (notificationIds.size() > MAX_IDS_PER_CALL) {
+            throw new IllegalArgumentException("At most " + MAX_IDS_PER_CALL + " notifications can be changed at once");
+        }
+    }
+
+    /**
+     * Builds a notification without text; a templated kind renders it from the task and actor.
+     */
+    private static Notification newNotification(User user, NotificationKind kind, Task relatedTask, User actor) {
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setKind(kind);
+        notification.setRelatedTask(relatedTask);
+        notification.setActor(actor);
+        if (kind.showsAmount() && relatedTask != null) {
+            notification.setAmount(relatedTask.getReward());
+        }
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setRead(false);
+        return notification;
     }
 }
@@ -0,0 +1,252 @@
+package com.crowdserve.service.impl;
+
+import com.crowdserve.dto.TaskCreationDto;
+import com.crowdserve.dto.TaskImportResultDto;
+import com.crowdserve.model.Notification;
+import com.crowdserve.model.NotificationKind;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.repository.TaskRepository;
+import com.crowdserve.service.TaskImportService;
+import com.crowdserve.service.importer.TaskImportFormat;
+import com.crowdserve.service.importer.TaskRow;
+import com.crowdserve.service.importer.TaskRowReader;
+import com.crowdserve.service.index.GeoGrid;
+import com.crowdserve.service.stream.UnreadCountChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of TaskImportService.
+ *
+ * The upload is streamed row by row and valid rows are collected into batches of
+ * {@code crowdserve.import.batch-size}. Each batch of tasks and their notifications
+ * is saved and flushed in a single transaction; since ids come from pooled
+ * sequences, Hibernate sends the inserts as JDBC batches
+ * ({@code hibernate.jdbc.batch_size}) rather than one round trip per row.
+ * If the database rejects a batch, its rows are retried one by one so only the
+ * offending rows are reported and the rest still go in.
+ */
+@Service
+public class TaskImportServiceImpl implements TaskImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportServiceImpl.class);
+
+    /**
+     * Most rejected rows listed in an import result; the failure count is always exact.
+     */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    static final int MAX_TITLE_LENGTH = 255;
+    static final int MAX_LOCATION_LENGTH = 255;
+    static final int MAX_DESCRIPTION_LENGTH = 2000;
+
+    private final TaskRepository taskRepository;
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    /**
+     * Constructor-based dependency injection for required dependencies.
+     *
+     * @param taskRepository the repository for task data access
+     * @param notificationRepository the repository for notification data access
+     * @param transactionManager runs each batch in its own transaction
+     * @param objectMapper parses JSON uploads
+     * @param eventPublisher announces the poster's new unread notifications
+     * @param batchSize the number of rows written per batch
+     */
+    @Autowired
+    public TaskImportServiceImpl(TaskRepository taskRepository,
+                                 NotificationRepository notificationRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${crowdserve.import.batch-size:1000}") int batchSize) {
+        this.taskRepository = taskRepository;
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public TaskImportResultDto importTasks(InputStream input, TaskImportFormat format, User poster,
+                                           Consumer<List<Task>> onBatchInserted) {
+        long start = System.currentTimeMillis();
+        Progress progress = new Progress();
+        List<TaskRow> batch = new ArrayList<>(batchSize);
+
+        try (TaskRowReader reader = TaskRowReader.open(input, format, objectMapper)) {
+            TaskRow row;
+            while ((row = reader.next()) != null) {
+                progress.rowsRead++;
+                String error = row.error() != null ? row.error() : validate(row.task());
+                if (error != null) {
+                    progress.reject(row.number(), error);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    write(batch, poster, progress, onBatchInserted);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            // The file is malformed past this point; keep what was read before it
+            progress.reject(progress.rowsRead + 1, "Import stopped, the file could not be read further: " + e.getMessage());
+        }
+        write(batch, poster, progress, onBatchInserted);
+
+        long elapsedMs = System.currentTimeMillis() - start;
+        logger.info("Imported {} of {} task rows for user {} in {} ms ({} rejected)",
+            progress.imported, progress.rowsRead, poster.getUsername(), elapsedMs, progress.failed);
+        return new TaskImportResultDto(progress.rowsRead, progress.imported, progress.failed,
+            List.copyOf(progress.errors), elapsedMs);
+    }
+
+    /**
+     * Checks a row against the same limits the task table enforces.
+     *
+     * @return why the row is invalid, or null if it can be imported
+     */
+    static String validate(TaskCreationDto task) {
+        if (task.title() == null) {
+            return "Title is required";
+        }
+        if (task.title().length() > MAX_TITLE_LENGTH) {
+            return "Title must be at most " + MAX_TITLE_LENGTH + " characters";
+        }
+        if (task.location() == null) {
+            return "Location is required";
+        }
+        if (task.location().length() > MAX_LOCATION_LENGTH) {
+            return "Location must be at most " + MAX_LOCATION_LENGTH + " characters";
+        }
+        if (task.description() != null && task.description().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Description must be at most " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        if (task.reward() == null) {
+            return "Reward is required";
+        }
+        if (!(task.reward() >= 0) || task.reward().isInfinite()) {
+            return "Reward must be zero or more";
+        }
+        if ((task.latitude() == null) != (task.longitude() == null)) {
+            return "Latitude and longitude must be given together";
+        }
+        if (task.latitude() != null) {
+            try {
+                GeoGrid.checkCoordinates(task.latitude(), task.longitude());
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes a batch in one transaction. If the database rejects it, retries each
+     * row in its own transaction so the failure is pinned to the rows that caused it.
+     */
+    private void write(List<TaskRow> rows, User poster, Progress progress, Consumer<List<Task>> onBatchInserted) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Task> tasks = new ArrayList<>(rows.size());
+        for (TaskRow row : rows) {
+            tasks.add(toTask(row.task(), poster));
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                insert(tasks, poster);
+                onBatchInserted.accept(tasks);
+            });
+            progress.imported += tasks.size();
+        } catch (DataAccessException e) {
+            if (rows.size() == 1) {
+                progress.reject(rows.get(0).number(), "Could not be saved: "
+                    + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            logger.warn("Task import batch of {} rows failed, retrying row by row: {}", rows.size(), e.getMessage());
+            for (TaskRow row : rows) {
+                write(List.of(row), poster, progress, onBatchInserted);
+            }
+        }
+    }
+
+    /**
+     * Saves the tasks and a "Task Created" notification for each, then flushes so
+     * the inserts are sent, in JDBC batches, while still inside the transaction.
+     */
+    private void insert(List<Task> tasks, User poster) {
+        taskRepository.saveAll(tasks);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Notification notification = new Notification();
+            notification.setUser(poster);
+            notification.setKind(NotificationKind.TASK_CREATED);
+            notification.setRelatedTask(task);
+            notification.setCreatedAt(now);
+            notification.setRead(false);
+            notifications.add(notification);
+        }
+        notificationRepository.saveAll(notifications);
+        notificationRepository.flush();
+        eventPublisher.publishEvent(new UnreadCountChangedEvent(poster.getId(), notifications.size()));
+    }
+
+    private static Task toTask(TaskCreationDto dto, User poster) {
+        Task task = new Task();
+        task.setTitle(dto.title());
+        task.setDescription(dto.description());
+        task.setLocation(dto.location());
+        task.setReward(dto.reward());
+        task.setLatitude(dto.latitude());
+        task.setLongitude(dto.longitude());
+        task.setStatus(TaskStatus.OPEN);
+        task.setPoster(poster);
+        return task;
+    }
+
+    /**
+     * Running totals for one import.
+     */
+    private static final class Progress {
+        int rowsRead;
+        int imported;
+        int failed;
+        final List<TaskImportResultDto.RowError> errors = new ArrayList<>();
+
+        void reject(int row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new TaskImportResultDto.RowError(row, message));
+            }
+        }
+    }
+}
@@ -1,19 +1,40 @@
 package com.crowdserve.service.impl;
 
+import com.crowdserve.dto.MyTaskDto;
+import com.crowdserve.dto.MyTaskStatusCountDto;
+import com.crowdserve.dto.MyTasksPageDto;
+import com.crowdserve.dto.NearbyTaskDto;
 import com.crowdserve.dto.TaskCreationDto;
+import com.crowdserve.dto.TaskPageDto;
+import com.crowdserve.dto.TaskSearchHitDto;
 import com.crowdserve.model.Task;
 import com.crowdserve.model.TaskStatus;
 import com.crowdserve.model.User;
 import com.crowdserve.repository.TaskRepository;
 import com.crowdserve.repository.UserRepository;
 import com.crowdserve.service.TaskService;
+import com.crowdserve.service.index.GeoGrid;
+import com.crowdserve.service.index.OpenTaskIndex;
+import com.crowdserve.service.index.TaskGeoIndex;
+import com.crowdserve.service.index.TaskTextIndex;
+import com.crowdserve.service.index.TextIndex;
+import com.crowdserve.service.strategy.CompositeTaskFilter;
+import com.crowdserve.service.strategy.StatusTaskFilter;
+import com.crowdserve.service.strategy.TaskFilterStrategy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of TaskService interface.
@@ -23,28 +44,50 @@ import java.util.Optional;
 @Transactional
 public class TaskServiceImpl implements TaskService {
 
+    /**
+     * Upper bound on the page size a caller may request from a task feed.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Largest radius, in kilometres, a location search may cover.
+     */
+    public static final double MAX_SEARCH_RADIUS_KM = 200.0;
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final OpenTaskIndex openTaskIndex;
+    private final TaskGeoIndex taskGeoIndex;
+    private final TaskTextIndex taskTextIndex;
 
     /**
      * Constructor-based dependency injection for required dependencies.
      *
      * @param taskRepository the repository for task data access
      * @param userRepository the repository for user data access
+     * @param openTaskIndex the in-memory index serving open-task reads
+     * @param taskGeoIndex the in-memory spatial index serving location searches
+     * @param taskTextIndex the in-memory full-text index serving text searches
      */
     @Autowired
-    public TaskServiceImpl(TaskRepository taskRepository, UserRepository userRepository) {
+    public TaskServiceImpl(TaskRepository taskRepository, UserRepository userRepository,
+                           OpenTaskIndex openTaskIndex, TaskGeoIndex taskGeoIndex, TaskTextIndex taskTextIndex) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
+        this.openTaskIndex = openTaskIndex;
+        this.taskGeoIndex = taskGeoIndex;
+        this.taskTextIndex = taskTextIndex;
     }
 
     /**
      * Creates a new task posted by a user.
      * The task is created with OPEN status and assigned to the poster.
+     * Coordinates are stored only when both latitude and longitude are given.
      *
      * @param taskDto the task creation data
      * @param poster the user creating the task
      * @return the newly created and persisted Task entity
+     * @throws IllegalArgumentException if the coordinates are out of range
      */
     @Override
     public Task createTask(TaskCreationDto taskDto, User poster) {
@@ -53,6 +96,11 @@ public class TaskServiceImpl implements TaskService {
         newTask.setDescription(taskDto.description());
         newTask.setLocation(taskDto.location());
         newTask.setReward(taskDto.reward());
+        if (taskDto.latitude() != null && taskDto.longitude() != null) {
+            GeoGrid.checkCoordinates(taskDto.latitude(), taskDto.longitude());
+            newTask.setLatitude(taskDto.latitude());
+            newTask.setLongitude(taskDto.longitude());
+        }
         newTask.setStatus(TaskStatus.OPEN);
         newTask.setPoster(poster);
         newTask.setWorker(null); // No worker assigned initially
@@ -73,20 +121,168 @@ public class TaskServiceImpl implements TaskService {
     }
 
     /**
-     * Retrieves all tasks with OPEN status.
+     * Retrieves all tasks with OPEN status, newest first.
      * These are tasks available for workers to accept.
+     * Served from the in-memory open-task index once it has loaded.
      *
      * @return a list of all open tasks
      */
     @Override
     @Transactional(readOnly = true)
     public List<Task> getAllOpenTasks() {
+        if (openTaskIndex.isReady()) {
+            return openTaskIndex.getTasks(TaskStatus.OPEN);
+        }
         return taskRepository.findByStatus(TaskStatus.OPEN);
     }
 
+    /**
+     * Retrieves one page of OPEN tasks, newest first.
+     * One extra row is fetched to learn whether another page exists without a COUNT query.
+     * Served from the in-memory open-task index once it has loaded, from the database before that.
+     *
+     * @param beforeId the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of tasks on the page
+     * @return the page of open tasks and the cursor for the next page
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPageDto getOpenTasksPage(Long beforeId, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(size + 1);
+
+        List<Task> rows;
+        if (openTaskIndex.isReady()) {
+            rows = openTaskIndex.getPage(TaskStatus.OPEN, beforeId, size + 1);
+        } else if (beforeId == null) {
+            rows = taskRepository.findByStatusOrderByIdDesc(TaskStatus.OPEN, limit);
+        } else {
+            rows = taskRepository.findByStatusAndIdLessThanOrderByIdDesc(TaskStatus.OPEN, beforeId, limit);
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<Task> page = hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+        Long nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
+        return new TaskPageDto(page, nextCursor, hasMore);
+    }
+
+    /**
+     * Finds OPEN tasks within a radius of a location, nearest first.
+     * Served from the in-memory spatial index once it has loaded; before that a
+     * bounding-box query narrows the candidates and exact distances are computed here.
+     *
+     * @param latitude latitude of the search centre in degrees
+     * @param longitude longitude of the search centre in degrees
+     * @param radiusKm search radius in kilometres, capped at {@link #MAX_SEARCH_RADIUS_KM}
+     * @param limit maximum number of tasks to return
+     * @return nearby open tasks with their distance
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<NearbyTaskDto> findOpenTasksNear(double latitude, double longitude, double radiusKm, int limit) {
+        GeoGrid.checkCoordinates(latitude, longitude);
+        double radius = Math.max(0.0, Math.min(radiusKm, MAX_SEARCH_RADIUS_KM));
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        if (taskGeoIndex.isReady() && openTaskIndex.isReady()) {
+            return resolveHits(taskGeoIndex.withinRadius(latitude, longitude, radius, size));
+        }
+
+        double latSpan = radius / GeoGrid.KM_PER_DEGREE;
+        double lonSpan = Math.min(180.0, radius / (GeoGrid.KM_PER_DEGREE
+            * Math.max(0.01, Math.cos(Math.toRadians(Math.min(89.0, Math.abs(latitude) + latSpan))))));
+        List<Task> candidates = taskRepository.findByStatusAndLatitudeBetweenAndLongitudeBetween(
+            TaskStatus.OPEN, latitude - latSpan, latitude + latSpan, longitude - lonSpan, longitude + lonSpan);
+
+        return candidates.stream()
+            .map(task -> new NearbyTaskDto(task,
+                GeoGrid.distanceKm(latitude, longitude, task.getLatitude(), task.getLongitude())))
+            .filter(nearby -> nearby.distanceKm() <= radius)
+            .sorted(Comparator.comparingDouble(NearbyTaskDto::distanceKm))
+            .limit(size)
+            .toList();
+    }
+
+    /**
+     * Finds the k OPEN tasks nearest to a location, looking no further than
+     * {@link #MAX_SEARCH_RADIUS_KM}.
+     *
+     * @param latitude latitude of the search centre in degrees
+     * @param longitude longitude of the search centre in degrees
+     * @param k number of tasks wanted
+     * @return up to k open tasks with their distance, nearest first
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<NearbyTaskDto> findNearestOpenTasks(double latitude, double longitude, int k) {
+        GeoGrid.checkCoordinates(latitude, longitude);
+        int size = Math.max(1, Math.min(k, MAX_PAGE_SIZE));
+
+        if (taskGeoIndex.isReady() && openTaskIndex.isReady()) {
+            return resolveHits(taskGeoIndex.nearest(latitude, longitude, size, MAX_SEARCH_RADIUS_KM));
+        }
+        return findOpenTasksNear(latitude, longitude, MAX_SEARCH_RADIUS_KM, size);
+    }
+
+    /**
+     * Turns spatial index hits into tasks using the open-task index,
+     * skipping any task that left OPEN between the two lookups.
+     */
+    private List<NearbyTaskDto> resolveHits(List<GeoGrid.Hit> hits) {
+        List<NearbyTaskDto> nearby = new ArrayList<>(hits.size());
+        for (GeoGrid.Hit hit : hits) {
+            Task task = openTaskIndex.get(TaskStatus.OPEN, hit.id());
+            if (task != null) {
+                nearby.add(new NearbyTaskDto(task, hit.distanceKm()));
+            }
+        }
+        return nearby;
+    }
+
+    /**
+     * Searches task titles, descriptions and locations, best match first.
+     * Served from the in-memory full-text index once it has loaded; before that
+     * falls back to a case-insensitive title match on the first query word, newest first.
+     *
+     * @param query free text
+     * @param status only return tasks in this status, or null for any status
+     * @param limit maximum number of tasks to return, capped at {@link #MAX_PAGE_SIZE}
+     * @return matching tasks with their relevance score
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskSearchHitDto> searchTasks(String query, TaskStatus status, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<String> words = TextIndex.tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        if (!taskTextIndex.isReady()) {
+            return taskRepository.findByTitleContaining(words.get(0), status, Limit.of(size)).stream()
+                .map(task -> new TaskSearchHitDto(task, 0.0))
+                .toList();
+        }
+
+        List<TextIndex.Hit> hits = taskTextIndex.search(query, status, size);
+        Map<Long, Task> tasks = taskRepository.findByIdIn(hits.stream().map(TextIndex.Hit::id).toList()).stream()
+            .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        // Keep the index's ranking; skip any task deleted between the two lookups
+        List<TaskSearchHitDto> results = new ArrayList<>(hits.size());
+        for (TextIndex.Hit hit : hits) {
+            Task task = tasks.get(hit.id());
+            if (task != null) {
+                results.add(new TaskSearchHitDto(task, hit.score()));
+            }
+        }
+        return results;
+    }
+
     /**
      * Retrieves all tasks associated with a specific user.
-     * This includes tasks posted by the user and tasks assigned to the user.
+     * This includes tasks posted by the user and tasks assigned to the user,
+     * read in one query, newest first.
      *
      * @param user the user whose tasks to retrieve
      * @return a list of tasks associated with the user
@@ -94,17 +290,67 @@ public class TaskServiceImpl implements TaskService {
     @Override
     @Transactional(readOnly = true)
     public List<Task> getTasksForUser(User user) {
-        List<Task> userTasks = new ArrayList<>();
-        
-        // Get tasks posted by the user
-        List<Task> postedTasks = taskRepository.findByPoster(user);
-        userTasks.addAll(postedTasks);
-        
-        // Get tasks assigned to the user (as worker)
-        List<Task> assignedTasks = taskRepository.findByWorker(user);
-        userTasks.addAll(assignedTasks);
-        
-        return userTasks;
+        return taskRepository.findByPosterOrWorkerOrderByIdDesc(user, user);
+    }
+
+    /**
+     * Retrieves one page of the tasks a user posted or is assigned to, newest first.
+     * The page is one query returning projections for both roles; one extra row is
+     * fetched to learn whether another page exists. A second GROUP BY query counts the
+     * user's tasks per status with the criteria but not the status applied, so every
+     * status tab can show its count whichever one is selected.
+     *
+     * @param user the user whose tasks to retrieve
+     * @param status only return tasks in this status, or null for any status
+     * @param criteria further filters, applied to the page and the counts, or null for none
+     * @param beforeId the cursor returned with the previous page, or null for the first page
+     * @param pageSize the maximum number of tasks on the page
+     * @return the page split into posted and assigned tasks, the status counts and the next cursor
+     * @throws IllegalArgumentException if the criteria cannot be run as a query
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public MyTasksPageDto getMyTasksPage(User user, TaskStatus status, TaskFilterStrategy criteria,
+                                         Long beforeId, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+
+        Specification<Task> filter = null;
+        if (criteria != null) {
+            boolean inMemoryOnly = criteria instanceof CompositeTaskFilter composite
+                ? !composite.residual().isEmpty()
+                : criteria.toSpecification() == null;
+            if (inMemoryOnly) {
+                throw new IllegalArgumentException(
+                    "Filter " + criteria.getFilterName() + " cannot be run as a query and cannot be paginated");
+            }
+            filter = criteria.toSpecification();
+        }
+        Specification<Task> pageFilter = filter;
+        if (status != null) {
+            Specification<Task> byStatus = new StatusTaskFilter(status).toSpecification();
+            pageFilter = filter == null ? byStatus : filter.and(byStatus);
+        }
+
+        List<MyTaskDto> rows = taskRepository.findUserTasks(user, pageFilter, beforeId, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<MyTaskDto> page = hasMore ? rows.subList(0, size) : rows;
+        Long nextCursor = hasMore ? page.get(page.size() - 1).id() : null;
+
+        Map<TaskStatus, Long> statusCounts = new EnumMap<>(TaskStatus.class);
+        long postedCount = 0;
+        long assignedCount = 0;
+        for (MyTaskStatusCountDto count : taskRepository.countUserTasksByStatus(user, filter)) {
+            statusCounts.put(count.status(), count.posted() + count.assigned());
+            if (status == null || status == count.status()) {
+                postedCount += count.posted();
+                assignedCount += count.assigned();
+            }
+        }
+
+        Map<Boolean, List<MyTaskDto>> byRole = page.stream()
+            .collect(Collectors.partitioningBy(task -> task.isPostedBy(user.getId())));
+        return new MyTasksPageDto(byRole.get(true), byRole.get(false), statusCounts,
+            postedCount, assignedCount, nextCursor, hasMore);
     }
 
     /**
@@ -139,34 +385,37 @@ public class TaskServiceImpl implements TaskService {
      * Assigns a worker to a task and changes status to ASSIGNED.
      * Only tasks with OPEN status can be assigned.
      *
+     * The claim is a single conditional update, so concurrent accepts of the same
+     * task cannot both succeed and no row lock is held while the task is read.
+     * When the update matches nothing the task is read once to explain why.
+     *
      * @param taskId the ID of the task to assign
      * @param worker the user to assign as worker
      * @return the updated Task entity
      * @throws RuntimeException if task not found
-     * @throws IllegalStateException if task is not in OPEN status
+     * @throws IllegalStateException if task is not in OPEN status or was taken by another worker
      */
     @Override
     public Task assignWorker(Long taskId, User worker) {
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
-        
-        // Validate task is in OPEN status
-        if (task.getStatus() != TaskStatus.OPEN) {
-            throw new IllegalStateException(
-                "Cannot assign worker to task. Task status must be OPEN, but was: " + task.getStatus()
-            );
-        }
-        
-        // Prevent poster from accepting their own task
-        if (task.getPoster().getId().equals(worker.getId())) {
+        if (taskRepository.claimOpenTask(taskId, worker) == 0) {
+            Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
+
+            // Lost the race: another worker claimed the task first
+            if (task.getStatus() == TaskStatus.ASSIGNED) {
+                throw new IllegalStateException("This task has already been taken by another worker");
+            }
+            if (task.getStatus() != TaskStatus.OPEN) {
+                throw new IllegalStateException(
+                    "Cannot assign worker to task. Task status must be OPEN, but was: " + task.getStatus()
+                );
+            }
+            // Still OPEN, so the update was refused because the worker is the poster
             throw new IllegalStateException("You cannot accept your own task");
         }
-        
-        // Assign worker and update status
-        task.setWorker(worker);
-        task.setStatus(TaskStatus.ASSIGNED);
-        
-        return taskRepository.save(task);
+
+        return taskRepository.findById(taskId)
+            .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
     }
 
     /**
@@ -195,4 +444,36 @@ public class TaskServiceImpl implements TaskService {
         
         return taskRepository.save(task);
     }
+
+    /**
+     * Cancels a task on behalf of its poster.
+     * Only OPEN or ASSIGNED tasks can be cancelled.
+     *
+     * @param taskId the ID of the task to cancel
+     * @param poster the user requesting the cancellation
+     * @return the updated Task entity
+     * @throws RuntimeException if task not found
+     * @throws IllegalStateException if the user is not the poster or the task is not OPEN or ASSIGNED
+     */
+    @Override
+    public Task cancelTask(Long taskId, User poster) {
+        Task task = taskRepository.findById(taskId)
+            .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskId));
+
+        // Only the original poster may cancel
+        if (!task.getPoster().getId().equals(poster.getId())) {
+            throw new IllegalStateException("Only the original poster can cancel this task");
+        }
+
+        // Validate task is still OPEN or ASSIGNED
+        if (task.getStatus() != TaskStatus.OPEN && task.getStatus() != TaskStatus.ASSIGNED) {
+            throw new IllegalStateException(
+                "Cannot cancel task. Task status must be OPEN or ASSIGNED, but was: " + task.getStatus()
+            );
+        }
+
+        task.setStatus(TaskStatus.CANCELLED);
+
+        return taskRepository.save(task);
+    }
 }
@@ -3,6 +3,8 @@ package com.crowdserve.service.impl;
 import com.crowdserve.dto.UserRegistrationDto;
 import com.crowdserve.model.User;
 import com.crowdserve.repository.UserRepository;
+import com.crowdserve.security.CurrentUserCache;
+import com.crowdserve.security.LoginUserCache;
 import com.crowdserve.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -16,6 +18,7 @@ import java.util.Optional;
  * Handles user registration, authentication, and user management operations.
  */
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
@@ -25,21 +28,28 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
  */
 @Service
 @Transactional
-public class UserServiceImpl implements UserService, UserDetailsService {
+public class UserServiceImpl implements UserService, UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CurrentUserCache currentUserCache;
+    private final LoginUserCache loginUserCache;
 
     /**
      * Constructor-based dependency injection for required dependencies.
      *
      * @param userRepository the repository for user data access
      * @param passwordEncoder the BCrypt password encoder for secure password hashing
+     * @param currentUserCache the cache of logged-in users, cleared when a profile changes
+     * @param loginUserCache the cache of login details, cleared when a profile changes
      */
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                           CurrentUserCache currentUserCache, LoginUserCache loginUserCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.currentUserCache = currentUserCache;
+        this.loginUserCache = loginUserCache;
     }
 
     /**
@@ -100,19 +110,18 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         return userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
+    /**
+     * Loads a user for authentication by username or email, in a single query.
+     *
+     * @param usernameOrEmail the login name entered on the login form
+     * @return the user's login details
+     * @throws UsernameNotFoundException if no user has that username or email
+     */
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        // Try finding by username first
-        User user = userRepository.findByUsername(usernameOrEmail);
-        
-        // If not found, try finding by email
-        if (user == null) {
-            user = userRepository.findByEmail(usernameOrEmail).orElse(null);
-        }
-
-        if (user == null) {
-            throw new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail);
-        }
+        User user = userRepository.findByUsernameOrEmail(usernameOrEmail)
+            .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail));
         return org.springframework.security.core.userdetails.User
                 .withUsername(user.getUsername())
                 .password(user.getPassword())
@@ -120,6 +129,25 @@ public class UserServiceImpl implements UserService, UserDetailsService {
                 .build();
     }
 
+    /**
+     * Stores a password hash produced again at the current work factor.
+     * Called by the login provider after a successful login whose stored hash is outdated.
+     *
+     * @param user the login details that were just authenticated
+     * @param newPassword the new hash of the password the user logged in with
+     * @return the login details with the new hash
+     * @throws UsernameNotFoundException if the user no longer exists
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User existingUser = userRepository.findByUsernameOrEmail(user.getUsername())
+            .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + user.getUsername()));
+        existingUser.setPassword(newPassword);
+        evictCachedUser(userRepository.save(existingUser));
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
     
     @Override
     public User updateProfile(User user) {
@@ -130,8 +158,31 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     // Step 2: Update allowed fields only
     existingUser.setFullName(user.getFullName());
     existingUser.setBio(user.getBio());
-    // Step 3: Save updated user
-    return userRepository.save(existingUser);
+    // Step 3: Save updated user and drop the stale copies served to controllers and login
+    User saved = userRepository.save(existingUser);
+    evictCachedUser(saved);
+    return saved;
 }
 
+    @Override
+    public User setNotificationDigest(User user, boolean enabled) {
+        User existingUser = userRepository.findById(user.getId())
+            .orElseThrow(() -> new RuntimeException("User not found with id: " + user.getId()));
+        existingUser.setNotificationDigest(enabled);
+        User saved = userRepository.save(existingUser);
+        evictCachedUser(saved);
+        return saved;
+    }
+
+    /**
+     * Drops every cached copy of a user. Call after any change to a user,
+     * in particular to their password, so the old values stop being served.
+     *
+     * @param user the user that changed
+     */
+    private void evictCachedUser(User user) {
+        currentUserCache.evict(user);
+        loginUserCache.removeUserFromCache(user.getUsername());
+    }
+
 }
@@ -0,0 +1,157 @@
+package com.crowdserve.service.importer;
+
+import com.crowdserve.dto.TaskCreationDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads tasks from UTF-8 CSV (RFC 4180): comma-separated, fields optionally wrapped
+ * in double quotes, a doubled quote inside a quoted field standing for one quote,
+ * and quoted fields allowed to span lines.
+ *
+ * The first record is a header naming the columns, in any order and any case:
+ * title, location and reward are required; description, latitude and longitude
+ * are optional. Blank lines are skipped.
+ */
+class CsvTaskRowReader implements TaskRowReader {
+
+    static final Set<String> REQUIRED_COLUMNS = Set.of("title", "location", "reward");
+    static final Set<String> OPTIONAL_COLUMNS = Set.of("description", "latitude", "longitude");
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final int columnCount;
+    private int rowNumber = 0;
+
+    CsvTaskRowReader(InputStream input) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("The CSV file is empty; expected a header row");
+        }
+        if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+            header.set(0, header.get(0).substring(1)); // byte order mark written by some spreadsheet tools
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (!REQUIRED_COLUMNS.contains(name) && !OPTIONAL_COLUMNS.contains(name)) {
+                throw new IllegalArgumentException("Unknown CSV column: '" + header.get(i).trim() + "'");
+            }
+            if (columns.put(name, i) != null) {
+                throw new IllegalArgumentException("Duplicate CSV column: '" + name + "'");
+            }
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Missing required CSV column: '" + required + "'");
+            }
+        }
+        this.columnCount = header.size();
+    }
+
+    @Override
+    public TaskRow next() throws IOException {
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        int number = ++rowNumber;
+        if (fields.size() != columnCount) {
+            return TaskRow.invalid(number, "Expected " + columnCount + " columns but found " + fields.size());
+        }
+        try {
+            return TaskRow.of(number, new TaskCreationDto(
+                text(fields, "title"),
+                text(fields, "description"),
+                text(fields, "location"),
+                TaskRowReader.parseNumber("Reward", text(fields, "reward")),
+                TaskRowReader.parseNumber("Latitude", text(fields, "latitude")),
+                TaskRowReader.parseNumber("Longitude", text(fields, "longitude"))
+            ));
+        } catch (IllegalArgumentException e) {
+            return TaskRow.invalid(number, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String text(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Reads one record, which may span several lines if a quoted field contains line breaks.
+     *
+     * @return the record's fields, or null at the end of the input
+     * @throws IOException if the input ends inside a quoted field
+     */
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (!any) {
+            return null;
+        }
+        if (quoted) {
+            throw new IOException("The CSV file ends inside a quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
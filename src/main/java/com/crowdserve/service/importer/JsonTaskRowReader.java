@@ -0,0 +1,100 @@
+package com.crowdserve.service.importer;
+
+import com.crowdserve.dto.TaskCreationDto;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Reads tasks from a JSON array of objects with the fields title, description,
+ * location, reward, latitude and longitude. Numbers may also be given as strings.
+ *
+ * The array is streamed: only one element is held in memory at a time, so a bad
+ * element is reported on its own and reading carries on with the next one.
+ */
+class JsonTaskRowReader implements TaskRowReader {
+
+    private static final Set<String> FIELDS =
+        Set.of("title", "description", "location", "reward", "latitude", "longitude");
+
+    private final JsonParser parser;
+    private int rowNumber = 0;
+
+    JsonTaskRowReader(InputStream input, ObjectMapper objectMapper) throws IOException {
+        this.parser = objectMapper.createParser(input);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IllegalArgumentException("The JSON file must contain an array of task objects");
+        }
+    }
+
+    @Override
+    public TaskRow next() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        int number = ++rowNumber;
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return TaskRow.invalid(number, "Expected a task object but found " + token.asString());
+        }
+
+        JsonNode node = parser.readValueAsTree();
+        try {
+            for (Iterator<String> names = node.fieldNames(); names.hasNext(); ) {
+                String name = names.next();
+                if (!FIELDS.contains(name)) {
+                    return TaskRow.invalid(number, "Unknown field: '" + name + "'");
+                }
+            }
+            return TaskRow.of(number, new TaskCreationDto(
+                text(node, "title"),
+                text(node, "description"),
+                text(node, "location"),
+                number(node, "reward", "Reward"),
+                number(node, "latitude", "Latitude"),
+                number(node, "longitude", "Longitude")
+            ));
+        } catch (IllegalArgumentException e) {
+            return TaskRow.invalid(number, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.isValueNode()) {
+            throw new IllegalArgumentException("Field '" + field + "' must be a string");
+        }
+        String text = value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static Double number(JsonNode node, String field, String label) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (value.isNumber()) {
+            return value.doubleValue();
+        }
+        if (value.isTextual()) {
+            return TaskRowReader.parseNumber(label, value.asText());
+        }
+        throw new IllegalArgumentException(label + " is not a number: " + value);
+    }
+}
@@ -0,0 +1,39 @@
+package com.crowdserve.service.importer;
+
+import java.util.Locale;
+
+/**
+ * File formats accepted by the bulk task import.
+ */
+public enum TaskImportFormat {
+
+    /**
+     * Comma-separated values with a header row naming the columns.
+     */
+    CSV,
+
+    /**
+     * A JSON array of task objects.
+     */
+    JSON;
+
+    /**
+     * Picks the format from an uploaded file's name, falling back to its content type.
+     *
+     * @param filename the original file name, may be null
+     * @param contentType the declared content type, may be null
+     * @return the matching format
+     * @throws IllegalArgumentException if neither identifies a supported format
+     */
+    public static TaskImportFormat detect(String filename, String contentType) {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv") || type.startsWith("text/csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".json") || type.startsWith("application/json")) {
+            return JSON;
+        }
+        throw new IllegalArgumentException("Unsupported file type; upload a .csv or .json file");
+    }
+}
@@ -0,0 +1,22 @@
+package com.crowdserve.service.importer;
+
+import com.crowdserve.dto.TaskCreationDto;
+
+/**
+ * One data row read from an import file: either the task it describes or the
+ * reason it could not be read.
+ *
+ * @param number the 1-based row number, used when reporting errors
+ * @param task the task fields, or null if the row could not be read
+ * @param error why the row could not be read, or null if it was read
+ */
+public record TaskRow(int number, TaskCreationDto task, String error) {
+
+    static TaskRow of(int number, TaskCreationDto task) {
+        return new TaskRow(number, task, null);
+    }
+
+    static TaskRow invalid(int number, String error) {
+        return new TaskRow(number, null, error);
+    }
+}
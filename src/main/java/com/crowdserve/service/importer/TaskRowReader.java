@@ -0,0 +1,52 @@
+package com.crowdserve.service.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streams task rows out of an import file one at a time, so an upload of any size
+ * is read in constant memory.
+ */
+public interface TaskRowReader extends Closeable {
+
+    /**
+     * Reads the next row. A row that is present but unreadable (wrong column count,
+     * a number that does not parse) is returned with an error rather than thrown.
+     *
+     * @return the next row, or null at the end of the file
+     * @throws IOException if the file itself is malformed and no further rows can be read
+     */
+    TaskRow next() throws IOException;
+
+    /**
+     * Opens a reader for the given format.
+     *
+     * @throws IllegalArgumentException if the file does not start the way the format requires
+     * @throws IOException if the file cannot be read
+     */
+    static TaskRowReader open(InputStream input, TaskImportFormat format, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvTaskRowReader(input);
+            case JSON -> new JsonTaskRowReader(input, objectMapper);
+        };
+    }
+
+    /**
+     * Parses an optional number; blank text means the value is absent.
+     *
+     * @throws IllegalArgumentException naming the field if the text is not a number
+     */
+    static Double parseNumber(String field, String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number: '" + text.trim() + "'");
+        }
+    }
+}
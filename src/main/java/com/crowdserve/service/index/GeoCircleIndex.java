@@ -0,0 +1,262 @@
+package com.crowdserve.service.index;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Fixed-size latitude/longitude grid of circles, for finding the circles that contain a point.
+ *
+ * The reverse of {@link GeoGrid}: each circle is entered in every cell its bounding
+ * box overlaps, so a point lookup reads a single cell. Cells hold immutable snapshots
+ * of the circles in parallel arrays; appends write past the end of the current
+ * snapshot and publish a longer one (amortized O(1)), removals copy, and readers
+ * never lock. A lookup settles most circles with flat (equirectangular) distance
+ * bounds and computes the exact great-circle distance only near a circle's edge.
+ *
+ * Circles are identified by a long id and carry the id of their owner (e.g. a
+ * subscription and its user); lookups return owners, each once.
+ */
+public class GeoCircleIndex {
+
+    /**
+     * A circle on the globe and the id of its owner.
+     */
+    public record Circle(long id, long ownerId, double latitude, double longitude, double radiusKm) {
+    }
+
+    private final double cellDegrees;
+    private final double maxRadiusKm;
+    private final int rows;
+    private final int columns;
+    private final ConcurrentHashMap<Long, Cell> cells = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Circle> circles = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty index.
+     *
+     * @param cellDegrees the side of one cell in degrees; smaller cells mean fewer
+     *                    circles scanned per lookup but more cells per circle
+     * @param maxRadiusKm the largest radius a circle may have
+     */
+    public GeoCircleIndex(double cellDegrees, double maxRadiusKm) {
+        if (!(cellDegrees > 0 && cellDegrees <= 10)) {
+            throw new IllegalArgumentException("Cell size must be in (0, 10] degrees, was: " + cellDegrees);
+        }
+        if (!(maxRadiusKm > 0 && maxRadiusKm <= 1000)) {
+            throw new IllegalArgumentException("Maximum radius must be in (0, 1000] km, was: " + maxRadiusKm);
+        }
+        this.cellDegrees = cellDegrees;
+        this.maxRadiusKm = maxRadiusKm;
+        this.rows = (int) Math.ceil(180.0 / cellDegrees);
+        this.columns = (int) Math.ceil(360.0 / cellDegrees);
+    }
+
+    /**
+     * Adds a circle.
+     *
+     * @return false if a circle with the same id is already present, which is left as it is
+     * @throws IllegalArgumentException if the centre is off the globe or the radius out of range
+     */
+    public boolean put(Circle circle) {
+        GeoGrid.checkCoordinates(circle.latitude(), circle.longitude());
+        if (!(circle.radiusKm() > 0 && circle.radiusKm() <= maxRadiusKm)) {
+            throw new IllegalArgumentException("Radius must be in (0, " + maxRadiusKm + "] km, was: " + circle.radiusKm());
+        }
+        if (circles.putIfAbsent(circle.id(), circle) != null) {
+            return false;
+        }
+        forEachCell(circle, key -> cells.compute(key, (k, cell) -> cell == null ? Cell.single(circle) : cell.with(circle)));
+        return true;
+    }
+
+    /**
+     * Removes a circle.
+     *
+     * @return true if the circle was present
+     */
+    public boolean remove(long id) {
+        Circle circle = circles.remove(id);
+        if (circle == null) {
+            return false;
+        }
+        forEachCell(circle, key -> cells.computeIfPresent(key, (k, cell) -> cell.without(id)));
+        return true;
+    }
+
+    /**
+     * Returns the number of circles in the index.
+     */
+    public int size() {
+        return circles.size();
+    }
+
+    /**
+     * Finds the owners of the circles that contain a point.
+     *
+     * @return the owner ids, ascending, each once
+     */
+    public long[] ownersContaining(double latitude, double longitude) {
+        GeoGrid.checkCoordinates(latitude, longitude);
+        Cell cell = cells.get(cellKey(row(latitude), column(longitude)));
+        if (cell == null) {
+            return new long[0];
+        }
+        // Flat distances scaled by the smallest and largest cosine any centre within reach can
+        // have bracket the true distance; only circles whose edge falls between them need the
+        // exact great-circle distance. Away from the poles, that is a thin band.
+        double reachDegrees = maxRadiusKm / GeoGrid.KM_PER_DEGREE;
+        double kmPerDegreeLow = GeoGrid.KM_PER_DEGREE * Math.cos(Math.toRadians(Math.min(90.0, Math.abs(latitude) + reachDegrees)));
+        double kmPerDegreeHigh = Math.abs(latitude) + reachDegrees < 80.0
+            ? GeoGrid.KM_PER_DEGREE * Math.cos(Math.toRadians(Math.max(0.0, Math.abs(latitude) - reachDegrees)))
+            : Double.NaN;
+        long[] owners = new long[cell.count];
+        int found = 0;
+        for (int i = 0; i < cell.count; i++) {
+            double circleLatitude = cell.latitudes[i];
+            double circleLongitude = cell.longitudes[i];
+            double radius = cell.radii[i];
+            double dLat = (circleLatitude - latitude) * GeoGrid.KM_PER_DEGREE;
+            double dLonDegrees = wrap(circleLongitude - longitude);
+            double dLonLow = dLonDegrees * kmPerDegreeLow;
+            double outer = radius * 1.01;
+            if (dLat * dLat + dLonLow * dLonLow > outer * outer) {
+                continue;
+            }
+            double dLonHigh = dLonDegrees * kmPerDegreeHigh;
+            double inner = radius * 0.99;
+            // NaN near the poles, where the comparison fails and the exact distance decides
+            if (dLat * dLat + dLonHigh * dLonHigh < inner * inner
+                    || GeoGrid.distanceKm(latitude, longitude, circleLatitude, circleLongitude) <= radius) {
+                owners[found++] = cell.owners[i];
+            }
+        }
+        Arrays.sort(owners, 0, found);
+        int distinct = 0;
+        for (int i = 0; i < found; i++) {
+            if (distinct == 0 || owners[distinct - 1] != owners[i]) {
+                owners[distinct++] = owners[i];
+            }
+        }
+        return Arrays.copyOf(owners, distinct);
+    }
+
+    private void forEachCell(Circle circle, LongConsumer action) {
+        double latSpan = circle.radiusKm() / GeoGrid.KM_PER_DEGREE;
+        int rowFrom = row(Math.max(-90.0, circle.latitude() - latSpan));
+        int rowTo = row(Math.min(90.0, circle.latitude() + latSpan));
+        double widest = Math.min(89.9, Math.max(Math.abs(circle.latitude() - latSpan), Math.abs(circle.latitude() + latSpan)));
+        double lonSpan = circle.radiusKm() / (GeoGrid.KM_PER_DEGREE * Math.cos(Math.toRadians(widest)));
+        int columnSpan = lonSpan >= 180 ? columns : (int) Math.ceil(lonSpan / cellDegrees) + 1;
+        int centreColumn = column(circle.longitude());
+        int columnFrom = columnSpan >= columns ? 0 : centreColumn - columnSpan;
+        int columnTo = columnSpan >= columns ? columns - 1 : centreColumn + columnSpan;
+        for (int row = rowFrom; row <= rowTo; row++) {
+            for (int column = columnFrom; column <= columnTo; column++) {
+                // Columns wrap around the antimeridian
+                action.accept(cellKey(row, Math.floorMod(column, columns)));
+            }
+        }
+    }
+
+    private int row(double latitude) {
+        return Math.min(rows - 1, (int) ((latitude + 90.0) / cellDegrees));
+    }
+
+    private int column(double longitude) {
+        return Math.min(columns - 1, (int) ((longitude + 180.0) / cellDegrees));
+    }
+
+    private long cellKey(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    private static double wrap(double degrees) {
+        return degrees > 180 ? degrees - 360 : degrees < -180 ? degrees + 360 : degrees;
+    }
+
+    /**
+     * Snapshot of the circles in one cell: the first {@code count} slots of parallel arrays,
+     * so a lookup scans plain doubles. Several snapshots may share the arrays; slots below
+     * any published count are never rewritten, so a reader holding an older snapshot is
+     * unaffected by later appends.
+     */
+    private static final class Cell {
+
+        final long[] ids;
+        final long[] owners;
+        final double[] latitudes;
+        final double[] longitudes;
+        final double[] radii;
+        final int count;
+
+        Cell(long[] ids, long[] owners, double[] latitudes, double[] longitudes, double[] radii, int count) {
+            this.ids = ids;
+            this.owners = owners;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.radii = radii;
+            this.count = count;
+        }
+
+        static Cell single(Circle circle) {
+            return new Cell(new long[2], new long[2], new double[2], new double[2], new double[2], 0).with(circle);
+        }
+
+        Cell with(Circle circle) {
+            long[] targetIds = ids;
+            long[] targetOwners = owners;
+            double[] targetLatitudes = latitudes;
+            double[] targetLongitudes = longitudes;
+            double[] targetRadii = radii;
+            if (count == ids.length) {
+                int capacity = ids.length * 2;
+                targetIds = Arrays.copyOf(ids, capacity);
+                targetOwners = Arrays.copyOf(owners, capacity);
+                targetLatitudes = Arrays.copyOf(latitudes, capacity);
+                targetLongitudes = Arrays.copyOf(longitudes, capacity);
+                targetRadii = Arrays.copyOf(radii, capacity);
+            }
+            targetIds[count] = circle.id();
+            targetOwners[count] = circle.ownerId();
+            targetLatitudes[count] = circle.latitude();
+            targetLongitudes[count] = circle.longitude();
+            targetRadii[count] = circle.radiusKm();
+            return new Cell(targetIds, targetOwners, targetLatitudes, targetLongitudes, targetRadii, count + 1);
+        }
+
+        Cell without(long id) {
+            int index = -1;
+            for (int i = 0; i < count; i++) {
+                if (ids[i] == id) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return this;
+            }
+            if (count == 1) {
+                return null;
+            }
+            int capacity = Math.max(2, count - 1);
+            return new Cell(remove(ids, index, capacity), remove(owners, index, capacity),
+                remove(latitudes, index, capacity), remove(longitudes, index, capacity),
+                remove(radii, index, capacity), count - 1);
+        }
+
+        private long[] remove(long[] values, int index, int capacity) {
+            long[] remaining = new long[capacity];
+            System.arraycopy(values, 0, remaining, 0, index);
+            System.arraycopy(values, index + 1, remaining, index, count - index - 1);
+            return remaining;
+        }
+
+        private double[] remove(double[] values, int index, int capacity) {
+            double[] remaining = new double[capacity];
+            System.arraycopy(values, 0, remaining, 0, index);
+            System.arraycopy(values, index + 1, remaining, index, count - index - 1);
+            return remaining;
+        }
+    }
+}
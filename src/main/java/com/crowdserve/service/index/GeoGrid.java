@@ -0,0 +1,313 @@
+package com.crowdserve.service.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size latitude/longitude grid for finding points by distance.
+ *
+ * The globe is cut into square cells of {@code cellDegrees} on each side. Each cell
+ * holds its points in three parallel primitive arrays behind an immutable snapshot,
+ * so readers scan a consistent view without locking and a point costs 24 bytes plus
+ * its share of the cell. Appends write past the end of the current snapshot and
+ * publish a longer one (amortized O(1)); removals copy. A radius query only visits
+ * the cells overlapping the circle's bounding box, rejects most points with a flat
+ * (equirectangular) distance check and computes the exact great-circle distance
+ * only for the points that pass.
+ *
+ * Points are identified by a long id (e.g. a task id). Callers must pass the same
+ * coordinates to {@link #remove} that they passed to {@link #put}.
+ */
+public class GeoGrid {
+
+    /**
+     * Mean Earth radius in kilometres.
+     */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /**
+     * Length of one degree of latitude in kilometres.
+     */
+    public static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+    private final ConcurrentHashMap<Long, Cell> cells = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param cellDegrees the side of one cell in degrees; smaller cells mean fewer
+     *                    points scanned per query but more cells per large radius
+     */
+    public GeoGrid(double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 10)) {
+            throw new IllegalArgumentException("Cell size must be in (0, 10] degrees, was: " + cellDegrees);
+        }
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180.0 / cellDegrees);
+        this.columns = (int) Math.ceil(360.0 / cellDegrees);
+    }
+
+    /**
+     * Adds a point, or moves it within its cell if the id is already present there.
+     */
+    public void put(long id, double latitude, double longitude) {
+        checkCoordinates(latitude, longitude);
+        cells.compute(cellKey(row(latitude), column(longitude)), (key, cell) -> {
+            if (cell == null) {
+                size.incrementAndGet();
+                return Cell.single(id, latitude, longitude);
+            }
+            return cell.with(id, latitude, longitude, size);
+        });
+    }
+
+    /**
+     * Removes a point.
+     *
+     * @return true if the point was present
+     */
+    public boolean remove(long id, double latitude, double longitude) {
+        checkCoordinates(latitude, longitude);
+        boolean[] removed = new boolean[1];
+        cells.computeIfPresent(cellKey(row(latitude), column(longitude)), (key, cell) -> {
+            int index = cell.indexOf(id);
+            if (index < 0) {
+                return cell;
+            }
+            removed[0] = true;
+            size.decrementAndGet();
+            return cell.without(index);
+        });
+        return removed[0];
+    }
+
+    /**
+     * Returns the number of points in the grid.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Finds the points within {@code radiusKm} of a location, nearest first.
+     *
+     * @param latitude query latitude in degrees
+     * @param longitude query longitude in degrees
+     * @param radiusKm search radius in kilometres
+     * @param limit maximum number of hits to return
+     * @return up to {@code limit} hits ordered by distance
+     */
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        checkCoordinates(latitude, longitude);
+        List<Hit> hits = new ArrayList<>();
+        if (radiusKm <= 0 || limit <= 0) {
+            return hits;
+        }
+
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        int firstRow = row(Math.max(-90.0, latitude - latSpan));
+        int lastRow = row(Math.min(90.0, latitude + latSpan));
+
+        // Longitude degrees shrink towards the poles; size the span for the widest row touched
+        double widestLatitude = Math.min(90.0, Math.abs(latitude) + latSpan);
+        double cos = Math.cos(Math.toRadians(widestLatitude));
+        double lonSpan = cos < 1e-9 ? 180.0 : radiusKm / (KM_PER_DEGREE * cos);
+
+        int firstColumn;
+        int columnCount;
+        if (lonSpan >= 180.0) {
+            firstColumn = 0;
+            columnCount = columns;
+        } else {
+            firstColumn = column(longitude - lonSpan);
+            columnCount = Math.min(columns, Math.floorMod(column(longitude + lonSpan) - firstColumn, columns) + 1);
+        }
+
+        // Flat-earth pre-filter: squared distance in "latitude degrees", with a small
+        // margin so no point inside the true circle is rejected
+        double lonScale = Math.cos(Math.toRadians(latitude));
+        double limitDegrees = latSpan * 1.01 + 1e-9;
+        double limitSquared = limitDegrees * limitDegrees;
+
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = 0; c < columnCount; c++) {
+                Cell cell = cells.get(cellKey(r, (firstColumn + c) % columns));
+                if (cell == null) {
+                    continue;
+                }
+                long[] ids = cell.ids;
+                double[] latitudes = cell.latitudes;
+                double[] longitudes = cell.longitudes;
+                for (int i = 0; i < cell.count; i++) {
+                    double dLat = latitudes[i] - latitude;
+                    double dLon = Math.abs(longitudes[i] - longitude);
+                    if (dLon > 180.0) {
+                        dLon = 360.0 - dLon;
+                    }
+                    dLon *= lonScale;
+                    if (lonSpan < 180.0 && dLat * dLat + dLon * dLon > limitSquared) {
+                        continue;
+                    }
+                    double distance = distanceKm(latitude, longitude, latitudes[i], longitudes[i]);
+                    if (distance <= radiusKm) {
+                        hits.add(new Hit(ids[i], distance));
+                    }
+                }
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * Finds the {@code k} points nearest to a location.
+     * The search radius starts at one cell and doubles until {@code k} points are
+     * inside it; every point closer than the k-th hit is then guaranteed to be found.
+     *
+     * @param latitude query latitude in degrees
+     * @param longitude query longitude in degrees
+     * @param k number of neighbours wanted
+     * @param maxRadiusKm give up widening the search beyond this distance
+     * @return up to {@code k} hits ordered by distance
+     */
+    public List<Hit> nearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        double radius = Math.min(cellDegrees * KM_PER_DEGREE, maxRadiusKm);
+        while (true) {
+            List<Hit> hits = withinRadius(latitude, longitude, radius, k);
+            if (hits.size() >= k || radius >= maxRadiusKm) {
+                return hits;
+            }
+            radius = Math.min(radius * 2, maxRadiusKm);
+        }
+    }
+
+    /**
+     * Great-circle (haversine) distance between two points in kilometres.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+            * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Validates a coordinate pair.
+     *
+     * @throws IllegalArgumentException if the latitude or longitude is out of range
+     */
+    public static void checkCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException(
+                "Coordinates out of range: latitude=" + latitude + ", longitude=" + longitude);
+        }
+    }
+
+    private int row(double latitude) {
+        return Math.min(rows - 1, (int) Math.floor((latitude + 90.0) / cellDegrees));
+    }
+
+    private int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / cellDegrees), columns);
+    }
+
+    private long cellKey(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    /**
+     * A point found by a query and its distance from the query location.
+     */
+    public record Hit(long id, double distanceKm) {
+    }
+
+    /**
+     * Snapshot of the points in one cell: the first {@code count} slots of the arrays.
+     * Several snapshots may share arrays; slots below any published count are never
+     * rewritten, so a reader holding an older snapshot is unaffected by later appends.
+     */
+    private static final class Cell {
+
+        final long[] ids;
+        final double[] latitudes;
+        final double[] longitudes;
+        final int count;
+
+        Cell(long[] ids, double[] latitudes, double[] longitudes, int count) {
+            this.ids = ids;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.count = count;
+        }
+
+        static Cell single(long id, double latitude, double longitude) {
+            return new Cell(new long[] {id, 0L}, new double[] {latitude, 0.0}, new double[] {longitude, 0.0}, 1);
+        }
+
+        int indexOf(long id) {
+            for (int i = 0; i < count; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Cell with(long id, double latitude, double longitude, AtomicInteger size) {
+            int index = indexOf(id);
+            if (index >= 0) {
+                // Replacing a visible slot: copy so readers of this snapshot are not affected
+                long[] newIds = Arrays.copyOf(ids, ids.length);
+                double[] newLatitudes = Arrays.copyOf(latitudes, latitudes.length);
+                double[] newLongitudes = Arrays.copyOf(longitudes, longitudes.length);
+                newLatitudes[index] = latitude;
+                newLongitudes[index] = longitude;
+                return new Cell(newIds, newLatitudes, newLongitudes, count);
+            }
+
+            size.incrementAndGet();
+            long[] targetIds = ids;
+            double[] targetLatitudes = latitudes;
+            double[] targetLongitudes = longitudes;
+            if (count == ids.length) {
+                int capacity = ids.length * 2;
+                targetIds = Arrays.copyOf(ids, capacity);
+                targetLatitudes = Arrays.copyOf(latitudes, capacity);
+                targetLongitudes = Arrays.copyOf(longitudes, capacity);
+            }
+            targetIds[count] = id;
+            targetLatitudes[count] = latitude;
+            targetLongitudes[count] = longitude;
+            return new Cell(targetIds, targetLatitudes, targetLongitudes, count + 1);
+        }
+
+        Cell without(int index) {
+            if (count == 1) {
+                return null;
+            }
+            int capacity = Math.max(2, count - 1);
+            long[] newIds = new long[capacity];
+            double[] newLatitudes = new double[capacity];
+            double[] newLongitudes = new double[capacity];
+            int tail = count - index - 1;
+            System.arraycopy(ids, 0, newIds, 0, index);
+            System.arraycopy(ids, index + 1, newIds, index, tail);
+            System.arraycopy(latitudes, 0, newLatitudes, 0, index);
+            System.arraycopy(latitudes, index + 1, newLatitudes, index, tail);
+            System.arraycopy(longitudes, 0, newLongitudes, 0, index);
+            System.arraycopy(longitudes, index + 1, newLongitudes, index, tail);
+            return new Cell(newIds, newLatitudes, newLongitudes, count - 1);
+        }
+    }
+}
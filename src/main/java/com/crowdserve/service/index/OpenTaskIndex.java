@@ -0,0 +1,306 @@
+package com.crowdserve.service.index;
+
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.repository.TaskRepository;
+import com.crowdserve.service.facade.TaskWorkflowFacade;
+import com.crowdserve.service.observer.TaskEventBus;
+import com.crowdserve.service.observer.TaskObserver;
+import com.crowdserve.service.observer.TaskVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of the live (OPEN and ASSIGNED) tasks, partitioned by status.
+ *
+ * The index is loaded from the database once the application is ready and is kept
+ * current from the workflow events published by {@link TaskWorkflowFacade}. Each
+ * partition is a concurrent skip list keyed by task id, so readers never block and
+ * the dashboard's newest-first keyset pages are served straight from memory.
+ *
+ * Design Pattern: Observer
+ * - Registers with the facade like any other TaskObserver
+ * - Applies each event only after the surrounding transaction commits, so a
+ *   rolled-back transition never reaches the index
+ *
+ * Events are not ordered across transactions (see {@link TaskEventBus}), so the
+ * index applies an event only when it is newer than the last one applied to the
+ * same task, going by the task's version; an assignment arriving before the
+ * task's creation is not undone by it. {@link #verify()}, exposed as
+ * GET /actuator/taskindex, still reports any drift from the database and
+ * {@link #rebuild()} (POST) repairs it.
+ */
+@Component
+public class OpenTaskIndex implements TaskObserver {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenTaskIndex.class);
+
+    /**
+     * Statuses held by the index. Tasks in any other status are removed.
+     */
+    private static final List<TaskStatus> INDEXED_STATUSES = List.of(TaskStatus.OPEN, TaskStatus.ASSIGNED);
+
+    private final TaskRepository taskRepository;
+    private final TaskWorkflowFacade taskWorkflowFacade;
+
+    private volatile Partitions live = new Partitions();
+    private volatile boolean ready = false;
+    private final TaskVersions versions = new TaskVersions();
+
+    // Set while a rebuild is loading; events are mirrored into it and the ids they touch are recorded
+    private volatile Partitions rebuilding;
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public OpenTaskIndex(TaskRepository taskRepository, @Lazy TaskWorkflowFacade taskWorkflowFacade) {
+        this.taskRepository = taskRepository;
+        this.taskWorkflowFacade = taskWorkflowFacade;
+    }
+
+    /**
+     * Registers this index as an observer and loads it from the database once the
+     * application has started. Registration waits until then because TaskService
+     * depends on this index, so the facade cannot be resolved during bean creation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        // Called on the committing thread, so the index is current when the request returns
+        taskWorkflowFacade.addObserver(this, TaskEventBus.Delivery.AFTER_COMMIT);
+        rebuild();
+    }
+
+    /**
+     * Whether the index has been loaded and can serve reads.
+     *
+     * @return true once the initial load has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns every indexed task with the given status, newest first.
+     *
+     * @param status OPEN or ASSIGNED
+     * @return a snapshot list of the tasks in that partition
+     */
+    public List<Task> getTasks(TaskStatus status) {
+        return new ArrayList<>(live.partition(status).descendingMap().values());
+    }
+
+    /**
+     * Returns one newest-first page of the given partition, seeking past {@code beforeId}.
+     *
+     * @param status OPEN or ASSIGNED
+     * @param beforeId exclusive upper bound on task id, or null to start from the newest task
+     * @param limit maximum number of tasks to return
+     * @return up to {@code limit} tasks ordered by id descending
+     */
+    public List<Task> getPage(TaskStatus status, Long beforeId, int limit) {
+        NavigableMap<Long, Task> partition = live.partition(status);
+        NavigableMap<Long, Task> view = beforeId == null
+            ? partition.descendingMap()
+            : partition.headMap(beforeId, false).descendingMap();
+
+        List<Task> page = new ArrayList<>(Math.min(limit, 64));
+        for (Task task : view.values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(task);
+        }
+        return page;
+    }
+
+    /**
+     * Looks up a single indexed task.
+     *
+     * @param status OPEN or ASSIGNED
+     * @param id the task id
+     * @return the task, or null if it is not in that partition
+     */
+    public Task get(TaskStatus status, Long id) {
+        return live.partition(status).get(id);
+    }
+
+    /**
+     * Returns the number of indexed tasks with the given status.
+     *
+     * @param status OPEN or ASSIGNED
+     * @return partition size
+     */
+    public int size(TaskStatus status) {
+        return live.partition(status).size();
+    }
+
+    /**
+     * Reloads the index from the database and swaps it in.
+     * Events that arrive while loading are applied to both the live and the new index,
+     * and rows for tasks they touched are skipped so the load cannot resurrect stale state.
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Partitions fresh = new Partitions();
+        touchedDuringRebuild.clear();
+        rebuilding = fresh;
+        try {
+            for (TaskStatus status : INDEXED_STATUSES) {
+                for (Task task : taskRepository.findByStatus(status)) {
+                    if (!touchedDuringRebuild.contains(task.getId())) {
+                        fresh.partition(status).putIfAbsent(task.getId(), task);
+                    }
+                }
+            }
+            live = fresh;
+            ready = true;
+        } finally {
+            rebuilding = null;
+            touchedDuringRebuild.clear();
+        }
+        logger.info("Open task index loaded: {} open, {} assigned in {} ms",
+            size(TaskStatus.OPEN), size(TaskStatus.ASSIGNED), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Compares the index against the database, partition by partition.
+     *
+     * @return a report listing ids missing from the index and ids the index holds but the database does not
+     */
+    public ConsistencyReport verify() {
+        Map<TaskStatus, PartitionReport> partitions = new EnumMap<>(TaskStatus.class);
+        boolean consistent = true;
+        for (TaskStatus status : INDEXED_STATUSES) {
+            Set<Long> indexed = new HashSet<>(live.partition(status).keySet());
+            Set<Long> stored = new HashSet<>(taskRepository.findIdsByStatus(status));
+
+            Set<Long> missing = new HashSet<>(stored);
+            missing.removeAll(indexed);
+            Set<Long> stale = new HashSet<>(indexed);
+            stale.removeAll(stored);
+
+            consistent &= missing.isEmpty() && stale.isEmpty();
+            partitions.put(status, new PartitionReport(indexed.size(), stored.size(), missing, stale));
+        }
+        return new ConsistencyReport(ready, consistent, partitions);
+    }
+
+    @Override
+    public void onTaskCreated(Task task) {
+        apply(task);
+    }
+
+    @Override
+    public void onTaskAssigned(Task task) {
+        apply(task);
+    }
+
+    @Override
+    public void onTaskCompleted(Task task) {
+        apply(task);
+    }
+
+    @Override
+    public void onTaskCancelled(Task task) {
+        apply(task);
+    }
+
+    @Override
+    public void onTaskDeleted(Task task) {
+        remove(task);
+    }
+
+    /**
+     * Moves the task into the partition matching its current status, or drops it
+     * from the index when it is no longer OPEN or ASSIGNED, unless a newer event of
+     * the task has been applied.
+     */
+    private void apply(Task task) {
+        versions.applyIfNewer(task, false, () -> {
+            Partitions pending = rebuilding;
+            if (pending != null) {
+                touchedDuringRebuild.add(task.getId());
+                pending.place(task);
+            }
+            live.place(task);
+        });
+    }
+
+    /**
+     * Drops a deleted task from the index.
+     */
+    private void remove(Task task) {
+        versions.applyIfNewer(task, true, () -> {
+            Partitions pending = rebuilding;
+            if (pending != null) {
+                touchedDuringRebuild.add(task.getId());
+                pending.remove(task.getId());
+            }
+            live.remove(task.getId());
+        });
+    }
+
+    /**
+     * The per-status skip lists making up one generation of the index.
+     */
+    private static final class Partitions {
+
+        private final Map<TaskStatus, ConcurrentSkipListMap<Long, Task>> byStatus = new EnumMap<>(TaskStatus.class);
+
+        Partitions() {
+            for (TaskStatus status : INDEXED_STATUSES) {
+                byStatus.put(status, new ConcurrentSkipListMap<>());
+            }
+        }
+
+        ConcurrentSkipListMap<Long, Task> partition(TaskStatus status) {
+            ConcurrentSkipListMap<Long, Task> partition = byStatus.get(status);
+            if (partition == null) {
+                throw new IllegalArgumentException("Tasks with status " + status + " are not indexed");
+            }
+            return partition;
+        }
+
+        void remove(Long id) {
+            for (ConcurrentSkipListMap<Long, Task> partition : byStatus.values()) {
+                partition.remove(id);
+            }
+        }
+
+        void place(Task task) {
+            for (Map.Entry<TaskStatus, ConcurrentSkipListMap<Long, Task>> entry : byStatus.entrySet()) {
+                if (entry.getKey() == task.getStatus()) {
+                    entry.getValue().put(task.getId(), task);
+                } else {
+                    entry.getValue().remove(task.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Result of comparing one partition of the index with the database.
+     */
+    public record PartitionReport(int indexed, int stored, Set<Long> missingFromIndex, Set<Long> staleInIndex) {
+    }
+
+    /**
+     * Result of comparing the whole index with the database.
+     */
+    public record ConsistencyReport(boolean ready, boolean consistent, Map<TaskStatus, PartitionReport> partitions) {
+    }
+}
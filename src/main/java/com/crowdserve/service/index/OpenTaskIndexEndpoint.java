@@ -0,0 +1,34 @@
+package com.crowdserve.service.index;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint for the open-task index.
+ * GET /actuator/taskindex runs a consistency check against the database;
+ * POST /actuator/taskindex reloads the index and reports the result.
+ * This is how drift from task events applied out of order is found and repaired.
+ */
+@Component
+@Endpoint(id = "taskindex")
+public class OpenTaskIndexEndpoint {
+
+    private final OpenTaskIndex openTaskIndex;
+
+    public OpenTaskIndexEndpoint(OpenTaskIndex openTaskIndex) {
+        this.openTaskIndex = openTaskIndex;
+    }
+
+    @ReadOperation
+    public OpenTaskIndex.ConsistencyReport verify() {
+        return openTaskIndex.verify();
+    }
+
+    @WriteOperation
+    public OpenTaskIndex.ConsistencyReport rebuild() {
+        openTaskIndex.rebuild();
+        return openTaskIndex.verify();
+    }
+}
@@ -0,0 +1,166 @@
+package com.crowdserve.service.index;
+
+import com.crowdserve.dto.TaskLocationDto;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.repository.TaskRepository;
+import com.crowdserve.service.facade.TaskWorkflowFacade;
+import com.crowdserve.service.observer.TaskEventBus;
+import com.crowdserve.service.observer.TaskObserver;
+import com.crowdserve.service.observer.TaskVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory spatial index of the OPEN tasks that carry coordinates.
+ *
+ * Backed by a {@link GeoGrid}; loaded from the database once the application is
+ * ready and then updated incrementally from the workflow events published by
+ * {@link TaskWorkflowFacade}: a created task is added, and an assigned, completed
+ * or cancelled task is removed. An event older than the last one applied to the
+ * same task, by the task's version, is ignored, since events are not ordered
+ * across transactions.
+ */
+@Component
+public class TaskGeoIndex implements TaskObserver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskGeoIndex.class);
+
+    private final TaskRepository taskRepository;
+    private final TaskWorkflowFacade taskWorkflowFacade;
+    private final GeoGrid grid;
+
+    private volatile boolean ready = false;
+    private final TaskVersions versions = new TaskVersions();
+
+    // Ids touched by events while the initial load runs; the load skips them
+    private volatile boolean loading = false;
+    private final Set<Long> touchedWhileLoading = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TaskGeoIndex(TaskRepository taskRepository,
+                        @Lazy TaskWorkflowFacade taskWorkflowFacade,
+                        @Value("${crowdserve.geo.cell-degrees:0.02}") double cellDegrees) {
+        this.taskRepository = taskRepository;
+        this.taskWorkflowFacade = taskWorkflowFacade;
+        this.grid = new GeoGrid(cellDegrees);
+    }
+
+    /**
+     * Registers this index as an observer and loads the open task locations
+     * once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        taskWorkflowFacade.addObserver(this, TaskEventBus.Delivery.AFTER_COMMIT);
+
+        long start = System.currentTimeMillis();
+        loading = true;
+        try {
+            for (TaskLocationDto location : taskRepository.findLocationsByStatus(TaskStatus.OPEN)) {
+                if (!touchedWhileLoading.contains(location.id())) {
+                    grid.put(location.id(), location.latitude(), location.longitude());
+                }
+            }
+            ready = true;
+        } finally {
+            loading = false;
+            touchedWhileLoading.clear();
+        }
+        logger.info("Task geo index loaded: {} open tasks in {} ms", grid.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Whether the initial load has completed.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Finds open tasks within a radius, nearest first.
+     *
+     * @return task ids and distances, up to {@code limit}
+     */
+    public List<GeoGrid.Hit> withinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        return grid.withinRadius(latitude, longitude, radiusKm, limit);
+    }
+
+    /**
+     * Finds the {@code k} open tasks nearest to a location, searching no further than {@code maxRadiusKm}.
+     *
+     * @return task ids and distances, nearest first
+     */
+    public List<GeoGrid.Hit> nearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        return grid.nearest(latitude, longitude, k, maxRadiusKm);
+    }
+
+    @Override
+    public void onTaskCreated(Task task) {
+        apply(task);
+    }
+
+    @Override
+    public void onTaskAssigned(Task task) {
+        apply(task);
+    }
+
+    @Override
+    public void onTaskCompleted(Task task) {
+        apply(task);
+    }
+
+    @Override
+    public void onTaskCancelled(Task task) {
+        apply(task);
+    }
+
+    @Override
+    public void onTaskDeleted(Task task) {
+        remove(task);
+    }
+
+    /**
+     * Indexes the task while it is OPEN and drops it once it leaves that status.
+     */
+    private void apply(Task task) {
+        if (task.getLatitude() == null || task.getLongitude() == null) {
+            return;
+        }
+        versions.applyIfNewer(task, false, () -> {
+            if (loading) {
+                touchedWhileLoading.add(task.getId());
+            }
+            if (task.getStatus() == TaskStatus.OPEN) {
+                grid.put(task.getId(), task.getLatitude(), task.getLongitude());
+            } else {
+                grid.remove(task.getId(), task.getLatitude(), task.getLongitude());
+            }
+        });
+    }
+
+    /**
+     * Drops a deleted task from the index.
+     */
+    private void remove(Task task) {
+        if (task.getLatitude() == null || task.getLongitude() == null) {
+            return;
+        }
+        versions.applyIfNewer(task, true, () -> {
+            if (loading) {
+                touchedWhileLoading.add(task.getId());
+            }
+            grid.remove(task.getId(), task.getLatitude(), task.getLongitude());
+        });
+    }
+}
@@ -0,0 +1,239 @@
+package com.crowdserve.service.index;
+
+import com.crowdserve.dto.TaskTextDto;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.repository.TaskRepository;
+import com.crowdserve.service.facade.TaskWorkflowFacade;
+import com.crowdserve.service.observer.TaskEventBus;
+import com.crowdserve.service.observer.TaskObserver;
+import com.crowdserve.service.observer.TaskVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Full-text index over the title, description and location of every task.
+ *
+ * Backed by a {@link TextIndex} whose tag is the task's status, so searches can be
+ * limited to e.g. OPEN tasks. The index is built from the database once the
+ * application is ready, by several threads each paging through its own id range,
+ * and is then kept current from the workflow events published by
+ * {@link TaskWorkflowFacade}: status changes only retag a task, deletions remove it.
+ * An event older than the last one applied to the same task, by the task's version,
+ * is ignored, since events are not ordered across transactions.
+ */
+@Component
+public class TaskTextIndex implements TaskObserver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskTextIndex.class);
+
+    private final TaskRepository taskRepository;
+    private final TaskWorkflowFacade taskWorkflowFacade;
+    private final int rebuildThreads;
+    private final int rebuildBatchSize;
+
+    private volatile TextIndex live = new TextIndex();
+    private volatile boolean ready = false;
+    private final TaskVersions versions = new TaskVersions();
+
+    // Set while a rebuild is loading; events are mirrored into it and the ids they touch are recorded
+    private volatile TextIndex rebuilding;
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TaskTextIndex(TaskRepository taskRepository,
+                         @Lazy TaskWorkflowFacade taskWorkflowFacade,
+                         @Value("${crowdserve.search.rebuild-threads:0}") int rebuildThreads,
+                         @Value("${crowdserve.search.rebuild-batch-size:2000}") int rebuildBatchSize) {
+        this.taskRepository = taskRepository;
+        this.taskWorkflowFacade = taskWorkflowFacade;
+        this.rebuildThreads = rebuildThreads > 0 ? rebuildThreads : Runtime.getRuntime().availableProcessors();
+        this.rebuildBatchSize = Math.max(1, rebuildBatchSize);
+    }
+
+    /**
+     * Registers this index as an observer and builds it once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        taskWorkflowFacade.addObserver(this, TaskEventBus.Delivery.AFTER_COMMIT);
+        rebuild();
+    }
+
+    /**
+     * Whether the index has been built and can serve searches.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the number of indexed tasks.
+     */
+    public int size() {
+        return live.size();
+    }
+
+    /**
+     * Searches task text.
+     *
+     * @param query free text; the last word also matches as a prefix
+     * @param status only return tasks in this status, or null for any status
+     * @param limit maximum number of hits
+     * @return task ids and scores, best first
+     */
+    public List<TextIndex.Hit> search(String query, TaskStatus status, int limit) {
+        return live.search(query, status == null ? TextIndex.ANY_TAG : status.ordinal(), limit);
+    }
+
+    /**
+     * Rebuilds the index from the database and swaps it in.
+     * The id space is cut into one range per thread; each thread pages through its
+     * range, tokenizes the rows and adds them in batches. Events that arrive while
+     * loading are applied to both the live and the new index, and rows for tasks
+     * they touched are skipped so the load cannot resurrect stale state.
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        TextIndex fresh = new TextIndex();
+        touchedDuringRebuild.clear();
+        rebuilding = fresh;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads, runnable -> {
+            Thread thread = new Thread(runnable, "task-text-index-rebuild-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long maxId = taskRepository.findMaxId();
+            long rangeSize = Math.max(1, (maxId + rebuildThreads - 1) / rebuildThreads);
+            AtomicInteger loaded = new AtomicInteger();
+
+            List<Future<?>> ranges = new ArrayList<>();
+            for (long from = 0; from < maxId; from += rangeSize) {
+                long afterId = from;
+                long toId = Math.min(maxId, from + rangeSize);
+                ranges.add(executor.submit(() -> loaded.addAndGet(loadRange(fresh, afterId, toId))));
+            }
+            for (Future<?> range : ranges) {
+                range.get();
+            }
+
+            live = fresh;
+            ready = true;
+            logger.info("Task text index built: {} tasks using {} threads in {} ms",
+                loaded.get(), rebuildThreads, System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building the task text index", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to build the task text index", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            rebuilding = null;
+            touchedDuringRebuild.clear();
+        }
+    }
+
+    /**
+     * Loads the tasks with ids in ({@code afterId}, {@code toId}] into the index.
+     *
+     * @return the number of tasks added
+     */
+    private int loadRange(TextIndex index, long afterId, long toId) {
+        int added = 0;
+        long cursor = afterId;
+        while (true) {
+            List<TaskTextDto> rows = taskRepository.findTextByIdRange(cursor, toId, Limit.of(rebuildBatchSize));
+            if (rows.isEmpty()) {
+                return added;
+            }
+            List<TextIndex.Document> documents = new ArrayList<>(rows.size());
+            for (TaskTextDto row : rows) {
+                documents.add(TextIndex.analyze(row.id(), row.status().ordinal(),
+                    row.title(), searchableBody(row.description(), row.location())));
+            }
+            added += index.addAll(documents, touchedDuringRebuild::contains);
+            cursor = rows.get(rows.size() - 1).id();
+        }
+    }
+
+    @Override
+    public void onTaskCreated(Task task) {
+        apply(task);
+    }
+
+    @Override
+    public void onTaskAssigned(Task task) {
+        apply(task);
+    }
+
+    @Override
+    public void onTaskCompleted(Task task) {
+        apply(task);
+    }
+
+    @Override
+    public void onTaskCancelled(Task task) {
+        apply(task);
+    }
+
+    @Override
+    public void onTaskDeleted(Task task) {
+        remove(task);
+    }
+
+    /**
+     * Indexes the task's current text and status; unchanged text only updates the status.
+     */
+    private void apply(Task task) {
+        String body = searchableBody(task.getDescription(), task.getLocation());
+        versions.applyIfNewer(task, false, () -> {
+            TextIndex pending = rebuilding;
+            if (pending != null) {
+                touchedDuringRebuild.add(task.getId());
+                pending.put(task.getId(), task.getStatus().ordinal(), task.getTitle(), body);
+            }
+            live.put(task.getId(), task.getStatus().ordinal(), task.getTitle(), body);
+        });
+    }
+
+    /**
+     * Drops a deleted task from the index.
+     */
+    private void remove(Task task) {
+        versions.applyIfNewer(task, true, () -> {
+            TextIndex pending = rebuilding;
+            if (pending != null) {
+                touchedDuringRebuild.add(task.getId());
+                pending.remove(task.getId());
+            }
+            live.remove(task.getId());
+        });
+    }
+
+    private static String searchableBody(String description, String location) {
+        if (location == null || location.isBlank()) {
+            return description;
+        }
+        return description == null ? location : description + "\n" + location;
+    }
+}
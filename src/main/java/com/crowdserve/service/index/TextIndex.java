@@ -0,0 +1,721 @@
+package com.crowdserve.service.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory inverted index with BM25 ranking and prefix matching.
+ *
+ * Each document has a long id (e.g. a task id), an int tag that queries can filter
+ * on (e.g. a status ordinal) and two text fields: a short, heavily weighted title
+ * and a body. Text is lower-cased, split on anything that is not a letter or digit,
+ * and common English stop words are dropped; there is no stemming, which prefix
+ * matching on the last query word makes up for.
+ *
+ * Documents get internal numbers in insertion order, so every posting list stays
+ * sorted and an add is an append. Removing or re-indexing a document only marks
+ * its old number dead; dead entries are skipped by queries and dropped by a
+ * compaction once they make up a quarter of the index. Changing a tag never
+ * touches the postings. Queries share a read lock and writers take a write lock,
+ * so tokenize documents with {@link #analyze} before taking it for bulk loads.
+ */
+public class TextIndex {
+
+    /**
+     * Weight of a title token relative to a body token.
+     */
+    public static final int TITLE_WEIGHT = 2;
+
+    /**
+     * Shortest last query word that is expanded as a prefix.
+     */
+    public static final int MIN_PREFIX_LENGTH = 2;
+
+    /**
+     * Most index terms a single prefix may expand to.
+     */
+    public static final int MAX_PREFIX_EXPANSIONS = 128;
+
+    /**
+     * Tag value that matches documents with any tag.
+     */
+    public static final int ANY_TAG = -1;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int DEAD = Integer.MIN_VALUE;
+    private static final int NORM_CACHE_SIZE = 1024;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+        "of", "on", "or", "the", "to", "with");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock. Terms are looked up by hash; the sorted view serves prefix expansion
+    private final HashMap<String, Postings> terms = new HashMap<>();
+    private final TreeMap<String, Postings> sortedTerms = new TreeMap<>();
+    private final Map<Long, Integer> docNumbers = new HashMap<>();
+    private long[] docIds = new long[1024];
+    private int[] docTags = new int[1024];
+    private int[] docLengths = new int[1024];
+    private int[] docHashes = new int[1024];
+    private int docCount = 0;
+    private int liveDocs = 0;
+    private long liveLength = 0;
+
+    /**
+     * Splits text into index terms.
+     *
+     * @param text the text to split, may be null
+     * @return the terms in order of appearance, stop words removed
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Tokenizes a document without touching the index, so callers can do the
+     * expensive part of a bulk load in parallel before calling {@link #addAll}.
+     *
+     * @param id document id
+     * @param tag filter tag, must not be negative
+     * @param title heavily weighted text, may be null
+     * @param body remaining text, may be null
+     * @return the analyzed document
+     */
+    public static Document analyze(long id, int tag, String title, String body) {
+        if (tag < 0) {
+            throw new IllegalArgumentException("Tag must not be negative, was: " + tag);
+        }
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        int length = 0;
+        for (String token : tokenize(title)) {
+            frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String token : tokenize(body)) {
+            frequencies.merge(token, 1, Integer::sum);
+            length += 1;
+        }
+        String[] docTerms = frequencies.keySet().toArray(new String[0]);
+        int[] docFrequencies = new int[docTerms.length];
+        for (int i = 0; i < docTerms.length; i++) {
+            docFrequencies[i] = frequencies.get(docTerms[i]);
+        }
+        int hash = 31 * String.valueOf(title).hashCode() + String.valueOf(body).hashCode();
+        return new Document(id, tag, length, hash, docTerms, docFrequencies);
+    }
+
+    /**
+     * Adds or replaces a document. If the text is unchanged only the tag is updated.
+     */
+    public void put(long id, int tag, String title, String body) {
+        Document document = analyze(id, tag, title, body);
+        lock.writeLock().lock();
+        try {
+            Integer existing = docNumbers.get(id);
+            if (existing != null && docHashes[existing] == document.hash) {
+                docTags[existing] = tag;
+                return;
+            }
+            if (existing != null) {
+                kill(existing);
+            }
+            append(document);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds analyzed documents under a single lock acquisition. Documents whose id is
+     * already indexed, or for which {@code skip} returns true, are left out; the check
+     * runs under the lock so it is ordered with concurrent {@link #put} and {@link #remove} calls.
+     *
+     * @return the number of documents added
+     */
+    public int addAll(Collection<Document> documents, LongPredicate skip) {
+        int added = 0;
+        lock.writeLock().lock();
+        try {
+            for (Document document : documents) {
+                if (!docNumbers.containsKey(document.id) && !skip.test(document.id)) {
+                    append(document);
+                    added++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return added;
+    }
+
+    /**
+     * Changes the tag of a document without re-indexing its text.
+     *
+     * @return true if the document is indexed
+     */
+    public boolean setTag(long id, int tag) {
+        lock.writeLock().lock();
+        try {
+            Integer number = docNumbers.get(id);
+            if (number == null) {
+                return false;
+            }
+            docTags[number] = tag;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document.
+     *
+     * @return true if the document was indexed
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer number = docNumbers.get(id);
+            if (number == null) {
+                return false;
+            }
+            kill(number);
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed documents.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the documents matching any query word by BM25.
+     * The last word also matches every term it is a prefix of (up to
+     * {@link #MAX_PREFIX_EXPANSIONS}); a document scores the best of those matches.
+     *
+     * Words are scored one at a time, rarest (highest possible score) first. Once the
+     * words left could not lift an unseen document above the current k-th best score,
+     * they are only looked up for the documents already in contention, so common
+     * words do not force a walk over their whole posting list.
+     *
+     * @param query free text
+     * @param tag only return documents with this tag, or {@link #ANY_TAG}
+     * @param limit maximum number of hits
+     * @return up to {@code limit} hits, best first; newer documents win ties
+     */
+    public List<Hit> search(String query, int tag, int limit) {
+        List<String> words = tokenize(query).stream().distinct().toList();
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return List.of();
+            }
+            float[] norms = lengthNorms((float) liveLength / liveDocs);
+
+            List<Clause> clauses = new ArrayList<>();
+            for (int w = 0; w < words.size(); w++) {
+                Clause clause = clause(words.get(w), w == words.size() - 1, norms);
+                if (clause != null) {
+                    clauses.add(clause);
+                }
+            }
+            clauses.sort((a, b) -> Float.compare(b.maxScore, a.maxScore));
+            if (clauses.isEmpty()) {
+                return List.of();
+            }
+            if (clauses.size() == 1 && clauses.get(0).matches.size() == 1) {
+                return topHits(clauses.get(0), tag, limit, norms);
+            }
+
+            float remaining = 0f;
+            for (Clause clause : clauses) {
+                remaining += clause.maxScore;
+            }
+
+            Accumulator accumulator = new Accumulator(docCount);
+            for (int c = 0; c < clauses.size(); c++) {
+                if (c > 0 && accumulator.size >= limit && remaining < clauses.get(0).maxScore * c) {
+                    float threshold = kthBestScore(accumulator, tag, limit);
+                    if (remaining < threshold) {
+                        int[] candidates = candidates(accumulator, tag, threshold - remaining);
+                        for (Clause rest : clauses.subList(c, clauses.size())) {
+                            rest.scoreCandidates(candidates, accumulator.scores, docLengths, norms);
+                        }
+                        return topHits(accumulator.scores, candidates, candidates.length, tag, limit);
+                    }
+                }
+                clauses.get(c).scoreAll(accumulator, docLengths, norms);
+                remaining -= clauses.get(c).maxScore;
+            }
+            return topHits(accumulator.scores, accumulator.docs, accumulator.size, tag, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Resolves one query word to the posting lists it matches, or null if none.
+     */
+    private Clause clause(String word, boolean last, float[] norms) {
+        List<Postings> matches = new ArrayList<>();
+        if (last && word.length() >= MIN_PREFIX_LENGTH) {
+            NavigableMap<String, Postings> expansions =
+                sortedTerms.subMap(word, true, word + Character.MAX_VALUE, false);
+            for (Postings postings : expansions.values()) {
+                matches.add(postings);
+                if (matches.size() == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+            }
+        } else {
+            Postings postings = terms.get(word);
+            if (postings != null) {
+                matches.add(postings);
+            }
+        }
+        if (matches.isEmpty()) {
+            return null;
+        }
+
+        float[] idfs = new float[matches.size()];
+        float maxScore = 0f;
+        for (int m = 0; m < matches.size(); m++) {
+            Postings postings = matches.get(m);
+            idfs[m] = idf(postings.size);
+            // Upper bound: the highest frequency in the list, in the shortest possible document
+            maxScore = Math.max(maxScore, bm25(idfs[m], postings.maxFrequency, norms[0]));
+        }
+        return new Clause(matches, idfs, maxScore);
+    }
+
+    /**
+     * Returns the k-th best score among the documents scored so far that match the tag,
+     * i.e. the score a document must beat to enter the results.
+     */
+    private float kthBestScore(Accumulator accumulator, int tag, int limit) {
+        PriorityQueue<Float> top = new PriorityQueue<>(limit + 1);
+        for (int i = 0; i < accumulator.size; i++) {
+            int doc = accumulator.docs[i];
+            if (!matchesTag(doc, tag)) {
+                continue;
+            }
+            float score = accumulator.scores[doc];
+            if (top.size() < limit) {
+                top.add(score);
+            } else if (score > top.peek()) {
+                top.poll();
+                top.add(score);
+            }
+        }
+        return top.size() < limit ? 0f : top.peek();
+    }
+
+    /**
+     * Returns, in ascending order, the scored documents that match the tag and have at least {@code minimum}.
+     */
+    private int[] candidates(Accumulator accumulator, int tag, float minimum) {
+        int[] candidates = new int[accumulator.size];
+        int count = 0;
+        for (int i = 0; i < accumulator.size; i++) {
+            int doc = accumulator.docs[i];
+            if (accumulator.scores[doc] >= minimum && matchesTag(doc, tag)) {
+                candidates[count++] = doc;
+            }
+        }
+        candidates = Arrays.copyOf(candidates, count);
+        Arrays.sort(candidates);
+        return candidates;
+    }
+
+    /**
+     * Ranks the documents of a single posting list straight into the result heap,
+     * without a per-query score array.
+     */
+    private List<Hit> topHits(Clause clause, int tag, int limit, float[] norms) {
+        Postings postings = clause.matches.get(0);
+        float idf = clause.idfs[0];
+        // Min-heap of posting positions: lowest score (then oldest) on top
+        float[] scores = new float[postings.size];
+        PriorityQueue<Integer> top = new PriorityQueue<>(Math.min(limit, 1024) + 1,
+            (a, b) -> scores[a] != scores[b] ? Float.compare(scores[a], scores[b]) : Integer.compare(a, b));
+        for (int i = 0; i < postings.size; i++) {
+            int doc = postings.docs[i];
+            if (!matchesTag(doc, tag)) {
+                continue;
+            }
+            scores[i] = bm25(idf, postings.frequencies[i], norm(norms, docLengths[doc]));
+            if (top.size() < limit) {
+                top.add(i);
+            } else if (scores[i] >= scores[top.peek()]) {
+                // Positions ascend with document number, so on a tie the newer document wins
+                top.poll();
+                top.add(i);
+            }
+        }
+
+        Hit[] hits = new Hit[top.size()];
+        for (int h = hits.length - 1; h >= 0; h--) {
+            int i = top.poll();
+            hits[h] = new Hit(docIds[postings.docs[i]], scores[i]);
+        }
+        return Arrays.asList(hits);
+    }
+
+    private List<Hit> topHits(float[] scores, int[] docs, int count, int tag, int limit) {
+        // Min-heap of document numbers: lowest score (then oldest) on top
+        PriorityQueue<Integer> top = new PriorityQueue<>(Math.min(limit, 1024) + 1,
+            (a, b) -> scores[a] != scores[b] ? Float.compare(scores[a], scores[b]) : Integer.compare(a, b));
+        for (int i = 0; i < count; i++) {
+            int doc = docs[i];
+            float score = scores[doc];
+            if (!matchesTag(doc, tag)) {
+                continue;
+            }
+            if (top.size() < limit) {
+                top.add(doc);
+            } else {
+                int weakest = top.peek();
+                if (score > scores[weakest] || (score == scores[weakest] && doc > weakest)) {
+                    top.poll();
+                    top.add(doc);
+                }
+            }
+        }
+
+        Hit[] hits = new Hit[top.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            int doc = top.poll();
+            hits[i] = new Hit(docIds[doc], scores[doc]);
+        }
+        return Arrays.asList(hits);
+    }
+
+    private boolean matchesTag(int doc, int tag) {
+        return docTags[doc] != DEAD && (tag == ANY_TAG || docTags[doc] == tag);
+    }
+
+    private float idf(int documentFrequency) {
+        return (float) Math.log(1.0 + (docCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /**
+     * The BM25 length normalisation {@code K1 * (1 - B + B * length / averageLength)}
+     * for every document length below {@link #NORM_CACHE_SIZE}; longer documents
+     * are computed on demand by {@link #norm}.
+     */
+    private static float[] lengthNorms(float averageLength) {
+        float[] norms = new float[NORM_CACHE_SIZE + 1];
+        for (int length = 0; length < NORM_CACHE_SIZE; length++) {
+            norms[length] = K1 * (1 - B + B * length / averageLength);
+        }
+        norms[NORM_CACHE_SIZE] = averageLength;
+        return norms;
+    }
+
+    private static float norm(float[] norms, int length) {
+        return length < NORM_CACHE_SIZE ? norms[length] : K1 * (1 - B + B * length / norms[NORM_CACHE_SIZE]);
+    }
+
+    private static float bm25(float idf, int frequency, float norm) {
+        return idf * frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    private void append(Document document) {
+        if (docCount == docIds.length) {
+            int capacity = docIds.length * 2;
+            docIds = Arrays.copyOf(docIds, capacity);
+            docTags = Arrays.copyOf(docTags, capacity);
+            docLengths = Arrays.copyOf(docLengths, capacity);
+            docHashes = Arrays.copyOf(docHashes, capacity);
+        }
+        int number = docCount++;
+        docIds[number] = document.id;
+        docTags[number] = document.tag;
+        docLengths[number] = document.length;
+        docHashes[number] = document.hash;
+        for (int i = 0; i < document.terms.length; i++) {
+            Postings postings = terms.get(document.terms[i]);
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(document.terms[i], postings);
+                sortedTerms.put(document.terms[i], postings);
+            }
+            postings.add(number, document.frequencies[i]);
+        }
+        docNumbers.put(document.id, number);
+        liveDocs++;
+        liveLength += document.length;
+    }
+
+    private void kill(int number) {
+        docNumbers.remove(docIds[number]);
+        docTags[number] = DEAD;
+        liveDocs--;
+        liveLength -= docLengths[number];
+    }
+
+    /**
+     * Renumbers the live documents and drops dead entries from every posting list
+     * once a quarter of the document numbers are dead.
+     */
+    private void compactIfNeeded() {
+        int dead = docCount - liveDocs;
+        if (dead < 1024 || dead * 4 < docCount) {
+            return;
+        }
+        int[] renumber = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (docTags[doc] == DEAD) {
+                renumber[doc] = -1;
+                continue;
+            }
+            renumber[doc] = next;
+            docIds[next] = docIds[doc];
+            docTags[next] = docTags[doc];
+            docLengths[next] = docLengths[doc];
+            docHashes[next] = docHashes[doc];
+            docNumbers.put(docIds[next], next);
+            next++;
+        }
+        docCount = next;
+        terms.values().removeIf(postings -> postings.renumber(renumber) == 0);
+        sortedTerms.values().removeIf(postings -> postings.size == 0);
+    }
+
+    /**
+     * A tokenized document ready to be added with {@link #addAll}.
+     */
+    public static final class Document {
+
+        private final long id;
+        private final int tag;
+        private final int length;
+        private final int hash;
+        private final String[] terms;
+        private final int[] frequencies;
+
+        private Document(long id, int tag, int length, int hash, String[] terms, int[] frequencies) {
+            this.id = id;
+            this.tag = tag;
+            this.length = length;
+            this.hash = hash;
+            this.terms = terms;
+            this.frequencies = frequencies;
+        }
+
+        public long id() {
+            return id;
+        }
+    }
+
+    /**
+     * A document matched by a query and its BM25 score.
+     */
+    public record Hit(long id, double score) {
+    }
+
+    /**
+     * Per-query score for every document number plus the list of numbers scored so far,
+     * so results are collected without walking the whole array.
+     */
+    private static final class Accumulator {
+
+        final float[] scores;
+        int[] docs = new int[64];
+        int size = 0;
+
+        Accumulator(int documentCount) {
+            this.scores = new float[documentCount];
+        }
+
+        void add(int doc, float score) {
+            if (scores[doc] == 0f) {
+                if (size == docs.length) {
+                    docs = Arrays.copyOf(docs, size * 2);
+                }
+                docs[size++] = doc;
+            }
+            scores[doc] += score;
+        }
+    }
+
+    /**
+     * The posting lists one query word matches: a single term, or every expansion of a prefix.
+     */
+    private static final class Clause {
+
+        final List<Postings> matches;
+        final float[] idfs;
+        final float maxScore;
+
+        Clause(List<Postings> matches, float[] idfs, float maxScore) {
+            this.matches = matches;
+            this.idfs = idfs;
+            this.maxScore = maxScore;
+        }
+
+        /**
+         * Adds this clause's score to every document it matches. For a prefix a
+         * document gets its best expansion, so matching several does not count twice.
+         */
+        void scoreAll(Accumulator accumulator, int[] lengths, float[] norms) {
+            if (matches.size() == 1) {
+                Postings postings = matches.get(0);
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    accumulator.add(doc, bm25(idfs[0], postings.frequencies[i], norm(norms, lengths[doc])));
+                }
+                return;
+            }
+            Accumulator best = new Accumulator(accumulator.scores.length);
+            for (int m = 0; m < matches.size(); m++) {
+                Postings postings = matches.get(m);
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    float score = bm25(idfs[m], postings.frequencies[i], norm(norms, lengths[doc]));
+                    if (score > best.scores[doc]) {
+                        best.add(doc, score - best.scores[doc]);
+                    }
+                }
+            }
+            for (int i = 0; i < best.size; i++) {
+                accumulator.add(best.docs[i], best.scores[best.docs[i]]);
+            }
+        }
+
+        /**
+         * Adds this clause's score to the given documents only, finding each one in the
+         * posting lists by galloping search.
+         *
+         * @param candidates document numbers in ascending order
+         */
+        void scoreCandidates(int[] candidates, float[] scores, int[] lengths, float[] norms) {
+            float[] best = new float[candidates.length];
+            for (int m = 0; m < matches.size(); m++) {
+                Postings postings = matches.get(m);
+                int position = 0;
+                for (int c = 0; c < candidates.length && position < postings.size; c++) {
+                    int doc = candidates[c];
+                    position = postings.seek(doc, position);
+                    if (position < postings.size && postings.docs[position] == doc) {
+                        float score = bm25(idfs[m], postings.frequencies[position], norm(norms, lengths[doc]));
+                        best[c] = Math.max(best[c], score);
+                    }
+                }
+            }
+            for (int c = 0; c < candidates.length; c++) {
+                scores[candidates[c]] += best[c];
+            }
+        }
+    }
+
+    /**
+     * Document numbers containing one term, ascending, with the term's weighted frequency in each.
+     */
+    private static final class Postings {
+
+        int[] docs = new int[2];
+        int[] frequencies = new int[2];
+        int size = 0;
+        int maxFrequency = 0;
+
+        /**
+         * Returns the first position at or after {@code from} whose document is not below {@code doc}.
+         */
+        int seek(int doc, int from) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && docs[high] < doc) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (docs[middle] < doc) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            maxFrequency = Math.max(maxFrequency, frequency);
+            size++;
+        }
+
+        int renumber(int[] renumber) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = renumber[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+}
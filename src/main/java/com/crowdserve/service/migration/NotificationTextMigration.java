@@ -0,0 +1,167 @@
+package com.crowdserve.service.migration;
+
+import com.crowdserve.config.NotificationMigrationProperties;
+import com.crowdserve.model.NotificationKind;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves task notifications stored as text over to templates.
+ *
+ * Task notifications used to store their fully rendered title and message. Now
+ * they store their {@link NotificationKind} and parameters, and the text is
+ * rendered when read. The schema changes this needs, including dropping the
+ * NOT NULL constraint the old schema put on {@code title}, which a schema update
+ * does not relax, are in {@code db/<database>/005_templated_notifications.sql}.
+ *
+ * Once the application is ready, a background thread converts existing rows, in
+ * chunks of {@code chunk-size} in id order, each in a transaction of its own with
+ * a {@code pause} after it. A row is converted only if its text is exactly what
+ * the template renders from the task as it is now, so nothing a user sees changes;
+ * rows whose task has been renamed since keep their text.
+ */
+@Component
+public class NotificationTextMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationTextMigration.class);
+
+    private static final String SELECT_CHUNK =
+        "select n.id, n.user_id, n.title, n.message, t.title, t.poster_id, t.worker_id, w.full_name, t.reward "
+            + "from notifications n join tasks t on t.id = n.task_id left join users w on w.id = t.worker_id "
+            + "where n.id > ? and n.title in ('Task Created', 'Task Completed!') and n.event_count = 1 "
+            + "order by n.id limit ?";
+
+    private static final String CONVERT =
+        "update notifications set kind = ?, actor_id = ?, amount = ?, title = null, message = null where id = ?";
+
+    private record Row(long id, long userId, String title, String message, String taskTitle, Long posterId,
+                       Long workerId, String workerName, Double reward) {
+    }
+
+    private record Chunk(int examined, long lastId, int converted) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationMigrationProperties properties;
+    private volatile boolean running = true;
+
+    public NotificationTextMigration(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     NotificationMigrationProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startInBackground() {
+        if (!properties.enabled()) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                int converted = migrate();
+                if (converted > 0) {
+                    logger.info("Converted {} task notifications from stored text to templates", converted);
+                }
+            } catch (RuntimeException e) {
+                // Rows converted so far stay converted; the next start carries on
+                logger.warn("Notification text migration failed", e);
+            }
+        }, "notification-text-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+    }
+
+    /**
+     * Converts every task notification whose text its template reproduces.
+     *
+     * @return the number of notifications converted
+     */
+    public int migrate() {
+        int chunkSize = Math.max(1, properties.chunkSize());
+        long lastId = 0;
+        int converted = 0;
+        while (running) {
+            long after = lastId;
+            Chunk chunk = transactionTemplate.execute(status -> convertChunk(after, chunkSize));
+            converted += chunk.converted();
+            lastId = chunk.lastId();
+            if (chunk.examined() < chunkSize || !pause()) {
+                break;
+            }
+        }
+        return converted;
+    }
+
+    private Chunk convertChunk(long afterId, int chunkSize) {
+        List<Row> rows = jdbcTemplate.query(SELECT_CHUNK, (rs, rowNum) -> new Row(
+            rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getString(5),
+            rs.getObject(6, Long.class), rs.getObject(7, Long.class), rs.getString(8), rs.getObject(9, Double.class)),
+            afterId, chunkSize);
+        List<Object[]> updates = new ArrayList<>();
+        for (Row row : rows) {
+            NotificationKind kind = kindOf(row);
+            if (kind == null) {
+                continue;
+            }
+            Long actorId = kind == NotificationKind.TASK_COMPLETED ? row.workerId() : null;
+            String actorName = kind == NotificationKind.TASK_COMPLETED ? row.workerName() : null;
+            Double amount = kind.showsAmount() ? row.reward() : null;
+            if (kind.title(1).equals(row.title())
+                    && kind.message(1, row.taskTitle(), actorName, amount).equals(row.message())) {
+                updates.add(new Object[] {kind.name(), actorId, amount, row.id()});
+            }
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(CONVERT, updates);
+        }
+        long lastId = rows.isEmpty() ? afterId : rows.get(rows.size() - 1).id();
+        return new Chunk(rows.size(), lastId, updates.size());
+    }
+
+    /**
+     * @return the kind the row's text was rendered from, judged by its title and recipient, or null
+     */
+    private static NotificationKind kindOf(Row row) {
+        if ("Task Created".equals(row.title())) {
+            return NotificationKind.TASK_CREATED;
+        }
+        if (row.posterId() != null && row.posterId() == row.userId()) {
+            return NotificationKind.TASK_COMPLETED;
+        }
+        if (row.workerId() != null && row.workerId() == row.userId()) {
+            return NotificationKind.TASK_WORK_COMPLETED;
+        }
+        return null;
+    }
+
+    /**
+     * @return false if interrupted, which ends the migration
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.pause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.crowdserve.service.nearby;
+
+import com.crowdserve.config.NearbyTaskProperties;
+import com.crowdserve.dto.AreaSubscriptionDto;
+import com.crowdserve.model.AreaSubscription;
+import com.crowdserve.model.NearbyTaskBroadcast;
+import com.crowdserve.model.Notification;
+import com.crowdserve.model.NotificationKind;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.AreaSubscriptionRepository;
+import com.crowdserve.repository.NearbyTaskBroadcastRepository;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.batch.NotificationBatchWriter;
+import com.crowdserve.service.digest.NotificationCoalescer;
+import com.crowdserve.service.facade.TaskWorkflowFacade;
+import com.crowdserve.service.index.GeoCircleIndex;
+import com.crowdserve.service.index.GeoGrid;
+import com.crowdserve.service.observer.TaskObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tells workers about new tasks posted in the areas they watch.
+ *
+ * The watched areas live in a {@link GeoCircleIndex}, loaded once the application
+ * is ready and kept up to date as users subscribe and unsubscribe, so finding the
+ * watchers of a new task reads one grid cell. What happens next depends on how
+ * many there are:
+ * <ul>
+ *   <li>up to {@code write-limit}, each gets a {@link NotificationKind#NEARBY_TASK}
+ *       notification (fan-out on write), {@code write-chunk} per transaction and
+ *       subject to coalescing like other task notifications;</li>
+ *   <li>above it, the task is recorded once as a {@link NearbyTaskBroadcast}, and
+ *       each watcher finds it when reading their notifications by matching it
+ *       against their own areas (fan-out on read). Posting into a crowded area
+ *       thus costs one row however many users watch it.</li>
+ * </ul>
+ * Recorded tasks are kept in memory as well, for {@code read-window}, and are
+ * dropped early once the task leaves OPEN. The poster is never told about their
+ * own task. Watchers reached are counted in {@code crowdserve.notifications.nearby.recipients}
+ * by path, and the time to fan out one task in {@code crowdserve.notifications.nearby.fanout}.
+ */
+@Component
+public class NearbyTaskFanout implements TaskObserver {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearbyTaskFanout.class);
+
+    private final AreaSubscriptionRepository areaSubscriptionRepository;
+    private final NearbyTaskBroadcastRepository broadcastRepository;
+    private final UserRepository userRepository;
+    private final NotificationBatchWriter notificationBatchWriter;
+    private final NotificationCoalescer notificationCoalescer;
+    private final TaskWorkflowFacade taskWorkflowFacade;
+    private final TransactionTemplate transactionTemplate;
+    private final NearbyTaskProperties properties;
+    private final GeoCircleIndex index;
+    private final ConcurrentMap<Long, NearbyTaskBroadcast> broadcasts = new ConcurrentHashMap<>();
+    private final Counter writeRecipients;
+    private final Counter readRecipients;
+    private final Timer fanout;
+
+    public NearbyTaskFanout(AreaSubscriptionRepository areaSubscriptionRepository,
+                            NearbyTaskBroadcastRepository broadcastRepository,
+                            UserRepository userRepository,
+                            NotificationBatchWriter notificationBatchWriter,
+                            NotificationCoalescer notificationCoalescer,
+                            @Lazy TaskWorkflowFacade taskWorkflowFacade,
+                            PlatformTransactionManager transactionManager,
+                            NearbyTaskProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.areaSubscriptionRepository = areaSubscriptionRepository;
+        this.broadcastRepository = broadcastRepository;
+        this.userRepository = userRepository;
+        this.notificationBatchWriter = notificationBatchWriter;
+        this.notificationCoalescer = notificationCoalescer;
+        this.taskWorkflowFacade = taskWorkflowFacade;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.index = new GeoCircleIndex(properties.cellDegrees(), properties.maxRadiusKm());
+        this.writeRecipients = Counter.builder("crowdserve.notifications.nearby.recipients")
+            .tag("path", "write")
+            .description("Watchers sent a notification about a new task nearby")
+            .register(meterRegistry);
+        this.readRecipients = Counter.builder("crowdserve.notifications.nearby.recipients")
+            .tag("path", "read")
+            .description("Watchers left to find a new task nearby when they read their notifications")
+            .register(meterRegistry);
+        this.fanout = Timer.builder("crowdserve.notifications.nearby.fanout")
+            .description("Time to find and reach the watchers of one new task")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Registers for task events and loads the watched areas and the recent broadcasts
+     * once the application has started. Events are delivered asynchronously, so
+     * fanning out never adds to the request that posted the task.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        taskWorkflowFacade.addObserver(this);
+        load();
+    }
+
+    /**
+     * Loads every watched area into the index, and the broadcasts still within the read window.
+     */
+    void load() {
+        long start = System.currentTimeMillis();
+        for (AreaSubscriptionDto area : areaSubscriptionRepository.findAllCircles()) {
+            index.put(circle(area.id(), area.userId(), area.latitude(), area.longitude(), area.radiusKm()));
+        }
+        for (NearbyTaskBroadcast broadcast : broadcastRepository.findByCreatedAtAfter(readCutoff())) {
+            broadcasts.put(broadcast.getTaskId(), broadcast);
+        }
+        logger.info("Area subscription index loaded: {} areas, {} broadcasts in {} ms",
+            index.size(), broadcasts.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Starts sending new tasks in an area to its subscriber; call once the subscription is committed.
+     */
+    public void areaAdded(AreaSubscription area) {
+        index.put(circle(area.getId(), area.getUser().getId(), area.getLatitude(), area.getLongitude(),
+            area.getRadiusKm()));
+    }
+
+    /**
+     * Stops sending new tasks in an area; call once its removal is committed.
+     */
+    public void areaRemoved(Long areaId) {
+        index.remove(areaId);
+    }
+
+    /**
+     * @return the number of watched areas in the index
+     */
+    public int areaCount() {
+        return index.size();
+    }
+
+    /**
+     * The read side: finds the broadcast tasks inside any of a user's areas, each posted
+     * after the area it lies in was created.
+     *
+     * @param areas the user's areas
+     * @param limit the most task ids to return
+     * @return task ids, newest first
+     */
+    public List<Long> broadcastTaskIds(List<AreaSubscription> areas, int limit) {
+        if (areas.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime cutoff = readCutoff();
+        List<NearbyTaskBroadcast> matches = new ArrayList<>();
+        for (NearbyTaskBroadcast broadcast : broadcasts.values()) {
+            if (broadcast.getCreatedAt().isBefore(cutoff)) {
+                broadcasts.remove(broadcast.getTaskId(), broadcast);
+                continue;
+            }
+            for (AreaSubscription area : areas) {
+                if (broadcast.getCreatedAt().isAfter(area.getCreatedAt())
+                        && GeoGrid.distanceKm(area.getLatitude(), area.getLongitude(),
+                            broadcast.getLatitude(), broadcast.getLongitude()) <= area.getRadiusKm()) {
+                    matches.add(broadcast);
+                    break;
+                }
+            }
+        }
+        return matches.stream()
+            .sorted(Comparator.comparing(NearbyTaskBroadcast::getCreatedAt).reversed())
+            .limit(limit)
+            .map(NearbyTaskBroadcast::getTaskId)
+            .toList();
+    }
+
+    /**
+     * Reaches the watchers of a new OPEN task that has coordinates, by notification
+     * or by broadcast depending on how many there are.
+     */
+    @Override
+    public void onTaskCreated(Task task) {
+        if (task.getStatus() != TaskStatus.OPEN || task.getLatitude() == null || task.getLongitude() == null) {
+            return;
+        }
+        fanout.record(() -> fanOut(task));
+    }
+
+    @Override
+    public void onTaskAssigned(Task task) {
+        withdraw(task);
+    }
+
+    @Override
+    public void onTaskCompleted(Task task) {
+        withdraw(task);
+    }
+
+    @Override
+    public void onTaskCancelled(Task task) {
+        withdraw(task);
+    }
+
+    @Override
+    public void onTaskDeleted(Task task) {
+        withdraw(task);
+    }
+
+    private void fanOut(Task task) {
+        long[] watchers = index.ownersContaining(task.getLatitude(), task.getLongitude());
+        Long posterId = task.getPoster() != null ? task.getPoster().getId() : null;
+        List<Long> recipients = new ArrayList<>(Math.min(watchers.length, properties.writeLimit()));
+        int audience = 0;
+        for (long watcher : watchers) {
+            if (posterId != null && watcher == posterId) {
+                continue;
+            }
+            if (++audience <= properties.writeLimit()) {
+                recipients.add(watcher);
+            }
+        }
+        if (audience == 0) {
+            return;
+        }
+        if (audience > properties.writeLimit()) {
+            broadcast(task, audience);
+            readRecipients.increment(audience);
+            logger.debug("Task {} broadcast to {} watchers", task.getId(), audience);
+            return;
+        }
+        int chunkSize = Math.max(1, properties.writeChunk());
+        for (int from = 0; from < recipients.size(); from += chunkSize) {
+            List<Long> chunk = recipients.subList(from, Math.min(from + chunkSize, recipients.size()));
+            transactionTemplate.executeWithoutResult(status -> notify(task, chunk));
+        }
+        writeRecipients.increment(audience);
+        logger.debug("Task {} sent to {} watchers", task.getId(), audience);
+    }
+
+    private void notify(Task task, List<Long> userIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>(userIds.size());
+        for (User user : userRepository.findAllById(userIds)) {
+            Notification notification = new Notification();
+            notification.setUser(user);
+            notification.setKind(NotificationKind.NEARBY_TASK);
+            notification.setRelatedTask(task);
+            notification.setAmount(task.getReward());
+            notification.setCreatedAt(now);
+            notification.setRead(false);
+            notifications.add(notification);
+        }
+        notificationBatchWriter.write(notificationCoalescer.coalesce(notifications));
+    }
+
+    private void broadcast(Task task, int audience) {
+        NearbyTaskBroadcast broadcast = new NearbyTaskBroadcast(task.getId(), task.getLatitude(),
+            task.getLongitude(), audience, LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            // Broadcasts are rare, so expired ones are cleared as new ones come
+            broadcastRepository.deleteCreatedBefore(readCutoff());
+            broadcastRepository.save(broadcast);
+        });
+        broadcasts.put(broadcast.getTaskId(), broadcast);
+    }
+
+    private void withdraw(Task task) {
+        if (task.getId() != null && broadcasts.remove(task.getId()) != null) {
+            transactionTemplate.executeWithoutResult(status -> broadcastRepository.deleteById(task.getId()));
+        }
+    }
+
+    private LocalDateTime readCutoff() {
+        return LocalDateTime.now().minus(properties.readWindow());
+    }
+
+    private static GeoCircleIndex.Circle circle(Long id, Long userId, double latitude, double longitude,
+                                                double radiusKm) {
+        return new GeoCircleIndex.Circle(id, userId, latitude, longitude, radiusKm);
+    }
+}
@@ -0,0 +1,305 @@
+package com.crowdserve.service.observer;
+
+import com.crowdserve.config.TaskEventProperties;
+import com.crowdserve.model.Task;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers task lifecycle events to {@link TaskObserver}s once the transaction
+ * that caused them commits.
+ *
+ * An event published inside a transaction is held until it commits and dropped if
+ * it rolls back; outside a transaction it is delivered at once. Observers never run
+ * inside the publishing transaction, so a failing observer cannot roll back the
+ * change it observes.
+ *
+ * Each observer chooses how it is called:
+ * <ul>
+ *   <li>{@link Delivery#AFTER_COMMIT}: on the committing thread, right after the commit,
+ *       once. For cheap in-memory updates, such as the task indexes, that must be
+ *       current by the time the request that made the change returns.</li>
+ *   <li>{@link Delivery#ASYNC}: on the task event executor, through a bounded queue of
+ *       its own, so a slow observer adds nothing to the request and never holds up
+ *       the others. A failing call is retried with exponential backoff.</li>
+ * </ul>
+ * Events are dispatched from each committing thread's {@code afterCommit}, so there
+ * is no ordering across transactions: when two transactions touching the same task
+ * commit close together, their events may reach an observer in either order. An
+ * {@link Delivery#ASYNC} observer receives events one at a time, in the order they
+ * were dispatched; {@link Delivery#AFTER_COMMIT} observers may be called concurrently.
+ * Every change to a task increments its version, so an observer that mirrors task
+ * state ignores events older than the ones it has applied, through {@link TaskVersions};
+ * the task indexes and the dashboard feed do. Observers that act on each event, such as
+ * those sending notifications, get every event.
+ * An event that cannot be delivered (its observer kept failing, or its
+ * queue stayed full) is written to the {@code com.crowdserve.task-events.dead-letter}
+ * log and counted in {@code crowdserve.task-events.dead-letter}.
+ *
+ * Per observer, {@code crowdserve.task-events.lag} times the wait from commit to
+ * delivery, {@code crowdserve.task-events.handling} the observer's own time, and
+ * {@code crowdserve.task-events.queued} gauges the events waiting.
+ */
+@Component
+public class TaskEventBus {
+
+    /**
+     * How an observer is called.
+     */
+    public enum Delivery {
+        AFTER_COMMIT,
+        ASYNC
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventBus.class);
+    private static final Logger deadLetters = LoggerFactory.getLogger("com.crowdserve.task-events.dead-letter");
+
+    // Events a busy asynchronous observer handles before giving its thread to the others
+    private static final int DRAIN_BATCH = 100;
+
+    private record Event(TaskEventType type, Task task, long committedAt) {
+    }
+
+    private final Executor executor;
+    private final TaskEventProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public TaskEventBus(@Qualifier("taskEventExecutor") Executor executor, TaskEventProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Subscribes an observer to every task event, delivered asynchronously.
+     */
+    public void subscribe(TaskObserver observer) {
+        subscribe(observer, Delivery.ASYNC);
+    }
+
+    /**
+     * Subscribes an observer to every task event.
+     *
+     * @param observer the observer; subscribing it again has no effect
+     * @param delivery how the observer is called
+     */
+    public void subscribe(TaskObserver observer, Delivery delivery) {
+        synchronized (subscriptions) {
+            if (subscriptions.stream().noneMatch(subscription -> subscription.observer == observer)) {
+                subscriptions.add(new Subscription(observer, delivery));
+            }
+        }
+    }
+
+    /**
+     * Unsubscribes an observer. Events already queued for it are still delivered.
+     */
+    public void unsubscribe(TaskObserver observer) {
+        synchronized (subscriptions) {
+            subscriptions.removeIf(subscription -> {
+                if (subscription.observer != observer) {
+                    return false;
+                }
+                meterRegistry.remove(subscription.queued);
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Publishes a task event to every observer once the current transaction commits,
+     * or at once when there is no transaction.
+     *
+     * @param type what happened to the task
+     * @param task the task as it is after the change
+     */
+    public void publish(TaskEventType type, Task task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(type, task);
+                }
+            });
+        } else {
+            dispatch(type, task);
+        }
+    }
+
+    private void dispatch(TaskEventType type, Task task) {
+        Event event = new Event(type, task, System.nanoTime());
+        for (Subscription subscription : subscriptions) {
+            subscription.accept(event);
+        }
+    }
+
+    /**
+     * One observer with its queue of events waiting to be delivered.
+     */
+    private final class Subscription {
+
+        private final TaskObserver observer;
+        private final Delivery delivery;
+        private final String name;
+        private final Timer lag;
+        private final Timer handling;
+        private final Gauge queued;
+
+        private final Deque<Event> queue = new ArrayDeque<>();
+        private boolean draining;
+
+        Subscription(TaskObserver observer, Delivery delivery) {
+            this.observer = observer;
+            this.delivery = delivery;
+            this.name = ClassUtils.getShortName(ClassUtils.getUserClass(observer));
+            this.lag = Timer.builder("crowdserve.task-events.lag")
+                .description("Time from commit until a task event is delivered to an observer")
+                .tag("observer", name)
+                .register(meterRegistry);
+            this.handling = Timer.builder("crowdserve.task-events.handling")
+                .description("Time an observer takes to handle a task event")
+                .tag("observer", name)
+                .register(meterRegistry);
+            this.queued = Gauge.builder("crowdserve.task-events.queued", this, Subscription::size)
+                .description("Task events waiting to be delivered to an observer")
+                .tag("observer", name)
+                .register(meterRegistry);
+        }
+
+        void accept(Event event) {
+            if (delivery == Delivery.AFTER_COMMIT) {
+                // No retries: backing off here would hold up the request that made the change
+                deliver(event, 1);
+                return;
+            }
+            if (!enqueue(event)) {
+                deadLetter(event, "overflow", null);
+                return;
+            }
+            schedule();
+        }
+
+        private synchronized int size() {
+            return queue.size();
+        }
+
+        private synchronized boolean enqueue(Event event) {
+            if (queue.size() >= properties.queueCapacity()) {
+                if (properties.overflow() == TaskEventProperties.Overflow.DROP) {
+                    return false;
+                }
+                long deadline = System.nanoTime() + properties.offerTimeout().toNanos();
+                while (queue.size() >= properties.queueCapacity()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+            }
+            queue.add(event);
+            return true;
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (draining || queue.isEmpty()) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Shutting down: whatever is still queued is lost
+                synchronized (this) {
+                    draining = false;
+                }
+                logger.warn("Task event executor refused delivery to {}; {} events not delivered", name, size());
+            }
+        }
+
+        private void drain() {
+            for (int handled = 0; handled < DRAIN_BATCH; handled++) {
+                Event event;
+                synchronized (this) {
+                    event = queue.poll();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                    // Room for a publisher waiting under the block policy
+                    notifyAll();
+                }
+                deliver(event, properties.maxAttempts());
+            }
+            synchronized (this) {
+                draining = false;
+            }
+            schedule();
+        }
+
+        private void deliver(Event event, int maxAttempts) {
+            lag.record(System.nanoTime() - event.committedAt(), TimeUnit.NANOSECONDS);
+            long backoff = properties.retryBackoff().toMillis();
+            for (int attempt = 1; ; attempt++) {
+                long start = System.nanoTime();
+                try {
+                    event.type().deliver(observer, event.task());
+                    handling.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return;
+                } catch (RuntimeException e) {
+                    if (attempt >= maxAttempts) {
+                        deadLetter(event, "failed", e);
+                        return;
+                    }
+                    logger.warn("{} failed on {} of task {} (attempt {} of {}), retrying in {} ms",
+                        name, event.type(), event.task().getId(), attempt, maxAttempts, backoff, e);
+                }
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    deadLetter(event, "interrupted", null);
+                    return;
+                }
+                backoff *= 2;
+            }
+        }
+
+        private void deadLetter(Event event, String reason, RuntimeException failure) {
+            Counter.builder("crowdserve.task-events.dead-letter")
+                .description("Task events that could not be delivered to an observer")
+                .tag("observer", name)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+            deadLetters.error("{} event for task {} not delivered to {}: {}",
+                event.type(), event.task().getId(), name, reason, failure);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.crowdserve.service.observer;
+
+import com.crowdserve.model.Task;
+
+/**
+ * The task lifecycle events published through {@link TaskEventBus}, each with
+ * the {@link TaskObserver} callback it is delivered to.
+ */
+public enum TaskEventType {
+
+    CREATED {
+        @Override
+        void deliver(TaskObserver observer, Task task) {
+            observer.onTaskCreated(task);
+        }
+    },
+    ASSIGNED {
+        @Override
+        void deliver(TaskObserver observer, Task task) {
+            observer.onTaskAssigned(task);
+        }
+    },
+    COMPLETED {
+        @Override
+        void deliver(TaskObserver observer, Task task) {
+            observer.onTaskCompleted(task);
+        }
+    },
+    CANCELLED {
+        @Override
+        void deliver(TaskObserver observer, Task task) {
+            observer.onTaskCancelled(task);
+        }
+    },
+    DELETED {
+        @Override
+        void deliver(TaskObserver observer, Task task) {
+            observer.onTaskDeleted(task);
+        }
+    };
+
+    abstract void deliver(TaskObserver observer, Task task);
+}
@@ -6,7 +6,9 @@ import com.crowdserve.model.Task;
  * Observer Pattern Interface for Task Events.
  * 
  * Implementations of this interface will be notified when
- * task-related events occur (e.g., task completion).
+ * task-related events occur (creation, assignment, completion, cancellation, deletion).
+ * Only completion must be handled; the other callbacks default to no-ops so
+ * observers subscribe to just the events they care about.
  * 
  * Design Pattern: Observer
  * - Defines update interface for objects that should be notified of changes
@@ -23,4 +25,36 @@ public interface TaskObserver {
      * @param task the task that was completed
      */
     void onTaskCompleted(Task task);
+
+    /**
+     * Called when a new task has been posted.
+     *
+     * @param task the newly created task
+     */
+    default void onTaskCreated(Task task) {
+    }
+
+    /**
+     * Called when a worker has accepted a task.
+     *
+     * @param task the task, now in ASSIGNED status with its worker set
+     */
+    default void onTaskAssigned(Task task) {
+    }
+
+    /**
+     * Called when a poster has cancelled a task.
+     *
+     * @param task the task, now in CANCELLED status
+     */
+    default void onTaskCancelled(Task task) {
+    }
+
+    /**
+     * Called when a poster has deleted a task.
+     *
+     * @param task the task as it was before deletion
+     */
+    default void onTaskDeleted(Task task) {
+    }
 }
@@ -0,0 +1,81 @@
+package com.crowdserve.service.observer;
+
+import com.crowdserve.model.Task;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The newest version of each task an observer has applied, for observers that
+ * mirror task state.
+ *
+ * {@link TaskEventBus} does not order events across transactions, so an event
+ * for an older version of a task can arrive after a newer one. An observer passes
+ * each change through {@link #applyIfNewer}, which runs it only when the event is
+ * newer than the last one applied to that task, and runs changes to one task one
+ * at a time. A deletion leaves the version unchanged but comes after every other
+ * event of that version.
+ *
+ * A late event trails the newer one by no more than the time between two commits,
+ * so a task's entry is forgotten a minute after its last change; this keeps the
+ * entries of deleted and finished tasks from piling up. A task without a version
+ * (one never saved) is always applied.
+ */
+public class TaskVersions {
+
+    private static final long RETENTION_NANOS = Duration.ofMinutes(1).toNanos();
+
+    // Changes applied between sweeps of the forgotten entries
+    private static final int SWEEP_EVERY = 1024;
+
+    private record Applied(long order, long appliedAt) {
+    }
+
+    private final Map<Long, Applied> applied = new ConcurrentHashMap<>();
+    private final AtomicInteger untilSweep = new AtomicInteger(SWEEP_EVERY);
+
+    /**
+     * Runs a change for a task event unless a newer event of the same task has
+     * already been applied.
+     *
+     * @param task the task as the event carries it
+     * @param deleted whether the event is the task's deletion
+     * @param change the update to the observer's state; runs while changes to this task are held off
+     * @return false if the event was older than one already applied and was ignored
+     */
+    public boolean applyIfNewer(Task task, boolean deleted, Runnable change) {
+        if (task.getVersion() == null) {
+            change.run();
+            return true;
+        }
+        long order = task.getVersion() * 2 + (deleted ? 1 : 0);
+        boolean[] newer = new boolean[1];
+        applied.compute(task.getId(), (id, last) -> {
+            if (last != null && last.order() >= order) {
+                return last;
+            }
+            change.run();
+            newer[0] = true;
+            return new Applied(order, System.nanoTime());
+        });
+        if (untilSweep.decrementAndGet() <= 0) {
+            untilSweep.set(SWEEP_EVERY);
+            sweep();
+        }
+        return newer[0];
+    }
+
+    /**
+     * @return the number of tasks whose version is remembered
+     */
+    public int size() {
+        return applied.size();
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        applied.values().removeIf(entry -> now - entry.appliedAt() > RETENTION_NANOS);
+    }
+}
@@ -0,0 +1,233 @@
+package com.crowdserve.service.outbox;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+/**
+ * One open connection with a bounded buffer of messages waiting to be written.
+ *
+ * Messages are written in order, one at a time, by a single task on the sender
+ * executor, so a slow client never blocks the thread that produced the message and
+ * delays only its own messages. A connection whose buffer grows past its limit is
+ * closed rather than allowed to grow; the client reconnects and catches up.
+ *
+ * A write blocks while the client's socket buffer is full. The owner closes a
+ * connection whose write has been in flight too long ({@link #closeIfStalled}, usually
+ * through {@link OutboxSender#closeIfStalled}); the blocked write cannot be
+ * interrupted, so closing it only stops further writes, and the connection is
+ * ended by the writing thread once the write returns.
+ *
+ * An outbox created paused holds offered messages back until {@link #start}, so
+ * messages written first, such as a replay, are not overtaken by live ones.
+ *
+ * @param <M> the messages written to the connection
+ */
+public abstract class Outbox<M> {
+
+    private final Executor sender;
+    private final long limit;
+
+    private final Deque<M> queue = new ArrayDeque<>();
+    private final List<M> held = new ArrayList<>();
+    private long queuedWeight;
+    private long heldWeight;
+    private boolean started;
+    private boolean draining;
+    private boolean writing;
+    private long writeStartedAt;
+    private Runnable afterStalledWrite;
+    private boolean closed;
+
+    /**
+     * @param sender the executor writing to the connection
+     * @param limit how much, by {@link #weight}, may wait to be written before the connection is closed
+     * @param paused whether offered messages are held back until {@link #start}
+     */
+    protected Outbox(Executor sender, long limit, boolean paused) {
+        this.sender = sender;
+        this.limit = limit;
+        this.started = !paused;
+    }
+
+    /**
+     * How much of the limit a waiting message takes up.
+     */
+    protected abstract long weight(M message);
+
+    /**
+     * Writes one message to the connection; may block while the client is not reading.
+     */
+    protected abstract void write(M message) throws IOException;
+
+    /**
+     * Ends the connection. Called once, after the write in flight, if any, has returned.
+     */
+    protected abstract void complete();
+
+    /**
+     * Called once when the outbox closes, for the owner to forget the connection.
+     */
+    protected void onClosed() {
+    }
+
+    /**
+     * Queues the initial messages, then those offered meanwhile that {@code keepHeld}
+     * accepts, and from then on writes messages as they are offered.
+     */
+    protected void start(List<M> initial, Predicate<M> keepHeld) {
+        synchronized (this) {
+            if (closed || started) {
+                return;
+            }
+            initial.forEach(this::enqueue);
+            held.stream().filter(keepHeld).forEach(this::enqueue);
+            held.clear();
+            heldWeight = 0;
+            started = true;
+        }
+        schedule();
+    }
+
+    /**
+     * Queues a message, closing the connection if too much is waiting for it.
+     */
+    public void offer(M message) {
+        boolean overflow;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (!started) {
+                held.add(message);
+                heldWeight += weight(message);
+                overflow = heldWeight > limit;
+            } else {
+                enqueue(message);
+                overflow = queuedWeight > limit;
+            }
+        }
+        if (overflow) {
+            close();
+        } else {
+            schedule();
+        }
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the connection if a write to it has been in flight for longer than the deadline.
+     *
+     * @param deadlineNanos how long one write may take
+     * @return true if the connection was closed here; its writing thread stays blocked until the write returns
+     */
+    public boolean closeIfStalled(long deadlineNanos) {
+        synchronized (this) {
+            if (closed || !writing || System.nanoTime() - writeStartedAt < deadlineNanos) {
+                return false;
+            }
+        }
+        close();
+        return true;
+    }
+
+    /**
+     * Runs an action once the write in flight returns, or at once if there is none.
+     */
+    public void afterWrite(Runnable action) {
+        synchronized (this) {
+            if (writing) {
+                afterStalledWrite = action;
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * Ends the connection and drops anything still waiting. Safe to call more than once.
+     */
+    public void close() {
+        boolean writeInFlight;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+            held.clear();
+            queuedWeight = 0;
+            heldWeight = 0;
+            writeInFlight = writing;
+        }
+        // Ending the connection may wait on the blocked write; the writing thread ends it instead
+        if (!writeInFlight) {
+            complete();
+        }
+        onClosed();
+    }
+
+    private void enqueue(M message) {
+        queue.add(message);
+        queuedWeight += weight(message);
+    }
+
+    private void schedule() {
+        synchronized (this) {
+            if (closed || !started || draining || queue.isEmpty()) {
+                return;
+            }
+            draining = true;
+        }
+        sender.execute(this::drain);
+    }
+
+    private void drain() {
+        while (true) {
+            M message;
+            synchronized (this) {
+                message = queue.poll();
+                if (message == null || closed) {
+                    draining = false;
+                    return;
+                }
+                queuedWeight -= weight(message);
+                writing = true;
+                writeStartedAt = System.nanoTime();
+            }
+            boolean failed = false;
+            try {
+                write(message);
+            } catch (IOException | RuntimeException e) {
+                // The client went away, or the message could not be written
+                failed = true;
+            }
+            Runnable after;
+            boolean closedWhileWriting;
+            synchronized (this) {
+                writing = false;
+                after = afterStalledWrite;
+                afterStalledWrite = null;
+                closedWhileWriting = closed;
+            }
+            if (after != null) {
+                after.run();
+            }
+            if (closedWhileWriting) {
+                complete();
+                return;
+            }
+            if (failed) {
+                close();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.crowdserve.service.outbox;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The threads writing to a set of {@link Outbox}es.
+ *
+ * A write that stalls holds its thread until the client reads or the connection
+ * drops, and cannot be interrupted. When {@link #closeIfStalled} closes such a
+ * connection, the pool gets one more thread for as long as the write stays
+ * blocked, up to {@code maxStalledWrites}, so clients that stop reading cannot
+ * hold up delivery to everyone else.
+ */
+public class OutboxSender implements Executor {
+
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final int maxStalledWrites;
+    private int stalledWrites;
+
+    /**
+     * @param threadNamePrefix the name of the sender threads, followed by a number
+     * @param threads the threads writing when no write is stalled
+     * @param maxStalledWrites how many blocked writes get a stand-in thread at the same time
+     */
+    public OutboxSender(String threadNamePrefix, int threads, int maxStalledWrites) {
+        this.threads = threads;
+        this.maxStalledWrites = maxStalledWrites;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    /**
+     * Closes the outbox if its write has been in flight longer than the timeout, and
+     * stands in a new thread for the one stuck in that write until it returns.
+     *
+     * @return true if the outbox was closed here
+     */
+    public boolean closeIfStalled(Outbox<?> outbox, Duration writeTimeout) {
+        if (!outbox.closeIfStalled(writeTimeout.toNanos())) {
+            return false;
+        }
+        if (addThread()) {
+            outbox.afterWrite(this::removeThread);
+        }
+        return true;
+    }
+
+    /**
+     * Stops taking new work; work already queued still runs.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Stops taking new work and drops work not yet started.
+     */
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return false if maxStalledWrites threads are already stuck
+     */
+    private synchronized boolean addThread() {
+        if (stalledWrites >= maxStalledWrites) {
+            return false;
+        }
+        stalledWrites++;
+        // Growing: the maximum first, as the core size may not exceed it
+        executor.setMaximumPoolSize(threads + stalledWrites);
+        executor.setCorePoolSize(threads + stalledWrites);
+        return true;
+    }
+
+    private synchronized void removeThread() {
+        stalledWrites--;
+        executor.setCorePoolSize(threads + stalledWrites);
+        executor.setMaximumPoolSize(threads + stalledWrites);
+    }
+}
@@ -0,0 +1,188 @@
+package com.crowdserve.service.retention;
+
+import com.crowdserve.config.NotificationRetentionProperties;
+import com.crowdserve.dto.UnreadCountDto;
+import com.crowdserve.repository.ArchivedNotificationRepository;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.service.stream.UnreadCountChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Keeps the notifications table small by moving old notifications out of it.
+ *
+ * Each run applies the retention policies in turn:
+ * <ol>
+ *   <li>notifications older than {@code purge-after}, read or not, are deleted;</li>
+ *   <li>read notifications older than {@code archive-read-after} are moved to
+ *       {@code notifications_archive};</li>
+ *   <li>archived notifications older than {@code purge-after} are deleted.</li>
+ * </ol>
+ * Work is done in chunks of {@code chunk-size} rows, oldest id first, each in a
+ * transaction of its own with a {@code pause} after it, so no run holds locks for
+ * long or builds up a large transaction, and requests keep their share of the
+ * database. A chunk is selected by id first and then moved or deleted by id with
+ * set-based statements; rows are never loaded as entities.
+ *
+ * Rows handled are counted in {@code crowdserve.notifications.retention.rows},
+ * tagged by action, and each run is timed in {@code crowdserve.notifications.retention.run}.
+ */
+@Component
+public class NotificationRetentionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionJob.class);
+
+    /**
+     * Rows handled by one run, per policy.
+     */
+    public record RetentionRun(int purged, int archived, int purgedFromArchive) {
+    }
+
+    private final NotificationRepository notificationRepository;
+    private final ArchivedNotificationRepository archivedNotificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationRetentionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Timer runTimer;
+    private final ScheduledFuture<?> schedule;
+    private volatile boolean running = true;
+
+    public NotificationRetentionJob(NotificationRepository notificationRepository,
+                                    ArchivedNotificationRepository archivedNotificationRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    ApplicationEventPublisher eventPublisher,
+                                    NotificationRetentionProperties properties,
+                                    MeterRegistry meterRegistry,
+                                    @Qualifier("taskScheduler") TaskScheduler taskScheduler) {
+        this.notificationRepository = notificationRepository;
+        this.archivedNotificationRepository = archivedNotificationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.runTimer = Timer.builder("crowdserve.notifications.retention.run")
+            .description("Time taken by one run of the notification retention job")
+            .register(meterRegistry);
+        this.schedule = properties.enabled()
+            ? taskScheduler.scheduleWithFixedDelay(this::runAndLog, Instant.now().plus(properties.interval()),
+                properties.interval())
+            : null;
+    }
+
+    /**
+     * Applies every retention policy once, until nothing is left for them to do.
+     *
+     * @return the rows handled per policy
+     */
+    public RetentionRun run() {
+        return runTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime purgeBefore = now.minus(properties.purgeAfter());
+            LocalDateTime archiveBefore = now.minus(properties.archiveReadAfter());
+
+            // Purged first, so nothing is archived only to be deleted right after
+            int purged = inChunks("purged",
+                limit -> notificationRepository.findIdsCreatedBefore(purgeBefore, limit),
+                this::purge);
+            int archived = inChunks("archived",
+                limit -> notificationRepository.findReadIdsCreatedBefore(archiveBefore, limit),
+                this::archive);
+            int purgedFromArchive = inChunks("purged-archive",
+                limit -> archivedNotificationRepository.findIdsCreatedBefore(purgeBefore, limit),
+                archivedNotificationRepository::deleteByIds);
+            return new RetentionRun(purged, archived, purgedFromArchive);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Stops a run between chunks; every chunk already done is committed
+        running = false;
+        if (schedule != null) {
+            schedule.cancel(false);
+        }
+    }
+
+    private void runAndLog() {
+        RetentionRun run = run();
+        if (run.purged() + run.archived() + run.purgedFromArchive() > 0) {
+            logger.info("Notification retention: {} purged, {} archived, {} purged from the archive",
+                run.purged(), run.archived(), run.purgedFromArchive());
+        }
+    }
+
+    /**
+     * Selects and handles chunks of ids until a chunk comes back short.
+     *
+     * @param action the tag of the rows counter
+     * @param select returns the next chunk of ids, up to the limit
+     * @param handle moves or deletes the rows of a chunk, returning how many
+     * @return the number of rows handled
+     */
+    private int inChunks(String action, Function<Limit, List<Long>> select, ToIntFunction<List<Long>> handle) {
+        Counter rows = Counter.builder("crowdserve.notifications.retention.rows")
+            .description("Notifications archived or deleted by the retention job")
+            .tag("action", action)
+            .register(meterRegistry);
+        int chunkSize = Math.max(1, properties.chunkSize());
+        int total = 0;
+        while (running) {
+            List<Long> ids = select.apply(Limit.of(chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer handled = transactionTemplate.execute(status -> handle.applyAsInt(ids));
+            total += handled;
+            rows.increment(handled);
+            if (ids.size() < chunkSize || !pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int archive(List<Long> ids) {
+        archivedNotificationRepository.copyFromNotifications(ids);
+        return notificationRepository.deleteAllByIds(ids);
+    }
+
+    private int purge(List<Long> ids) {
+        // Unread notifications going away lower their users' unread counts once this commits
+        for (UnreadCountDto unread : notificationRepository.countUnreadByIds(ids)) {
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(unread.userId(), -unread.count()));
+        }
+        return notificationRepository.deleteAllByIds(ids);
+    }
+
+    /**
+     * @return false if interrupted, which ends the run
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.pause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,14 +1,10 @@
 package com.crowdserve.service.strategy;
-import com.crowdserve.model.Task;
-import java.util.List;
+import com.crowdserve.model.TaskStatus;
 
 
-public class AssignedTaskFilter implements TaskFilterStrategy {
-    @Override
-    public List<Task> filter(List<Task> tasks) {
-        return tasks.stream()
-                .filter(task -> task.getStatus() == com.crowdserve.model.TaskStatus.ASSIGNED)
-                .toList();
+public class AssignedTaskFilter extends StatusTaskFilter {
+    public AssignedTaskFilter() {
+        super(TaskStatus.ASSIGNED);
     }
 
     @Override
@@ -17,4 +13,4 @@ public class AssignedTaskFilter implements TaskFilterStrategy {
     }
 
     
-}
\ No newline at end of file
+}
@@ -1,26 +1,18 @@
 package com.crowdserve.service.strategy;
 
-import com.crowdserve.model.Task;
 import com.crowdserve.model.TaskStatus;
-import java.util.List;
 
 /**
  * Filter strategy for retrieving tasks with COMPLETED status.
  * Completed tasks are those that have been successfully finished by workers.
  */
-public class CompletedTaskFilter implements TaskFilterStrategy {
+public class CompletedTaskFilter extends StatusTaskFilter {
 
     /**
-     * Filters tasks to return only those with COMPLETED status.
-     *
-     * @param tasks the list of tasks to filter
-     * @return a list containing only COMPLETED tasks
+     * Constructs a filter for COMPLETED tasks.
      */
-    @Override
-    public List<Task> filter(List<Task> tasks) {
-        return tasks.stream()
-                .filter(task -> task.getStatus() == TaskStatus.COMPLETED)
-                .toList();
+    public CompletedTaskFilter() {
+        super(TaskStatus.COMPLETED);
     }
 
     /**
@@ -0,0 +1,102 @@
+package com.crowdserve.service.strategy;
+
+import com.crowdserve.model.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Filter strategy that combines other strategies with AND.
+ *
+ * The parts that have a query predicate are ANDed into one {@link Specification};
+ * the parts that do not are kept as an in-memory residual, so a query can still
+ * narrow the rows by everything the database understands.
+ */
+public class CompositeTaskFilter implements TaskFilterStrategy {
+
+    private final List<TaskFilterStrategy> parts;
+
+    private CompositeTaskFilter(List<TaskFilterStrategy> parts) {
+        this.parts = List.copyOf(parts);
+    }
+
+    /**
+     * Combines strategies with AND. Nested composites are flattened and null entries ignored.
+     *
+     * @param strategies the strategies to combine
+     * @return a strategy matching tasks that pass all of them
+     */
+    public static CompositeTaskFilter of(TaskFilterStrategy... strategies) {
+        List<TaskFilterStrategy> parts = new ArrayList<>();
+        for (TaskFilterStrategy strategy : strategies) {
+            if (strategy instanceof CompositeTaskFilter composite) {
+                parts.addAll(composite.parts);
+            } else if (strategy != null) {
+                parts.add(strategy);
+            }
+        }
+        return new CompositeTaskFilter(parts);
+    }
+
+    /**
+     * Tests a task against every part.
+     *
+     * @param task the task to test
+     * @return true if the task passes all parts
+     */
+    @Override
+    public boolean matches(Task task) {
+        return parts.stream().allMatch(part -> part.matches(task));
+    }
+
+    /**
+     * Returns the AND of the parts that have a query predicate.
+     *
+     * @return the combined predicate, or null if no part has one
+     */
+    @Override
+    public Specification<Task> toSpecification() {
+        Specification<Task> combined = null;
+        for (TaskFilterStrategy part : parts) {
+            Specification<Task> specification = part.toSpecification();
+            if (specification != null) {
+                combined = combined == null ? specification : combined.and(specification);
+            }
+        }
+        return combined;
+    }
+
+    /**
+     * Returns the parts that can only be applied in memory.
+     *
+     * @return the parts without a query predicate
+     */
+    public List<TaskFilterStrategy> residual() {
+        return parts.stream()
+                .filter(part -> part.toSpecification() == null)
+                .toList();
+    }
+
+    /**
+     * Returns the strategies combined by this filter.
+     *
+     * @return the parts, in the order they were combined
+     */
+    public List<TaskFilterStrategy> getParts() {
+        return parts;
+    }
+
+    /**
+     * Returns the name of this filter strategy.
+     *
+     * @return the part names joined with " AND "
+     */
+    @Override
+    public String getFilterName() {
+        return parts.stream()
+                .map(TaskFilterStrategy::getFilterName)
+                .collect(Collectors.joining(" AND ", "(", ")"));
+    }
+}
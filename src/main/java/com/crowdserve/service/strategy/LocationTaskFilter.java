@@ -0,0 +1,61 @@
+package com.crowdserve.service.strategy;
+
+import com.crowdserve.model.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Filter strategy for retrieving tasks whose location contains a piece of text, ignoring case.
+ */
+public class LocationTaskFilter implements TaskFilterStrategy {
+
+    private static final char ESCAPE = '\\';
+
+    private final String text;
+
+    /**
+     * Constructs a location filter.
+     *
+     * @param text the text the location must contain
+     */
+    public LocationTaskFilter(String text) {
+        this.text = Objects.requireNonNull(text, "Location text cannot be null").trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Tests whether a task's location contains the text.
+     *
+     * @param task the task to test
+     * @return true if the location contains the text, ignoring case
+     */
+    @Override
+    public boolean matches(Task task) {
+        return task.getLocation() != null && task.getLocation().toLowerCase(Locale.ROOT).contains(text);
+    }
+
+    /**
+     * Returns the predicate {@code lower(location) like %text%}, with LIKE wildcards in the text escaped.
+     *
+     * @return the location predicate
+     */
+    @Override
+    public Specification<Task> toSpecification() {
+        String pattern = "%" + text
+            .replace(String.valueOf(ESCAPE), "" + ESCAPE + ESCAPE)
+            .replace("%", ESCAPE + "%")
+            .replace("_", ESCAPE + "_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("location")), pattern, ESCAPE);
+    }
+
+    /**
+     * Returns the name of this filter strategy.
+     *
+     * @return "LocationTaskFilter(text)"
+     */
+    @Override
+    public String getFilterName() {
+        return "LocationTaskFilter(" + text + ")";
+    }
+}
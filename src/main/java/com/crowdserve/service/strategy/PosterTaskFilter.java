@@ -0,0 +1,57 @@
+package com.crowdserve.service.strategy;
+
+import com.crowdserve.model.Task;
+import com.crowdserve.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Objects;
+
+/**
+ * Filter strategy for retrieving tasks posted by a given user.
+ * Compares by user id, so the query uses the poster_id column without joining users.
+ */
+public class PosterTaskFilter implements TaskFilterStrategy {
+
+    private final Long posterId;
+
+    /**
+     * Constructs a filter for one poster.
+     *
+     * @param poster the user tasks must belong to
+     */
+    public PosterTaskFilter(User poster) {
+        Objects.requireNonNull(poster, "Poster cannot be null");
+        this.posterId = Objects.requireNonNull(poster.getId(), "Poster must be saved before filtering by it");
+    }
+
+    /**
+     * Tests whether a task's poster is the filter's user.
+     *
+     * @param task the task to test
+     * @return true if the task belongs to the user
+     */
+    @Override
+    public boolean matches(Task task) {
+        return task.getPoster() != null && posterId.equals(task.getPoster().getId());
+    }
+
+    /**
+     * Returns the predicate {@code poster_id = :id}.
+     *
+     * @return the poster predicate
+     */
+    @Override
+    public Specification<Task> toSpecification() {
+        return (root, query, cb) -> cb.equal(root.get("poster").get("id"), posterId);
+    }
+
+    /**
+     * Returns the name of this filter strategy.
+     *
+     * @return "PosterTaskFilter(id)"
+     */
+    @Override
+    public String getFilterName() {
+        return "PosterTaskFilter(" + posterId + ")";
+    }
+}
@@ -0,0 +1,78 @@
+package com.crowdserve.service.strategy;
+
+import com.crowdserve.model.Task;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filter strategy for retrieving tasks whose reward lies in a range.
+ * Either bound may be left open.
+ */
+public class RewardRangeTaskFilter implements TaskFilterStrategy {
+
+    private final Double minReward;
+    private final Double maxReward;
+
+    /**
+     * Constructs a reward range filter. Both bounds are inclusive.
+     *
+     * @param minReward the lowest reward to accept, or null for no lower bound
+     * @param maxReward the highest reward to accept, or null for no upper bound
+     * @throws IllegalArgumentException if the lower bound is above the upper bound
+     */
+    public RewardRangeTaskFilter(Double minReward, Double maxReward) {
+        if (minReward != null && maxReward != null && minReward > maxReward) {
+            throw new IllegalArgumentException(
+                "Minimum reward " + minReward + " is greater than maximum reward " + maxReward);
+        }
+        this.minReward = minReward;
+        this.maxReward = maxReward;
+    }
+
+    /**
+     * Tests whether a task's reward lies in the range.
+     *
+     * @param task the task to test
+     * @return true if the reward is within the bounds
+     */
+    @Override
+    public boolean matches(Task task) {
+        Double reward = task.getReward();
+        if (reward == null) {
+            return minReward == null && maxReward == null;
+        }
+        return (minReward == null || reward >= minReward) && (maxReward == null || reward <= maxReward);
+    }
+
+    /**
+     * Returns the predicate {@code reward >= :min and reward <= :max}, leaving out open bounds.
+     *
+     * @return the reward predicate
+     */
+    @Override
+    public Specification<Task> toSpecification() {
+        return (root, query, cb) -> {
+            List<Predicate> bounds = new ArrayList<>();
+            if (minReward != null) {
+                bounds.add(cb.greaterThanOrEqualTo(root.get("reward"), minReward));
+            }
+            if (maxReward != null) {
+                bounds.add(cb.lessThanOrEqualTo(root.get("reward"), maxReward));
+            }
+            return cb.and(bounds.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Returns the name of this filter strategy.
+     *
+     * @return "RewardRangeTaskFilter[min, max]"
+     */
+    @Override
+    public String getFilterName() {
+        return "RewardRangeTaskFilter[" + minReward + ", " + maxReward + "]";
+    }
+}
@@ -0,0 +1,55 @@
+package com.crowdserve.service.strategy;
+
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Objects;
+
+/**
+ * Filter strategy for retrieving tasks with a given status.
+ */
+public class StatusTaskFilter implements TaskFilterStrategy {
+
+    private final TaskStatus status;
+
+    /**
+     * Constructs a filter for one status.
+     *
+     * @param status the status tasks must have
+     */
+    public StatusTaskFilter(TaskStatus status) {
+        this.status = Objects.requireNonNull(status, "Status cannot be null");
+    }
+
+    /**
+     * Tests whether a task has the filter's status.
+     *
+     * @param task the task to test
+     * @return true if the task has the status
+     */
+    @Override
+    public boolean matches(Task task) {
+        return task.getStatus() == status;
+    }
+
+    /**
+     * Returns the predicate {@code status = :status}.
+     *
+     * @return the status predicate
+     */
+    @Override
+    public Specification<Task> toSpecification() {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Returns the name of this filter strategy.
+     *
+     * @return "StatusTaskFilter(STATUS)"
+     */
+    @Override
+    public String getFilterName() {
+        return "StatusTaskFilter(" + status + ")";
+    }
+}
@@ -1,6 +1,12 @@
 package com.crowdserve.service.strategy;
 
 import com.crowdserve.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
 import java.util.List;
 import java.util.Objects;
 
@@ -8,9 +14,14 @@ import java.util.Objects;
  * Context class that uses a TaskFilterStrategy to filter tasks.
  * This class implements the Strategy design pattern by allowing
  * the filtering algorithm to be selected and changed at runtime.
+ *
+ * {@link #executeQuery} pushes the strategy down to the database as a single
+ * query; {@link #executeFilter} filters tasks that are already loaded.
  */
 public class TaskFilterContext {
 
+    private static final Logger logger = LoggerFactory.getLogger(TaskFilterContext.class);
+
     private TaskFilterStrategy strategy;
 
     /**
@@ -46,6 +57,32 @@ public class TaskFilterContext {
         return strategy.filter(tasks);
     }
 
+    /**
+     * Runs the current strategy as one database query, so only matching rows are loaded.
+     * Parts of a composite strategy that have no query predicate are applied in memory
+     * to the rows the query returns. A strategy with no query predicate at all falls
+     * back to loading every task and filtering in memory.
+     *
+     * @param repository the repository to query
+     * @param sort the order of the results
+     * @return the matching tasks
+     */
+    public List<Task> executeQuery(JpaSpecificationExecutor<Task> repository, Sort sort) {
+        Specification<Task> specification = strategy.toSpecification();
+        if (specification == null) {
+            logger.warn("Filter {} has no query predicate; filtering every task in memory", strategy.getFilterName());
+            return strategy.filter(repository.findAll((Specification<Task>) null, sort));
+        }
+
+        List<Task> tasks = repository.findAll(specification, sort);
+        if (strategy instanceof CompositeTaskFilter composite) {
+            for (TaskFilterStrategy residual : composite.residual()) {
+                tasks = residual.filter(tasks);
+            }
+        }
+        return tasks;
+    }
+
     /**
      * Returns the name of the current filter strategy.
      *
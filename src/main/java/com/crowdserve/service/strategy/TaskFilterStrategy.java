@@ -1,20 +1,59 @@
 package com.crowdserve.service.strategy;
 
 import com.crowdserve.model.Task;
+import org.springframework.data.jpa.domain.Specification;
+
 import java.util.List;
 
 /**
  * Strategy interface for filtering tasks based on different criteria.
  * Implementations define different filtering strategies (e.g., by status).
+ *
+ * Each strategy has two equivalent forms: a JPA {@link Specification} that lets the
+ * database do the filtering, and an in-memory test used when a strategy cannot be
+ * expressed as a query predicate or when the tasks are already loaded.
+ * Strategies combine with {@link #and}.
  */
 public interface TaskFilterStrategy {
+
+    /**
+     * Tests a single task against this strategy.
+     *
+     * @param task the task to test
+     * @return true if the task passes the filter
+     */
+    boolean matches(Task task);
+
+    /**
+     * Returns this strategy as a query predicate.
+     *
+     * @return the predicate, or null if this strategy can only be applied in memory
+     */
+    default Specification<Task> toSpecification() {
+        return null;
+    }
+
     /**
      * Filters a list of tasks based on the strategy implementation.
      *
      * @param tasks the list of tasks to filter
      * @return a filtered list of tasks
      */
-    List<Task> filter(List<Task> tasks);
+    default List<Task> filter(List<Task> tasks) {
+        return tasks.stream()
+                .filter(this::matches)
+                .toList();
+    }
+
+    /**
+     * Combines this strategy with another; a task must pass both.
+     *
+     * @param other the strategy to combine with
+     * @return a strategy matching tasks that pass this one and {@code other}
+     */
+    default TaskFilterStrategy and(TaskFilterStrategy other) {
+        return CompositeTaskFilter.of(this, other);
+    }
 
     /**
      * Returns the name/description of this filter strategy.
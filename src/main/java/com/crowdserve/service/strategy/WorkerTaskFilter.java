@@ -0,0 +1,57 @@
+package com.crowdserve.service.strategy;
+
+import com.crowdserve.model.Task;
+import com.crowdserve.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Objects;
+
+/**
+ * Filter strategy for retrieving tasks assigned to a given user as worker.
+ * Compares by user id, so the query uses the worker_id column without joining users.
+ */
+public class WorkerTaskFilter implements TaskFilterStrategy {
+
+    private final Long workerId;
+
+    /**
+     * Constructs a filter for one worker.
+     *
+     * @param worker the user tasks must belong to
+     */
+    public WorkerTaskFilter(User worker) {
+        Objects.requireNonNull(worker, "Worker cannot be null");
+        this.workerId = Objects.requireNonNull(worker.getId(), "Worker must be saved before filtering by it");
+    }
+
+    /**
+     * Tests whether a task's worker is the filter's user.
+     *
+     * @param task the task to test
+     * @return true if the task belongs to the user
+     */
+    @Override
+    public boolean matches(Task task) {
+        return task.getWorker() != null && workerId.equals(task.getWorker().getId());
+    }
+
+    /**
+     * Returns the predicate {@code worker_id = :id}.
+     *
+     * @return the worker predicate
+     */
+    @Override
+    public Specification<Task> toSpecification() {
+        return (root, query, cb) -> cb.equal(root.get("worker").get("id"), workerId);
+    }
+
+    /**
+     * Returns the name of this filter strategy.
+     *
+     * @return "WorkerTaskFilter(id)"
+     */
+    @Override
+    public String getFilterName() {
+        return "WorkerTaskFilter(" + workerId + ")";
+    }
+}
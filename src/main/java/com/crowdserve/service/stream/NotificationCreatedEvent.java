@@ -0,0 +1,12 @@
+package com.crowdserve.service.stream;
+
+import com.crowdserve.dto.NotificationEventDto;
+
+/**
+ * Published when a notification is saved; delivered to the user's open streams once the transaction commits.
+ *
+ * @param userId the id of the user the notification is for
+ * @param notification the notification
+ */
+public record NotificationCreatedEvent(Long userId, NotificationEventDto notification) {
+}
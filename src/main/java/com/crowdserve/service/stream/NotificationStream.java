@@ -0,0 +1,90 @@
+package com.crowdserve.service.stream;
+
+import com.crowdserve.service.outbox.Outbox;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * One open SSE connection with a bounded buffer of events waiting to be written.
+ *
+ * An {@link Outbox} of at most {@code capacity} events: a connection whose buffer
+ * overflows is closed, the browser reconnects with Last-Event-ID and the missed
+ * notifications are replayed from the database. A stalled write leaves the emitter
+ * to be completed by the writing thread once the write returns, since completing
+ * waits for the emitter's lock, which the blocked write holds.
+ *
+ * Until {@link #start} is called the connection is paused; live events are held
+ * back so they are written after the replay, and replayed notifications are not
+ * written twice.
+ */
+class NotificationStream extends Outbox<NotificationStream.Event> {
+
+    /**
+     * An event to write, with the id of the notification it carries, if any.
+     */
+    record Event(Long notificationId, SseEmitter.SseEventBuilder builder) {
+    }
+
+    private final Long userId;
+    private final SseEmitter emitter;
+    private final Consumer<NotificationStream> onClose;
+
+    NotificationStream(Long userId, SseEmitter emitter, int capacity, Executor sender, Consumer<NotificationStream> onClose) {
+        super(sender, capacity, true);
+        this.userId = userId;
+        this.emitter = emitter;
+        this.onClose = onClose;
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Writes the initial events, then any live events that arrived meanwhile and were not
+     * among them, and from then on writes events as they are offered.
+     */
+    void start(List<Event> initial) {
+        // Not by the highest id replayed: ids do not commit in order, so a lower one may not have been
+        Set<Long> replayed = initial.stream()
+            .map(Event::notificationId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        start(initial, event -> event.notificationId() == null || !replayed.contains(event.notificationId()));
+    }
+
+    @Override
+    protected long weight(Event event) {
+        return 1;
+    }
+
+    @Override
+    protected void write(Event event) throws IOException {
+        emitter.send(event.builder());
+    }
+
+    @Override
+    protected void complete() {
+        try {
+            emitter.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container
+        }
+    }
+
+    @Override
+    protected void onClosed() {
+        onClose.accept(this);
+    }
+}
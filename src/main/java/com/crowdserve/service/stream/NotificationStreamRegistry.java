@@ -0,0 +1,216 @@
+package com.crowdserve.service.stream;
+
+import com.crowdserve.config.NotificationStreamProperties;
+import com.crowdserve.dto.NotificationEventDto;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.service.outbox.OutboxSender;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Open notification streams by user, and the delivery of notification events to them.
+ *
+ * Each stream is a Server-Sent Events connection. New notifications are sent as
+ * {@code notification} events whose id is the notification id, each followed by an
+ * {@code unread-count} event; reads and deletes send only the count. Events are
+ * delivered after the transaction that caused them commits, so a client never sees
+ * a notification that was rolled back.
+ *
+ * A reconnecting browser sends the id of the last notification it received as
+ * Last-Event-ID and gets the ones it may have missed replayed from the database, up
+ * to {@code replay-limit}; when more were missed it is sent a {@code reset} event and
+ * reloads the page instead. Ids are allocated in blocks and a notification commits
+ * after it is created, so a lower id can commit after a higher one the client already
+ * got; the replay therefore starts {@code replay-overlap} before the client's last
+ * notification was created, and the page skips notifications it already shows. Idle streams get a comment line every {@code heartbeat}.
+ *
+ * All streams share the {@code sender-threads} writing to them, an {@link OutboxSender}.
+ * A stream whose write has not returned within {@code write-timeout} is closed, and
+ * while that write stays blocked the pool gets one more thread, up to
+ * {@code max-stalled-writes}, so clients that stop reading cannot hold up delivery to
+ * everyone else.
+ */
+@Component
+public class NotificationStreamRegistry {
+
+    static final String NOTIFICATION_EVENT = "notification";
+    static final String UNREAD_COUNT_EVENT = "unread-count";
+    static final String RESET_EVENT = "reset";
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamRegistry.class);
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationStreamProperties properties;
+    private final UnreadCounters unreadCounters;
+    private final Map<Long, List<NotificationStream>> streams = new ConcurrentHashMap<>();
+    private final OutboxSender sender;
+    private final ScheduledFuture<?> heartbeat;
+    private final ScheduledFuture<?> stalledWriteCheck;
+
+    public NotificationStreamRegistry(NotificationRepository notificationRepository, NotificationStreamProperties properties,
+                                      UnreadCounters unreadCounters, @Qualifier("taskScheduler") TaskScheduler taskScheduler) {
+        this.notificationRepository = notificationRepository;
+        this.unreadCounters = unreadCounters;
+        this.properties = properties;
+        this.sender = new OutboxSender("notification-stream-", properties.senderThreads(), properties.maxStalledWrites());
+        this.heartbeat = taskScheduler.scheduleAtFixedRate(this::sendHeartbeats,
+            Instant.now().plus(properties.heartbeat()), properties.heartbeat());
+        Duration check = Duration.ofMillis(Math.max(properties.writeTimeout().toMillis() / 2, 1));
+        this.stalledWriteCheck = taskScheduler.scheduleAtFixedRate(this::closeStalledStreams,
+            Instant.now().plus(check), check);
+    }
+
+    /**
+     * Opens a stream for a user, replaying the notifications created after the given one.
+     *
+     * @param userId the id of the logged-in user
+     * @param lastEventId the id of the last notification the client has, or null to replay nothing
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter open(Long userId, Long lastEventId) {
+        return open(userId, lastEventId, new SseEmitter(properties.timeout().toMillis()));
+    }
+
+    SseEmitter open(Long userId, Long lastEventId, SseEmitter emitter) {
+        NotificationStream stream = new NotificationStream(userId, emitter, properties.bufferSize(), sender, this::remove);
+        emitter.onCompletion(stream::close);
+        emitter.onTimeout(stream::close);
+        emitter.onError(error -> stream.close());
+        register(stream);
+
+        // Registered before reading, so nothing committed from here on is missed
+        List<NotificationStream.Event> initial = new ArrayList<>();
+        initial.add(new NotificationStream.Event(null, SseEmitter.event()
+            .comment("connected")
+            .reconnectTime(properties.reconnectDelay().toMillis())));
+        if (lastEventId != null) {
+            LocalDateTime caughtUp = notificationRepository.findLatestCreatedAtUpTo(userId, lastEventId);
+            LocalDateTime since = caughtUp == null ? LocalDateTime.of(1970, 1, 1, 0, 0)
+                : caughtUp.minus(properties.replayOverlap());
+            List<NotificationEventDto> missed = notificationRepository
+                .findReplay(userId, since, lastEventId, Limit.of(properties.replayLimit() + 1))
+                .stream().map(NotificationEventDto::from).toList();
+            if (missed.size() > properties.replayLimit()) {
+                initial.add(new NotificationStream.Event(null, SseEmitter.event().name(RESET_EVENT).data("")));
+            } else {
+                missed.forEach(notification -> initial.add(notificationEvent(notification)));
+            }
+        }
+        initial.add(unreadCountEvent(unreadCounters.get(userId)));
+        stream.start(initial);
+        return emitter;
+    }
+
+    /**
+     * Pushes a new notification and the new unread count to the user's streams.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        if (!hasStreams(event.userId())) {
+            return;
+        }
+        // The unread counters have already applied this event; they are ordered first
+        sender.execute(() -> {
+            NotificationStream.Event unread = unreadCountEvent(unreadCounters.get(event.userId()));
+            for (NotificationStream stream : streams.getOrDefault(event.userId(), List.of())) {
+                stream.offer(notificationEvent(event.notification()));
+                stream.offer(unread);
+            }
+        });
+    }
+
+    /**
+     * Pushes the user's new unread count to their streams.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnreadCountChanged(UnreadCountChangedEvent event) {
+        if (!hasStreams(event.userId())) {
+            return;
+        }
+        sender.execute(() -> {
+            NotificationStream.Event unread = unreadCountEvent(unreadCounters.get(event.userId()));
+            streams.getOrDefault(event.userId(), List.of()).forEach(stream -> stream.offer(unread));
+        });
+    }
+
+    /**
+     * @return the number of open streams, across all users
+     */
+    public int getOpenStreamCount() {
+        return streams.values().stream().mapToInt(List::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.cancel(false);
+        stalledWriteCheck.cancel(false);
+        streams.values().forEach(userStreams -> userStreams.forEach(NotificationStream::close));
+        sender.shutdown();
+    }
+
+    private void register(NotificationStream stream) {
+        List<NotificationStream> userStreams = streams.compute(stream.getUserId(), (id, existing) -> {
+            List<NotificationStream> list = existing == null ? new CopyOnWriteArrayList<>() : existing;
+            list.add(stream);
+            return list;
+        });
+        // Oldest first: a user who keeps opening tabs loses the ones opened longest ago
+        while (userStreams.size() > properties.maxConnectionsPerUser()) {
+            userStreams.get(0).close();
+        }
+    }
+
+    private void remove(NotificationStream stream) {
+        streams.computeIfPresent(stream.getUserId(), (id, list) -> {
+            list.remove(stream);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private boolean hasStreams(Long userId) {
+        return streams.containsKey(userId);
+    }
+
+    private void sendHeartbeats() {
+        streams.values().forEach(userStreams -> userStreams.forEach(stream ->
+            stream.offer(new NotificationStream.Event(null, SseEmitter.event().comment("heartbeat")))));
+    }
+
+    private void closeStalledStreams() {
+        streams.values().forEach(userStreams -> userStreams.forEach(stream -> {
+            if (sender.closeIfStalled(stream, properties.writeTimeout())) {
+                logger.warn("Closed notification stream of user {}: a write did not return within {}",
+                    stream.getUserId(), properties.writeTimeout());
+            }
+        }));
+    }
+
+    private static NotificationStream.Event notificationEvent(NotificationEventDto notification) {
+        return new NotificationStream.Event(notification.id(), SseEmitter.event()
+            .id(String.valueOf(notification.id()))
+            .name(NOTIFICATION_EVENT)
+            .data(notification, MediaType.APPLICATION_JSON));
+    }
+
+    private static NotificationStream.Event unreadCountEvent(long count) {
+        return new NotificationStream.Event(null, SseEmitter.event().name(UNREAD_COUNT_EVENT).data(String.valueOf(count)));
+    }
+}
@@ -0,0 +1,12 @@
+package com.crowdserve.service.stream;
+
+/**
+ * Published when a user's unread notification count changes other than by a new
+ * notification: when notifications are read or deleted, or created in bulk. The
+ * unread counters and the user's open streams are updated once the transaction commits.
+ *
+ * @param userId the id of the user whose unread count changed
+ * @param delta by how much it changed, negative when notifications were read or deleted
+ */
+public record UnreadCountChangedEvent(Long userId, long delta) {
+}
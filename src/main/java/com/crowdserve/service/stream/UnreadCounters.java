@@ -0,0 +1,320 @@
+package com.crowdserve.service.stream;
+
+import com.crowdserve.config.UnreadCountProperties;
+import com.crowdserve.dto.UnreadCountDto;
+import com.crowdserve.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Unread notification count per user, kept in memory so the navbar badge costs
+ * a map lookup instead of a COUNT query on every page.
+ *
+ * A user's count is loaded from the database the first time it is asked for, then
+ * kept current from the notification events once their transactions commit: +1 for
+ * each {@link NotificationCreatedEvent}, the delta of each {@link UnreadCountChangedEvent}.
+ * Events for users not loaded yet are ignored; their count is read when first needed.
+ *
+ * A change committed while a count is being loaded, or a notification read twice at
+ * once, can leave a count off by one. Every {@code reconcile-interval} the counts read
+ * since the previous round are checked against the database in a few grouped queries,
+ * and corrected unless they changed meanwhile; corrections are counted in
+ * {@code crowdserve.notifications.unread.corrections}. Counts nobody has read for
+ * {@code idle-timeout} are dropped in the same round and loaded again when next needed,
+ * so memory and reconciliation follow the users who are active, not every user ever seen.
+ *
+ * Users' counts are spread over {@code stripes} independently locked tables keyed by
+ * primitive user id, so concurrent page views rarely wait on each other.
+ */
+@Component
+public class UnreadCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadCounters.class);
+
+    // Users checked per reconciliation query, keeping the IN list short
+    private static final int RECONCILE_CHUNK = 500;
+
+    private final NotificationRepository notificationRepository;
+    private final long idleTimeoutNanos;
+    private final Stripe[] stripes;
+    private final Counter corrections;
+    private final ScheduledFuture<?> reconciliation;
+    private volatile long lastReconciledAt = System.nanoTime();
+
+    public UnreadCounters(NotificationRepository notificationRepository, UnreadCountProperties properties,
+                          MeterRegistry meterRegistry, @Qualifier("taskScheduler") TaskScheduler taskScheduler) {
+        this.notificationRepository = notificationRepository;
+        this.idleTimeoutNanos = properties.idleTimeout().toNanos();
+        int stripeCount = properties.stripes() <= 1 ? 1 : Integer.highestOneBit(properties.stripes() - 1) << 1;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.corrections = Counter.builder("crowdserve.notifications.unread.corrections")
+            .description("Unread counts found wrong and corrected from the database")
+            .register(meterRegistry);
+        Gauge.builder("crowdserve.notifications.unread.users", this, UnreadCounters::size)
+            .description("Users whose unread count is held in memory")
+            .register(meterRegistry);
+        this.reconciliation = taskScheduler.scheduleWithFixedDelay(this::reconcileAndLog,
+            Instant.now().plus(properties.reconcileInterval()), properties.reconcileInterval());
+    }
+
+    /**
+     * @param userId the id of the user
+     * @return how many unread notifications the user has
+     */
+    public long get(Long userId) {
+        Stripe stripe = stripeFor(userId);
+        long count = stripe.get(userId, System.nanoTime());
+        if (count != Stripe.MISSING) {
+            return count;
+        }
+        // Loaded outside the lock; a concurrent load of the same user keeps whichever came first
+        return stripe.putIfAbsent(userId, notificationRepository.countByUser_IdAndIsReadFalse(userId), System.nanoTime());
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        stripeFor(event.userId()).addIfPresent(event.userId(), 1);
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnreadCountChanged(UnreadCountChangedEvent event) {
+        stripeFor(event.userId()).addIfPresent(event.userId(), event.delta());
+    }
+
+    /**
+     * @return the number of users whose count is held in memory
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Checks the counts read since the previous round against the database and corrects
+     * those that are wrong. Called on a schedule; package-private for tests.
+     *
+     * @return the number of counts corrected
+     */
+    int reconcile() {
+        long readSince = lastReconciledAt;
+        lastReconciledAt = System.nanoTime();
+        int corrected = 0;
+        for (Stripe stripe : stripes) {
+            long[][] snapshot = stripe.snapshot(readSince);
+            long[] userIds = snapshot[0];
+            long[] counts = snapshot[1];
+            for (int from = 0; from < userIds.length; from += RECONCILE_CHUNK) {
+                int to = Math.min(userIds.length, from + RECONCILE_CHUNK);
+                List<Long> chunk = Arrays.stream(userIds, from, to).boxed().toList();
+                Map<Long, Long> actual = new HashMap<>();
+                for (UnreadCountDto row : notificationRepository.countUnreadByUserIds(chunk)) {
+                    actual.put(row.userId(), row.count());
+                }
+                for (int i = from; i < to; i++) {
+                    long expected = actual.getOrDefault(userIds[i], 0L);
+                    // Skipped if an event changed the count after the snapshot; the next round checks it
+                    if (counts[i] != expected && stripe.replace(userIds[i], counts[i], expected)) {
+                        corrected++;
+                    }
+                }
+            }
+        }
+        corrections.increment(corrected);
+        return corrected;
+    }
+
+    /**
+     * Drops the counts nobody has read for {@code idle-timeout}. Called on a schedule;
+     * package-private for tests.
+     *
+     * @return the number of counts dropped
+     */
+    int evictIdle() {
+        long readBefore = System.nanoTime() - idleTimeoutNanos;
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            evicted += stripe.removeReadBefore(readBefore);
+        }
+        return evicted;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reconciliation.cancel(false);
+    }
+
+    private void reconcileAndLog() {
+        int evicted = evictIdle();
+        int corrected = reconcile();
+        logger.debug("Dropped {} idle unread notification counts", evicted);
+        if (corrected > 0) {
+            logger.info("Corrected {} unread notification counts", corrected);
+        }
+    }
+
+    private Stripe stripeFor(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash >>> 32) & (stripes.length - 1)];
+    }
+
+    /**
+     * Open-addressing table from user id to count and the time it was last read,
+     * guarded by its own monitor.
+     */
+    private static final class Stripe {
+
+        static final long MISSING = -1;
+
+        private static final long EMPTY = Long.MIN_VALUE;
+        private static final int MIN_CAPACITY = 16;
+
+        private long[] keys = emptyKeys(MIN_CAPACITY);
+        private long[] values = new long[MIN_CAPACITY];
+        private long[] readAt = new long[MIN_CAPACITY];
+        private int size;
+
+        synchronized long get(long key, long now) {
+            int slot = find(key);
+            if (keys[slot] != key) {
+                return MISSING;
+            }
+            readAt[slot] = now;
+            return values[slot];
+        }
+
+        synchronized long putIfAbsent(long key, long value, long now) {
+            int slot = find(key);
+            if (keys[slot] == key) {
+                readAt[slot] = now;
+                return values[slot];
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            readAt[slot] = now;
+            if (++size * 4 > keys.length * 3) {
+                resize(keys.length * 2);
+            }
+            return value;
+        }
+
+        synchronized void addIfPresent(long key, long delta) {
+            int slot = find(key);
+            if (keys[slot] == key) {
+                values[slot] = Math.max(0, values[slot] + delta);
+            }
+        }
+
+        synchronized boolean replace(long key, long expected, long value) {
+            int slot = find(key);
+            if (keys[slot] != key || values[slot] != expected) {
+                return false;
+            }
+            values[slot] = value;
+            return true;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        /**
+         * @return the user ids read since the given time and their counts, as two arrays of equal length
+         */
+        synchronized long[][] snapshot(long readSince) {
+            long[] userIds = new long[size];
+            long[] counts = new long[size];
+            int n = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY && readAt[slot] - readSince >= 0) {
+                    userIds[n] = keys[slot];
+                    counts[n++] = values[slot];
+                }
+            }
+            return new long[][] {Arrays.copyOf(userIds, n), Arrays.copyOf(counts, n)};
+        }
+
+        /**
+         * Removes the entries last read before the given time, shrinking the table to fit.
+         *
+         * @return the number of entries removed
+         */
+        synchronized int removeReadBefore(long readBefore) {
+            int removed = 0;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != EMPTY && readAt[slot] - readBefore < 0) {
+                    // Emptied in place; the resize below rehashes the rest so no probe chain is broken
+                    keys[slot] = EMPTY;
+                    removed++;
+                }
+            }
+            if (removed > 0) {
+                size -= removed;
+                int capacity = MIN_CAPACITY;
+                while (size * 4 > capacity * 3 / 2) {
+                    capacity *= 2;
+                }
+                resize(capacity);
+            }
+            return removed;
+        }
+
+        /**
+         * @return the slot holding the key, or the empty slot where it would go
+         */
+        private int find(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) (key * 0x9E3779B97F4A7C15L) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            long[] oldReadAt = readAt;
+            keys = emptyKeys(capacity);
+            values = new long[capacity];
+            readAt = new long[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = find(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                    readAt[slot] = oldReadAt[i];
+                }
+            }
+        }
+
+        private static long[] emptyKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+-- Switch entity ids from IDENTITY columns to pooled sequences (allocationSize 50).
+-- The development profile (ddl-auto=update) creates the sequences itself and
+-- IdSequenceAligner moves them past existing ids on startup; run this script only
+-- against an H2 database whose schema is validated rather than updated.
+-- Each sequence is started so that the first block Hibernate takes,
+-- (start - 50, start], lies above every existing id.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tasks_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS notifications_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS reports_seq START WITH 1 INCREMENT BY 50;
+
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM users);
+ALTER SEQUENCE tasks_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM tasks);
+ALTER SEQUENCE notifications_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM notifications);
+ALTER SEQUENCE reports_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM reports);
+
+-- Ids are now always supplied by Hibernate
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE notifications ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE reports ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,9 @@
+-- Optional task coordinates for "near me" searches, and the index the database-side
+-- bounding-box query of open tasks uses.
+-- The development profile (ddl-auto=update) adds these itself; run this script only
+-- against an H2 database whose schema is validated rather than updated.
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_status_lat_lon ON tasks (status, latitude, longitude);
@@ -0,0 +1,22 @@
+-- Archive table for read notifications moved out of "notifications" by the retention
+-- job. It keeps the original ids and refers to users and tasks by id only, without
+-- foreign keys, so archived rows never stand in the way of deleting either.
+-- The development profile (ddl-auto=update) creates these itself; run this script only
+-- against an H2 database whose schema is validated rather than updated.
+
+CREATE TABLE IF NOT EXISTS notifications_archive (
+    id BIGINT NOT NULL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    message VARCHAR(1000),
+    created_at TIMESTAMP(6) NOT NULL,
+    is_read BOOLEAN NOT NULL,
+    task_id BIGINT,
+    archived_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_archive_created ON notifications_archive (created_at);
+CREATE INDEX IF NOT EXISTS idx_notifications_archive_user ON notifications_archive (user_id);
+
+-- The retention job selects old notifications by creation time
+CREATE INDEX IF NOT EXISTS idx_notifications_created ON notifications (created_at);
@@ -0,0 +1,30 @@
+-- Watched areas: the circles users watch for new tasks (ids from a pooled sequence,
+-- allocationSize 50), and the new tasks with too many watchers to notify one by one,
+-- recorded once each and matched against the watchers' areas when they read.
+-- The development profile (ddl-auto=update) creates these itself; run this script only
+-- against an H2 database whose schema is validated rather than updated.
+
+CREATE SEQUENCE IF NOT EXISTS area_subscriptions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS area_subscriptions (
+    id BIGINT NOT NULL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    radius_km DOUBLE PRECISION NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_area_subscriptions_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_area_subscriptions_user ON area_subscriptions (user_id);
+
+-- One row per task, keyed by its id; no foreign key, like the notifications archive
+CREATE TABLE IF NOT EXISTS nearby_task_broadcasts (
+    task_id BIGINT NOT NULL PRIMARY KEY,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    audience INTEGER NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_nearby_task_broadcasts_created ON nearby_task_broadcasts (created_at);
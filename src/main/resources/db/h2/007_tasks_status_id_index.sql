@@ -0,0 +1,6 @@
+-- Index behind the keyset-paged dashboard feed of open tasks, which seeks by status
+-- and then walks ids newest first.
+-- The development profile (ddl-auto=update) creates it itself; run this script only
+-- against an H2 database whose schema is validated rather than updated.
+
+CREATE INDEX IF NOT EXISTS idx_tasks_status_id ON tasks (status, id);
@@ -0,0 +1,7 @@
+-- Task versions: every change to a task increments its version, so observers that
+-- mirror task state can tell an event older than what they hold. Existing tasks start
+-- at version 0.
+-- The development profile (ddl-auto=update) adds this itself; run this script only
+-- against an H2 database whose schema is validated rather than updated.
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
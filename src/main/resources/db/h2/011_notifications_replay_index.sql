@@ -0,0 +1,6 @@
+-- Notification stream replay: a reconnecting client is sent its notifications created
+-- since shortly before the last one it has, in creation order.
+-- The development profile (ddl-auto=update) creates this itself; run this script only
+-- against an H2 database whose schema is validated rather than updated.
+
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created ON notifications (user_id, created_at, id);
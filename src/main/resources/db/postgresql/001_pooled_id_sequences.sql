@@ -0,0 +1,21 @@
+-- Switch entity ids from IDENTITY columns to pooled sequences (allocationSize 50).
+-- Run once before deploying to a database whose schema is validated rather than
+-- updated (the prod profile). Each sequence is started so that the first block
+-- Hibernate takes, (start - 50, start], lies above every existing id.
+-- Safe to re-run: sequences are only created if missing and only ever moved forward.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tasks_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS notifications_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS reports_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM users), nextval('users_seq')), false);
+SELECT setval('tasks_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM tasks), nextval('tasks_seq')), false);
+SELECT setval('notifications_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM notifications), nextval('notifications_seq')), false);
+SELECT setval('reports_seq', GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM reports), nextval('reports_seq')), false);
+
+-- Ids are now always supplied by Hibernate
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE notifications ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE reports ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,10 @@
+-- Notification kinds and coalescing: each notification records its kind and how many
+-- events it stands for (1 unless merged), and users may opt into a periodic digest.
+-- Existing notifications get no kind and keep showing their stored text.
+-- Run once before deploying to a database whose schema is validated rather than
+-- updated (the prod profile). Safe to re-run.
+
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS kind VARCHAR(32);
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS event_count INTEGER DEFAULT 1 NOT NULL;
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS notification_digest BOOLEAN DEFAULT FALSE NOT NULL;
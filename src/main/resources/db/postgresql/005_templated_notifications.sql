@@ -0,0 +1,20 @@
+-- Templated notifications: task notifications store their kind and parameters (the
+-- user they are about and the amount shown) instead of rendered text, so they have no
+-- title. Archived notifications keep the same columns. Old notifications are converted
+-- in the background by NotificationTextMigration once the columns exist.
+-- Run once before deploying to a database whose schema is validated rather than
+-- updated (the prod profile). Safe to re-run.
+
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS actor_id BIGINT;
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS amount DOUBLE PRECISION;
+ALTER TABLE notifications ALTER COLUMN title DROP NOT NULL;
+
+ALTER TABLE notifications DROP CONSTRAINT IF EXISTS fk_notifications_actor;
+ALTER TABLE notifications ADD CONSTRAINT fk_notifications_actor FOREIGN KEY (actor_id) REFERENCES users (id);
+
+-- No foreign keys here, so archived rows never stand in the way of deleting users
+ALTER TABLE notifications_archive ADD COLUMN IF NOT EXISTS kind VARCHAR(32);
+ALTER TABLE notifications_archive ADD COLUMN IF NOT EXISTS event_count INTEGER DEFAULT 1 NOT NULL;
+ALTER TABLE notifications_archive ADD COLUMN IF NOT EXISTS actor_id BIGINT;
+ALTER TABLE notifications_archive ADD COLUMN IF NOT EXISTS amount DOUBLE PRECISION;
+ALTER TABLE notifications_archive ALTER COLUMN title DROP NOT NULL;
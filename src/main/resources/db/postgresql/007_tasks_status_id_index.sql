@@ -0,0 +1,6 @@
+-- Index behind the keyset-paged dashboard feed of open tasks, which seeks by status
+-- and then walks ids newest first.
+-- Run once before deploying to a database whose schema is validated rather than
+-- updated (the prod profile). Safe to re-run.
+
+CREATE INDEX IF NOT EXISTS idx_tasks_status_id ON tasks (status, id);
@@ -0,0 +1,7 @@
+-- Indexes behind the "my tasks" filters, which the database now applies: tasks by
+-- poster and by worker, narrowed by status.
+-- Run once before deploying to a database whose schema is validated rather than
+-- updated (the prod profile). Safe to re-run.
+
+CREATE INDEX IF NOT EXISTS idx_tasks_poster_status ON tasks (poster_id, status);
+CREATE INDEX IF NOT EXISTS idx_tasks_worker_status ON tasks (worker_id, status);
@@ -0,0 +1,6 @@
+-- Index behind the keyset-paged notification inbox and the unread counts: a user's
+-- notifications by read state, newest first.
+-- Run once before deploying to a database whose schema is validated rather than
+-- updated (the prod profile). Safe to re-run.
+
+CREATE INDEX IF NOT EXISTS idx_notifications_user_read_created ON notifications (user_id, is_read, created_at, id);
@@ -0,0 +1,7 @@
+-- Task versions: every change to a task increments its version, so observers that
+-- mirror task state can tell an event older than what they hold. Existing tasks start
+-- at version 0.
+-- Run once before deploying to a database whose schema is validated rather than
+-- updated (the prod profile). Safe to re-run.
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
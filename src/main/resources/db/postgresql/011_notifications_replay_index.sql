@@ -0,0 +1,6 @@
+-- Notification stream replay: a reconnecting client is sent its notifications created
+-- since shortly before the last one it has, in creation order.
+-- Run once before deploying to a database whose schema is validated rather than
+-- updated (the prod profile). Safe to re-run.
+
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created ON notifications (user_id, created_at, id);
@@ -0,0 +1,95 @@
+// Live dashboard feed: applies task changes pushed over /ws/tasks to the open-task list
+// in place, so tasks accepted by someone else disappear without a reload.
+document.addEventListener('DOMContentLoaded', function () {
+  const taskList = document.getElementById('task-list');
+  const emptyState = document.getElementById('empty-tasks');
+  const openCount = document.getElementById('open-count');
+  const cardTemplate = document.getElementById('task-card-template');
+  if (!window.WebSocket || !taskList || !cardTemplate) return;
+
+  const addNew = taskList.getAttribute('data-add-new') === 'true';
+  const lat = taskList.getAttribute('data-lat');
+  const lon = taskList.getAttribute('data-lon');
+  const radiusKm = taskList.getAttribute('data-radius-km');
+  const RECONNECT_DELAY_MS = 5000;
+
+  function syncStates() {
+    const count = taskList.querySelectorAll('.task').length;
+    taskList.style.display = count > 0 ? '' : 'none';
+    if (emptyState) emptyState.style.display = count > 0 ? 'none' : '';
+    if (openCount) openCount.textContent = count;
+  }
+
+  function addTask(delta) {
+    if (taskList.querySelector(`.task[data-task-id='${delta.id}']`)) return;
+    const card = cardTemplate.content.firstElementChild.cloneNode(true);
+    card.setAttribute('data-task-id', delta.id);
+    card.querySelector('.js-title').textContent = delta.title;
+    card.querySelector('.js-desc').textContent = delta.description || '';
+    card.querySelector('.js-poster').textContent = 'Posted by: ' + (delta.posterName || 'Unknown');
+    card.querySelector('.js-reward').textContent = 'Reward: ' + (delta.reward != null ? delta.reward : 'N/A');
+    card.querySelector('.js-location').textContent = 'Location: ' + (delta.location || 'N/A');
+    card.querySelector('.js-link').setAttribute('href', `/tasks/${delta.id}`);
+    taskList.prepend(card);
+  }
+
+  function removeTask(delta) {
+    const card = taskList.querySelector(`.task[data-task-id='${delta.id}']`);
+    if (card) card.remove();
+  }
+
+  function apply(deltas) {
+    deltas.forEach(function (delta) {
+      if (delta.type === 'created') {
+        if (addNew) addTask(delta);
+      } else {
+        removeTask(delta);
+      }
+    });
+    syncStates();
+  }
+
+  function feedUrl() {
+    const scheme = window.location.protocol === 'https:' ? 'wss:' : 'ws:';
+    let url = `${scheme}//${window.location.host}/ws/tasks`;
+    if (lat && lon && radiusKm) {
+      url += `?lat=${encodeURIComponent(lat)}&lon=${encodeURIComponent(lon)}&radiusKm=${encodeURIComponent(radiusKm)}`;
+    }
+    return url;
+  }
+
+  let socket = null;
+  let dropped = false;
+  let unloading = false;
+
+  function connect() {
+    socket = new WebSocket(feedUrl());
+
+    socket.addEventListener('open', function () {
+      // Changes made while disconnected were not received; the page itself is the cheapest resync
+      if (dropped) window.location.reload();
+    });
+
+    socket.addEventListener('message', function (e) {
+      try {
+        apply(JSON.parse(e.data));
+      } catch (err) {
+        console.error('Bad task feed message', err);
+      }
+    });
+
+    socket.addEventListener('close', function (e) {
+      // 1003: the server rejected the subscription, retrying would not help
+      if (unloading || e.code === 1003) return;
+      dropped = true;
+      setTimeout(connect, RECONNECT_DELAY_MS);
+    });
+  }
+
+  window.addEventListener('beforeunload', function () {
+    unloading = true;
+    if (socket) socket.close();
+  });
+
+  connect();
+});
@@ -9,12 +9,16 @@ document.addEventListener('DOMContentLoaded', function () {
     return res.json();
   }
 
+  const unreadSection = document.getElementById('unread-section');
   const unreadList = document.getElementById('unread-list');
   const readList = document.getElementById('read-list');
   const emptyAll = document.getElementById('empty-all');
   const noNew = document.getElementById('no-new');
   const noRead = document.getElementById('no-read');
   const markAllBtn = document.getElementById('mark-all-read-btn');
+  const clearReadBtn = document.getElementById('clear-read-btn');
+  const unreadCountBadge = document.getElementById('unread-count');
+  const cardTemplate = document.getElementById('notification-card-template');
 
   function toggle(el, show) {
     if (!el) return;
@@ -25,7 +29,7 @@ document.addEventListener('DOMContentLoaded', function () {
     const unreadCount = unreadList ? unreadList.querySelectorAll('.notification-card').length : 0;
     const readCount = readList ? readList.querySelectorAll('.notification-card').length : 0;
 
-    toggle(unreadList, unreadCount > 0);
+    toggle(unreadSection, unreadCount > 0);
     toggle(readList, readCount > 0);
     toggle(noNew, unreadCount === 0);
     toggle(noRead, readCount === 0);
@@ -42,6 +46,14 @@ document.addEventListener('DOMContentLoaded', function () {
         markAllBtn.textContent = 'Mark all as read';
       }
     }
+
+    if (clearReadBtn) {
+      if (readCount === 0) {
+        clearReadBtn.setAttribute('disabled', 'true');
+      } else {
+        clearReadBtn.removeAttribute('disabled');
+      }
+    }
   }
 
   syncStates();
@@ -57,58 +69,80 @@ document.addEventListener('DOMContentLoaded', function () {
     readList.prepend(card);
   }
 
-  // Single notification mark-as-read
-  document.querySelectorAll('.mark-read-btn').forEach(btn => {
-    btn.addEventListener('click', function (e) {
-      const id = this.getAttribute('data-id');
-      if (!id) return;
-      const url = `/notifications/mark-read/${id}`;
-      fetch(url, {
-        method: 'POST',
-        headers: Object.assign({ 'Accept': 'application/json' }, csrfToken ? { [csrfHeader]: csrfToken } : {}),
-        credentials: 'same-origin'
-      }).then(handleJsonResponse)
-        .then(() => {
-          const card = document.querySelector(`.notification-card[data-id='${id}']`);
-          moveCardToRead(card);
-          const unreadCardsLeft = unreadList ? unreadList.querySelectorAll('.notification-card.unread').length : 0;
-          if (unreadCardsLeft === 0) {
-            syncStates();
-          }
-        })
-        .catch(err => {
-          console.error('Failed to mark as read', err);
-          alert('Could not mark notification as read. Please try again.');
-        });
-    });
+  function formatTimestamp(value) {
+    const date = new Date(value);
+    if (isNaN(date)) return '';
+    return date.toLocaleString(undefined, { month: 'short', day: 'numeric', hour: '2-digit', minute: '2-digit', hour12: false });
+  }
+
+  // Builds a card from the template; read cards lose the badge and the mark-read button
+  function renderCard(notification, read) {
+    const card = cardTemplate.content.firstElementChild.cloneNode(true);
+    card.setAttribute('data-id', notification.id);
+    card.querySelector('.js-title').textContent = notification.title;
+    card.querySelector('.js-message').textContent = notification.message || '';
+    card.querySelector('.js-ts').textContent = formatTimestamp(notification.createdAt);
+    card.querySelectorAll('button').forEach(btn => btn.setAttribute('data-id', notification.id));
+    if (read) {
+      card.classList.remove('unread');
+      card.classList.add('read');
+      const btn = card.querySelector('.mark-read-btn');
+      if (btn) btn.remove();
+      const icon = card.querySelector('.notification-title i');
+      if (icon) icon.style.color = '#9ca3af';
+    }
+    return card;
+  }
+
+  // Single notification mark-as-read; delegated so cards added by the live stream work too
+  document.addEventListener('click', function (e) {
+    const btn = e.target.closest('.mark-read-btn');
+    if (!btn) return;
+    const id = btn.getAttribute('data-id');
+    if (!id) return;
+    const url = `/notifications/mark-read/${id}`;
+    fetch(url, {
+      method: 'POST',
+      headers: Object.assign({ 'Accept': 'application/json' }, csrfToken ? { [csrfHeader]: csrfToken } : {}),
+      credentials: 'same-origin'
+    }).then(handleJsonResponse)
+      .then(() => {
+        const card = document.querySelector(`.notification-card[data-id='${id}']`);
+        moveCardToRead(card);
+        syncStates();
+      })
+      .catch(err => {
+        console.error('Failed to mark as read', err);
+        alert('Could not mark notification as read. Please try again.');
+      });
   });
 
   // Delete notification
-  document.querySelectorAll('.delete-btn').forEach(btn => {
-    btn.addEventListener('click', function () {
-      const id = this.getAttribute('data-id');
-      if (!id) return;
-      const url = `/notifications/delete/${id}`;
-      fetch(url, {
-        method: 'POST',
-        headers: Object.assign({ 'Accept': 'application/json' }, csrfToken ? { [csrfHeader]: csrfToken } : {}),
-        credentials: 'same-origin'
-      }).then(handleJsonResponse)
-        .then(() => {
-          const card = document.querySelector(`.notification-card[data-id='${id}']`);
-          if (card) {
-            const parentList = card.parentElement;
-            card.remove();
-            if (parentList && parentList.classList.contains('notification-list')) {
-              syncStates();
-            }
+  document.addEventListener('click', function (e) {
+    const btn = e.target.closest('.delete-btn');
+    if (!btn) return;
+    const id = btn.getAttribute('data-id');
+    if (!id) return;
+    const url = `/notifications/delete/${id}`;
+    fetch(url, {
+      method: 'POST',
+      headers: Object.assign({ 'Accept': 'application/json' }, csrfToken ? { [csrfHeader]: csrfToken } : {}),
+      credentials: 'same-origin'
+    }).then(handleJsonResponse)
+      .then(() => {
+        const card = document.querySelector(`.notification-card[data-id='${id}']`);
+        if (card) {
+          const parentList = card.parentElement;
+          card.remove();
+          if (parentList && parentList.classList.contains('notification-list')) {
+            syncStates();
           }
-        })
-        .catch(err => {
-          console.error('Failed to delete notification', err);
-          alert('Could not delete notification. Please try again.');
-        });
-    });
+        }
+      })
+      .catch(err => {
+        console.error('Failed to delete notification', err);
+        alert('Could not delete notification. Please try again.');
+      });
   });
 
   // Mark all as read
@@ -125,6 +159,8 @@ document.addEventListener('DOMContentLoaded', function () {
         .then(data => {
           const cards = unreadList.querySelectorAll('.notification-card.unread');
           cards.forEach(card => moveCardToRead(card));
+          // Nothing is unread any more, including pages not loaded yet
+          unreadList.removeAttribute('data-next-cursor');
           markAllBtn.textContent = (data && data.marked) ? `Marked ${data.marked} read` : 'Marked read';
           syncStates();
         })
@@ -135,4 +171,132 @@ document.addEventListener('DOMContentLoaded', function () {
         });
     });
   }
+
+  // Clear read: one request deletes every read notification, however many there are
+  if (clearReadBtn) {
+    clearReadBtn.addEventListener('click', function () {
+      if (!readList) return;
+      clearReadBtn.setAttribute('disabled', 'true');
+      fetch('/notifications/delete-read', {
+        method: 'POST',
+        headers: Object.assign({ 'Accept': 'application/json' }, csrfToken ? { [csrfHeader]: csrfToken } : {}),
+        credentials: 'same-origin'
+      }).then(handleJsonResponse)
+        .then(() => {
+          readList.querySelectorAll('.notification-card').forEach(card => card.remove());
+          readList.removeAttribute('data-next-cursor');
+          syncStates();
+        })
+        .catch(err => {
+          console.error('Failed to clear read notifications', err);
+          alert('Could not clear read notifications. Please try again.');
+          clearReadBtn.removeAttribute('disabled');
+        });
+    });
+  }
+
+  // Digest: task notifications arrive as one summary per period while this is on
+  const digestToggle = document.getElementById('digest-toggle');
+  if (digestToggle) {
+    digestToggle.addEventListener('change', function () {
+      const enabled = digestToggle.checked;
+      digestToggle.setAttribute('disabled', 'true');
+      fetch('/notifications/digest?enabled=' + enabled, {
+        method: 'POST',
+        headers: Object.assign({ 'Accept': 'application/json' }, csrfToken ? { [csrfHeader]: csrfToken } : {}),
+        credentials: 'same-origin'
+      }).then(handleJsonResponse)
+        .catch(err => {
+          console.error('Failed to change the digest setting', err);
+          alert('Could not change the digest setting. Please try again.');
+          digestToggle.checked = !enabled;
+        })
+        .finally(() => digestToggle.removeAttribute('disabled'));
+    });
+  }
+
+  // Infinite scroll: the page renders only the newest notifications of each list, and
+  // older ones are fetched a page at a time, by keyset cursor, as the end of a list comes into view
+  function loadMore(list, read) {
+    const cursor = list.getAttribute('data-next-cursor');
+    if (!cursor || list.dataset.loading === 'true') return;
+    list.dataset.loading = 'true';
+    const url = `/notifications/page?read=${read}&cursor=${encodeURIComponent(cursor)}`;
+    fetch(url, { headers: { 'Accept': 'application/json' }, credentials: 'same-origin' })
+      .then(handleJsonResponse)
+      .then(page => {
+        page.notifications.forEach(notification => {
+          if (document.querySelector(`.notification-card[data-id='${notification.id}']`)) return;
+          list.appendChild(renderCard(notification, read));
+        });
+        if (page.nextCursor) {
+          list.setAttribute('data-next-cursor', page.nextCursor);
+        } else {
+          list.removeAttribute('data-next-cursor');
+        }
+        syncStates();
+      })
+      .catch(err => console.error('Failed to load more notifications', err))
+      .finally(() => { list.dataset.loading = 'false'; });
+  }
+
+  if (window.IntersectionObserver && cardTemplate) {
+    const observer = new IntersectionObserver(entries => {
+      entries.forEach(entry => {
+        if (!entry.isIntersecting) return;
+        const list = document.getElementById(entry.target.getAttribute('data-list'));
+        if (list) loadMore(list, entry.target.getAttribute('data-read') === 'true');
+      });
+    }, { rootMargin: '200px' });
+    document.querySelectorAll('.js-load-more').forEach(sentinel => observer.observe(sentinel));
+  }
+
+  // Live updates: new notifications and unread counts are pushed over Server-Sent Events,
+  // so the page never has to poll. The browser reconnects by itself and sends the id of the
+  // last notification it got, and the server replays anything missed in between, starting a
+  // little early because ids do not commit in order; cards already on the page are skipped.
+  if (!window.EventSource || !unreadList || !cardTemplate) return;
+
+  function addNotificationCard(notification) {
+    if (document.querySelector(`.notification-card[data-id='${notification.id}']`)) return;
+    unreadList.prepend(renderCard(notification, false));
+    syncStates();
+  }
+
+  function showUnreadCount(count) {
+    if (!unreadCountBadge) return;
+    unreadCountBadge.textContent = count;
+    toggle(unreadCountBadge, count > 0);
+  }
+
+  // The newest notification already on the page; the first connection replays anything after it
+  const newestId = Array.from(document.querySelectorAll('.notification-card[data-id]'))
+    .map(card => parseInt(card.getAttribute('data-id'), 10))
+    .filter(id => !isNaN(id))
+    .reduce((max, id) => Math.max(max, id), 0);
+
+  const stream = new EventSource(newestId > 0 ? `/notifications/stream?after=${newestId}` : '/notifications/stream');
+
+  stream.addEventListener('notification', function (e) {
+    try {
+      addNotificationCard(JSON.parse(e.data));
+    } catch (err) {
+      console.error('Bad notification event', err);
+    }
+  });
+
+  stream.addEventListener('unread-count', function (e) {
+    const count = parseInt(e.data, 10);
+    if (!isNaN(count)) showUnreadCount(count);
+  });
+
+  // Sent when too much was missed to replay; the page itself is the cheapest full resync
+  stream.addEventListener('reset', function () {
+    stream.close();
+    window.location.reload();
+  });
+
+  window.addEventListener('beforeunload', function () {
+    stream.close();
+  });
 });
@@ -0,0 +1,42 @@
+package com.crowdserve;
+
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+
+/**
+ * Unsaved users and tasks for tests that build their own data.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    /**
+     * @param name username and full name; the email is derived from it
+     * @return a user with a placeholder password hash
+     */
+    public static User user(String name) {
+        User user = new User();
+        user.setUsername(name);
+        user.setFullName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("hashed");
+        return user;
+    }
+
+    /**
+     * @return a task whose description repeats its title
+     */
+    public static Task task(String title, String location, Double reward, TaskStatus status, User poster, User worker) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription(title);
+        task.setLocation(location);
+        task.setReward(reward);
+        task.setStatus(status);
+        task.setPoster(poster);
+        task.setWorker(worker);
+        return task;
+    }
+}
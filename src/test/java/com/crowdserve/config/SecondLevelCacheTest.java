@@ -0,0 +1,172 @@
+package com.crowdserve.config;
+
+import com.crowdserve.TestFixtures;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.TaskRepository;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.TaskService;
+import com.crowdserve.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Hibernate second-level and query cache against an in-memory database.
+ * Checks that repeated reads of users and tasks are served from the cache, that
+ * profile updates and task transitions are never hidden by a stale cached copy,
+ * and that the actuator endpoint reports the hits.
+ */
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private SecondLevelCacheEndpoint endpoint;
+
+    private final List<User> createdUsers = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (User user : createdUsers) {
+            taskRepository.deleteAll(taskRepository.findByPoster(user));
+        }
+        userRepository.deleteAll(createdUsers);
+        createdUsers.clear();
+    }
+
+    /**
+     * Test that a user read again by id or by email comes from the cache without a query.
+     */
+    @Test
+    void testUserLookups_SecondReadHitsCache() {
+        // Arrange
+        User user = user("cache-reader");
+        userRepository.findById(user.getId());
+        userRepository.findByEmail(user.getEmail());
+        statistics.clear();
+
+        // Act
+        User byId = userRepository.findById(user.getId()).orElseThrow();
+        User byEmail = userRepository.findByEmail(user.getEmail()).orElseThrow();
+
+        // Assert
+        assertEquals("cache-reader", byId.getFullName());
+        assertEquals(user.getId(), byEmail.getId());
+        assertEquals(0, statistics.getPrepareStatementCount(), "Both reads should be served from the cache");
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertTrue(statistics.getCacheRegionStatistics("users").getHitCount() >= 1);
+    }
+
+    /**
+     * Test that a profile update replaces the cached user and the cached lookup by email.
+     */
+    @Test
+    void testUpdateProfile_InvalidatesCachedUser() {
+        // Arrange: warm both caches
+        User user = user("cache-profile");
+        userRepository.findById(user.getId());
+        userRepository.findByEmail(user.getEmail());
+
+        // Act
+        User changes = new User();
+        changes.setId(user.getId());
+        changes.setFullName("Renamed");
+        changes.setBio("New bio");
+        userService.updateProfile(changes);
+
+        // Assert
+        assertEquals("Renamed", userRepository.findById(user.getId()).orElseThrow().getFullName());
+        assertEquals("New bio", userRepository.findByEmail(user.getEmail()).orElseThrow().getBio());
+    }
+
+    /**
+     * Test that task transitions, including the bulk claim update, are visible through the cache.
+     */
+    @Test
+    void testTaskTransitions_InvalidateCachedTask() {
+        // Arrange
+        User poster = user("cache-poster");
+        User worker = user("cache-worker");
+        Task task = new Task();
+        task.setTitle("Cached task");
+        task.setLocation("Anywhere");
+        task.setReward(10.0);
+        task.setStatus(TaskStatus.OPEN);
+        task.setPoster(poster);
+        Long id = taskRepository.save(task).getId();
+        taskRepository.findById(id);
+        statistics.clear();
+        assertEquals(TaskStatus.OPEN, taskRepository.findById(id).orElseThrow().getStatus());
+        assertEquals(1, statistics.getCacheRegionStatistics("tasks").getHitCount(), "Task should be cached");
+
+        // Act & Assert: claimed by a bulk JPQL update
+        taskService.assignWorker(id, worker);
+        Task assigned = taskRepository.findById(id).orElseThrow();
+        assertEquals(TaskStatus.ASSIGNED, assigned.getStatus());
+        assertEquals(worker.getId(), assigned.getWorker().getId());
+
+        // Act & Assert: completed through the entity
+        taskService.markCompleted(id);
+        assertEquals(TaskStatus.COMPLETED, taskRepository.findById(id).orElseThrow().getStatus());
+    }
+
+    /**
+     * Test that the actuator endpoint reports hits and the hit ratio per region.
+     */
+    @Test
+    void testEndpoint_ReportsHitRatio() {
+        // Arrange
+        User user = user("cache-endpoint");
+        statistics.clear();
+        userRepository.findById(user.getId());
+        userRepository.findById(user.getId());
+
+        // Act
+        SecondLevelCacheEndpoint.CacheReport report = endpoint.report();
+
+        // Assert
+        assertTrue(report.statisticsEnabled());
+        assertTrue(report.regions().keySet().containsAll(List.of("users", "tasks")));
+        SecondLevelCacheEndpoint.RegionReport users = report.regions().get("users");
+        assertEquals(2, users.hits());
+        assertEquals(1.0, users.hitRatio());
+    }
+
+    private User user(String name) {
+        User user = userRepository.save(TestFixtures.user(name));
+        createdUsers.add(user);
+        return user;
+    }
+}
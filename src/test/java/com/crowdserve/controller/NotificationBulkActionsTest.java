@@ -0,0 +1,195 @@
+package com.crowdserve.controller;
+
+import com.crowdserve.model.Notification;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the bulk notification endpoints.
+ * Checks that marking all, marking a selection and deleting a selection each
+ * report how many rows they changed, leave other users' notifications alone and
+ * keep the unread count right, and that old read notifications can be cleared.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class NotificationBulkActionsTest {
+
+    private static final int NOTIFICATION_COUNT = 120;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private User otherUser;
+    private List<Notification> notifications;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(newUser("bulk"));
+        otherUser = userRepository.save(newUser("bulk-other"));
+        notifications = new ArrayList<>();
+        for (int i = 0; i < NOTIFICATION_COUNT; i++) {
+            notifications.add(notification(user, LocalDateTime.now()));
+        }
+        notificationRepository.saveAll(notifications);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll(notificationRepository.findByUserOrderByCreatedAtDesc(user));
+        notificationRepository.deleteAll(notificationRepository.findByUserOrderByCreatedAtDesc(otherUser));
+        userRepository.delete(user);
+        userRepository.delete(otherUser);
+    }
+
+    /**
+     * Test that mark-all-read marks every unread notification and reports how many.
+     */
+    @Test
+    void testMarkAllRead_MarksEveryUnread() throws Exception {
+        // Arrange: load the count, so the test sees it follow the bulk update
+        assertEquals(NOTIFICATION_COUNT, notificationService.getUnreadCount(user));
+
+        // Act & Assert
+        mockMvc.perform(post("/notifications/mark-all-read").with(user(user.getEmail())).with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.marked").value(NOTIFICATION_COUNT));
+        assertEquals(0, notificationRepository.countByUser_IdAndIsReadFalse(user.getId()));
+        assertEquals(0, notificationService.getUnreadCount(user));
+    }
+
+    /**
+     * Test that a selection is marked read in one call, skipping another user's notification.
+     */
+    @Test
+    void testMarkReadSelection_OnlyOwnNotifications() throws Exception {
+        // Arrange
+        assertEquals(NOTIFICATION_COUNT, notificationService.getUnreadCount(user));
+        Notification foreign = notificationRepository.save(notification(otherUser, LocalDateTime.now()));
+        String body = idsJson(notifications.get(0).getId(), notifications.get(1).getId(), foreign.getId());
+
+        // Act & Assert
+        mockMvc.perform(post("/notifications/mark-read").with(user(user.getEmail())).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.marked").value(2));
+        assertEquals(NOTIFICATION_COUNT - 2, notificationService.getUnreadCount(user));
+        assertFalse(notificationRepository.findById(foreign.getId()).orElseThrow().isRead());
+    }
+
+    /**
+     * Test that a selection is deleted in one call and the unread count drops by the unread ones among it.
+     */
+    @Test
+    void testDeleteSelection_AdjustsUnreadCount() throws Exception {
+        // Arrange: one of the two selected notifications is already read
+        assertEquals(NOTIFICATION_COUNT, notificationService.getUnreadCount(user));
+        notificationService.markAsRead(notifications.get(0).getId());
+        String body = idsJson(notifications.get(0).getId(), notifications.get(1).getId());
+
+        // Act & Assert
+        mockMvc.perform(post("/notifications/delete").with(user(user.getEmail())).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deleted").value(2));
+        assertEquals(NOTIFICATION_COUNT - 2, notificationRepository.findByUserOrderByCreatedAtDesc(user).size());
+        assertEquals(NOTIFICATION_COUNT - 2, notificationService.getUnreadCount(user));
+    }
+
+    /**
+     * Test that only read notifications older than the given age are cleared.
+     */
+    @Test
+    void testDeleteRead_OnlyOldReadNotifications() throws Exception {
+        // Arrange: one old read notification, one recent read one, and the unread ones
+        Notification old = notification(user, LocalDateTime.now().minusDays(40));
+        old.setRead(true);
+        Notification recent = notification(user, LocalDateTime.now());
+        recent.setRead(true);
+        notificationRepository.saveAll(List.of(old, recent));
+
+        // Act & Assert
+        mockMvc.perform(post("/notifications/delete-read").param("olderThanDays", "30")
+                .with(user(user.getEmail())).with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deleted").value(1));
+        assertTrue(notificationRepository.findById(old.getId()).isEmpty());
+        assertTrue(notificationRepository.findById(recent.getId()).isPresent());
+    }
+
+    /**
+     * Test that a selection larger than one call may carry is refused.
+     */
+    @Test
+    void testDeleteSelection_TooManyIdsRejected() throws Exception {
+        // Arrange
+        Long[] ids = new Long[1001];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (long) i;
+        }
+
+        // Act & Assert
+        mockMvc.perform(post("/notifications/delete").with(user(user.getEmail())).with(csrf())
+                .contentType(MediaType.APPLICATION_JSON).content(idsJson(ids)))
+            .andExpect(status().isBadRequest());
+    }
+
+    private static String idsJson(Long... ids) {
+        StringBuilder json = new StringBuilder("{\"ids\":[");
+        for (int i = 0; i < ids.length; i++) {
+            json.append(i > 0 ? "," : "").append(ids[i]);
+        }
+        return json.append("]}").toString();
+    }
+
+    private static User newUser(String prefix) {
+        // A new name per test: the logged-in user lookup is cached by name
+        String email = prefix + "-" + UUID.randomUUID() + "@example.com";
+        User user = new User();
+        user.setUsername(email);
+        user.setFullName("Bulk User");
+        user.setEmail(email);
+        user.setPassword("{noop}password123");
+        return user;
+    }
+
+    private static Notification notification(User owner, LocalDateTime createdAt) {
+        Notification notification = new Notification();
+        notification.setUser(owner);
+        notification.setTitle("Bulk");
+        notification.setMessage("One of many");
+        notification.setCreatedAt(createdAt);
+        notification.setRead(false);
+        return notification;
+    }
+}
@@ -0,0 +1,153 @@
+package com.crowdserve.controller;
+
+import com.crowdserve.dto.NotificationItemDto;
+import com.crowdserve.dto.NotificationPageDto;
+import com.crowdserve.model.Notification;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the paginated notification inbox.
+ * Checks that paging by cursor returns every notification exactly once, newest
+ * first, even when many share a timestamp; that the page renders only the first
+ * page of each list; and that the page endpoint serves the rest as JSON.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class NotificationInboxTest {
+
+    // Two full pages and a partial one
+    private static final int NOTIFICATION_COUNT = 2 * NotificationController.INBOX_PAGE_SIZE + 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // A new name per test: the logged-in user lookup is cached by name
+        String email = "inbox-" + UUID.randomUUID() + "@example.com";
+        user = new User();
+        user.setUsername(email);
+        user.setFullName("Inbox User");
+        user.setEmail(email);
+        user.setPassword("{noop}password123");
+        user = userRepository.save(user);
+
+        // Groups of five share a timestamp, so the cursor has to break ties by id
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < NOTIFICATION_COUNT; i++) {
+            Notification notification = new Notification();
+            notification.setUser(user);
+            notification.setTitle("Inbox " + i);
+            notification.setMessage("Page me");
+            notification.setCreatedAt(now.minusMinutes(i / 5));
+            notification.setRead(false);
+            notifications.add(notification);
+        }
+        notificationRepository.saveAll(notifications);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll(notificationRepository.findByUserOrderByCreatedAtDesc(user));
+        userRepository.delete(user);
+    }
+
+    /**
+     * Test that following the cursor visits every notification once, newest first.
+     */
+    @Test
+    void testPaging_VisitsEveryNotificationOnceInOrder() {
+        // Act
+        List<NotificationItemDto> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            NotificationPageDto page = notificationService.getInboxPage(user, false, cursor,
+                NotificationController.INBOX_PAGE_SIZE);
+            seen.addAll(page.notifications());
+            pageSizes.add(page.notifications().size());
+            cursor = page.nextCursor();
+            assertEquals(cursor != null, page.hasMore());
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(List.of(20, 20, 5), pageSizes);
+        Set<Long> ids = new HashSet<>();
+        seen.forEach(item -> assertTrue(ids.add(item.id()), "Notification " + item.id() + " repeated"));
+        for (int i = 1; i < seen.size(); i++) {
+            NotificationItemDto previous = seen.get(i - 1);
+            NotificationItemDto current = seen.get(i);
+            assertTrue(previous.createdAt().isAfter(current.createdAt())
+                || (previous.createdAt().equals(current.createdAt()) && previous.id() > current.id()),
+                "Notifications should be newest first, ties by id");
+        }
+        assertTrue(notificationService.getInboxPage(user, true, null, 20).notifications().isEmpty(),
+            "There are no read notifications");
+    }
+
+    /**
+     * Test that the page renders the first page and the endpoint serves the next one.
+     */
+    @Test
+    void testInboxPage_RendersFirstPageAndServesRest() throws Exception {
+        // Act & Assert: the page holds one page of unread notifications and a cursor
+        mockMvc.perform(get("/notifications").with(user(user.getEmail())))
+            .andExpect(status().isOk())
+            .andExpect(model().attribute("unreadNotifications", hasSize(NotificationController.INBOX_PAGE_SIZE)))
+            .andExpect(model().attribute("unreadCount", (long) NOTIFICATION_COUNT));
+
+        // The second page starts with the fifth timestamp group (notifications 20 to 24), highest id first
+        String cursor = notificationService.getInboxPage(user, false, null, NotificationController.INBOX_PAGE_SIZE)
+            .nextCursor();
+        mockMvc.perform(get("/notifications/page").param("cursor", cursor).with(user(user.getEmail())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.notifications", hasSize(NotificationController.INBOX_PAGE_SIZE)))
+            .andExpect(jsonPath("$.notifications[0].title").value("Inbox 24"))
+            .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    /**
+     * Test that a malformed cursor is rejected.
+     */
+    @Test
+    void testInboxPage_BadCursorRejected() throws Exception {
+        mockMvc.perform(get("/notifications/page").param("cursor", "yesterday").with(user(user.getEmail())))
+            .andExpect(status().isBadRequest());
+    }
+}
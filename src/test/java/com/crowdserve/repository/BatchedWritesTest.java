@@ -0,0 +1,228 @@
+package com.crowdserve.repository;
+
+import com.crowdserve.config.IdSequenceAligner;
+import com.crowdserve.model.Notification;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.crowdserve.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that writes of many entities reach the database as JDBC batches.
+ * Counts the write round trips on the JDBC connection: with pooled sequence ids
+ * each batch of up to 50 inserts or updates is one round trip, where IDENTITY ids
+ * needed one per row.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BatchedWritesTest {
+
+    private static final int TASK_COUNT = 120;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        WriteCounter.WRITES.set(0);
+    }
+
+    /**
+     * Test that inserting a user, 120 tasks and a notification per task is sent as a handful of batches.
+     */
+    @Test
+    void testInsertMultipleEntities_IsBatched() {
+        // Act
+        User poster = userRepository.save(user("batch-poster"));
+        List<Task> tasks = taskRepository.saveAll(tasks(poster));
+        notificationRepository.saveAll(notifications(poster, tasks));
+        entityManager.flush();
+
+        // Assert: the user, then ceil(120 / 50) = 3 batches each for tasks and notifications
+        assertEquals(1 + 2 * TASK_COUNT, statistics.getEntityInsertCount());
+        assertEquals(1 + 3 + 3, WriteCounter.WRITES.get(),
+            "Inserts should be grouped by entity and sent in batches of at most 50");
+    }
+
+    /**
+     * Test that updating many tasks in one flush is sent as batches.
+     */
+    @Test
+    void testUpdateManyTasks_IsBatched() {
+        // Arrange
+        User poster = userRepository.save(user("batch-updater"));
+        List<Task> tasks = taskRepository.saveAll(tasks(poster));
+        entityManager.flush();
+        statistics.clear();
+        WriteCounter.WRITES.set(0);
+
+        // Act
+        tasks.forEach(task -> task.setStatus(TaskStatus.CANCELLED));
+        entityManager.flush();
+
+        // Assert
+        assertEquals(TASK_COUNT, statistics.getEntityUpdateCount());
+        assertEquals(3, WriteCounter.WRITES.get(), "120 updates should go out as 3 batches of at most 50");
+    }
+
+    /**
+     * Test that a sequence lagging behind ids written while ids were IDENTITY columns is moved past them.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testIdSequenceAligner_MovesSequencePastExistingIds() {
+        User poster = userRepository.save(user("batch-legacy"));
+        try {
+            // Arrange: a row with an id far ahead of the sequence, as an IDENTITY column would have left it
+            jdbcTemplate.update("insert into tasks (id, title, location, reward, status, poster_id) "
+                + "values (5000, 'Legacy', 'Old town', 1.0, 'OPEN', ?)", poster.getId());
+
+            // Act
+            new IdSequenceAligner(entityManagerFactory, jdbcTemplate).alignAll();
+
+            // Assert: the next block Hibernate takes, (value - 50, value], lies above the existing id
+            long value = jdbcTemplate.queryForObject("select next value for tasks_seq", Long.class);
+            assertTrue(value - 50 >= 5000, "Next id block must start after existing ids, sequence at " + value);
+
+            // Act & Assert: aligning again leaves a sequence that is already ahead alone
+            new IdSequenceAligner(entityManagerFactory, jdbcTemplate).alignAll();
+            long next = jdbcTemplate.queryForObject("select next value for tasks_seq", Long.class);
+            assertTrue(next < value + 3 * 50, "An aligned sequence should not be restarted again");
+        } finally {
+            jdbcTemplate.update("delete from tasks where poster_id = ?", poster.getId());
+            userRepository.delete(poster);
+        }
+    }
+
+    private static List<Task> tasks(User poster) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            Task task = new Task();
+            task.setTitle("Batch task " + i);
+            task.setLocation("Anywhere");
+            task.setReward(10.0);
+            task.setStatus(TaskStatus.OPEN);
+            task.setPoster(poster);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static List<Notification> notifications(User user, List<Task> tasks) {
+        List<Notification> notifications = new ArrayList<>();
+        for (Task task : tasks) {
+            Notification notification = new Notification();
+            notification.setUser(user);
+            notification.setTitle("Task Created");
+            notification.setMessage("Posted " + task.getTitle());
+            notification.setCreatedAt(LocalDateTime.now());
+            notification.setRelatedTask(task);
+            notifications.add(notification);
+        }
+        return notifications;
+    }
+
+    /**
+     * Wraps the test DataSource so every statement execution that writes is counted.
+     * A JDBC batch counts once however many rows it carries.
+     */
+    @TestConfiguration
+    static class WriteCounter {
+
+        static final AtomicInteger WRITES = new AtomicInteger();
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return counting(super.getConnection());
+                        }
+                    };
+                }
+            };
+        }
+
+        private static Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(BatchedWritesTest.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement statement) {
+                        return counting(statement);
+                    }
+                    return result;
+                });
+        }
+
+        private static PreparedStatement counting(PreparedStatement statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(BatchedWritesTest.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("executeBatch") || method.getName().equals("executeUpdate")
+                            || method.getName().equals("executeLargeUpdate")) {
+                        WRITES.incrementAndGet();
+                    }
+                    return invoke(statement, method, args);
+                });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.crowdserve.repository;
+
+import com.crowdserve.dto.MyTaskDto;
+import com.crowdserve.dto.MyTaskStatusCountDto;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+import com.crowdserve.service.strategy.LocationTaskFilter;
+import com.crowdserve.service.strategy.RewardRangeTaskFilter;
+import com.crowdserve.service.strategy.StatusTaskFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.crowdserve.TestFixtures.task;
+import static com.crowdserve.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the per-user task queries mixed into TaskRepository against an in-memory database.
+ * Checks that one query returns a page of both posted and assigned tasks with the
+ * filters applied, that the keyset cursor walks through them without gaps, and that
+ * the status counts split each status by role.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserTaskQueriesTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.save(user("alice"));
+        bob = userRepository.save(user("bob"));
+        User carol = userRepository.save(user("carol"));
+
+        taskRepository.save(task("Fix tap", "Model Town", 20.0, TaskStatus.OPEN, alice, null));
+        taskRepository.save(task("Paint fence", "Gulberg III", 50.0, TaskStatus.ASSIGNED, alice, bob));
+        taskRepository.save(task("Walk dog", "Gulberg II", 10.0, TaskStatus.COMPLETED, bob, alice));
+        taskRepository.save(task("Move boxes", "DHA", 80.0, TaskStatus.OPEN, bob, null));
+        taskRepository.save(task("Clean car", "Johar Town", 35.0, TaskStatus.ASSIGNED, carol, alice));
+        taskRepository.save(task("Water plants", "Cantt", 15.0, TaskStatus.CANCELLED, alice, null));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Test that a page holds the tasks the user posted and the tasks they work on, newest first,
+     * with the names of the other party, read in a single statement.
+     */
+    @Test
+    void testFindUserTasks_BothRolesInOneQuery() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        List<MyTaskDto> tasks = taskRepository.findUserTasks(alice, null, null, 10);
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount(), "Both roles should come from one query");
+        assertEquals(0, statistics.getEntityLoadCount(), "Rows should be projections, not entities");
+        assertEquals(List.of("Water plants", "Clean car", "Walk dog", "Paint fence", "Fix tap"), titles(tasks));
+
+        MyTaskDto cleanCar = tasks.get(1);
+        assertFalse(cleanCar.isPostedBy(alice.getId()));
+        assertEquals("carol", cleanCar.posterName());
+        assertEquals("alice", cleanCar.workerName());
+        assertTrue(tasks.get(3).isPostedBy(alice.getId()));
+        assertEquals("bob", tasks.get(3).workerName());
+        assertNull(tasks.get(4).workerName(), "An open task has no worker yet");
+    }
+
+    /**
+     * Test that status and other filters are applied in the query.
+     */
+    @Test
+    void testFindUserTasks_AppliesFilters() {
+        assertEquals(List.of("Clean car", "Paint fence"),
+            titles(taskRepository.findUserTasks(alice, new StatusTaskFilter(TaskStatus.ASSIGNED).toSpecification(), null, 10)));
+        assertEquals(List.of("Walk dog", "Paint fence"),
+            titles(taskRepository.findUserTasks(alice, new LocationTaskFilter("gulberg").toSpecification(), null, 10)));
+        assertEquals(List.of("Clean car", "Fix tap"),
+            titles(taskRepository.findUserTasks(alice, new RewardRangeTaskFilter(20.0, 40.0).toSpecification(), null, 10)));
+    }
+
+    /**
+     * Test that following the cursor visits every task exactly once.
+     */
+    @Test
+    void testFindUserTasks_KeysetPagesCoverEveryTask() {
+        List<MyTaskDto> seen = new ArrayList<>();
+        Long before = null;
+        List<MyTaskDto> page;
+        do {
+            page = taskRepository.findUserTasks(alice, null, before, 2);
+            assertTrue(page.size() <= 2);
+            seen.addAll(page);
+            before = page.isEmpty() ? null : page.get(page.size() - 1).id();
+        } while (page.size() == 2);
+
+        assertEquals(titles(taskRepository.findUserTasks(alice, null, null, 100)), titles(seen));
+    }
+
+    /**
+     * Test that the counts are grouped by status and split into posted and assigned.
+     */
+    @Test
+    void testCountUserTasksByStatus_SplitsByRole() {
+        // Act
+        List<MyTaskStatusCountDto> counts = new ArrayList<>(taskRepository.countUserTasksByStatus(alice, null));
+        counts.sort(Comparator.comparing(MyTaskStatusCountDto::status));
+
+        // Assert
+        assertEquals(List.of(
+            new MyTaskStatusCountDto(TaskStatus.OPEN, 1, 0),
+            new MyTaskStatusCountDto(TaskStatus.ASSIGNED, 1, 1),
+            new MyTaskStatusCountDto(TaskStatus.COMPLETED, 0, 1),
+            new MyTaskStatusCountDto(TaskStatus.CANCELLED, 1, 0)
+        ), counts);
+
+        assertEquals(List.of(new MyTaskStatusCountDto(TaskStatus.OPEN, 1, 0)),
+            taskRepository.countUserTasksByStatus(bob, new RewardRangeTaskFilter(60.0, null).toSpecification()),
+            "Only bob's 80.0 task is in the reward range");
+    }
+
+    private static List<String> titles(List<MyTaskDto> tasks) {
+        return tasks.stream().map(MyTaskDto::title).toList();
+    }
+}
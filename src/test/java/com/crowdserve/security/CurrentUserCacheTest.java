@@ -0,0 +1,127 @@
+package com.crowdserve.security;
+
+import com.crowdserve.model.User;
+import com.crowdserve.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CurrentUserCache and CurrentUserArgumentResolver.
+ * Checks that a logged-in user is read from the database once, that a profile
+ * change drops the cached copy, and that one request resolves the user once.
+ */
+@ExtendWith(MockitoExtension.class)
+class CurrentUserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CurrentUserCache currentUserCache;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        currentUserCache = new CurrentUserCache(userRepository, Duration.ofMinutes(5), 100);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("john");
+        testUser.setEmail("john.doe@example.com");
+    }
+
+    /**
+     * Test that repeated lookups by the same principal name hit the database once.
+     */
+    @Test
+    void testGet_SecondLookupServedFromCache() {
+        // Arrange
+        when(userRepository.findByUsernameOrEmail("john")).thenReturn(Optional.of(testUser));
+
+        // Act
+        User first = currentUserCache.get("john");
+        User second = currentUserCache.get("john");
+
+        // Assert
+        assertSame(testUser, first);
+        assertSame(testUser, second);
+        verify(userRepository, times(1)).findByUsernameOrEmail("john");
+    }
+
+    /**
+     * Test that unknown names are not cached, so a user registered later is found.
+     */
+    @Test
+    void testGet_MissIsNotCached() {
+        // Arrange
+        when(userRepository.findByUsernameOrEmail("john")).thenReturn(Optional.empty(), Optional.of(testUser));
+
+        // Act & Assert
+        assertNull(currentUserCache.get("john"));
+        assertSame(testUser, currentUserCache.get("john"));
+    }
+
+    /**
+     * Test that evicting a user drops the entries under both their username and email.
+     */
+    @Test
+    void testEvict_ReloadsUnderBothNames() {
+        // Arrange
+        when(userRepository.findByUsernameOrEmail("john")).thenReturn(Optional.of(testUser));
+        when(userRepository.findByUsernameOrEmail("john.doe@example.com")).thenReturn(Optional.of(testUser));
+        currentUserCache.get("john");
+        currentUserCache.get("john.doe@example.com");
+
+        // Act
+        currentUserCache.evict(testUser);
+        currentUserCache.get("john");
+        currentUserCache.get("john.doe@example.com");
+
+        // Assert
+        verify(userRepository, times(2)).findByUsernameOrEmail("john");
+        verify(userRepository, times(2)).findByUsernameOrEmail("john.doe@example.com");
+    }
+
+    /**
+     * Test that the resolver resolves the user once per request and returns null without a login.
+     */
+    @Test
+    void testResolver_MemoizesUserPerRequest() throws Exception {
+        // Arrange
+        CurrentUserCache cache = mock(CurrentUserCache.class);
+        when(cache.get("john")).thenReturn(testUser);
+        CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver(cache);
+        MethodParameter parameter = new MethodParameter(
+            CurrentUserCacheTest.class.getDeclaredMethod("handler", User.class, User.class), 0);
+        MethodParameter plain = new MethodParameter(
+            CurrentUserCacheTest.class.getDeclaredMethod("handler", User.class, User.class), 1);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setUserPrincipal(() -> "john");
+        ServletWebRequest webRequest = new ServletWebRequest(request);
+
+        // Act & Assert
+        assertTrue(resolver.supportsParameter(parameter));
+        assertFalse(resolver.supportsParameter(plain), "Only @CurrentUser parameters are resolved");
+        assertSame(testUser, resolver.resolveArgument(parameter, null, webRequest, null));
+        assertSame(testUser, resolver.resolveArgument(parameter, null, webRequest, null));
+        verify(cache, times(1)).get("john");
+
+        assertNull(resolver.resolveArgument(parameter, null, new ServletWebRequest(new MockHttpServletRequest()), null));
+    }
+
+    @SuppressWarnings("unused")
+    private void handler(@CurrentUser User currentUser, User other) {
+    }
+}
@@ -0,0 +1,231 @@
+package com.crowdserve.security;
+
+import com.crowdserve.model.User;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.cache.NullUserCache;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the cached login path against an in-memory database.
+ * Checks that a repeated login skips the user query, that the cached hash survives
+ * the credential erasure done after each login, that wrong and outdated passwords
+ * are still refused, that outdated hashes are replaced on login, and that the
+ * combined username-or-email lookup is one query.
+ * Run with -Dbenchmarks=true to also measure concurrent login throughput.
+ */
+@SpringBootTest
+class LoginUserCacheTest {
+
+    @Autowired
+    private DaoAuthenticationProvider authenticationProvider;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<User> createdUsers = new ArrayList<>();
+    private AuthenticationManager authenticationManager;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // ProviderManager erases the returned credentials, as the login form's manager does
+        authenticationManager = new ProviderManager(authenticationProvider);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll(createdUsers);
+        createdUsers.clear();
+    }
+
+    /**
+     * Test that a second login with the same name runs no SQL and still checks the password.
+     */
+    @Test
+    void testRepeatedLogin_ServedFromCache() {
+        // Arrange
+        user("login-repeat@example.com", "secret");
+        login("login-repeat@example.com", "secret");
+        statistics.clear();
+
+        // Act
+        Authentication second = login("login-repeat@example.com", "secret");
+
+        // Assert
+        assertTrue(second.isAuthenticated());
+        assertEquals(0, statistics.getPrepareStatementCount(), "The user should come from the login cache");
+        assertThrows(BadCredentialsException.class, () -> login("login-repeat@example.com", "wrong"));
+    }
+
+    /**
+     * Test that a changed password is accepted at once and the old one is refused after eviction.
+     */
+    @Test
+    void testPasswordChange_OldPasswordRefused() {
+        // Arrange: cache the user with the old password
+        User user = user("login-change@example.com", "old-secret");
+        login("login-change@example.com", "old-secret");
+
+        // Act: change the password behind the cache, then save the user through the service
+        user.setPassword(passwordEncoder.encode("new-secret"));
+        userRepository.save(user);
+        assertTrue(login("login-change@example.com", "new-secret").isAuthenticated(),
+            "A password that does not match the cached hash should trigger a reload");
+        userService.updateProfile(user);
+
+        // Assert
+        assertThrows(BadCredentialsException.class, () -> login("login-change@example.com", "old-secret"));
+    }
+
+    /**
+     * Test that a hash stored before the {bcrypt} prefix still logs in and is rehashed on that login.
+     */
+    @Test
+    void testLegacyHash_RehashedOnLogin() {
+        // Arrange: a plain BCrypt hash as registration used to store it
+        User user = user("login-legacy@example.com", "secret");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret"));
+        userRepository.save(user);
+        assertTrue(passwordEncoder.upgradeEncoding(user.getPassword()));
+
+        // Act
+        login("login-legacy@example.com", "secret");
+
+        // Assert
+        String stored = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertTrue(stored.startsWith("{bcrypt}"), "Password should be rehashed with the current encoder");
+        assertFalse(passwordEncoder.upgradeEncoding(stored));
+        assertTrue(login("login-legacy@example.com", "secret").isAuthenticated(), "The new hash must still log in");
+    }
+
+    /**
+     * Test that the combined lookup finds users by username or email in one statement,
+     * preferring a username match.
+     */
+    @Test
+    void testFindByUsernameOrEmail_OneQueryUsernameFirst() {
+        // Arrange: one user's username is another user's email
+        User byEmail = user("login-shared@example.com", "secret");
+        User byUsername = user("login-other@example.com", "secret");
+        byEmail.setUsername("login-shared");
+        userRepository.save(byEmail);
+        byUsername.setUsername("login-shared@example.com");
+        userRepository.save(byUsername);
+        statistics.clear();
+
+        // Act & Assert
+        assertEquals(byUsername.getId(), userRepository.findByUsernameOrEmail("login-shared@example.com").orElseThrow().getId());
+        assertEquals(byEmail.getId(), userRepository.findByUsernameOrEmail("login-shared").orElseThrow().getId());
+        assertEquals(2, statistics.getPrepareStatementCount(), "Each lookup should be a single query");
+        assertTrue(userRepository.findByUsernameOrEmail("nobody").isEmpty());
+    }
+
+    /**
+     * Benchmark: 8 threads logging in 50 users over and over, with and without the login cache.
+     * Reports logins per second and the 99th percentile latency.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkConcurrentLogins() throws Exception {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            names.add("login-bench-" + i + "@example.com");
+            user(names.get(i), "secret");
+        }
+
+        DaoAuthenticationProvider uncached = new DaoAuthenticationProvider(passwordEncoder);
+        uncached.setUserDetailsService(userDetailsService);
+        uncached.setUserCache(new NullUserCache());
+
+        runLogins("without cache", new ProviderManager(uncached), names);
+        runLogins("with cache", authenticationManager, names);
+    }
+
+    private void runLogins(String label, AuthenticationManager manager, List<String> names) throws Exception {
+        int threads = 8;
+        int perThread = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        String name = names.get((offset * perThread + i) % names.size());
+                        long begin = System.nanoTime();
+                        manager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(name, "secret"));
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[threads * perThread];
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy(futures.get(t).get(), 0, all, t * perThread, perThread);
+            }
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(all);
+            System.out.printf("Logins %s: %d in %d ms (%.1f/s), p99 %.1f ms%n", label, all.length, elapsed / 1_000_000,
+                all.length * 1e9 / elapsed, all[(int) (all.length * 0.99) - 1] / 1e6);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Authentication login(String name, String password) {
+        return authenticationManager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(name, password));
+    }
+
+    private User user(String email, String password) {
+        User user = new User();
+        user.setUsername(email);
+        user.setFullName(email);
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(password));
+        user = userRepository.save(user);
+        createdUsers.add(user);
+        return user;
+    }
+}
@@ -0,0 +1,120 @@
+package com.crowdserve.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OffloadingPasswordEncoder and BCrypt work factor calibration.
+ * Checks that hashing runs on the executor and is timed, that a saturated or slow
+ * executor refuses work instead of queueing it without bound, and that calibration
+ * stays within its bounds.
+ */
+class OffloadingPasswordEncoderTest {
+
+    private ThreadPoolExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        // One thread and room for one waiting request
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+            runnable -> new Thread(runnable, "hashing-test"));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Test that encode and matches run on the executor thread and are recorded per operation.
+     */
+    @Test
+    void testEncodeAndMatches_RunOnExecutorAndAreTimed() {
+        // Arrange
+        String[] threads = new String[1];
+        PasswordEncoder recording = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                threads[0] = Thread.currentThread().getName();
+                return super.encode(rawPassword);
+            }
+        };
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(recording, executor, Duration.ofSeconds(5), meterRegistry);
+
+        // Act
+        String hash = encoder.encode("secret");
+
+        // Assert
+        assertEquals("hashing-test", threads[0]);
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get("crowdserve.password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("crowdserve.password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    /**
+     * Test that a request is refused at once when the thread is busy and the queue is full.
+     */
+    @Test
+    void testEncode_RefusedWhenSaturated() throws Exception {
+        // Arrange: occupy the thread and the single queue slot
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+        executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(
+            new BCryptPasswordEncoder(4), executor, Duration.ofSeconds(5), meterRegistry);
+
+        // Act & Assert
+        try {
+            assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("secret"));
+            assertEquals(1.0, meterRegistry.get("crowdserve.password.rejected").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * Test that a request which waits past the timeout gives up and is counted as refused.
+     */
+    @Test
+    void testEncode_TimesOut() {
+        // Arrange: the thread stays busy longer than the timeout
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(
+            new BCryptPasswordEncoder(4), executor, Duration.ofMillis(50), meterRegistry);
+
+        // Act & Assert
+        try {
+            assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("secret"));
+            assertEquals(1.0, meterRegistry.get("crowdserve.password.rejected").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * Test that calibration respects its bounds and rejects impossible ones.
+     */
+    @Test
+    void testCalibrate_StaysWithinBounds() {
+        assertEquals(4, BCryptWorkFactor.calibrate(Duration.ZERO, 4, 8), "No time to spare keeps the lowest factor");
+        assertEquals(5, BCryptWorkFactor.calibrate(Duration.ofHours(1), 4, 5), "A generous target stops at the highest factor");
+        assertThrows(IllegalArgumentException.class, () -> BCryptWorkFactor.calibrate(Duration.ZERO, 3, 8));
+        assertThrows(IllegalArgumentException.class, () -> BCryptWorkFactor.calibrate(Duration.ZERO, 9, 8));
+    }
+}
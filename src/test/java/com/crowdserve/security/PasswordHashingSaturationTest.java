@@ -0,0 +1,113 @@
+package com.crowdserve.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests password hashing under load through a real server with few request threads.
+ * Checks that while the hashing executor is saturated, a burst of logins holds at
+ * most queue-capacity request threads, the rest are refused at once, and page
+ * views keep being served.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "server.tomcat.threads.max=6",
+    "crowdserve.password.threads=1",
+    "crowdserve.password.queue-capacity=2",
+    "crowdserve.password.timeout=10s"
+})
+class PasswordHashingSaturationTest {
+
+    private static final int LOGINS = 12;
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ThreadPoolExecutor passwordHashingExecutor;
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    /**
+     * Test that page views are served while the hashing executor is saturated by a burst of logins.
+     */
+    @Test
+    void testLoginBurst_DoesNotStarvePageViews() throws Exception {
+        // Arrange: a login form to post to, and the only hashing thread held busy
+        HttpResponse<String> loginPage = client.send(get("/login"), HttpResponse.BodyHandlers.ofString());
+        Matcher csrf = CSRF.matcher(loginPage.body());
+        assertTrue(csrf.find(), "The login form carries a CSRF token");
+        String session = loginPage.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+        String form = "username=" + URLEncoder.encode("burst@example.com", StandardCharsets.UTF_8)
+            + "&password=wrong&_csrf=" + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8);
+        CountDownLatch release = new CountDownLatch(1);
+        passwordHashingExecutor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        try {
+            // Act: more logins than there are request threads
+            List<CompletableFuture<HttpResponse<Void>>> logins = new ArrayList<>();
+            for (int i = 0; i < LOGINS; i++) {
+                HttpRequest login = HttpRequest.newBuilder(uri("/login"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .header("Cookie", session)
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+                logins.add(client.sendAsync(login, HttpResponse.BodyHandlers.discarding()));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (logins.stream().filter(CompletableFuture::isDone).count() < LOGINS - 2
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            long start = System.nanoTime();
+            HttpResponse<String> pageView = client.send(get("/login"), HttpResponse.BodyHandlers.ofString());
+            long pageViewMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // Assert
+            assertEquals(LOGINS - 2, logins.stream().filter(CompletableFuture::isDone).count(),
+                "Only the logins that fit in the queue wait; the others are refused at once");
+            assertEquals(2, passwordHashingExecutor.getQueue().size(), "The hashing executor is still saturated");
+            assertEquals(200, pageView.statusCode());
+            assertTrue(pageViewMillis < 2000, "A page view took " + pageViewMillis + " ms");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(5)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
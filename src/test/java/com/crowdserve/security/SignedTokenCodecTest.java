@@ -0,0 +1,159 @@
+package com.crowdserve.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SignedTokenCodec.
+ * Checks that issued tokens verify, that tampered, expired and unknown-key tokens
+ * do not, that renewal is due at half the lifetime or after a key rotation, and
+ * that renewals never carry a login past the maximum session age.
+ */
+class SignedTokenCodecTest {
+
+    private static final String KEY_1 = key('1');
+    private static final String KEY_2 = key('2');
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+    private static final Duration MAX_SESSION_AGE = Duration.ofHours(2);
+    private static final String CREDENTIAL = SignedTokenCodec.credentialVersion("$2a$10$hash");
+
+    /**
+     * Test that a token verifies and carries the username, including dots and non-ASCII characters.
+     */
+    @Test
+    void testIssueAndVerify_RoundTrip() {
+        SignedTokenCodec codec = codec(Map.of("k1", KEY_1), "k1", NOW);
+
+        SignedTokenCodec.SessionToken token = codec.verify(codec.issue("zoë.khan@example.com", CREDENTIAL));
+
+        assertNotNull(token);
+        assertEquals("zoë.khan@example.com", token.username());
+        assertEquals("k1", token.keyId());
+        assertEquals(CREDENTIAL, token.credentialVersion());
+        assertEquals(NOW, token.authenticatedAt());
+        assertEquals(NOW.plus(Duration.ofMinutes(30)), token.expiresAt());
+    }
+
+    /**
+     * Test that changing any part of a token, or a garbled token, fails verification.
+     */
+    @Test
+    void testVerify_RejectsTamperedTokens() {
+        SignedTokenCodec codec = codec(Map.of("k1", KEY_1), "k1", NOW);
+        String token = codec.issue("alice@example.com", CREDENTIAL);
+        String[] parts = token.split("\\.");
+
+        String otherUser = token.replace(parts[2], Base64.getUrlEncoder().withoutPadding().encodeToString("bob@example.com".getBytes()));
+        String otherCredential = token.replace(parts[3], SignedTokenCodec.credentialVersion("$2a$10$other"));
+        String laterLogin = token.replace("." + parts[4] + ".", "." + (Long.parseLong(parts[4]) + 3600) + ".");
+        String longerLife = token.replace("." + parts[6] + ".", "." + (Long.parseLong(parts[6]) + 3600) + ".");
+
+        assertNull(codec.verify(otherUser));
+        assertNull(codec.verify(otherCredential));
+        assertNull(codec.verify(laterLogin));
+        assertNull(codec.verify(longerLife));
+        assertNull(codec.verify(token.substring(0, token.length() - 2)));
+        assertNull(codec.verify("not-a-token"));
+        assertNull(codec.verify("v2.k1.!!.c.1.2.3.??"));
+    }
+
+    /**
+     * Test that an expired token is rejected.
+     */
+    @Test
+    void testVerify_RejectsExpiredToken() {
+        String token = codec(Map.of("k1", KEY_1), "k1", NOW).issue("alice@example.com", CREDENTIAL);
+
+        assertNotNull(codec(Map.of("k1", KEY_1), "k1", NOW.plus(Duration.ofMinutes(29))).verify(token));
+        assertNull(codec(Map.of("k1", KEY_1), "k1", NOW.plus(Duration.ofMinutes(30))).verify(token));
+    }
+
+    /**
+     * Test key rotation: old tokens verify while their key is configured and are due for renewal,
+     * and are rejected once the key is removed.
+     */
+    @Test
+    void testKeyRotation() {
+        String oldToken = codec(Map.of("k1", KEY_1), "k1", NOW).issue("alice@example.com", CREDENTIAL);
+        SignedTokenCodec rotated = codec(Map.of("k1", KEY_1, "k2", KEY_2), "k2", NOW);
+
+        SignedTokenCodec.SessionToken verified = rotated.verify(oldToken);
+        assertNotNull(verified);
+        assertTrue(rotated.needsRenewal(verified), "A token signed with a retired key should be renewed");
+        assertEquals("k2", rotated.verify(rotated.renew(verified)).keyId());
+
+        assertNull(codec(Map.of("k2", KEY_2), "k2", NOW).verify(oldToken));
+    }
+
+    /**
+     * Test that renewal is due once half the lifetime has passed.
+     */
+    @Test
+    void testNeedsRenewal_AfterHalfLifetime() {
+        String token = codec(Map.of("k1", KEY_1), "k1", NOW).issue("alice@example.com", CREDENTIAL);
+
+        SignedTokenCodec early = codec(Map.of("k1", KEY_1), "k1", NOW.plus(Duration.ofMinutes(14)));
+        SignedTokenCodec late = codec(Map.of("k1", KEY_1), "k1", NOW.plus(Duration.ofMinutes(15)));
+        assertFalse(early.needsRenewal(early.verify(token)));
+        assertTrue(late.needsRenewal(late.verify(token)));
+    }
+
+    /**
+     * Test that renewed tokens keep the login time and stop at the maximum session age:
+     * no renewal is due once a token runs to it, and nothing verifies past it.
+     */
+    @Test
+    void testRenew_StopsAtMaxSessionAge() {
+        String token = codec(Map.of("k1", KEY_1), "k1", NOW).issue("alice@example.com", CREDENTIAL);
+        for (int minutes = 20; minutes <= 100; minutes += 20) {
+            SignedTokenCodec later = codec(Map.of("k1", KEY_1), "k1", NOW.plus(Duration.ofMinutes(minutes)));
+            SignedTokenCodec.SessionToken verified = later.verify(token);
+            assertNotNull(verified, "Renewed token should still verify after " + minutes + " minutes");
+            assertTrue(later.needsRenewal(verified));
+            token = later.renew(verified);
+        }
+
+        SignedTokenCodec nearEnd = codec(Map.of("k1", KEY_1), "k1", NOW.plus(Duration.ofMinutes(115)));
+        SignedTokenCodec.SessionToken last = nearEnd.verify(token);
+        assertEquals(NOW, last.authenticatedAt(), "Renewal must keep the original login time");
+        assertEquals(NOW.plus(MAX_SESSION_AGE), last.expiresAt(), "Renewal must not extend past the maximum session age");
+        assertFalse(nearEnd.needsRenewal(last), "A token that runs to the maximum session age cannot be extended");
+        assertNull(codec(Map.of("k1", KEY_1), "k1", NOW.plus(MAX_SESSION_AGE)).verify(token));
+    }
+
+    /**
+     * Test that the credential version follows the password hash.
+     */
+    @Test
+    void testCredentialVersion_ChangesWithHash() {
+        assertEquals(CREDENTIAL, SignedTokenCodec.credentialVersion("$2a$10$hash"));
+        assertNotEquals(CREDENTIAL, SignedTokenCodec.credentialVersion("$2a$12$hash"));
+        assertFalse(CREDENTIAL.contains("."));
+    }
+
+    /**
+     * Test that missing, short or badly named keys stop startup.
+     */
+    @Test
+    void testConstructor_RejectsBadKeys() {
+        assertThrows(IllegalStateException.class, () -> codec(Map.of("k1", KEY_1), "k2", NOW));
+        assertThrows(IllegalStateException.class, () -> codec(Map.of("k1", Base64.getEncoder().encodeToString(new byte[16])), "k1", NOW));
+        assertThrows(IllegalStateException.class, () -> codec(Map.of("k.1", KEY_1), "k.1", NOW));
+    }
+
+    private static SignedTokenCodec codec(Map<String, String> keys, String activeKey, Instant now) {
+        return new SignedTokenCodec(keys, activeKey, Duration.ofMinutes(30), MAX_SESSION_AGE, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static String key(char fill) {
+        return Base64.getEncoder().encodeToString(String.valueOf(fill).repeat(32).getBytes());
+    }
+}
@@ -0,0 +1,221 @@
+package com.crowdserve.security;
+
+import com.crowdserve.model.User;
+import com.crowdserve.repository.UserRepository;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for stateless token sessions through the full security filter chain.
+ * Checks that a login sets the signed cookie without creating an HTTP session,
+ * that the cookie alone authenticates later requests, that a forged cookie does
+ * not, that logout clears it, that a password change ends it, and that it is not
+ * renewed past the maximum session age.
+ */
+@SpringBootTest(properties = {
+    "crowdserve.security.token-session.enabled=true",
+    "crowdserve.security.token-session.active-key=test",
+    "crowdserve.security.token-session.keys.test=" + TokenSessionIntegrationTest.KEY,
+    "crowdserve.security.token-session.max-session-age=1h"
+})
+@AutoConfigureMockMvc
+class TokenSessionIntegrationTest {
+
+    static final String KEY = "dGVzdC1rZXktdGVzdC1rZXktdGVzdC1rZXktdGVzdC1rZXk=";
+    private static final String COOKIE = "CROWDSERVE_SESSION";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserDetailsPasswordService userDetailsPasswordService;
+
+    @Autowired
+    private LoginUserCache loginUserCache;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("token-user@example.com");
+        user.setFullName("Token User");
+        user.setEmail("token-user@example.com");
+        user.setPassword(passwordEncoder.encode("password123"));
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.delete(user);
+        // The next test saves a user of the same name with a new password hash
+        loginUserCache.removeUserFromCache(user.getUsername());
+    }
+
+    /**
+     * Test that logging in issues the token cookie and no session, and the cookie alone opens protected pages.
+     */
+    @Test
+    void testLogin_IssuesTokenWithoutSession() throws Exception {
+        // Act
+        MvcResult login = mockMvc.perform(post("/login")
+                .with(csrf())
+                .param("username", "token-user@example.com")
+                .param("password", "password123"))
+            .andExpect(status().is3xxRedirection())
+            .andExpect(redirectedUrl("/tasks"))
+            .andReturn();
+
+        // Assert
+        assertNull(login.getRequest().getSession(false), "A token login must not create an HTTP session");
+        Cookie token = tokenCookie(login);
+        assertNotNull(token, "Login should set the token cookie");
+        assertTrue(setCookieHeader(login).contains("HttpOnly"));
+
+        mockMvc.perform(get("/profile").cookie(token))
+            .andExpect(status().isOk())
+            .andExpect(model().attribute("user", org.hamcrest.Matchers.hasProperty("fullName", org.hamcrest.Matchers.is("Token User"))));
+    }
+
+    /**
+     * Test that requests without a token, or with a forged one, are sent to the login page.
+     */
+    @Test
+    void testProtectedPage_RequiresValidToken() throws Exception {
+        mockMvc.perform(get("/profile"))
+            .andExpect(status().is3xxRedirection());
+
+        mockMvc.perform(get("/profile").cookie(new Cookie(COOKIE, "v1.test.dG9rZW4tdXNlckBleGFtcGxlLmNvbQ.1.9999999999.AAAA")))
+            .andExpect(status().is3xxRedirection());
+    }
+
+    /**
+     * Test that a failed login keeps no session and that logout clears the cookie.
+     */
+    @Test
+    void testFailedLoginAndLogout() throws Exception {
+        MvcResult failed = mockMvc.perform(post("/login")
+                .with(csrf())
+                .param("username", "token-user@example.com")
+                .param("password", "wrong"))
+            .andExpect(redirectedUrl("/login?error"))
+            .andReturn();
+        assertNull(failed.getRequest().getSession(false));
+        assertNull(tokenCookie(failed));
+
+        Cookie token = tokenCookie(mockMvc.perform(post("/login")
+                .with(csrf())
+                .param("username", "token-user@example.com")
+                .param("password", "password123"))
+            .andReturn());
+
+        MvcResult logout = mockMvc.perform(post("/logout").with(csrf()).cookie(token))
+            .andExpect(redirectedUrl("/login?logout"))
+            .andReturn();
+        assertTrue(setCookieHeader(logout).contains(COOKIE + "=;"), "Logout should clear the token cookie");
+        assertTrue(setCookieHeader(logout).contains("Max-Age=0"));
+    }
+
+    /**
+     * Test that changing the password ends tokens issued before the change.
+     */
+    @Test
+    void testPasswordChange_EndsOutstandingTokens() throws Exception {
+        Cookie token = tokenCookie(mockMvc.perform(post("/login")
+                .with(csrf())
+                .param("username", "token-user@example.com")
+                .param("password", "password123"))
+            .andReturn());
+        mockMvc.perform(get("/profile").cookie(token))
+            .andExpect(status().isOk());
+
+        // Act
+        userDetailsPasswordService.updatePassword(
+            org.springframework.security.core.userdetails.User.withUsername(user.getUsername()).password("").roles("USER").build(),
+            passwordEncoder.encode("new-password"));
+
+        // Assert
+        mockMvc.perform(get("/profile").cookie(token))
+            .andExpect(status().is3xxRedirection());
+    }
+
+    /**
+     * Test that a token is renewed while its login is young, is no longer renewed once it runs
+     * to the maximum session age, and is rejected past that age even if it has not expired.
+     */
+    @Test
+    void testRenewal_StopsAtMaxSessionAge() throws Exception {
+        Instant now = Instant.now();
+        String credential = SignedTokenCodec.credentialVersion(user.getPassword());
+
+        // A login 20 minutes ago is past half its ttl and gets a fresh token
+        String young = codec(Duration.ofHours(1), now.minus(Duration.ofMinutes(20))).issue(user.getUsername(), credential);
+        MvcResult renewed = mockMvc.perform(get("/profile").cookie(new Cookie(COOKIE, young)))
+            .andExpect(status().isOk())
+            .andReturn();
+        assertNotNull(tokenCookie(renewed), "A young login should be renewed");
+
+        // A login 55 minutes ago, renewed since, runs to the end of its hour and is not extended
+        Instant loggedIn = now.minus(Duration.ofMinutes(55));
+        String old = codec(Duration.ofHours(1), loggedIn).issue(user.getUsername(), credential);
+        for (Instant at = loggedIn.plus(Duration.ofMinutes(15)); at.isBefore(now.minus(Duration.ofMinutes(20))); at = at.plus(Duration.ofMinutes(15))) {
+            SignedTokenCodec renewing = codec(Duration.ofHours(1), at);
+            old = renewing.renew(renewing.verify(old));
+        }
+        MvcResult notRenewed = mockMvc.perform(get("/profile").cookie(new Cookie(COOKIE, old)))
+            .andExpect(status().isOk())
+            .andReturn();
+        assertNull(tokenCookie(notRenewed), "A login at the maximum session age must not be renewed");
+
+        // A token from a login two hours ago, issued under a longer maximum age, is refused
+        Instant longAgo = now.minus(Duration.ofHours(2));
+        SignedTokenCodec lenient = codec(Duration.ofHours(12), longAgo);
+        String stale = codec(Duration.ofHours(12), now.minus(Duration.ofMinutes(10)))
+            .renew(lenient.verify(lenient.issue(user.getUsername(), credential)));
+        mockMvc.perform(get("/profile").cookie(new Cookie(COOKIE, stale)))
+            .andExpect(status().is3xxRedirection());
+    }
+
+    private static SignedTokenCodec codec(Duration maxSessionAge, Instant at) {
+        return new SignedTokenCodec(Map.of("test", KEY), "test", Duration.ofMinutes(30), maxSessionAge, Clock.fixed(at, ZoneOffset.UTC));
+    }
+
+    private static Cookie tokenCookie(MvcResult result) {
+        Cookie cookie = result.getResponse().getCookie(COOKIE);
+        return cookie == null || cookie.getValue().isEmpty() ? null : cookie;
+    }
+
+    private static String setCookieHeader(MvcResult result) {
+        List<String> headers = result.getResponse().getHeaders(HttpHeaders.SET_COOKIE);
+        return headers.stream().filter(header -> header.startsWith(COOKIE + "=")).findFirst().orElse("");
+    }
+}
@@ -0,0 +1,226 @@
+package com.crowdserve.service.batch;
+
+import com.crowdserve.config.NotificationWriteProperties;
+import com.crowdserve.model.Notification;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.NotificationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for NotificationBatchWriter.
+ * Checks that concurrent writes outside a transaction share batches and are
+ * committed by the time the callers return, that a failed write does not fail
+ * the others in its batch, that a write inside a transaction rolls back with it,
+ * and that in async mode callers return before the write and a full queue at
+ * commit drops writes rather than failing the committed transaction.
+ */
+@SpringBootTest
+class NotificationBatchWriterTest {
+
+    private static final int WRITERS = 40;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String email = "batch-" + UUID.randomUUID() + "@example.com";
+        user = new User();
+        user.setUsername(email);
+        user.setFullName("Batch User");
+        user.setEmail(email);
+        user.setPassword("{noop}password123");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll(notificationRepository.findByUserOrderByCreatedAtDesc(user));
+        userRepository.delete(user);
+    }
+
+    /**
+     * Test that concurrent callers get committed notifications and share batches.
+     */
+    @Test
+    void testConcurrentWrites_AreGroupedAndCommitted() throws Exception {
+        // Arrange
+        var batchSize = meterRegistry.get("crowdserve.notifications.batch.size").summary();
+        long batchesBefore = batchSize.count();
+        ExecutorService callers = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Notification>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < WRITERS; i++) {
+                String title = "Batched " + i;
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return notificationService.createNotification(user, title, "Written in a batch", null);
+                }));
+            }
+            start.countDown();
+            for (Future<Notification> result : results) {
+                assertNotNull(result.get().getId(), "A flush-on-commit write returns once it has an id");
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(WRITERS, notificationRepository.countByUserAndIsReadFalse(user));
+        assertTrue(batchSize.count() - batchesBefore < WRITERS,
+            "Concurrent writes should share batches, got " + (batchSize.count() - batchesBefore));
+    }
+
+    /**
+     * Test that a notification created inside a transaction is discarded when it rolls back.
+     */
+    @Test
+    void testWriteInTransaction_RollsBackWithIt() {
+        // Arrange
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // Act
+        transaction.executeWithoutResult(status -> {
+            notificationService.createNotification(user, "Rolled back", "Never committed", null);
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(0, notificationRepository.countByUserAndIsReadFalse(user));
+    }
+
+    /**
+     * Test that in async mode the caller returns before the write, which follows shortly.
+     */
+    @Test
+    void testAsyncMode_WritesLater() throws Exception {
+        // Arrange: a long linger so the write cannot finish before the caller returns
+        NotificationWriteProperties async = new NotificationWriteProperties(
+            NotificationWriteProperties.Mode.ASYNC, 500, Duration.ofMillis(200), 100, Duration.ofSeconds(5));
+        NotificationBatchWriter writer = new NotificationBatchWriter(notificationRepository, transactionManager,
+            eventPublisher, async, new SimpleMeterRegistry());
+
+        try {
+            // Act
+            List<Notification> written = writer.write(List.of(notification("Async 1"), notification("Async 2")));
+
+            // Assert
+            assertNull(written.get(0).getId(), "An async write returns before it is inserted");
+            long deadline = System.currentTimeMillis() + 5000;
+            while (notificationRepository.countByUserAndIsReadFalse(user) < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(2, notificationRepository.countByUserAndIsReadFalse(user));
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * Test that a write the database rejects fails alone, not the writes batched with it.
+     */
+    @Test
+    void testFailedWrite_DoesNotFailItsBatch() throws Exception {
+        // Arrange: a long linger so both writes land in the same batch
+        NotificationWriteProperties lingering = new NotificationWriteProperties(
+            NotificationWriteProperties.Mode.FLUSH_ON_COMMIT, 500, Duration.ofMillis(200), 100, Duration.ofSeconds(5));
+        NotificationBatchWriter writer = new NotificationBatchWriter(notificationRepository, transactionManager,
+            eventPublisher, lingering, new SimpleMeterRegistry());
+        Notification rejected = notification("Rejected");
+        rejected.setCreatedAt(null);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<List<Notification>> good = callers.submit(() -> writer.write(List.of(notification("Accepted"))));
+            Future<List<Notification>> bad = callers.submit(() -> writer.write(List.of(rejected)));
+
+            // Assert
+            assertNotNull(good.get().get(0).getId());
+            ExecutionException failure = assertThrows(ExecutionException.class, bad::get);
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+            assertEquals(1, notificationRepository.countByUserAndIsReadFalse(user));
+        } finally {
+            callers.shutdownNow();
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * Test that in async mode a full queue drops writes at commit instead of failing the transaction.
+     */
+    @Test
+    void testAsyncMode_FullQueueAtCommitDrops() throws Exception {
+        // Arrange: room for one write and no writer thread left to take it
+        NotificationWriteProperties async = new NotificationWriteProperties(
+            NotificationWriteProperties.Mode.ASYNC, 500, Duration.ofMillis(5), 1, Duration.ofSeconds(5));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        NotificationBatchWriter writer = new NotificationBatchWriter(notificationRepository, transactionManager,
+            eventPublisher, async, registry);
+        writer.shutdown();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // Act
+        assertDoesNotThrow(() -> transaction.executeWithoutResult(status -> {
+            writer.write(List.of(notification("Queued")));
+            writer.write(List.of(notification("Dropped 1"), notification("Dropped 2")));
+        }));
+
+        // Assert
+        assertEquals(2, registry.get("crowdserve.notifications.write.dropped").counter().count());
+    }
+
+    private Notification notification(String title) {
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setTitle(title);
+        notification.setMessage("Written asynchronously");
+        notification.setCreatedAt(LocalDateTime.now());
+        notification.setRead(false);
+        return notification;
+    }
+}
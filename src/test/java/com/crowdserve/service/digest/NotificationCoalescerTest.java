@@ -0,0 +1,214 @@
+package com.crowdserve.service.digest;
+
+import com.crowdserve.config.NotificationCoalescingProperties;
+import com.crowdserve.model.Notification;
+import com.crowdserve.model.NotificationKind;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.batch.NotificationBatchWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for NotificationCoalescer.
+ * Checks that the first notification of a burst goes out at once and the rest
+ * become one entry with a count when the window closes, and that a user who
+ * opted into the digest gets one entry summing up every kind, while notifications
+ * of other kinds are never held, and that notifications are only held once their
+ * transaction commits, with the first to commit opening the window.
+ */
+@SpringBootTest
+class NotificationCoalescerTest {
+
+    @Autowired
+    private NotificationBatchWriter notificationBatchWriter;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationCoalescer coalescer;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // A short window, so the burst test sees it close
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new NotificationCoalescer(notificationBatchWriter,
+            new NotificationCoalescingProperties(true, Duration.ofMillis(200), Duration.ofHours(1)), meterRegistry,
+            taskScheduler);
+
+        String email = "coalesce-" + UUID.randomUUID() + "@example.com";
+        user = new User();
+        user.setUsername(email);
+        user.setFullName("Coalesce User");
+        user.setEmail(email);
+        user.setPassword("{noop}password123");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+        notificationRepository.deleteAll(notificationRepository.findByUserOrderByCreatedAtDesc(user));
+        userRepository.delete(user);
+    }
+
+    /**
+     * Test that a burst is written as its first notification and one merged entry.
+     */
+    @Test
+    void testBurst_MergedWhenWindowCloses() throws InterruptedException {
+        // Arrange
+        List<Notification> burst = notifications(NotificationKind.TASK_COMPLETED, 11);
+
+        // Act
+        List<Notification> now = coalescer.coalesce(burst);
+        notificationBatchWriter.write(now);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (notificationRepository.findByUserOrderByCreatedAtDesc(user).size() < 2
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        // Assert
+        assertEquals(List.of(burst.get(0)), now, "Only the first of the burst is written at once");
+        assertEquals(0, coalescer.held());
+        List<Notification> written = notificationRepository.findByUserOrderByCreatedAtDesc(user);
+        assertEquals(2, written.size());
+        Notification merged = written.stream().filter(notification -> notification.getEventCount() > 1)
+            .findFirst().orElseThrow();
+        assertEquals(10, merged.getEventCount());
+        assertNull(merged.getMessage(), "Merged entries are stored without text");
+        assertEquals("10 more of your tasks were completed.", merged.displayMessage());
+        assertEquals(NotificationKind.TASK_COMPLETED, merged.getKind());
+        assertEquals(10.0, meterRegistry.get("crowdserve.notifications.coalesced").counter().count());
+    }
+
+    /**
+     * Test that a digest user gets one entry for every kind, and other kinds pass straight through.
+     */
+    @Test
+    void testDigest_OneEntryForAllKinds() {
+        // Arrange
+        user.setNotificationDigest(true);
+        List<Notification> notifications = new ArrayList<>();
+        notifications.addAll(notifications(NotificationKind.TASK_COMPLETED, 3));
+        notifications.addAll(notifications(NotificationKind.TASK_CREATED, 2));
+        Notification general = notifications(NotificationKind.GENERAL, 1).get(0);
+        notifications.add(general);
+
+        // Act
+        List<Notification> now = coalescer.coalesce(notifications);
+        int held = coalescer.held();
+        coalescer.flush();
+
+        // Assert
+        assertEquals(List.of(general), now);
+        assertEquals(5, held);
+        List<Notification> written = notificationRepository.findByUserOrderByCreatedAtDesc(user);
+        assertEquals(1, written.size());
+        Notification digest = written.get(0);
+        assertEquals(NotificationKind.DIGEST, digest.getKind());
+        assertEquals(5, digest.getEventCount());
+        assertEquals("2 of your tasks were posted; 3 of your tasks were completed.", digest.getMessage());
+    }
+
+    /**
+     * Test that notifications are only held once their transaction commits, and dropped if it rolls back.
+     */
+    @Test
+    void testHold_OnlyAfterCommit() {
+        // Arrange
+        user.setNotificationDigest(true);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int[] heldInTransaction = new int[1];
+
+        // Act
+        transaction.executeWithoutResult(status -> {
+            coalescer.coalesce(notifications(NotificationKind.TASK_COMPLETED, 2));
+            heldInTransaction[0] = coalescer.held();
+        });
+        int heldAfterCommit = coalescer.held();
+        transaction.executeWithoutResult(status -> {
+            coalescer.coalesce(notifications(NotificationKind.TASK_COMPLETED, 3));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(0, heldInTransaction[0], "Nothing is held before the commit");
+        assertEquals(2, heldAfterCommit);
+        assertEquals(2, coalescer.held(), "Notifications of a rolled-back transaction are not held");
+    }
+
+    /**
+     * Test that a rolled-back first notification leaves the window to the first one that commits.
+     */
+    @Test
+    void testWindow_OpenedByFirstToCommit() throws InterruptedException {
+        // Arrange
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Notification> rolledBack = new ArrayList<>();
+        List<Notification> committed = new ArrayList<>();
+
+        // Act: the first of the burst rolls back, the next three commit
+        transaction.executeWithoutResult(status -> {
+            rolledBack.addAll(coalescer.coalesce(notifications(NotificationKind.TASK_COMPLETED, 1)));
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status ->
+            committed.addAll(coalescer.coalesce(notifications(NotificationKind.TASK_COMPLETED, 3))));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (notificationRepository.findByUserOrderByCreatedAtDesc(user).size() < 2
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        // Assert
+        assertTrue(rolledBack.isEmpty(), "Inside a transaction nothing is written with it");
+        assertTrue(committed.isEmpty());
+        List<Notification> written = notificationRepository.findByUserOrderByCreatedAtDesc(user);
+        assertEquals(2, written.size(), "The first to commit is written alone, the other two merged");
+        assertEquals(List.of(1, 2), written.stream().map(Notification::getEventCount).sorted().toList());
+        assertEquals(2.0, meterRegistry.get("crowdserve.notifications.coalesced").counter().count());
+    }
+
+    private List<Notification> notifications(NotificationKind kind, int count) {
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Notification notification = new Notification();
+            notification.setUser(user);
+            notification.setKind(kind);
+            notification.setTitle("Task Completed!");
+            notification.setMessage("Your task 'Task " + i + "' has been completed.");
+            notification.setCreatedAt(LocalDateTime.now());
+            notifications.add(notification);
+        }
+        return notifications;
+    }
+}
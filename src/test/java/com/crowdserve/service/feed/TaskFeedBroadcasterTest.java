@@ -0,0 +1,244 @@
+package com.crowdserve.service.feed;
+
+import com.crowdserve.config.TaskFeedProperties;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+import com.crowdserve.service.facade.TaskWorkflowFacade;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TaskFeedBroadcaster and TaskFeedWebSocketHandler.
+ * Checks that changes within a tick are coalesced per task, that a task created
+ * and taken within one tick is not sent at all, that region subscriptions only
+ * get tasks inside the region, that a dashboard whose send blocks neither holds
+ * up the others nor stays connected, and that bad subscriptions are refused.
+ */
+class TaskFeedBroadcasterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ThreadPoolTaskScheduler taskScheduler;
+    private TaskFeedBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.initialize();
+        broadcaster = broadcaster(Duration.ofSeconds(5), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+        taskScheduler.shutdown();
+    }
+
+    /**
+     * Test that several changes to one task within a tick reach the dashboard as the latest one.
+     */
+    @Test
+    void testTick_CoalescesChangesPerTask() throws Exception {
+        // Arrange
+        WebSocketSession session = session("s1");
+        broadcaster.subscribe(session, null);
+        Task first = task(1L, 10.0, 10.0);
+        Task second = task(2L, 10.0, 10.0);
+        broadcaster.tick();
+        broadcaster.onTaskCreated(second);
+        broadcaster.tick();
+        sent(session, 1);
+        clearInvocations(session);
+
+        // Act: task 1 is created and taken in one tick, task 2 is assigned then cancelled
+        broadcaster.onTaskCreated(first);
+        broadcaster.onTaskAssigned(first);
+        broadcaster.onTaskAssigned(second);
+        broadcaster.onTaskCancelled(second);
+        broadcaster.tick();
+
+        // Assert
+        JsonNode deltas = sent(session, 1).get(0);
+        assertEquals(1, deltas.size());
+        assertEquals(2, deltas.get(0).get("id").asLong());
+        assertEquals(TaskFeedDelta.CANCELLED, deltas.get(0).get("type").asText());
+    }
+
+    /**
+     * Test that a created delta carries the fields the dashboard renders, and a quiet tick sends nothing.
+     */
+    @Test
+    void testTick_SendsCreatedTaskOnceAndNothingWhenQuiet() throws Exception {
+        // Arrange
+        WebSocketSession session = session("s1");
+        broadcaster.subscribe(session, null);
+
+        // Act
+        broadcaster.onTaskCreated(task(1L, 10.0, 10.0));
+        broadcaster.tick();
+        broadcaster.tick();
+
+        // Assert
+        List<JsonNode> messages = sent(session, 1);
+        verify(session, after(200).times(1)).sendMessage(any());
+        JsonNode delta = messages.get(0).get(0);
+        assertEquals("Task 1", delta.get("title").asText());
+        assertEquals("Poster", delta.get("posterName").asText());
+        assertEquals(25.0, delta.get("reward").asDouble());
+    }
+
+    /**
+     * Test that a region subscription only gets tasks located inside it.
+     */
+    @Test
+    void testTick_FiltersByRegion() throws Exception {
+        // Arrange: one dashboard near (10, 10), one without a region
+        WebSocketSession near = session("near");
+        WebSocketSession everywhere = session("everywhere");
+        broadcaster.subscribe(near, new TaskFeedBroadcaster.Region(10.0, 10.0, 5.0));
+        broadcaster.subscribe(everywhere, null);
+
+        // Act
+        broadcaster.onTaskCreated(task(1L, 10.01, 10.01));
+        broadcaster.onTaskCreated(task(2L, 20.0, 20.0));
+        broadcaster.onTaskCreated(task(3L, null, null));
+        broadcaster.tick();
+
+        // Assert
+        JsonNode nearDeltas = sent(near, 1).get(0);
+        assertEquals(1, nearDeltas.size());
+        assertEquals(1, nearDeltas.get(0).get("id").asLong());
+        assertEquals(3, sent(everywhere, 1).get(0).size());
+    }
+
+    /**
+     * Test that a dashboard whose send blocks, holding the only sender thread, is closed once the
+     * send time limit passes while the other dashboards keep getting their messages.
+     */
+    @Test
+    void testTick_StalledSendDoesNotBlockOtherDashboards() throws Exception {
+        // Arrange: one sender thread, and a dashboard that stops reading in its first send
+        broadcaster.shutdown();
+        broadcaster = broadcaster(Duration.ofMillis(200), 1);
+        CountDownLatch release = new CountDownLatch(1);
+        WebSocketSession stalled = session("stalled");
+        doAnswer(invocation -> release.await(10, TimeUnit.SECONDS)).when(stalled).sendMessage(any());
+        WebSocketSession healthy = session("healthy");
+        broadcaster.subscribe(stalled, null);
+        broadcaster.subscribe(healthy, null);
+        try {
+            broadcaster.onTaskCreated(task(1L, 10.0, 10.0));
+            broadcaster.tick();
+            verify(stalled, timeout(2000)).sendMessage(any());
+            Thread.sleep(300);
+
+            // Act: the next tick finds the send past its limit
+            broadcaster.onTaskCreated(task(2L, 10.0, 10.0));
+            broadcaster.tick();
+
+            // Assert
+            assertEquals(1, broadcaster.getSubscriberCount(), "The stalled dashboard should be dropped");
+            List<JsonNode> messages = sent(healthy, 2);
+            assertEquals(2, messages.get(1).get(0).get("id").asLong());
+            verify(stalled, never()).close(any(CloseStatus.class));
+
+            release.countDown();
+            verify(stalled, timeout(2000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * Test that the handler reads the region from the handshake and closes connections with bad parameters.
+     */
+    @Test
+    void testHandler_ParsesRegionAndRejectsBadParameters() throws Exception {
+        // Arrange
+        TaskFeedWebSocketHandler handler = new TaskFeedWebSocketHandler(broadcaster);
+        WebSocketSession good = session("good");
+        when(good.getUri()).thenReturn(URI.create("ws://localhost/ws/tasks?lat=10&lon=20&radiusKm=5"));
+        WebSocketSession tooLarge = session("too-large");
+        when(tooLarge.getUri()).thenReturn(URI.create("ws://localhost/ws/tasks?lat=10&lon=20&radiusKm=5000"));
+        WebSocketSession partial = session("partial");
+        when(partial.getUri()).thenReturn(URI.create("ws://localhost/ws/tasks?lat=10"));
+
+        // Act
+        handler.afterConnectionEstablished(good);
+        handler.afterConnectionEstablished(tooLarge);
+        handler.afterConnectionEstablished(partial);
+
+        // Assert
+        assertEquals(new TaskFeedBroadcaster.Region(10, 20, 5), TaskFeedWebSocketHandler.region(good));
+        assertEquals(1, broadcaster.getSubscriberCount());
+        verify(tooLarge).close(any(CloseStatus.class));
+        verify(partial).close(any(CloseStatus.class));
+
+        handler.afterConnectionClosed(good, CloseStatus.NORMAL);
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    /**
+     * Waits for a number of messages sent to a session on the sender threads and returns them.
+     */
+    private List<JsonNode> sent(WebSocketSession session, int count) throws Exception {
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, timeout(2000).times(count)).sendMessage(captor.capture());
+        return captor.getAllValues().stream().map(message -> {
+            try {
+                return objectMapper.readTree(message.getPayload());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+    }
+
+    private TaskFeedBroadcaster broadcaster(Duration sendTimeLimit, int senderThreads) {
+        // A long tick so only the test's explicit ticks send anything
+        TaskFeedProperties properties = new TaskFeedProperties(Duration.ofHours(1), sendTimeLimit,
+            DataSize.ofKilobytes(512), 200, senderThreads, 50);
+        return new TaskFeedBroadcaster(mock(TaskWorkflowFacade.class), objectMapper, properties, taskScheduler);
+    }
+
+    private static WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private static Task task(Long id, Double latitude, Double longitude) {
+        User poster = new User();
+        poster.setFullName("Poster");
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setDescription("Description " + id);
+        task.setLocation("Somewhere");
+        task.setLatitude(latitude);
+        task.setLongitude(longitude);
+        task.setReward(25.0);
+        task.setStatus(TaskStatus.OPEN);
+        task.setPoster(poster);
+        return task;
+    }
+}
@@ -0,0 +1,188 @@
+package com.crowdserve.service.impl;
+
+import com.crowdserve.TestFixtures;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.TaskRepository;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrency tests for TaskServiceImpl.assignWorker against an in-memory database.
+ * Several workers race to accept the same tasks; every task must end up with exactly
+ * one worker and every loser must get a clean "already taken" error.
+ * Run with -Dbenchmarks=true to also measure claims per second under heavier contention.
+ */
+@SpringBootTest
+class TaskClaimContentionTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<User> createdUsers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (User user : createdUsers) {
+            taskRepository.deleteAll(taskRepository.findByPoster(user));
+        }
+        userRepository.deleteAll(createdUsers);
+        createdUsers.clear();
+    }
+
+    /**
+     * Test that when every worker tries to accept every task at once, each task has one winner.
+     */
+    @Test
+    void testAssignWorker_ExactlyOneWinnerPerTask() throws Exception {
+        Result result = race(8, 40);
+
+        assertEquals(40, result.winners().size(), "Every task should be claimed");
+        assertEquals(40 * 7, result.alreadyTaken(), "Every other attempt should be told the task is taken");
+        assertEquals(0, result.otherFailures(), "No attempt should fail for any other reason");
+    }
+
+    /**
+     * Test that the poster still cannot accept their own task.
+     */
+    @Test
+    void testAssignWorker_PosterCannotClaimOwnTask() {
+        // Arrange
+        User poster = user("claim-poster-self");
+        Task task = taskRepository.save(task(poster, 0));
+
+        // Act & Assert
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+            () -> taskService.assignWorker(task.getId(), poster));
+        assertEquals("You cannot accept your own task", error.getMessage());
+        assertEquals(TaskStatus.OPEN, taskRepository.findById(task.getId()).orElseThrow().getStatus());
+    }
+
+    /**
+     * Benchmark: claims per second with 16 workers racing for 1,000 tasks.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkContendedClaims() throws Exception {
+        int workerCount = 16;
+        int taskCount = 1_000;
+        Result result = race(workerCount, taskCount);
+
+        assertEquals(taskCount, result.winners().size());
+        int attempts = workerCount * taskCount;
+        System.out.printf("Task claiming: %d workers x %,d tasks, %,d attempts in %d ms "
+                + "(%.0f attempts/s, %.0f successful claims/s)%n",
+            workerCount, taskCount, attempts, result.elapsedMs(),
+            attempts * 1000.0 / result.elapsedMs(), taskCount * 1000.0 / result.elapsedMs());
+    }
+
+    /**
+     * Has every worker try to claim every task, each in its own shuffled order, all
+     * starting together; then checks the database agrees with the recorded winners.
+     */
+    private Result race(int workerCount, int taskCount) throws Exception {
+        User poster = user("claim-poster");
+        List<User> workers = new ArrayList<>();
+        for (int w = 0; w < workerCount; w++) {
+            workers.add(user("claim-worker-" + w));
+        }
+        List<Long> taskIds = new ArrayList<>();
+        for (int t = 0; t < taskCount; t++) {
+            taskIds.add(taskRepository.save(task(poster, t)).getId());
+        }
+
+        Map<Long, Long> winners = new ConcurrentHashMap<>();
+        AtomicInteger alreadyTaken = new AtomicInteger();
+        AtomicInteger otherFailures = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < workerCount; w++) {
+                User worker = workers.get(w);
+                List<Long> order = new ArrayList<>(taskIds);
+                Collections.shuffle(order, new Random(w));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (Long taskId : order) {
+                        try {
+                            taskService.assignWorker(taskId, worker);
+                            Long previous = winners.putIfAbsent(taskId, worker.getId());
+                            assertNull(previous, "Task " + taskId + " was claimed twice");
+                        } catch (IllegalStateException e) {
+                            if (e.getMessage().contains("already been taken")) {
+                                alreadyTaken.incrementAndGet();
+                            } else {
+                                otherFailures.incrementAndGet();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+
+            for (Long taskId : taskIds) {
+                Task task = taskRepository.findById(taskId).orElseThrow();
+                assertEquals(TaskStatus.ASSIGNED, task.getStatus());
+                assertEquals(winners.get(taskId), task.getWorker().getId(),
+                    "Stored worker should be the one whose claim succeeded");
+            }
+            return new Result(winners, alreadyTaken.get(), otherFailures.get(), elapsedMs);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private User user(String name) {
+        User user = userRepository.save(TestFixtures.user(name));
+        createdUsers.add(user);
+        return user;
+    }
+
+    private static Task task(User poster, int number) {
+        Task task = new Task();
+        task.setTitle("Contended task " + number);
+        task.setDescription("Contended task " + number);
+        task.setLocation("Anywhere");
+        task.setReward(10.0);
+        task.setStatus(TaskStatus.OPEN);
+        task.setPoster(poster);
+        return task;
+    }
+
+    private record Result(Map<Long, Long> winners, int alreadyTaken, int otherFailures, long elapsedMs) {
+    }
+}
@@ -0,0 +1,261 @@
+package com.crowdserve.service.impl;
+
+import com.crowdserve.dto.TaskImportResultDto;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.repository.TaskRepository;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.facade.TaskWorkflowFacade;
+import com.crowdserve.service.importer.TaskImportFormat;
+import com.crowdserve.service.index.OpenTaskIndex;
+import com.crowdserve.service.index.TaskTextIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TaskImportServiceImpl against an in-memory database.
+ * Checks CSV and JSON parsing, per-row error reporting, batching with row-by-row
+ * retry when the database rejects a batch, and that imported tasks reach the
+ * in-memory indexes through the workflow facade.
+ * Run with -Dbenchmarks=true to also time an import of 100,000 tasks.
+ */
+@SpringBootTest
+class TaskImportServiceImplTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TaskWorkflowFacade taskWorkflowFacade;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private OpenTaskIndex openTaskIndex;
+
+    @Autowired
+    private TaskTextIndex taskTextIndex;
+
+    private TaskImportServiceImpl importService;
+    private User poster;
+
+    @BeforeEach
+    void setUp() {
+        // Small batches so a few rows already span several of them
+        importService = new TaskImportServiceImpl(taskRepository, notificationRepository, transactionManager, objectMapper,
+            eventPublisher, 2);
+
+        User user = new User();
+        user.setUsername("importer");
+        user.setFullName("Importer");
+        user.setEmail("importer@example.com");
+        user.setPassword("hashed");
+        poster = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from notifications where user_id = ?", poster.getId());
+        jdbcTemplate.update("delete from tasks where poster_id = ?", poster.getId());
+        userRepository.delete(poster);
+    }
+
+    /**
+     * Test that valid CSV rows are imported with a notification each while invalid rows are reported.
+     */
+    @Test
+    void testImportCsv_ImportsValidRowsAndReportsTheRest() {
+        // Arrange: quoted fields with commas, quotes and a line break; columns in any order
+        String csv = """
+            Reward,title,location,description,latitude,longitude
+            20,Fix tap,Model Town,"Kitchen tap, leaking",31.52,74.35
+            35,"Paint ""blue"" fence",Gulberg,"Two coats
+            please",,
+            10,,Johar Town,No title,,
+            abc,Walk dog,DHA,,,
+            15,Move boxes,Cantt,,31.5,
+            5,Too few columns
+
+            25,Clean car,Township,,,
+            """;
+        List<Task> notified = new ArrayList<>();
+
+        // Act
+        TaskImportResultDto result = importService.importTasks(stream(csv), TaskImportFormat.CSV, poster, notified::addAll);
+
+        // Assert
+        assertEquals(7, result.rowsRead(), "The blank line is not a row");
+        assertEquals(3, result.imported());
+        assertEquals(4, result.failed());
+        assertEquals(List.of(
+            new TaskImportResultDto.RowError(3, "Title is required"),
+            new TaskImportResultDto.RowError(4, "Reward is not a number: 'abc'"),
+            new TaskImportResultDto.RowError(5, "Latitude and longitude must be given together"),
+            new TaskImportResultDto.RowError(6, "Expected 6 columns but found 2")
+        ), result.errors());
+
+        List<Task> stored = storedTasks();
+        assertEquals(List.of("Fix tap", "Paint \"blue\" fence", "Clean car"), stored.stream().map(Task::getTitle).toList());
+        assertEquals("Kitchen tap, leaking", stored.get(0).getDescription());
+        assertEquals(31.52, stored.get(0).getLatitude());
+        assertEquals("Two coats\nplease", stored.get(1).getDescription());
+        assertNull(stored.get(1).getLatitude());
+        assertTrue(stored.stream().allMatch(task -> task.getStatus() == TaskStatus.OPEN));
+
+        assertEquals(stored.stream().map(Task::getId).toList(), notified.stream().map(Task::getId).toList(),
+            "Every stored task should be handed to the callback with its generated id");
+        assertEquals(3, notificationRepository.countByUserAndIsReadFalse(poster));
+    }
+
+    /**
+     * Test that a JSON array is read element by element and bad elements do not stop the import.
+     */
+    @Test
+    void testImportJson_ReportsBadElements() {
+        // Arrange
+        String json = """
+            [
+              {"title": "Fix tap", "location": "Model Town", "reward": 20, "latitude": 31.5, "longitude": 74.3},
+              "not an object",
+              {"title": "Walk dog", "location": "DHA", "reward": "12.5"},
+              {"title": "Move boxes", "location": "Cantt", "reward": 10, "colour": "red"},
+              {"title": "Far away", "location": "Nowhere", "reward": 10, "latitude": 95, "longitude": 0}
+            ]
+            """;
+
+        // Act
+        TaskImportResultDto result = importService.importTasks(stream(json), TaskImportFormat.JSON, poster, batch -> { });
+
+        // Assert
+        assertEquals(5, result.rowsRead());
+        assertEquals(2, result.imported());
+        assertEquals(List.of(2, 4, 5), result.errors().stream().map(TaskImportResultDto.RowError::row).toList());
+        assertEquals("Unknown field: 'colour'", result.errors().get(1).message());
+        assertEquals(12.5, storedTasks().get(1).getReward());
+    }
+
+    /**
+     * Test that a file whose structure is wrong is rejected before anything is written.
+     */
+    @Test
+    void testImport_RejectsBadHeaderAndNonArrayJson() {
+        assertThrows(IllegalArgumentException.class, () ->
+            importService.importTasks(stream("title,location,price\nA,B,1\n"), TaskImportFormat.CSV, poster, batch -> { }));
+        assertThrows(IllegalArgumentException.class, () ->
+            importService.importTasks(stream("title,location\nA,B\n"), TaskImportFormat.CSV, poster, batch -> { }));
+        assertThrows(IllegalArgumentException.class, () ->
+            importService.importTasks(stream("{\"title\": \"A\"}"), TaskImportFormat.JSON, poster, batch -> { }));
+        assertTrue(storedTasks().isEmpty());
+    }
+
+    /**
+     * Test that when the database rejects a batch, the batch is retried row by row
+     * so only the offending row is lost.
+     */
+    @Test
+    void testImport_RetriesFailedBatchRowByRow() {
+        // Arrange: fail any transaction that contains the "Boom" task
+        String csv = "title,location,reward\nFirst,A,1\nBoom,B,2\nThird,C,3\nFourth,D,4\n";
+
+        // Act
+        TaskImportResultDto result = importService.importTasks(stream(csv), TaskImportFormat.CSV, poster, batch -> {
+            if (batch.stream().anyMatch(task -> task.getTitle().equals("Boom"))) {
+                throw new DataIntegrityViolationException("rejected by test");
+            }
+        });
+
+        // Assert
+        assertEquals(3, result.imported());
+        assertEquals(List.of(new TaskImportResultDto.RowError(2, "Could not be saved: rejected by test")), result.errors());
+        assertEquals(List.of("First", "Third", "Fourth"), storedTasks().stream().map(Task::getTitle).toList());
+        assertEquals(3, notificationRepository.countByUserAndIsReadFalse(poster),
+            "The rolled-back batch must not leave a notification behind");
+    }
+
+    /**
+     * Test that tasks imported through the facade are visible to the in-memory indexes.
+     */
+    @Test
+    void testFacadeImport_NotifiesObservers() {
+        // Act
+        TaskImportResultDto result = taskWorkflowFacade.importTasks(
+            stream("title,location,reward\nHang curtains zqxjw,Model Town,15\n"), TaskImportFormat.CSV, poster);
+
+        // Assert
+        assertEquals(1, result.imported());
+        Long id = storedTasks().get(0).getId();
+        assertNotNull(openTaskIndex.get(TaskStatus.OPEN, id), "Imported task should be in the open-task index");
+        assertEquals(List.of(id), taskTextIndex.search("zqxjw", TaskStatus.OPEN, 10).stream().map(hit -> hit.id()).toList());
+    }
+
+    /**
+     * Benchmark: importing 100,000 CSV rows through the facade with the default batch size,
+     * including the notification rows and the in-memory index updates.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkImportOneHundredThousandRows() {
+        int rows = 100_000;
+        Random random = new Random(1);
+        StringBuilder csv = new StringBuilder("title,description,location,reward,latitude,longitude\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("Task ").append(i).append(",\"Help needed, job ").append(i).append("\",Area ")
+                .append(i % 500).append(',').append(5 + random.nextInt(100)).append(',')
+                .append(31 + random.nextDouble()).append(',').append(74 + random.nextDouble()).append('\n');
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        TaskImportResultDto result = taskWorkflowFacade.importTasks(new ByteArrayInputStream(bytes), TaskImportFormat.CSV, poster);
+
+        assertEquals(rows, result.imported());
+        System.out.printf("Task import: %,d rows (%,d KB) in %d ms (%.0f rows/s)%n",
+            rows, bytes.length / 1024, result.elapsedMs(), rows * 1000.0 / Math.max(1, result.elapsedMs()));
+    }
+
+    private List<Task> storedTasks() {
+        List<Task> tasks = new ArrayList<>(taskRepository.findByPoster(poster));
+        tasks.sort(Comparator.comparing(Task::getId));
+        return tasks;
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,6 +3,8 @@ package com.crowdserve.service.impl;
 import com.crowdserve.dto.UserRegistrationDto;
 import com.crowdserve.model.User;
 import com.crowdserve.repository.UserRepository;
+import com.crowdserve.security.CurrentUserCache;
+import com.crowdserve.security.LoginUserCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -31,6 +33,12 @@ class UserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CurrentUserCache currentUserCache;
+
+    @Mock
+    private LoginUserCache loginUserCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
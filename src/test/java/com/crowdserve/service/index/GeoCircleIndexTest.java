@@ -0,0 +1,171 @@
+package com.crowdserve.service.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GeoCircleIndex.
+ * Checks point lookups against a brute-force scan, removal, the antimeridian and input checks.
+ * Run with -Dbenchmarks=true to also time lookups over 100,000 watched areas.
+ */
+class GeoCircleIndexTest {
+
+    /**
+     * Test that a lookup returns exactly the owners a full scan finds, ascending and each once.
+     */
+    @Test
+    void testOwnersContaining_MatchesBruteForce() {
+        // Arrange: several circles per owner, so some owners match more than once
+        GeoCircleIndex index = new GeoCircleIndex(0.1, 25.0);
+        List<GeoCircleIndex.Circle> circles = randomCircles(new Random(42), 20_000, 2_000, 31.3, 31.7, 74.1, 74.6);
+        circles.forEach(index::put);
+        Random random = new Random(43);
+
+        for (int query = 0; query < 200; query++) {
+            double latitude = 31.2 + random.nextDouble() * 0.6;
+            double longitude = 74.0 + random.nextDouble() * 0.7;
+
+            // Act
+            long[] owners = index.ownersContaining(latitude, longitude);
+
+            // Assert
+            assertArrayEquals(bruteForce(circles, latitude, longitude), owners,
+                "Index must find exactly the owners of the circles containing the point");
+        }
+    }
+
+    /**
+     * Test that a removed circle no longer matches, and that its owner's other circles still do.
+     */
+    @Test
+    void testRemove() {
+        // Arrange
+        GeoCircleIndex index = new GeoCircleIndex(0.1, 25.0);
+        index.put(new GeoCircleIndex.Circle(1L, 10L, 31.5, 74.3, 5.0));
+        index.put(new GeoCircleIndex.Circle(2L, 10L, 31.5, 74.3, 2.0));
+        index.put(new GeoCircleIndex.Circle(3L, 20L, 31.5, 74.3, 1.0));
+
+        // Act
+        boolean removed = index.remove(3L);
+        boolean removedAgain = index.remove(3L);
+
+        // Assert
+        assertTrue(removed, "First removal should succeed");
+        assertFalse(removedAgain, "Second removal should report the circle missing");
+        assertEquals(2, index.size());
+        assertArrayEquals(new long[] {10L}, index.ownersContaining(31.5, 74.3));
+    }
+
+    /**
+     * Test that a circle across the antimeridian is found from both sides of it.
+     */
+    @Test
+    void testOwnersContaining_AcrossAntimeridian() {
+        // Arrange
+        GeoCircleIndex index = new GeoCircleIndex(0.1, 25.0);
+        index.put(new GeoCircleIndex.Circle(1L, 7L, 0.0, 179.99, 10.0));
+
+        // Act & Assert
+        assertArrayEquals(new long[] {7L}, index.ownersContaining(0.0, -179.98));
+        assertArrayEquals(new long[] {7L}, index.ownersContaining(0.0, 179.95));
+        assertArrayEquals(new long[0], index.ownersContaining(0.0, -179.5));
+    }
+
+    /**
+     * Test that duplicate ids are ignored and out-of-range circles rejected.
+     */
+    @Test
+    void testPut_Validation() {
+        GeoCircleIndex index = new GeoCircleIndex(0.1, 25.0);
+        assertTrue(index.put(new GeoCircleIndex.Circle(1L, 1L, 10.0, 10.0, 5.0)));
+        assertFalse(index.put(new GeoCircleIndex.Circle(1L, 2L, 20.0, 20.0, 5.0)), "A duplicate id should be ignored");
+        assertArrayEquals(new long[0], index.ownersContaining(20.0, 20.0));
+        assertThrows(IllegalArgumentException.class, () -> index.put(new GeoCircleIndex.Circle(2L, 1L, 91.0, 0.0, 5.0)));
+        assertThrows(IllegalArgumentException.class, () -> index.put(new GeoCircleIndex.Circle(2L, 1L, 0.0, 0.0, 26.0)));
+        assertThrows(IllegalArgumentException.class, () -> index.put(new GeoCircleIndex.Circle(2L, 1L, 0.0, 0.0, 0.0)));
+    }
+
+    /**
+     * Benchmark: finding the watchers of a point among 100,000 areas of 1 to 25 km, spread
+     * country-wide and packed into a single metro area. Prints load time, matches per lookup,
+     * lookup latency and lookups per second.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkOneHundredThousandAreas() {
+        runBenchmark("country-wide (13x16 deg)", 20_000, 24.0, 37.0, 61.0, 77.0);
+        runBenchmark("single metro (0.5x0.5 deg)", 2_000, 31.3, 31.8, 74.1, 74.6);
+    }
+
+    private void runBenchmark(String label, int queries, double minLat, double maxLat, double minLon, double maxLon) {
+        int areaCount = 100_000;
+        Random random = new Random(1);
+        GeoCircleIndex index = new GeoCircleIndex(0.1, 25.0);
+        List<GeoCircleIndex.Circle> circles = randomCircles(random, areaCount, areaCount, minLat, maxLat, minLon, maxLon);
+
+        long loadStart = System.nanoTime();
+        circles.forEach(index::put);
+        long loadMs = (System.nanoTime() - loadStart) / 1_000_000;
+
+        double[][] points = new double[queries][];
+        for (int i = 0; i < queries; i++) {
+            points[i] = new double[] {
+                minLat + random.nextDouble() * (maxLat - minLat),
+                minLon + random.nextDouble() * (maxLon - minLon)
+            };
+        }
+        for (double[] point : points) {
+            // Warm up the JIT before measuring
+            index.ownersContaining(point[0], point[1]);
+        }
+
+        long[] nanos = new long[queries];
+        long matches = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            long t0 = System.nanoTime();
+            matches += index.ownersContaining(points[i][0], points[i][1]).length;
+            nanos[i] = System.nanoTime() - t0;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("GeoCircleIndex %s: %,d areas loaded in %d ms%n", label, index.size(), loadMs);
+        System.out.printf("  %,.0f watchers per lookup, p50 %.3f ms, p99 %.3f ms, %,.0f lookups/s%n",
+            (double) matches / queries, percentile(nanos, 50), percentile(nanos, 99), queries / seconds);
+    }
+
+    private static double percentile(long[] nanos, int p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)] / 1_000_000.0;
+    }
+
+    private static List<GeoCircleIndex.Circle> randomCircles(Random random, int count, int owners, double minLat,
+                                                             double maxLat, double minLon, double maxLon) {
+        GeoCircleIndex.Circle[] circles = new GeoCircleIndex.Circle[count];
+        for (int i = 0; i < count; i++) {
+            circles[i] = new GeoCircleIndex.Circle(i, random.nextInt(owners),
+                minLat + random.nextDouble() * (maxLat - minLat),
+                minLon + random.nextDouble() * (maxLon - minLon),
+                1.0 + random.nextDouble() * 24.0);
+        }
+        return List.of(circles);
+    }
+
+    private static long[] bruteForce(List<GeoCircleIndex.Circle> circles, double latitude, double longitude) {
+        TreeSet<Long> owners = new TreeSet<>();
+        for (GeoCircleIndex.Circle circle : circles) {
+            if (GeoGrid.distanceKm(latitude, longitude, circle.latitude(), circle.longitude()) <= circle.radiusKm()) {
+                owners.add(circle.ownerId());
+            }
+        }
+        return owners.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,192 @@
+package com.crowdserve.service.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GeoGrid.
+ * Checks radius and nearest-neighbour queries against a brute-force scan.
+ * Run with -Dbenchmarks=true to also time queries over one million points.
+ */
+class GeoGridTest {
+
+    /**
+     * Test that a radius query returns exactly the points a full scan finds, nearest first.
+     */
+    @Test
+    void testWithinRadius_MatchesBruteForce() {
+        // Arrange
+        GeoGrid grid = new GeoGrid(0.02);
+        double[][] points = randomPoints(new Random(42), 20_000, 31.3, 31.7, 74.1, 74.6);
+        for (int i = 0; i < points.length; i++) {
+            grid.put(i, points[i][0], points[i][1]);
+        }
+
+        // Act
+        List<GeoGrid.Hit> hits = grid.withinRadius(31.52, 74.35, 3.0, Integer.MAX_VALUE);
+
+        // Assert
+        List<GeoGrid.Hit> expected = bruteForce(points, 31.52, 74.35, 3.0);
+        assertFalse(expected.isEmpty(), "Fixture should place points inside the radius");
+        assertEquals(ids(expected), ids(hits), "Grid must find exactly the points within the radius");
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1).distanceKm() <= hits.get(i).distanceKm(), "Hits must be ordered by distance");
+        }
+    }
+
+    /**
+     * Test that k-nearest returns the same neighbours as a full scan.
+     */
+    @Test
+    void testNearest_MatchesBruteForce() {
+        // Arrange
+        GeoGrid grid = new GeoGrid(0.02);
+        double[][] points = randomPoints(new Random(7), 5_000, 24.0, 37.0, 61.0, 77.0);
+        for (int i = 0; i < points.length; i++) {
+            grid.put(i, points[i][0], points[i][1]);
+        }
+
+        // Act
+        List<GeoGrid.Hit> hits = grid.nearest(30.0, 70.0, 10, 2000.0);
+
+        // Assert
+        List<GeoGrid.Hit> expected = bruteForce(points, 30.0, 70.0, Double.MAX_VALUE).subList(0, 10);
+        assertEquals(ids(expected), ids(hits), "Grid must return the ten closest points");
+    }
+
+    /**
+     * Test that removed points are no longer returned and size is tracked.
+     */
+    @Test
+    void testRemove() {
+        // Arrange
+        GeoGrid grid = new GeoGrid(0.02);
+        grid.put(1L, 31.5, 74.3);
+        grid.put(2L, 31.5001, 74.3001);
+
+        // Act
+        boolean removed = grid.remove(1L, 31.5, 74.3);
+        boolean removedAgain = grid.remove(1L, 31.5, 74.3);
+
+        // Assert
+        assertTrue(removed, "First removal should succeed");
+        assertFalse(removedAgain, "Second removal should report the point missing");
+        assertEquals(1, grid.size(), "Only one point should remain");
+        assertEquals(List.of(2L), ids(grid.withinRadius(31.5, 74.3, 1.0, 10)));
+    }
+
+    /**
+     * Test that searches wrap across the antimeridian.
+     */
+    @Test
+    void testWithinRadius_AcrossAntimeridian() {
+        // Arrange
+        GeoGrid grid = new GeoGrid(0.05);
+        grid.put(1L, 0.0, 179.99);
+        grid.put(2L, 0.0, -179.99);
+
+        // Act
+        List<GeoGrid.Hit> hits = grid.withinRadius(0.0, 180.0, 5.0, 10);
+
+        // Assert
+        assertEquals(2, hits.size(), "Points on both sides of the antimeridian should be found");
+    }
+
+    /**
+     * Test that out-of-range coordinates are rejected.
+     */
+    @Test
+    void testPut_InvalidCoordinates() {
+        GeoGrid grid = new GeoGrid(0.02);
+        assertThrows(IllegalArgumentException.class, () -> grid.put(1L, 91.0, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> grid.put(1L, 0.0, -181.0));
+    }
+
+    /**
+     * Benchmark: radius and k-nearest latency over one million points, both spread
+     * country-wide and packed into a single metro area. Prints p50/p99 per query.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkOneMillionPoints() {
+        runBenchmark("country-wide (13x16 deg)", 24.0, 37.0, 61.0, 77.0);
+        runBenchmark("single metro (0.5x0.5 deg)", 31.3, 31.8, 74.1, 74.6);
+    }
+
+    private void runBenchmark(String label, double minLat, double maxLat, double minLon, double maxLon) {
+        int pointCount = 1_000_000;
+        int queries = 20_000;
+        Random random = new Random(1);
+        GeoGrid grid = new GeoGrid(0.02);
+
+        long loadStart = System.nanoTime();
+        for (int i = 0; i < pointCount; i++) {
+            grid.put(i, minLat + random.nextDouble() * (maxLat - minLat), minLon + random.nextDouble() * (maxLon - minLon));
+        }
+        long loadMs = (System.nanoTime() - loadStart) / 1_000_000;
+
+        double[][] centres = randomPoints(random, queries, minLat, maxLat, minLon, maxLon);
+        for (double[] c : centres) {
+            // Warm up the JIT before measuring
+            grid.withinRadius(c[0], c[1], 2.0, 50);
+            grid.nearest(c[0], c[1], 20, 200.0);
+        }
+
+        long[] radiusNanos = new long[queries];
+        long[] nearestNanos = new long[queries];
+        for (int i = 0; i < queries; i++) {
+            long t0 = System.nanoTime();
+            grid.withinRadius(centres[i][0], centres[i][1], 2.0, 50);
+            long t1 = System.nanoTime();
+            grid.nearest(centres[i][0], centres[i][1], 20, 200.0);
+            long t2 = System.nanoTime();
+            radiusNanos[i] = t1 - t0;
+            nearestNanos[i] = t2 - t1;
+        }
+
+        System.out.printf("GeoGrid %s: %,d points loaded in %d ms%n", label, grid.size(), loadMs);
+        System.out.printf("  radius 2 km, top 50 : p50 %.3f ms, p99 %.3f ms%n", percentile(radiusNanos, 50), percentile(radiusNanos, 99));
+        System.out.printf("  20 nearest          : p50 %.3f ms, p99 %.3f ms%n", percentile(nearestNanos, 50), percentile(nearestNanos, 99));
+    }
+
+    private static double percentile(long[] nanos, int p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)] / 1_000_000.0;
+    }
+
+    private static double[][] randomPoints(Random random, int count, double minLat, double maxLat, double minLon, double maxLon) {
+        double[][] points = new double[count][];
+        for (int i = 0; i < count; i++) {
+            points[i] = new double[] {
+                minLat + random.nextDouble() * (maxLat - minLat),
+                minLon + random.nextDouble() * (maxLon - minLon)
+            };
+        }
+        return points;
+    }
+
+    private static List<GeoGrid.Hit> bruteForce(double[][] points, double lat, double lon, double radiusKm) {
+        List<GeoGrid.Hit> hits = new ArrayList<>();
+        for (int i = 0; i < points.length; i++) {
+            double d = GeoGrid.distanceKm(lat, lon, points[i][0], points[i][1]);
+            if (d <= radiusKm) {
+                hits.add(new GeoGrid.Hit(i, d));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(GeoGrid.Hit::distanceKm));
+        return hits;
+    }
+
+    private static List<Long> ids(List<GeoGrid.Hit> hits) {
+        return hits.stream().map(GeoGrid.Hit::id).toList();
+    }
+}
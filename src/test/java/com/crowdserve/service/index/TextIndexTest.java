@@ -0,0 +1,250 @@
+package com.crowdserve.service.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TextIndex.
+ * Checks tokenization, BM25 ranking, prefix matching, tags and removal.
+ * Run with -Dbenchmarks=true to also time queries over one million documents.
+ */
+class TextIndexTest {
+
+    private static final int OPEN = 0;
+    private static final int ASSIGNED = 1;
+
+    /**
+     * Test that text is lower-cased, split on punctuation and stripped of stop words.
+     */
+    @Test
+    void testTokenize() {
+        assertEquals(List.of("fix", "leaking", "kitchen", "tap", "42b"),
+            TextIndex.tokenize("Fix the leaking kitchen-tap (#42B)!"));
+        assertTrue(TextIndex.tokenize(null).isEmpty());
+    }
+
+    /**
+     * Test that a title match outranks a body match and a document matching more words ranks higher.
+     */
+    @Test
+    void testSearch_RanksByRelevance() {
+        // Arrange
+        TextIndex index = new TextIndex();
+        index.put(1L, OPEN, "Garden help", "Need someone to mow the lawn");
+        index.put(2L, OPEN, "Lawn mowing", "Small garden, one hour");
+        index.put(3L, OPEN, "Move boxes", "Carry boxes to the garage");
+
+        // Act
+        List<TextIndex.Hit> lawn = index.search("lawn", TextIndex.ANY_TAG, 10);
+        List<TextIndex.Hit> lawnGarden = index.search("garden lawn mowing", TextIndex.ANY_TAG, 10);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), ids(lawn), "Title match should rank first; unrelated task must not match");
+        assertEquals(2L, lawnGarden.get(0).id(), "Task matching every word should rank first");
+    }
+
+    /**
+     * Test that the last query word matches as a prefix, but earlier words do not.
+     */
+    @Test
+    void testSearch_PrefixOnLastWord() {
+        // Arrange
+        TextIndex index = new TextIndex();
+        index.put(1L, OPEN, "Plumber needed", "Leaking pipe");
+        index.put(2L, OPEN, "Plumbing repair", "Bathroom sink");
+        index.put(3L, OPEN, "Painter", "Paint the fence");
+
+        // Act & Assert
+        assertEquals(List.of(1L, 2L), sorted(ids(index.search("plumb", TextIndex.ANY_TAG, 10))));
+        assertTrue(index.search("plumb sink", TextIndex.ANY_TAG, 10).stream().noneMatch(hit -> hit.id() == 1L),
+            "Only the last word is a prefix; 'plumb' alone must not match 'plumber'");
+        assertTrue(index.search("p", TextIndex.ANY_TAG, 10).isEmpty(), "Single-letter prefixes are not expanded");
+    }
+
+    /**
+     * Test that searches can be limited to a tag and that retagging does not need re-indexing.
+     */
+    @Test
+    void testSearch_FiltersByTag() {
+        // Arrange
+        TextIndex index = new TextIndex();
+        index.put(1L, OPEN, "Dog walking", null);
+        index.put(2L, OPEN, "Dog sitting", null);
+
+        // Act
+        index.setTag(2L, ASSIGNED);
+
+        // Assert
+        assertEquals(List.of(1L), ids(index.search("dog", OPEN, 10)));
+        assertEquals(List.of(2L), ids(index.search("dog", ASSIGNED, 10)));
+        assertEquals(2, index.search("dog", TextIndex.ANY_TAG, 10).size());
+    }
+
+    /**
+     * Test that updated text replaces the old terms and removed documents disappear.
+     */
+    @Test
+    void testPutAndRemove() {
+        // Arrange
+        TextIndex index = new TextIndex();
+        index.put(1L, OPEN, "Window cleaning", null);
+        index.put(2L, OPEN, "Window repair", null);
+
+        // Act
+        index.put(1L, OPEN, "Gutter cleaning", null);
+        boolean removed = index.remove(2L);
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(index.remove(2L), "Second removal should report the document missing");
+        assertTrue(index.search("window", TextIndex.ANY_TAG, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("gutter", TextIndex.ANY_TAG, 10)));
+        assertEquals(1, index.size());
+    }
+
+    /**
+     * Test that results stay correct after enough removals to trigger compaction.
+     */
+    @Test
+    void testRemove_Compaction() {
+        // Arrange
+        TextIndex index = new TextIndex();
+        for (int i = 0; i < 5_000; i++) {
+            index.put(i, OPEN, "task " + (i % 2 == 0 ? "even" : "odd"), "number " + i);
+        }
+
+        // Act
+        for (int i = 0; i < 5_000; i += 2) {
+            index.remove(i);
+        }
+
+        // Assert
+        assertEquals(2_500, index.size());
+        assertTrue(index.search("even", TextIndex.ANY_TAG, 10).isEmpty());
+        assertEquals(List.of(4_999L), ids(index.search("4999", TextIndex.ANY_TAG, 10)));
+        assertEquals(2_500, index.search("odd", TextIndex.ANY_TAG, 10_000).size());
+    }
+
+    /**
+     * Test that batches added concurrently are all searchable and the skip predicate is honoured.
+     */
+    @Test
+    void testAddAll_FromSeveralThreads() {
+        // Arrange
+        TextIndex index = new TextIndex();
+
+        // Act
+        IntStream.range(0, 8).parallel().forEach(slice -> {
+            List<TextIndex.Document> batch = new ArrayList<>();
+            for (int i = slice * 1_000; i < (slice + 1) * 1_000; i++) {
+                batch.add(TextIndex.analyze(i, OPEN, "shared title", "item" + i));
+            }
+            index.addAll(batch, id -> id % 1_000 == 0);
+        });
+
+        // Assert
+        assertEquals(8_000 - 8, index.size(), "Skipped ids must not be added");
+        assertEquals(List.of(1_234L), ids(index.search("item1234", TextIndex.ANY_TAG, 10)));
+        assertTrue(index.search("item1000", TextIndex.ANY_TAG, 10).isEmpty());
+    }
+
+    /**
+     * Benchmark: indexing and query latency over one million task-like documents.
+     * Prints load time and p50/p99 for one-word, three-word and prefix queries.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkOneMillionDocuments() {
+        int documentCount = 1_000_000;
+        int queries = 2_000;
+        Random random = new Random(1);
+        String[] vocabulary = vocabulary(20_000);
+        TextIndex index = new TextIndex();
+
+        long loadStart = System.nanoTime();
+        IntStream.range(0, 100).parallel().forEach(slice -> {
+            Random sliceRandom = new Random(slice);
+            List<TextIndex.Document> batch = new ArrayList<>();
+            for (int i = slice * (documentCount / 100); i < (slice + 1) * (documentCount / 100); i++) {
+                batch.add(TextIndex.analyze(i, i % 4 == 0 ? ASSIGNED : OPEN,
+                    words(sliceRandom, vocabulary, 5), words(sliceRandom, vocabulary, 40)));
+            }
+            index.addAll(batch, id -> false);
+        });
+        long loadMs = (System.nanoTime() - loadStart) / 1_000_000;
+
+        String[][] workloads = new String[3][queries];
+        for (int i = 0; i < queries; i++) {
+            workloads[0][i] = words(random, vocabulary, 1);
+            workloads[1][i] = words(random, vocabulary, 3);
+            String word = words(random, vocabulary, 1);
+            workloads[2][i] = word.substring(0, Math.min(word.length(), 4));
+        }
+
+        System.out.printf("TextIndex: %,d documents indexed in %d ms%n", index.size(), loadMs);
+        String[] labels = {"one word   ", "three words", "4-char pfx "};
+        for (int w = 0; w < workloads.length; w++) {
+            for (String query : workloads[w]) {
+                // Warm up the JIT before measuring
+                index.search(query, OPEN, 20);
+            }
+            long[] nanos = new long[queries];
+            for (int i = 0; i < queries; i++) {
+                long t0 = System.nanoTime();
+                index.search(workloads[w][i], OPEN, 20);
+                nanos[i] = System.nanoTime() - t0;
+            }
+            System.out.printf("  %s top 20 : p50 %.3f ms, p99 %.3f ms%n", labels[w], percentile(nanos, 50), percentile(nanos, 99));
+        }
+    }
+
+    /**
+     * Synthetic words of 3 to 9 letters.
+     */
+    private static String[] vocabulary(int size) {
+        Random random = new Random(3);
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            char[] letters = new char[3 + random.nextInt(7)];
+            for (int c = 0; c < letters.length; c++) {
+                letters[c] = (char) ('a' + random.nextInt(26));
+            }
+            words[i] = new String(letters);
+        }
+        return words;
+    }
+
+    /**
+     * Picks words with a Zipf-like skew so some terms are very common, as in real text.
+     */
+    private static String words(Random random, String[] vocabulary, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int rank = (int) Math.floor(Math.pow(vocabulary.length, random.nextDouble())) - 1;
+            text.append(vocabulary[rank]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static double percentile(long[] nanos, int p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)] / 1_000_000.0;
+    }
+
+    private static List<Long> ids(List<TextIndex.Hit> hits) {
+        return hits.stream().map(TextIndex.Hit::id).toList();
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().toList();
+    }
+}
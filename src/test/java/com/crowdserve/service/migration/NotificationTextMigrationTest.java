@@ -0,0 +1,224 @@
+package com.crowdserve.service.migration;
+
+import com.crowdserve.dto.NotificationItemDto;
+import com.crowdserve.model.Notification;
+import com.crowdserve.model.NotificationKind;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.repository.TaskRepository;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for templated notification storage and NotificationTextMigration.
+ * Checks that a templated notification is stored without text and shows the task's
+ * current title, and that the migration converts stored text its template
+ * reproduces, leaves other text alone, and changes nothing a user sees.
+ */
+@SpringBootTest
+class NotificationTextMigrationTest {
+
+    @Autowired
+    private NotificationTextMigration migration;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User poster;
+    private User worker;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        poster = userRepository.save(newUser("template-poster", "Pat Poster"));
+        worker = userRepository.save(newUser("template-worker", "Wes Worker"));
+        task = new Task();
+        task.setTitle("Paint the fence");
+        task.setLocation("Anywhere");
+        task.setReward(25.0);
+        task.setStatus(TaskStatus.COMPLETED);
+        task.setPoster(poster);
+        task.setWorker(worker);
+        task = taskRepository.save(task);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll(notificationRepository.findByUserOrderByCreatedAtDesc(poster));
+        notificationRepository.deleteAll(notificationRepository.findByUserOrderByCreatedAtDesc(worker));
+        taskRepository.delete(task);
+        userRepository.delete(poster);
+        userRepository.delete(worker);
+    }
+
+    /**
+     * Test that a templated notification has no stored text and follows a renamed task.
+     */
+    @Test
+    void testTemplated_RenderedFromCurrentTask() {
+        // Arrange
+        Notification notification = notificationService.createNotification(poster, NotificationKind.TASK_COMPLETED,
+            task, worker);
+
+        // Act
+        task.setTitle("Paint the whole fence");
+        task = taskRepository.save(task);
+        NotificationItemDto item = notificationService.getInboxPage(poster, false, null, 10).notifications().get(0);
+
+        // Assert
+        Notification stored = notificationRepository.findById(notification.getId()).orElseThrow();
+        assertNull(stored.getTitle());
+        assertNull(stored.getMessage());
+        assertEquals("Task Completed!", item.title());
+        assertEquals("Your task 'Paint the whole fence' has been completed by Wes Worker.", item.message());
+    }
+
+    /**
+     * Test that rows whose text the template reproduces are converted and the rest kept.
+     */
+    @Test
+    void testMigrate_ConvertsReproducibleText() {
+        // Arrange: the text the application used to store, and one row about an old task title
+        Notification created = textNotification(poster, "Task Created",
+            "Your task 'Paint the fence' has been posted and is now visible to workers.");
+        Notification completed = textNotification(poster, "Task Completed!",
+            "Your task 'Paint the fence' has been completed by Wes Worker.");
+        Notification worked = textNotification(worker, "Task Completed!",
+            "You have successfully completed the task 'Paint the fence'. Reward: $25.0");
+        Notification renamed = textNotification(poster, "Task Created",
+            "Your task 'Paint a fence' has been posted and is now visible to workers.");
+        notificationRepository.saveAll(List.of(created, completed, worked, renamed));
+        List<String> before = shown(poster);
+        before.addAll(shown(worker));
+
+        // Act
+        int converted = migration.migrate();
+
+        // Assert
+        assertTrue(converted >= 3);
+        List<String> after = shown(poster);
+        after.addAll(shown(worker));
+        assertEquals(before, after, "Users should see the same text as before");
+        Notification storedCompleted = notificationRepository.findById(completed.getId()).orElseThrow();
+        assertNull(storedCompleted.getMessage());
+        assertEquals(NotificationKind.TASK_COMPLETED, storedCompleted.getKind());
+        assertEquals(worker.getId(), storedCompleted.getActor().getId());
+        Notification storedWorked = notificationRepository.findById(worked.getId()).orElseThrow();
+        assertEquals(NotificationKind.TASK_WORK_COMPLETED, storedWorked.getKind());
+        assertEquals(25.0, storedWorked.getAmount());
+        assertNull(notificationRepository.findById(created.getId()).orElseThrow().getTitle());
+        assertEquals("Task Created", notificationRepository.findById(renamed.getId()).orElseThrow().getTitle());
+    }
+
+    /**
+     * Benchmark: bytes and insert time per notification, stored as text and as templates.
+     * Bytes are those of the columns the two forms use differently (title, message, kind,
+     * actor and amount); the in-memory test database cannot report the space rows take on disk.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkBytesPerNotification() {
+        int rows = 50_000;
+        Supplier<Notification> asText = () -> textNotification(worker, "Task Completed!",
+            "You have successfully completed the task '" + task.getTitle() + "'. Reward: $" + task.getReward());
+        Supplier<Notification> asTemplate = () -> {
+            Notification notification = textNotification(worker, null, null);
+            notification.setKind(NotificationKind.TASK_WORK_COMPLETED);
+            notification.setAmount(task.getReward());
+            return notification;
+        };
+        insert(5_000, asText);
+        insert(5_000, asTemplate);
+
+        long textMs = insert(rows, asText);
+        long templateMs = insert(rows, asTemplate);
+
+        String bytes = "select avg(coalesce(octet_length(title), 0) + coalesce(octet_length(message), 0) "
+            + "+ coalesce(octet_length(kind), 0) + case when actor_id is null then 0 else 8 end "
+            + "+ case when amount is null then 0 else 8 end) from notifications where user_id = ? and kind is ";
+        double textBytes = jdbcTemplate.queryForObject(bytes + "null", Double.class, worker.getId());
+        double templateBytes = jdbcTemplate.queryForObject(bytes + "not null", Double.class, worker.getId());
+        System.out.printf("Notifications as text:      %.0f bytes/row, %,d rows inserted in %d ms%n", textBytes, rows, textMs);
+        System.out.printf("Notifications as templates: %.0f bytes/row, %,d rows inserted in %d ms%n", templateBytes, rows, templateMs);
+    }
+
+    /**
+     * @return the time taken to insert the rows, a thousand per transaction
+     */
+    private long insert(int rows, Supplier<Notification> factory) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        for (int from = 0; from < rows; from += 1000) {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Notification> chunk = new ArrayList<>(1000);
+                for (int i = 0; i < 1000; i++) {
+                    chunk.add(factory.get());
+                }
+                notificationRepository.saveAll(chunk);
+            });
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private List<String> shown(User user) {
+        List<String> shown = new ArrayList<>();
+        for (NotificationItemDto item : notificationService.getInboxPage(user, false, null, 100).notifications()) {
+            shown.add(item.id() + " " + item.title() + " " + item.message());
+        }
+        return shown;
+    }
+
+    private Notification textNotification(User user, String title, String message) {
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setTitle(title);
+        notification.setMessage(message);
+        notification.setRelatedTask(task);
+        notification.setCreatedAt(LocalDateTime.now());
+        return notification;
+    }
+
+    private static User newUser(String prefix, String fullName) {
+        String email = prefix + "-" + UUID.randomUUID() + "@example.com";
+        User user = new User();
+        user.setUsername(email);
+        user.setFullName(fullName);
+        user.setEmail(email);
+        user.setPassword("{noop}password123");
+        return user;
+    }
+}
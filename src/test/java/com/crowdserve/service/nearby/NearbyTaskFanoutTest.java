@@ -0,0 +1,364 @@
+package com.crowdserve.service.nearby;
+
+import com.crowdserve.config.NearbyTaskProperties;
+import com.crowdserve.config.NotificationCoalescingProperties;
+import com.crowdserve.dto.NearbyTaskDto;
+import com.crowdserve.model.AreaSubscription;
+import com.crowdserve.model.Notification;
+import com.crowdserve.model.NotificationKind;
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.AreaSubscriptionRepository;
+import com.crowdserve.repository.NearbyTaskBroadcastRepository;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.repository.TaskRepository;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.batch.NotificationBatchWriter;
+import com.crowdserve.service.digest.NotificationCoalescer;
+import com.crowdserve.service.facade.TaskWorkflowFacade;
+import com.crowdserve.service.impl.AreaSubscriptionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for NearbyTaskFanout and AreaSubscriptionServiceImpl.
+ * Checks that a new task reaches the users watching its area as notifications while
+ * they are few, and as a single broadcast found on read once they are more than the
+ * write limit, that the poster and users watching elsewhere are left out, and that
+ * subscriptions are validated. Run with -Dbenchmarks=true to also time fan-out to
+ * 100,000 subscribers.
+ */
+@SpringBootTest
+class NearbyTaskFanoutTest {
+
+    @Autowired
+    private AreaSubscriptionRepository areaSubscriptionRepository;
+
+    @Autowired
+    private NearbyTaskBroadcastRepository broadcastRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationBatchWriter notificationBatchWriter;
+
+    @Autowired
+    private TaskWorkflowFacade taskWorkflowFacade;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Task> tasks = new ArrayList<>();
+    private NotificationCoalescer coalescer;
+    private NearbyTaskFanout fanout;
+    private AreaSubscriptionServiceImpl areaSubscriptionService;
+    private User poster;
+
+    @BeforeEach
+    void setUp() {
+        // No coalescing, so each watcher's notification is written as it comes
+        coalescer = new NotificationCoalescer(notificationBatchWriter,
+            new NotificationCoalescingProperties(false, Duration.ofMinutes(1), Duration.ofHours(1)), new SimpleMeterRegistry(),
+            taskScheduler);
+        fanout = newFanout(3);
+        areaSubscriptionService = new AreaSubscriptionServiceImpl(areaSubscriptionRepository, taskRepository, fanout,
+            properties(3));
+        poster = newUser("nearby-poster");
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+        for (User user : users) {
+            notificationRepository.deleteAll(notificationRepository.findByUserOrderByCreatedAtDesc(user));
+            areaSubscriptionRepository.deleteAll(areaSubscriptionRepository.findByUser_IdOrderByCreatedAtAsc(user.getId()));
+        }
+        for (Task task : tasks) {
+            broadcastRepository.deleteById(task.getId());
+            taskRepository.deleteById(task.getId());
+        }
+        userRepository.deleteAll(users);
+    }
+
+    /**
+     * Test that a task with no more watchers than the limit notifies each of them, but not
+     * the poster watching the same area or a user watching elsewhere.
+     */
+    @Test
+    void testFewWatchers_NotifiedOnWrite() {
+        // Arrange
+        List<User> watchers = List.of(newUser("nearby-a"), newUser("nearby-b"), newUser("nearby-c"));
+        for (User watcher : watchers) {
+            areaSubscriptionService.subscribe(watcher, 31.52, 74.35, 5.0);
+        }
+        areaSubscriptionService.subscribe(poster, 31.52, 74.35, 5.0);
+        User elsewhere = newUser("nearby-elsewhere");
+        areaSubscriptionService.subscribe(elsewhere, 31.70, 74.35, 5.0);
+        Task task = newTask("Fix a bike", 31.53, 74.36);
+
+        // Act
+        fanout.onTaskCreated(task);
+
+        // Assert
+        for (User watcher : watchers) {
+            List<Notification> received = notificationRepository.findByUserOrderByCreatedAtDesc(watcher);
+            assertEquals(1, received.size(), "Each watcher should get one notification");
+            assertEquals(NotificationKind.NEARBY_TASK, received.get(0).getKind());
+            assertEquals("A new task 'Fix a bike' was posted near you. Reward: $15.0", received.get(0).displayMessage());
+        }
+        assertTrue(notificationRepository.findByUserOrderByCreatedAtDesc(poster).isEmpty(), "The poster should not be told");
+        assertTrue(notificationRepository.findByUserOrderByCreatedAtDesc(elsewhere).isEmpty());
+        assertFalse(broadcastRepository.existsById(task.getId()));
+    }
+
+    /**
+     * Test that a task with more watchers than the limit writes no notifications but one
+     * broadcast, which each watcher finds on read until the task is taken.
+     */
+    @Test
+    void testManyWatchers_FoundOnRead() {
+        // Arrange
+        List<User> watchers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            User watcher = newUser("nearby-many");
+            areaSubscriptionService.subscribe(watcher, 31.52, 74.35, 5.0);
+            watchers.add(watcher);
+        }
+        User elsewhere = newUser("nearby-elsewhere");
+        areaSubscriptionService.subscribe(elsewhere, 31.70, 74.35, 5.0);
+        Task task = newTask("Move a sofa", 31.53, 74.36);
+
+        // Act
+        fanout.onTaskCreated(task);
+
+        // Assert
+        assertTrue(broadcastRepository.existsById(task.getId()), "The task should be recorded once");
+        for (User watcher : watchers) {
+            assertTrue(notificationRepository.findByUserOrderByCreatedAtDesc(watcher).isEmpty());
+            List<NearbyTaskDto> nearby = areaSubscriptionService.getNearbyTasks(watcher, 10);
+            assertEquals(1, nearby.size(), "Each watcher should find the task when reading");
+            assertEquals(task.getId(), nearby.get(0).task().getId());
+            assertTrue(nearby.get(0).distanceKm() < 2.0);
+        }
+        assertTrue(areaSubscriptionService.getNearbyTasks(elsewhere, 10).isEmpty());
+        areaSubscriptionService.subscribe(poster, 31.52, 74.35, 5.0);
+        assertTrue(areaSubscriptionService.getNearbyTasks(poster, 10).isEmpty(), "The poster should not see their own task");
+
+        // Act: the task is taken
+        task.setStatus(TaskStatus.ASSIGNED);
+        fanout.onTaskAssigned(task);
+
+        // Assert
+        assertFalse(broadcastRepository.existsById(task.getId()));
+        assertTrue(areaSubscriptionService.getNearbyTasks(watchers.get(0), 10).isEmpty());
+    }
+
+    /**
+     * Test that a removed area stops receiving tasks, and that only its owner can remove it.
+     */
+    @Test
+    void testSubscriptionLifecycle() {
+        // Arrange
+        AreaSubscription area = areaSubscriptionService.subscribe(newUser("nearby-life"), 31.52, 74.35, 5.0);
+
+        // Act
+        areaSubscriptionService.unsubscribe(area.getUser(), area.getId());
+        fanout.onTaskCreated(newTask("Water plants", 31.52, 74.35));
+
+        // Assert
+        assertTrue(notificationRepository.findByUserOrderByCreatedAtDesc(area.getUser()).isEmpty());
+        assertTrue(areaSubscriptionService.getSubscriptions(area.getUser()).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> areaSubscriptionService.unsubscribe(poster, area.getId()));
+    }
+
+    /**
+     * Test that subscriptions outside the allowed radius or beyond the per-user limit are rejected.
+     */
+    @Test
+    void testSubscribe_Validation() {
+        // Arrange
+        User user = newUser("nearby-limits");
+        NearbyTaskProperties properties = properties(3);
+        for (int i = 0; i < properties.maxAreasPerUser(); i++) {
+            areaSubscriptionService.subscribe(user, 31.0 + i * 0.1, 74.0, 1.0);
+        }
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> areaSubscriptionService.subscribe(user, 32.0, 74.0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> areaSubscriptionService.subscribe(poster, 31.0, 74.0, 26.0));
+        assertThrows(IllegalArgumentException.class, () -> areaSubscriptionService.subscribe(poster, 31.0, 74.0, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> areaSubscriptionService.subscribe(poster, 95.0, 74.0, 1.0));
+    }
+
+    /**
+     * Benchmark: 100,000 subscribers, each watching one area spread over a country-sized
+     * region and one in a single crowded city. Prints the index load time, then tasks and
+     * notifications per second for tasks posted across the country (small audiences, written)
+     * and in the city (every subscriber watches it, so broadcast), the cost of reading the
+     * city's broadcasts, and what writing one city task to every subscriber would cost instead.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void benchmarkOneHundredThousandSubscribers() {
+        int subscribers = 100_000;
+        String prefix = "nearby-bench-" + UUID.randomUUID();
+        Random random = new Random(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long setupStart = System.nanoTime();
+        for (int from = 0; from < subscribers; from += 1000) {
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<User> chunk = new ArrayList<>(1000);
+                for (int i = first; i < first + 1000; i++) {
+                    chunk.add(user(prefix + "-" + i));
+                }
+                List<AreaSubscription> areas = new ArrayList<>(2000);
+                for (User user : userRepository.saveAll(chunk)) {
+                    areas.add(area(user, 24.0 + random.nextDouble() * 6.0, 61.0 + random.nextDouble() * 9.0,
+                        1.0 + random.nextDouble() * 24.0));
+                    areas.add(area(user, 34.9 + random.nextDouble() * 0.2, 74.9 + random.nextDouble() * 0.2, 25.0));
+                }
+                areaSubscriptionRepository.saveAll(areas);
+            });
+        }
+        System.out.printf("Setup: %,d subscribers with two areas each in %d ms%n", subscribers,
+            (System.nanoTime() - setupStart) / 1_000_000);
+        try {
+            NearbyTaskFanout hybrid = newFanout(1000);
+            long loadStart = System.nanoTime();
+            hybrid.load();
+            System.out.printf("Index load: %,d areas in %d ms%n", hybrid.areaCount(), (System.nanoTime() - loadStart) / 1_000_000);
+
+            List<Task> spread = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                spread.add(newTask("Spread " + i, 24.5 + random.nextDouble() * 5.0, 61.5 + random.nextDouble() * 8.0));
+            }
+            List<Task> crowded = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                crowded.add(newTask("Crowded " + i, 34.95 + random.nextDouble() * 0.1, 74.95 + random.nextDouble() * 0.1));
+            }
+
+            long written = notifications(prefix);
+            long start = System.nanoTime();
+            spread.forEach(hybrid::onTaskCreated);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            written = notifications(prefix) - written;
+            System.out.printf("Spread tasks (written): %,d tasks, %,.1f watchers each, %,.0f tasks/s, %,.0f notifications/s%n",
+                spread.size(), (double) written / spread.size(), spread.size() / seconds, written / seconds);
+
+            start = System.nanoTime();
+            crowded.forEach(hybrid::onTaskCreated);
+            seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Crowded tasks (broadcast): %,d tasks to %,d watchers each, %,.0f tasks/s, %,.0f watchers reached/s%n",
+                crowded.size(), subscribers, crowded.size() / seconds, (double) crowded.size() * subscribers / seconds);
+
+            AreaSubscriptionServiceImpl reader = new AreaSubscriptionServiceImpl(areaSubscriptionRepository, taskRepository,
+                hybrid, properties(1000));
+            User subscriber = userRepository.findByUsername(prefix + "-0");
+            reader.getNearbyTasks(subscriber, 20);
+            int reads = 200;
+            start = System.nanoTime();
+            for (int i = 0; i < reads; i++) {
+                reader.getNearbyTasks(subscriber, 20);
+            }
+            System.out.printf("Reading %,d broadcasts for one subscriber: %.2f ms per page%n", crowded.size(),
+                (System.nanoTime() - start) / 1e6 / reads);
+
+            NearbyTaskFanout writeOnly = newFanout(Integer.MAX_VALUE);
+            writeOnly.load();
+            Task single = newTask("Crowded written", 35.0, 75.0);
+            written = notifications(prefix);
+            start = System.nanoTime();
+            writeOnly.onTaskCreated(single);
+            seconds = (System.nanoTime() - start) / 1e9;
+            written = notifications(prefix) - written;
+            System.out.printf("One crowded task written instead: %,d notifications in %.1f s, %,.0f notifications/s%n",
+                written, seconds, written / seconds);
+        } finally {
+            String users = "select id from users where username like '" + prefix + "%'";
+            jdbcTemplate.update("delete from notifications where user_id in (" + users + ")");
+            jdbcTemplate.update("delete from area_subscriptions where user_id in (" + users + ")");
+            jdbcTemplate.update("delete from users where username like '" + prefix + "%'");
+        }
+    }
+
+    private long notifications(String prefix) {
+        return jdbcTemplate.queryForObject("select count(*) from notifications n join users u on u.id = n.user_id "
+            + "where u.username like '" + prefix + "%'", Long.class);
+    }
+
+    private NearbyTaskFanout newFanout(int writeLimit) {
+        return new NearbyTaskFanout(areaSubscriptionRepository, broadcastRepository, userRepository, notificationBatchWriter,
+            coalescer, taskWorkflowFacade, transactionManager, properties(writeLimit), new SimpleMeterRegistry());
+    }
+
+    private static NearbyTaskProperties properties(int writeLimit) {
+        return new NearbyTaskProperties(25.0, 5, 0.1, writeLimit, 500, Duration.ofDays(7));
+    }
+
+    private static AreaSubscription area(User user, double latitude, double longitude, double radiusKm) {
+        return new AreaSubscription(null, user, latitude, longitude, radiusKm, LocalDateTime.now());
+    }
+
+    private Task newTask(String title, double latitude, double longitude) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setLocation("Nearby");
+        task.setReward(15.0);
+        task.setStatus(TaskStatus.OPEN);
+        task.setPoster(poster);
+        task.setLatitude(latitude);
+        task.setLongitude(longitude);
+        task = taskRepository.save(task);
+        tasks.add(task);
+        return task;
+    }
+
+    private User newUser(String prefix) {
+        User user = userRepository.save(user(prefix + "-" + UUID.randomUUID()));
+        users.add(user);
+        return user;
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setUsername(name);
+        user.setFullName("Nearby User");
+        user.setEmail(name + "@example.com");
+        user.setPassword("{noop}password123");
+        return user;
+    }
+}
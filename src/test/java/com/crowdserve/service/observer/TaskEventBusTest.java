@@ -0,0 +1,267 @@
+package com.crowdserve.service.observer;
+
+import com.crowdserve.config.TaskEventProperties;
+import com.crowdserve.model.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TaskEventBus.
+ * Checks that events wait for the commit and are dropped on rollback, that an
+ * asynchronous observer gets its events in order without holding up the others,
+ * that failures are retried and then dead-lettered, that a full queue is handled
+ * by the overflow policy, and that a failing after-commit observer does not
+ * reach the publisher.
+ */
+class TaskEventBusTest {
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Test that an event published in a transaction is delivered on commit and never on rollback.
+     */
+    @Test
+    void testPublish_WaitsForCommit() {
+        // Arrange
+        TaskEventBus bus = bus(properties(10, TaskEventProperties.Overflow.BLOCK, 1));
+        RecordingObserver observer = new RecordingObserver();
+        bus.subscribe(observer, TaskEventBus.Delivery.AFTER_COMMIT);
+
+        // Act: one transaction commits, the next one rolls back
+        TransactionSynchronizationManager.initSynchronization();
+        bus.publish(TaskEventType.COMPLETED, task(1L));
+        assertTrue(observer.events.isEmpty(), "Nothing should be delivered before the commit");
+        finish(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        bus.publish(TaskEventType.COMPLETED, task(2L));
+        finish(false);
+
+        // Assert
+        assertEquals(List.of("COMPLETED 1"), observer.events);
+    }
+
+    /**
+     * Test that a slow observer gets every event in order while a fast one is not held up.
+     */
+    @Test
+    void testAsync_OrderedPerObserverAndIndependent() throws Exception {
+        // Arrange
+        TaskEventBus bus = bus(properties(100, TaskEventProperties.Overflow.BLOCK, 1));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver slow = new RecordingObserver() {
+            @Override
+            public void onTaskCreated(Task task) {
+                await(release);
+                super.onTaskCreated(task);
+            }
+        };
+        RecordingObserver fast = new RecordingObserver();
+        bus.subscribe(slow);
+        bus.subscribe(fast);
+
+        // Act
+        for (long id = 1; id <= 20; id++) {
+            bus.publish(TaskEventType.CREATED, task(id));
+        }
+
+        // Assert
+        awaitCount(fast, 20);
+        assertTrue(slow.events.isEmpty(), "The slow observer is still on its first event");
+        release.countDown();
+        awaitCount(slow, 20);
+        List<String> expected = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            expected.add("CREATED " + id);
+        }
+        assertEquals(expected, slow.events);
+        assertEquals(20, meterRegistry.get("crowdserve.task-events.lag").tag("observer", "TaskEventBusTest.RecordingObserver")
+            .timer().count(), "Lag should be recorded per delivery");
+    }
+
+    /**
+     * Test that a failing call is retried, and an event that keeps failing is dead-lettered.
+     */
+    @Test
+    void testAsync_RetriesThenDeadLetters() throws Exception {
+        // Arrange: the first event fails once, the second always fails
+        TaskEventBus bus = bus(properties(10, TaskEventProperties.Overflow.BLOCK, 3));
+        AtomicInteger calls = new AtomicInteger();
+        RecordingObserver flaky = new RecordingObserver() {
+            @Override
+            public void onTaskCompleted(Task task) {
+                calls.incrementAndGet();
+                if (task.getId() == 2L || calls.get() == 1) {
+                    throw new IllegalStateException("observer failed");
+                }
+                super.onTaskCompleted(task);
+            }
+        };
+        bus.subscribe(flaky);
+
+        // Act
+        bus.publish(TaskEventType.COMPLETED, task(1L));
+        bus.publish(TaskEventType.COMPLETED, task(2L));
+
+        // Assert
+        awaitDeadLetters("failed", 1);
+        assertEquals(List.of("COMPLETED 1"), flaky.events);
+        assertEquals(5, calls.get(), "Two calls for the first event, three for the second");
+    }
+
+    /**
+     * Test that under the drop policy an event for an observer with a full queue is dead-lettered at once.
+     */
+    @Test
+    void testAsync_DropsOnOverflow() throws Exception {
+        // Arrange: the observer blocks on its first event, and one more fits in its queue
+        TaskEventBus bus = bus(properties(1, TaskEventProperties.Overflow.DROP, 1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver blocked = new RecordingObserver() {
+            @Override
+            public void onTaskCreated(Task task) {
+                started.countDown();
+                await(release);
+                super.onTaskCreated(task);
+            }
+        };
+        bus.subscribe(blocked);
+        bus.publish(TaskEventType.CREATED, task(1L));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        bus.publish(TaskEventType.CREATED, task(2L));
+        bus.publish(TaskEventType.CREATED, task(3L));
+
+        // Assert
+        awaitDeadLetters("overflow", 1);
+        release.countDown();
+        awaitCount(blocked, 2);
+        assertEquals(List.of("CREATED 1", "CREATED 2"), blocked.events);
+    }
+
+    /**
+     * Test that a failing after-commit observer neither reaches the publisher nor stops the others.
+     */
+    @Test
+    void testAfterCommit_FailureIsContained() {
+        // Arrange
+        TaskEventBus bus = bus(properties(10, TaskEventProperties.Overflow.BLOCK, 3));
+        RecordingObserver failing = new RecordingObserver() {
+            @Override
+            public void onTaskAssigned(Task task) {
+                throw new IllegalStateException("observer failed");
+            }
+        };
+        RecordingObserver healthy = new RecordingObserver();
+        bus.subscribe(failing, TaskEventBus.Delivery.AFTER_COMMIT);
+        bus.subscribe(healthy, TaskEventBus.Delivery.AFTER_COMMIT);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> bus.publish(TaskEventType.ASSIGNED, task(1L)));
+        assertEquals(List.of("ASSIGNED 1"), healthy.events);
+        assertEquals(1.0, meterRegistry.get("crowdserve.task-events.dead-letter").tag("reason", "failed").counter().count());
+    }
+
+    private TaskEventBus bus(TaskEventProperties properties) {
+        return new TaskEventBus(executor, properties, meterRegistry);
+    }
+
+    private static TaskEventProperties properties(int queueCapacity, TaskEventProperties.Overflow overflow, int maxAttempts) {
+        return new TaskEventProperties(2, queueCapacity, overflow, Duration.ofMillis(100), maxAttempts, Duration.ofMillis(1));
+    }
+
+    private static void finish(boolean commit) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (commit) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+    }
+
+    private void awaitDeadLetters(String reason, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            var counter = meterRegistry.find("crowdserve.task-events.dead-letter").tag("reason", reason).counter();
+            if (counter != null && counter.count() >= count) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Expected " + count + " dead letters for " + reason);
+    }
+
+    private static void awaitCount(RecordingObserver observer, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (observer.events.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, observer.events.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Task task(Long id) {
+        Task task = new Task();
+        task.setId(id);
+        return task;
+    }
+
+    private static class RecordingObserver implements TaskObserver {
+
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onTaskCreated(Task task) {
+            events.add("CREATED " + task.getId());
+        }
+
+        @Override
+        public void onTaskAssigned(Task task) {
+            events.add("ASSIGNED " + task.getId());
+        }
+
+        @Override
+        public void onTaskCompleted(Task task) {
+            events.add("COMPLETED " + task.getId());
+        }
+    }
+}
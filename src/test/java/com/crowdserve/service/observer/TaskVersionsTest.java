@@ -0,0 +1,86 @@
+package com.crowdserve.service.observer;
+
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TaskVersions.
+ * Checks that an event older than one already applied to the same task is
+ * ignored, that a deletion wins over the other events of its version, and that
+ * tasks never saved are always applied.
+ */
+class TaskVersionsTest {
+
+    /**
+     * Test that an event arriving after a newer one of the same task is ignored.
+     */
+    @Test
+    void testApplyIfNewer_IgnoresOlderVersion() {
+        // Arrange
+        TaskVersions versions = new TaskVersions();
+        List<String> applied = new ArrayList<>();
+
+        // Act: the claim commits first, the creation's event arrives after it
+        boolean assigned = versions.applyIfNewer(task(1L, 1L, TaskStatus.ASSIGNED), false, () -> applied.add("ASSIGNED"));
+        boolean created = versions.applyIfNewer(task(1L, 0L, TaskStatus.OPEN), false, () -> applied.add("OPEN"));
+        boolean otherTask = versions.applyIfNewer(task(2L, 0L, TaskStatus.OPEN), false, () -> applied.add("OPEN 2"));
+
+        // Assert
+        assertTrue(assigned);
+        assertFalse(created, "The older event should be ignored");
+        assertTrue(otherTask, "Versions are tracked per task");
+        assertEquals(List.of("ASSIGNED", "OPEN 2"), applied);
+    }
+
+    /**
+     * Test that a deletion is applied after the other events of its version and not undone by them.
+     */
+    @Test
+    void testApplyIfNewer_DeletionComesLastInItsVersion() {
+        // Arrange
+        TaskVersions versions = new TaskVersions();
+        List<String> applied = new ArrayList<>();
+        Task cancelled = task(1L, 2L, TaskStatus.CANCELLED);
+
+        // Act: the deletion's event overtakes the cancellation it followed
+        versions.applyIfNewer(task(1L, 1L, TaskStatus.ASSIGNED), false, () -> applied.add("ASSIGNED"));
+        versions.applyIfNewer(cancelled, true, () -> applied.add("DELETED"));
+        versions.applyIfNewer(cancelled, false, () -> applied.add("CANCELLED"));
+
+        // Assert
+        assertEquals(List.of("ASSIGNED", "DELETED"), applied);
+    }
+
+    /**
+     * Test that a task without a version is applied every time.
+     */
+    @Test
+    void testApplyIfNewer_UnversionedTaskAlwaysApplied() {
+        // Arrange
+        TaskVersions versions = new TaskVersions();
+        List<String> applied = new ArrayList<>();
+        Task unsaved = task(1L, null, TaskStatus.OPEN);
+
+        // Act
+        versions.applyIfNewer(unsaved, false, () -> applied.add("first"));
+        versions.applyIfNewer(unsaved, false, () -> applied.add("second"));
+
+        // Assert
+        assertEquals(List.of("first", "second"), applied);
+        assertEquals(0, versions.size());
+    }
+
+    private static Task task(Long id, Long version, TaskStatus status) {
+        Task task = new Task();
+        task.setId(id);
+        task.setVersion(version);
+        task.setStatus(status);
+        return task;
+    }
+}
@@ -0,0 +1,164 @@
+package com.crowdserve.service.retention;
+
+import com.crowdserve.config.NotificationRetentionProperties;
+import com.crowdserve.model.ArchivedNotification;
+import com.crowdserve.model.Notification;
+import com.crowdserve.model.NotificationKind;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.ArchivedNotificationRepository;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.stream.UnreadCounters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for NotificationRetentionJob.
+ * Checks that old read notifications are moved to the archive and very old ones
+ * deleted, across several chunks, that recent and unread notifications stay, that
+ * the unread count follows deleted unread notifications, and that old archived
+ * notifications are deleted in turn.
+ */
+@SpringBootTest
+class NotificationRetentionJobTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ArchivedNotificationRepository archivedNotificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UnreadCounters unreadCounters;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationRetentionJob job;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // Chunks of 7 so every policy takes several transactions
+        meterRegistry = new SimpleMeterRegistry();
+        job = new NotificationRetentionJob(notificationRepository, archivedNotificationRepository, transactionManager,
+            eventPublisher, new NotificationRetentionProperties(false, Duration.ofHours(1), Duration.ofDays(30),
+                Duration.ofDays(365), 7, Duration.ofMillis(1)), meterRegistry, taskScheduler);
+
+        String email = "retention-" + UUID.randomUUID() + "@example.com";
+        user = new User();
+        user.setUsername(email);
+        user.setFullName("Retention User");
+        user.setEmail(email);
+        user.setPassword("{noop}password123");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+        notificationRepository.deleteAll(notificationRepository.findByUserOrderByCreatedAtDesc(user));
+        archivedNotificationRepository.deleteAll(archivedOf(user));
+        userRepository.delete(user);
+    }
+
+    /**
+     * Test that each policy handles exactly the notifications it applies to.
+     */
+    @Test
+    void testRun_ArchivesOldReadAndPurgesVeryOld() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>();
+        notifications.addAll(notifications(20, true, now.minusDays(40)));    // archived
+        notifications.addAll(notifications(5, false, now.minusDays(40)));    // unread, kept
+        notifications.addAll(notifications(3, true, now.minusDays(400)));    // purged
+        notifications.addAll(notifications(2, false, now.minusDays(400)));   // purged, unread
+        notifications.addAll(notifications(10, true, now.minusDays(1)));     // recent, kept
+        notificationRepository.saveAll(notifications);
+        assertEquals(7, unreadCounters.get(user.getId()));
+
+        // Act
+        NotificationRetentionJob.RetentionRun run = job.run();
+
+        // Assert
+        assertEquals(5, run.purged());
+        assertEquals(20, run.archived());
+        assertEquals(15, notificationRepository.findByUserOrderByCreatedAtDesc(user).size());
+        List<ArchivedNotification> archived = archivedOf(user);
+        assertEquals(20, archived.size());
+        assertTrue(archived.stream().allMatch(ArchivedNotification::isRead));
+        assertEquals(5, unreadCounters.get(user.getId()), "Purged unread notifications should leave the count");
+        assertEquals(20.0, meterRegistry.get("crowdserve.notifications.retention.rows").tag("action", "archived")
+            .counter().count());
+        assertEquals(1, meterRegistry.get("crowdserve.notifications.retention.run").timer().count());
+    }
+
+    /**
+     * Test that archived notifications past the purge age are deleted from the archive.
+     */
+    @Test
+    void testRun_PurgesOldArchivedNotifications() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        archivedNotificationRepository.saveAll(List.of(
+            new ArchivedNotification(-1L - Math.abs(user.getId()), user.getId(), "Ancient", "Archived long ago",
+                now.minusDays(400), true, null, NotificationKind.GENERAL, 1, null, null, now.minusDays(300)),
+            new ArchivedNotification(-1_000_000L - Math.abs(user.getId()), user.getId(), "Old", "Archived lately",
+                now.minusDays(60), true, null, NotificationKind.GENERAL, 1, null, null, now.minusDays(20))));
+
+        // Act
+        NotificationRetentionJob.RetentionRun run = job.run();
+
+        // Assert
+        assertTrue(run.purgedFromArchive() >= 1);
+        List<ArchivedNotification> left = archivedOf(user);
+        assertEquals(1, left.size());
+        assertEquals("Old", left.get(0).getTitle());
+    }
+
+    private List<ArchivedNotification> archivedOf(User owner) {
+        return archivedNotificationRepository.findAll().stream()
+            .filter(archived -> archived.getUserId().equals(owner.getId()))
+            .toList();
+    }
+
+    private List<Notification> notifications(int count, boolean read, LocalDateTime createdAt) {
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Notification notification = new Notification();
+            notification.setUser(user);
+            notification.setTitle("Retention");
+            notification.setMessage("Created " + createdAt);
+            notification.setCreatedAt(createdAt);
+            notification.setRead(read);
+            notifications.add(notification);
+        }
+        return notifications;
+    }
+}
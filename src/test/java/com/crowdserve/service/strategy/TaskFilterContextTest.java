@@ -0,0 +1,136 @@
+package com.crowdserve.service.strategy;
+
+import com.crowdserve.model.Task;
+import com.crowdserve.model.TaskStatus;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.TaskRepository;
+import com.crowdserve.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static com.crowdserve.TestFixtures.task;
+import static com.crowdserve.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TaskFilterContext against an in-memory database.
+ * Checks that every strategy selects the same tasks as a query and in memory,
+ * and that combined strategies narrow the query rather than the loaded list.
+ */
+@DataJpaTest
+class TaskFilterContextTest {
+
+    private static final Sort BY_ID = Sort.by("id");
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.save(user("alice"));
+        bob = userRepository.save(user("bob"));
+
+        taskRepository.save(task("Fix tap", "Model Town", 20.0, TaskStatus.OPEN, alice, null));
+        taskRepository.save(task("Paint fence", "Gulberg III", 50.0, TaskStatus.ASSIGNED, alice, bob));
+        taskRepository.save(task("Walk dog", "gulberg II", 10.0, TaskStatus.COMPLETED, alice, bob));
+        taskRepository.save(task("Move boxes", "DHA 50%_off", 80.0, TaskStatus.OPEN, bob, null));
+        taskRepository.save(task("Clean car", "Johar Town", 35.0, TaskStatus.CANCELLED, bob, alice));
+    }
+
+    /**
+     * Test that each strategy, alone and combined, returns the same tasks from the
+     * database as it keeps when filtering every task in memory.
+     */
+    @Test
+    void testExecuteQuery_MatchesInMemoryFilter() {
+        List<TaskFilterStrategy> strategies = List.of(
+            new OpenTaskFilter(),
+            new AssignedTaskFilter(),
+            new CompletedTaskFilter(),
+            new StatusTaskFilter(TaskStatus.CANCELLED),
+            new RewardRangeTaskFilter(20.0, 50.0),
+            new RewardRangeTaskFilter(null, 20.0),
+            new RewardRangeTaskFilter(40.0, null),
+            new PosterTaskFilter(alice),
+            new WorkerTaskFilter(bob),
+            new LocationTaskFilter("GULBERG"),
+            new LocationTaskFilter("50%_"),
+            new LocationTaskFilter("0%"),
+            new PosterTaskFilter(alice).and(new RewardRangeTaskFilter(15.0, null)).and(new LocationTaskFilter("town")),
+            new WorkerTaskFilter(bob).and(new StatusTaskFilter(TaskStatus.COMPLETED))
+        );
+        List<Task> all = taskRepository.findAll(BY_ID);
+
+        for (TaskFilterStrategy strategy : strategies) {
+            TaskFilterContext context = new TaskFilterContext(strategy);
+            assertEquals(ids(context.executeFilter(all)), ids(context.executeQuery(taskRepository, BY_ID)),
+                "Query and in-memory results differ for " + context.getCurrentFilterName());
+        }
+    }
+
+    /**
+     * Test that combined strategies narrow the query to the matching rows.
+     */
+    @Test
+    void testExecuteQuery_CombinedFilters() {
+        // Arrange
+        TaskFilterStrategy strategy = new PosterTaskFilter(alice)
+            .and(new RewardRangeTaskFilter(15.0, 60.0))
+            .and(new LocationTaskFilter("gulberg"));
+
+        // Act
+        List<Task> tasks = new TaskFilterContext(strategy).executeQuery(taskRepository, BY_ID);
+
+        // Assert
+        assertEquals(List.of("Paint fence"), tasks.stream().map(Task::getTitle).toList());
+        assertEquals("bob", tasks.get(0).getWorker().getUsername(), "Worker should be loaded with the task");
+    }
+
+    /**
+     * Test that parts without a query predicate are still applied, in memory, to the query's rows.
+     */
+    @Test
+    void testExecuteQuery_AppliesResidualInMemory() {
+        // Arrange: a filter that can only run in memory
+        TaskFilterStrategy shortTitles = new TaskFilterStrategy() {
+            @Override
+            public boolean matches(Task task) {
+                return task.getTitle().length() <= 8;
+            }
+
+            @Override
+            public String getFilterName() {
+                return "ShortTitles";
+            }
+        };
+        TaskFilterContext combined = new TaskFilterContext(new OpenTaskFilter().and(shortTitles));
+        TaskFilterContext alone = new TaskFilterContext(shortTitles);
+
+        // Act & Assert
+        assertEquals(List.of("Fix tap"), combined.executeQuery(taskRepository, BY_ID).stream().map(Task::getTitle).toList());
+        assertEquals(List.of("Fix tap", "Walk dog"), alone.executeQuery(taskRepository, BY_ID).stream().map(Task::getTitle).toList());
+    }
+
+    /**
+     * Test that an inverted reward range is rejected.
+     */
+    @Test
+    void testRewardRange_InvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new RewardRangeTaskFilter(50.0, 10.0));
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+}
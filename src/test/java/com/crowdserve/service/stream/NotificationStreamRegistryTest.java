@@ -0,0 +1,218 @@
+package com.crowdserve.service.stream;
+
+import com.crowdserve.model.Notification;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.NotificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the notification stream through the controller and the registry.
+ * Checks that a new notification and the unread count are pushed to an open
+ * stream, that a reconnect replays what was missed, that idle streams get
+ * heartbeats, that clients which stop reading do not hold up the others, and
+ * that anonymous requests get no stream.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class NotificationStreamRegistryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationStreamRegistry registry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // A new name per test: the logged-in user lookup is cached by name
+        String email = "stream-" + UUID.randomUUID() + "@example.com";
+        user = new User();
+        user.setUsername(email);
+        user.setFullName("Stream User");
+        user.setEmail(email);
+        user.setPassword("{noop}password123");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll(notificationRepository.findByUserOrderByCreatedAtDesc(user));
+        userRepository.delete(user);
+    }
+
+    /**
+     * Test that a notification created while the stream is open is pushed with its id and the new count.
+     */
+    @Test
+    void testNewNotification_PushedToOpenStream() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = openStream(null);
+        awaitContent(response, content -> content.contains("event:unread-count\ndata:0"));
+
+        // Act
+        Notification notification = notificationService.createNotification(user, "Task completed", "Your task is done", null);
+
+        // Assert
+        String content = awaitContent(response, text -> text.contains("data:1"));
+        assertTrue(content.contains("id:" + notification.getId() + "\nevent:notification\n"));
+        assertTrue(content.contains("\"title\":\"Task completed\""));
+    }
+
+    /**
+     * Test that a reconnect with Last-Event-ID replays only the notifications created after it.
+     */
+    @Test
+    void testReconnect_ReplaysMissedNotifications() throws Exception {
+        // Arrange
+        Notification seen = notificationService.createNotification(user, "Seen", "already delivered", null);
+        Notification missed = notificationService.createNotification(user, "Missed", "created while away", null);
+
+        // Act
+        MockHttpServletResponse response = openStream(seen.getId());
+
+        // Assert
+        String content = awaitContent(response, text -> text.contains("event:unread-count"));
+        assertTrue(content.contains("id:" + missed.getId() + "\n"));
+        assertFalse(content.contains("id:" + seen.getId() + "\n"), "Notifications the client has are not replayed");
+        assertTrue(content.contains("retry:"), "The stream should set the reconnect delay");
+    }
+
+    /**
+     * Test that a reconnect also replays a notification with a lower id than the client's last one,
+     * as when it committed after a notification with a higher id.
+     */
+    @Test
+    void testReconnect_ReplaysLowerIdCommittedLater() throws Exception {
+        // Arrange: the client got the higher id first, the lower one committing just after it
+        Notification late = notificationService.createNotification(user, "Late", "committed after the next one", null);
+        Notification seen = notificationService.createNotification(user, "Seen", "already delivered", null);
+
+        // Act
+        MockHttpServletResponse response = openStream(seen.getId());
+
+        // Assert
+        String content = awaitContent(response, text -> text.contains("event:unread-count"));
+        assertTrue(content.contains("id:" + late.getId() + "\n"), "A lower id within the overlap is replayed");
+        assertFalse(content.contains("id:" + seen.getId() + "\n"));
+    }
+
+    /**
+     * Test that an idle stream receives heartbeat comments.
+     */
+    @Test
+    void testIdleStream_ReceivesHeartbeat() throws Exception {
+        // Act
+        MockHttpServletResponse response = openStream(null);
+
+        // Assert
+        awaitContent(response, text -> text.contains(":heartbeat"));
+    }
+
+    /**
+     * Test that streams whose writes block, one per sender thread, are closed after the write
+     * timeout and do not stop notifications reaching other streams.
+     */
+    @Test
+    void testStalledClients_DoNotBlockOtherStreams() throws Exception {
+        // Arrange: two clients that stop reading, pinning both sender threads in their first write
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(2);
+        try {
+            for (long stalledUser = -2; stalledUser < 0; stalledUser++) {
+                registry.open(stalledUser, null, new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+
+                    @Override
+                    public synchronized void complete() {
+                        completed.countDown();
+                        super.complete();
+                    }
+                });
+            }
+
+            // Act
+            MockHttpServletResponse response = openStream(null);
+            Notification notification = notificationService.createNotification(user, "Still delivered", "despite stalled clients", null);
+
+            // Assert
+            awaitContent(response, content -> content.contains("id:" + notification.getId() + "\n"));
+            release.countDown();
+            assertTrue(completed.await(5, TimeUnit.SECONDS), "Stalled streams should be completed once their writes return");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * Test that the stream is not opened without a login.
+     */
+    @Test
+    void testStream_RequiresLogin() throws Exception {
+        mockMvc.perform(get("/notifications/stream"))
+            .andExpect(status().is3xxRedirection());
+    }
+
+    private MockHttpServletResponse openStream(Long lastEventId) throws Exception {
+        MockHttpServletRequestBuilder request = get("/notifications/stream").with(user(user.getEmail()));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        MvcResult result = mockMvc.perform(request)
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return result.getResponse();
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            String content = response.getContentAsString();
+            if (condition.test(content)) {
+                return content;
+            }
+            Thread.sleep(20);
+        }
+        fail("Stream never matched, got: " + response.getContentAsString());
+        return null;
+    }
+}
@@ -0,0 +1,141 @@
+package com.crowdserve.service.stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NotificationStream.
+ * Checks that events offered before the replay are written after it without
+ * duplicates, that a connection which falls behind is closed instead of
+ * buffering without bound, and that one whose write stalls is closed without
+ * waiting for the write.
+ */
+class NotificationStreamTest {
+
+    private final List<String> sent = new ArrayList<>();
+
+    /**
+     * Test that live events held during the replay follow it, skipping notifications already replayed.
+     */
+    @Test
+    void testStart_WritesHeldEventsAfterReplayWithoutDuplicates() {
+        // Arrange: write synchronously so the order can be checked
+        NotificationStream stream = new NotificationStream(1L, recordingEmitter(), 10, Runnable::run, closed -> { });
+        stream.offer(event(5L, "live-5"));
+        stream.offer(event(7L, "live-7"));
+        stream.offer(event(null, "count"));
+
+        // Act
+        stream.start(List.of(event(4L, "replay-4"), event(5L, "replay-5")));
+
+        // Assert
+        assertEquals(List.of("replay-4", "replay-5", "live-7", "count"), sent);
+        stream.offer(event(8L, "live-8"));
+        assertEquals("live-8", sent.get(sent.size() - 1), "Once started, events are written as they come");
+    }
+
+    /**
+     * Test that a stream whose buffer overflows is closed and removed, and ignores later events.
+     */
+    @Test
+    void testOffer_ClosesStreamOnOverflow() {
+        // Arrange: a sender that never runs, as if the client had stopped reading
+        AtomicInteger closedCount = new AtomicInteger();
+        NotificationStream stream = new NotificationStream(1L, recordingEmitter(), 3, runnable -> { },
+            closed -> closedCount.incrementAndGet());
+        stream.start(List.of());
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            stream.offer(event((long) i, "event-" + i));
+        }
+        stream.offer(event(9L, "late"));
+        stream.close();
+
+        // Assert
+        assertTrue(stream.isClosed());
+        assertEquals(1, closedCount.get(), "The registry should be told once");
+        assertTrue(sent.isEmpty());
+    }
+
+    /**
+     * Test that a stream stuck in a write is closed at once, and its emitter completed once the write returns.
+     */
+    @Test
+    void testCloseIfStalled_ClosesWithoutWaitingForWrite() throws Exception {
+        // Arrange: an emitter whose write blocks until released, as if the client's socket buffer were full
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+        SseEmitter blocking = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public synchronized void complete() {
+                completed.incrementAndGet();
+                super.complete();
+            }
+        };
+        ExecutorService sender = Executors.newSingleThreadExecutor();
+        AtomicInteger closedCount = new AtomicInteger();
+        AtomicInteger afterWrite = new AtomicInteger();
+        try {
+            NotificationStream stream = new NotificationStream(1L, blocking, 10, sender, closed -> closedCount.incrementAndGet());
+            stream.start(List.of(event(1L, "stuck")));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            // Act & Assert: not stalled yet under a long deadline, stalled under a short one
+            assertFalse(stream.closeIfStalled(TimeUnit.MINUTES.toNanos(1)));
+            assertTrue(stream.closeIfStalled(0));
+            stream.afterWrite(afterWrite::incrementAndGet);
+            assertTrue(stream.isClosed());
+            assertEquals(1, closedCount.get());
+            assertEquals(0, completed.get(), "Completing must wait for the blocked write");
+            assertEquals(0, afterWrite.get());
+
+            release.countDown();
+            sender.shutdown();
+            assertTrue(sender.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(1, completed.get(), "The writing thread completes the emitter once the write returns");
+            assertEquals(1, afterWrite.get());
+        } finally {
+            release.countDown();
+            sender.shutdownNow();
+        }
+    }
+
+    private SseEmitter recordingEmitter() {
+        return new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                sent.add(builder.build().stream()
+                    .map(data -> String.valueOf(data.getData()))
+                    .filter(line -> line.startsWith(":"))
+                    .findFirst().orElseThrow().substring(1).trim());
+            }
+        };
+    }
+
+    private static NotificationStream.Event event(Long notificationId, String label) {
+        return new NotificationStream.Event(notificationId, SseEmitter.event().comment(label));
+    }
+}
@@ -0,0 +1,181 @@
+package com.crowdserve.service.stream;
+
+import com.crowdserve.config.UnreadCountProperties;
+import com.crowdserve.model.Notification;
+import com.crowdserve.model.User;
+import com.crowdserve.repository.NotificationRepository;
+import com.crowdserve.repository.UserRepository;
+import com.crowdserve.service.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for UnreadCounters.
+ * Checks that a loaded count follows new and read notifications without asking
+ * the database, that reconciliation corrects a count that missed a change, that
+ * the tables keep every user as they grow, and that counts nobody reads are
+ * dropped and no longer checked.
+ */
+@SpringBootTest
+class UnreadCountersTest {
+
+    @Autowired
+    private UnreadCounters unreadCounters;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String email = "unread-" + UUID.randomUUID() + "@example.com";
+        user = new User();
+        user.setUsername(email);
+        user.setFullName("Unread User");
+        user.setEmail(email);
+        user.setPassword("{noop}password123");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll(notificationRepository.findByUserOrderByCreatedAtDesc(user));
+        userRepository.delete(user);
+    }
+
+    /**
+     * Test that the count goes up with new notifications and down as they are read.
+     */
+    @Test
+    void testCount_FollowsCreateAndRead() {
+        // Arrange
+        assertEquals(0, unreadCounters.get(user.getId()));
+
+        // Act
+        Notification first = notificationService.createNotification(user, "First", "Unread", null);
+        notificationService.createNotification(user, "Second", "Unread", null);
+        long afterCreate = notificationService.getUnreadCount(user);
+        notificationService.markAsRead(first.getId());
+        notificationService.markAsRead(first.getId());
+
+        // Assert
+        assertEquals(2, afterCreate);
+        assertEquals(1, notificationService.getUnreadCount(user), "Reading a notification twice counts once");
+        assertEquals(1, notificationRepository.countByUser_IdAndIsReadFalse(user.getId()));
+    }
+
+    /**
+     * Test that reconciliation corrects a count that missed a change made behind its back.
+     */
+    @Test
+    void testReconcile_CorrectsDrift() {
+        // Arrange: a notification saved directly, without an event
+        assertEquals(0, unreadCounters.get(user.getId()));
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setTitle("Unannounced");
+        notification.setMessage("Saved without an event");
+        notification.setCreatedAt(LocalDateTime.now());
+        notificationRepository.save(notification);
+        assertEquals(0, unreadCounters.get(user.getId()));
+
+        // Act
+        int corrected = unreadCounters.reconcile();
+
+        // Assert
+        assertTrue(corrected >= 1);
+        assertEquals(1, unreadCounters.get(user.getId()));
+    }
+
+    /**
+     * Test that a single table keeps every count as it grows, and applies deltas to the right user.
+     */
+    @Test
+    void testManyUsers_KeptAcrossGrowth() {
+        // Arrange: one stripe, so all users share a table that has to grow several times
+        UnreadCounters counters = new UnreadCounters(notificationRepository,
+            new UnreadCountProperties(Duration.ofHours(1), Duration.ofHours(1), 1), new SimpleMeterRegistry(), taskScheduler);
+        try {
+            long base = 1_000_000_000L;
+            for (long id = base; id < base + 200; id++) {
+                counters.get(id);
+            }
+
+            // Act
+            for (long id = base; id < base + 200; id += 2) {
+                counters.onUnreadCountChanged(new UnreadCountChangedEvent(id, id - base));
+            }
+
+            // Assert
+            assertEquals(200, counters.size());
+            for (long id = base; id < base + 200; id++) {
+                assertEquals(id % 2 == 0 ? id - base : 0, counters.get(id), "Count of user " + id);
+            }
+        } finally {
+            counters.shutdown();
+        }
+    }
+
+    /**
+     * Test that reconciliation only checks counts read since the last round, and idle counts are dropped.
+     */
+    @Test
+    void testIdleCounts_SkippedAndEvicted() throws InterruptedException {
+        // Arrange: counts kept for 50 ms after they were last read
+        UnreadCounters counters = new UnreadCounters(notificationRepository,
+            new UnreadCountProperties(Duration.ofHours(1), Duration.ofMillis(50), 1), new SimpleMeterRegistry(), taskScheduler);
+        try {
+            long base = 2_000_000_000L;
+            for (long id = base; id < base + 100; id++) {
+                counters.get(id);
+            }
+            counters.get(user.getId());
+            counters.reconcile();
+            Notification notification = new Notification();
+            notification.setUser(user);
+            notification.setTitle("Unannounced");
+            notification.setMessage("Saved without an event");
+            notification.setCreatedAt(LocalDateTime.now());
+            notificationRepository.save(notification);
+
+            // Act
+            int corrected = counters.reconcile();
+            Thread.sleep(100);
+            counters.get(base);
+            int evicted = counters.evictIdle();
+
+            // Assert
+            assertEquals(0, corrected, "A count nobody read since the last round is not checked");
+            assertEquals(100, evicted);
+            assertEquals(1, counters.size());
+            assertEquals(1, counters.get(user.getId()), "A dropped count is loaded again when needed");
+        } finally {
+            counters.shutdown();
+        }
+    }
+}